@@ -0,0 +1,72 @@
+package denominator.clouddns;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import denominator.clouddns.RackspaceAdapters.RecordListAdapter;
+import denominator.clouddns.RackspaceApis.CloudDNS;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.gson.GsonDecoder;
+
+/**
+ * Decodes a page of records with {@link RecordListAdapter}. Results are per record, so with the gc
+ * profiler, {@code gc.alloc.rate.norm} is bytes per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloudDNSDecoderBenchmarks {
+
+  static final int RECORDS = 5000;
+
+  Decoder decoder = new GsonDecoder(Arrays.asList(new RecordListAdapter()));
+  Map<String, Collection<String>> noHeaders = Collections.emptyMap();
+  Type type;
+  byte[] records;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    type = CloudDNS.class.getMethod("records", int.class).getGenericReturnType();
+    StringBuilder json = new StringBuilder().append("{\"records\":[");
+    for (int i = 0; i < RECORDS; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"name\":\"www").append(i).append(".denominator.io\",\"id\":\"A-")
+          .append(9872761 + i).append("\",\"type\":\"A\",\"data\":\"192.0.2.").append(i % 256)
+          .append("\",\"ttl\":600000,\"updated\":\"2013-04-13T14:42:00.000+0000\",")
+          .append("\"created\":\"2013-04-13T14:42:00.000+0000\"}");
+    }
+    json.append("],\"totalEntries\":").append(RECORDS * 2).append(",\"links\":[{\"href\":")
+        .append("\"https://dns.api.rackspacecloud.com/v1.0/123123/domains/1234/records?limit=")
+        .append(RECORDS).append("&offset=").append(RECORDS).append("\",\"rel\":\"next\"}]}");
+    records = json.toString().getBytes();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public Object records() throws IOException {
+    return decoder.decode(Response.create(200, "OK", noHeaders, records), type);
+  }
+}
@@ -0,0 +1,80 @@
+package denominator.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import denominator.ResourceTypeToValue;
+
+/**
+ * String and rdata conversions done once per record when listing or diffing zones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilBenchmarks {
+
+  String srv = "0 1 80 www.denominator.io.";
+  String soa = "ns1.denominator.io. admin.denominator.io. 1 3600 1800 604800 86400";
+  Object[] srvParts = {0, 1, 80, "www.denominator.io."};
+  Map<String, Object> aRData = Util.toMap("A", "192.0.2.1");
+  Map<String, Object> soaRData = Util.toMap("SOA", soa);
+
+  @Benchmark
+  public List<String> split() {
+    return Util.split(' ', soa);
+  }
+
+  @Benchmark
+  public String join() {
+    return Util.join(' ', srvParts);
+  }
+
+  @Benchmark
+  public String flattenA() {
+    return Util.flatten(aRData);
+  }
+
+  @Benchmark
+  public String flattenSOA() {
+    return Util.flatten(soaRData);
+  }
+
+  @Benchmark
+  public Map<String, Object> toMapA() {
+    return Util.toMap("A", "192.0.2.1");
+  }
+
+  @Benchmark
+  public Map<String, Object> toMapSRV() {
+    return Util.toMap("SRV", srv);
+  }
+
+  @Benchmark
+  public Map<String, Object> toMapSOA() {
+    return Util.toMap("SOA", soa);
+  }
+
+  @Benchmark
+  public Integer lookupType() {
+    return ResourceTypeToValue.lookup("AAAA");
+  }
+
+  @Benchmark
+  public String lookupValue() {
+    return ResourceTypeToValue.lookup(28);
+  }
+}
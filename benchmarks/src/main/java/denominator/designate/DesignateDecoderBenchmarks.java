@@ -0,0 +1,69 @@
+package denominator.designate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import denominator.designate.DesignateAdapters.RecordListAdapter;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.gson.GsonDecoder;
+
+/**
+ * Decodes a domain's records with {@link RecordListAdapter}. Results are per record, so with the gc
+ * profiler, {@code gc.alloc.rate.norm} is bytes per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DesignateDecoderBenchmarks {
+
+  static final int RECORDS = 5000;
+
+  Decoder decoder = new GsonDecoder(Arrays.asList(new RecordListAdapter()));
+  Map<String, Collection<String>> noHeaders = Collections.emptyMap();
+  Type type;
+  byte[] records;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    type = Designate.class.getMethod("records", String.class).getGenericReturnType();
+    StringBuilder json = new StringBuilder().append("{\"records\":[");
+    for (int i = 0; i < RECORDS; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"name\":\"www").append(i).append(".denominator.io.\",\"data\":\"192.0.2.")
+          .append(i % 256).append("\",\"created_at\":\"2013-07-07T18:09:47.000000\",")
+          .append("\"updated_at\":null,\"id\":\"c538d70e-d65f-4d5a-92a2-")
+          .append(String.format("%012d", i)).append("\",\"priority\":null,\"ttl\":300,")
+          .append("\"type\":\"A\",\"domain_id\":\"62ac2ec1-bd7c-4ad0-8dc6-8f9fb8d5e9e1\"}");
+    }
+    records = json.append("]}").toString().getBytes();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public Object records() throws IOException {
+    return decoder.decode(Response.create(200, "OK", noHeaders, records), type);
+  }
+}
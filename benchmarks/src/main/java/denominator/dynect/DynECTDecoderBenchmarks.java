@@ -0,0 +1,94 @@
+package denominator.dynect;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.TypeAdapter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import denominator.dynect.DynECT.Data;
+import denominator.model.ResourceRecordSet;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.gson.GsonDecoder;
+
+/**
+ * Decodes an {@code AllRecord} response with {@link ResourceRecordSetsAdapter}, in both the array
+ * and the map per type forms. As record sets are decoded lazily, each is consumed. Results are per
+ * record, so with the gc profiler, {@code gc.alloc.rate.norm} is bytes per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynECTDecoderBenchmarks {
+
+  static final int RECORDS = 5000;
+
+  Decoder decoder =
+      new GsonDecoder(Arrays.<TypeAdapter<?>>asList(new ResourceRecordSetsAdapter()));
+  Map<String, Collection<String>> noHeaders = Collections.emptyMap();
+  Type type;
+  byte[] allRecordArray;
+  byte[] allRecordMap;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    type = DynECT.class.getMethod("rrsets", String.class).getGenericReturnType();
+    StringBuilder records = new StringBuilder();
+    for (int i = 0; i < RECORDS; i++) {
+      if (i > 0) {
+        records.append(',');
+      }
+      records.append("{\"zone\": \"denominator.io\", \"ttl\": 3600, \"fqdn\": \"www").append(i)
+          .append(".denominator.io\", \"record_type\": \"A\", \"rdata\": {\"address\": \"192.0.2.")
+          .append(i % 256).append("\"}, \"record_id\": ").append(i).append('}');
+    }
+    allRecordArray = ("{\"status\": \"success\", \"data\": [" + records + "], \"job_id\": 1, "
+                      + "\"msgs\": []}").getBytes();
+    allRecordMap = ("{\"status\": \"success\", \"data\": {\"cname_records\": [], \"a_records\": ["
+                    + records + "]}, \"job_id\": 1, \"msgs\": []}").getBytes();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public int allRecordArray() throws IOException {
+    return consume(allRecordArray);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public int allRecordMap() throws IOException {
+    return consume(allRecordMap);
+  }
+
+  int consume(byte[] json) throws IOException {
+    @SuppressWarnings("unchecked")
+    Data<Iterator<ResourceRecordSet<?>>> data = (Data<Iterator<ResourceRecordSet<?>>>)
+        decoder.decode(Response.create(200, "OK", noHeaders, json), type);
+    int count = 0;
+    for (Iterator<ResourceRecordSet<?>> i = data.data; i.hasNext(); i.next()) {
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,137 @@
+package denominator.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import denominator.common.Filter;
+import denominator.model.rdata.AData;
+import denominator.model.rdata.MXData;
+
+import static denominator.model.ResourceRecordSets.nameAndTypeEqualTo;
+import static denominator.model.ResourceRecordSets.nameEqualTo;
+import static denominator.model.ResourceRecordSets.nameTypeAndQualifierEqualTo;
+
+/**
+ * Building, comparing and filtering record sets, as done per record set when diffing big zones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceRecordSetBenchmarks {
+
+  AData a1 = AData.create("192.0.2.1");
+  AData a2 = AData.create("192.0.2.2");
+  AData a1Copy = AData.create("192.0.2.1");
+  MXData mx = MXData.create(10, "mail.denominator.io.");
+  MXData mxCopy = MXData.create(10, "mail.denominator.io.");
+  ResourceRecordSet<AData> rrset;
+  ResourceRecordSet<AData> rrsetCopy;
+  ResourceRecordSet<AData> rrsetOtherRecords;
+  Filter<ResourceRecordSet<?>> nameEqualTo = nameEqualTo("www.denominator.io.");
+  Filter<ResourceRecordSet<?>> nameAndTypeEqualTo = nameAndTypeEqualTo("www.denominator.io.", "A");
+  Filter<ResourceRecordSet<?>> nameTypeAndQualifierEqualTo =
+      nameTypeAndQualifierEqualTo("www.denominator.io.", "A", "US-East");
+  List<ResourceRecordSet<?>> zone = new ArrayList<ResourceRecordSet<?>>();
+
+  @Setup
+  public void setup() {
+    rrset = buildA();
+    rrsetCopy = buildA();
+    rrsetOtherRecords = ResourceRecordSet.<AData>builder()
+        .name("www.denominator.io.").type("A").ttl(3600).add(a1).add(a1Copy).build();
+    for (int i = 0; i < 1000; i++) {
+      zone.add(ResourceRecordSet.<AData>builder()
+                   .name("www" + i + ".denominator.io.").type("A").qualifier("US-East")
+                   .add(AData.create("192.0.2." + (i % 256))).build());
+    }
+    zone.set(500, rrset);
+  }
+
+  @Benchmark
+  public ResourceRecordSet<AData> buildA() {
+    return ResourceRecordSet.<AData>builder()
+        .name("www.denominator.io.")
+        .type("A")
+        .ttl(3600)
+        .add(a1)
+        .add(a2).build();
+  }
+
+  @Benchmark
+  public boolean equalsRecordSet() {
+    return rrset.equals(rrsetCopy);
+  }
+
+  @Benchmark
+  public boolean equalsRecordSetDifferentRecords() {
+    return rrset.equals(rrsetOtherRecords);
+  }
+
+  @Benchmark
+  public int hashCodeRecordSet() {
+    return rrset.hashCode();
+  }
+
+  @Benchmark
+  public boolean equalsAData() {
+    return a1.equals(a1Copy);
+  }
+
+  @Benchmark
+  public int hashCodeAData() {
+    return a1.hashCode();
+  }
+
+  @Benchmark
+  public boolean equalsMXData() {
+    return mx.equals(mxCopy);
+  }
+
+  @Benchmark
+  public int hashCodeMXData() {
+    return mx.hashCode();
+  }
+
+  /**
+   * Scans 1000 record sets, as a client-side filter of a zone listing does.
+   */
+  @Benchmark
+  public int filterNameEqualTo() {
+    return count(nameEqualTo);
+  }
+
+  @Benchmark
+  public int filterNameAndTypeEqualTo() {
+    return count(nameAndTypeEqualTo);
+  }
+
+  @Benchmark
+  public int filterNameTypeAndQualifierEqualTo() {
+    return count(nameTypeAndQualifierEqualTo);
+  }
+
+  int count(Filter<ResourceRecordSet<?>> filter) {
+    int count = 0;
+    for (ResourceRecordSet<?> in : zone) {
+      if (filter.apply(in)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
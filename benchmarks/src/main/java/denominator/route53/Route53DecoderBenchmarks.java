@@ -0,0 +1,66 @@
+package denominator.route53;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import feign.Response;
+import feign.codec.Decoder;
+
+/**
+ * Decodes a {@code ListResourceRecordSets} response with {@link
+ * ListResourceRecordSetsResponseHandler}. Results are per record, so with the gc profiler, {@code
+ * gc.alloc.rate.norm} is bytes per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Route53DecoderBenchmarks {
+
+  static final int RECORDS = 5000;
+
+  Decoder decoder = Route53Provider.FeignModule.decoder();
+  Map<String, Collection<String>> noHeaders = Collections.emptyMap();
+  Type type;
+  byte[] listResourceRecordSets;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    type = Route53.class.getMethod("listResourceRecordSets", String.class).getGenericReturnType();
+    StringBuilder xml = new StringBuilder()
+        .append("<ListResourceRecordSetsResponse><ResourceRecordSets>");
+    for (int i = 0; i < RECORDS; i++) {
+      xml.append("<ResourceRecordSet><Name>www").append(i).append(".denominator.io.</Name>")
+          .append("<Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.")
+          .append(i % 256).append("</Value></ResourceRecord></ResourceRecords>")
+          .append("</ResourceRecordSet>");
+    }
+    xml.append("</ResourceRecordSets><IsTruncated>false</IsTruncated><MaxItems>")
+        .append(RECORDS).append("</MaxItems></ListResourceRecordSetsResponse>");
+    listResourceRecordSets = xml.toString().getBytes();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public Object listResourceRecordSets() throws IOException {
+    return decoder.decode(Response.create(200, "OK", noHeaders, listResourceRecordSets), type);
+  }
+}
@@ -0,0 +1,73 @@
+package denominator.ultradns;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import feign.Response;
+import feign.codec.Decoder;
+
+/**
+ * Decodes a {@code getResourceRecordsOfZone} response with {@link
+ * UltraDNSContentHandlers.RecordListHandler}. Results are per record, so with the gc profiler,
+ * {@code gc.alloc.rate.norm} is bytes per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UltraDNSDecoderBenchmarks {
+
+  static final int RECORDS = 5000;
+
+  Decoder decoder = UltraDNSProvider.FeignModule.decoder();
+  Map<String, Collection<String>> noHeaders = Collections.emptyMap();
+  Type type;
+  byte[] getResourceRecordsOfZone;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    type = UltraDNS.class.getMethod("getResourceRecordsOfZone", String.class)
+        .getGenericReturnType();
+    StringBuilder xml = new StringBuilder()
+        .append("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">")
+        .append("<soap:Body><ns1:getResourceRecordsOfZoneResponse ")
+        .append("xmlns:ns1=\"http://webservice.api.ultra.neustar.com/v01/\">")
+        .append("<ResourceRecordList xmlns:ns2=\"http://schema.ultraservice.neustar.com/v01/\">");
+    for (int i = 0; i < RECORDS; i++) {
+      xml.append("<ns2:ResourceRecord ZoneName=\"denominator.io.\" Type=\"1\" DName=\"www")
+          .append(i).append(".denominator.io.\" TTL=\"3600\" Guid=\"04023A2507B6")
+          .append(Integer.toHexString(0x1000 + i)).append("\" ZoneId=\"0000000000000001\" ")
+          .append("LName=\"www").append(i).append(".denominator.io.\" ")
+          .append("Created=\"2010-10-02T16:57:16.000Z\" Modified=\"2011-09-27T23:49:21.000Z\">")
+          .append("<ns2:InfoValues Info1Value=\"192.0.2.").append(i % 256).append("\"/>")
+          .append("</ns2:ResourceRecord>");
+    }
+    xml.append("</ResourceRecordList></ns1:getResourceRecordsOfZoneResponse></soap:Body>")
+        .append("</soap:Envelope>");
+    getResourceRecordsOfZone = xml.toString().getBytes();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public Object getResourceRecordsOfZone() throws IOException {
+    return decoder.decode(Response.create(200, "OK", noHeaders, getResourceRecordsOfZone), type);
+  }
+}
@@ -21,11 +21,13 @@ final class CloudDNSFunctions {
 
   /**
    * Returns the ID of the object created or null.
+   *
+   * @param retryer polls the job status. A fresh {@link Retryer#clone() clone} is used per job.
    */
-  static String awaitComplete(CloudDNS api, Job job) {
+  static String awaitComplete(CloudDNS api, Retryer retryer, Job job) {
     RetryableException retryableException = new RetryableException(
         format("Job %s did not complete. Check your logs.", job.id), null);
-    Retryer retryer = new Retryer.Default(500, 1000, 30);
+    retryer = retryer.clone();
 
     while (true) {
       job = api.getStatus(job.id);
@@ -7,12 +7,15 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import dagger.Provides;
 import denominator.BasicProvider;
 import denominator.CheckConnection;
 import denominator.DNSApiManager;
+import denominator.Instrumentation;
+import denominator.Provider;
 import denominator.ResourceRecordSetApi;
 import denominator.ZoneApi;
 import denominator.clouddns.RackspaceAdapters.DomainListAdapter;
@@ -24,9 +27,15 @@ import denominator.config.GeoUnsupported;
 import denominator.config.NothingToClose;
 import denominator.config.OnlyBasicResourceRecordSets;
 import denominator.config.WeightedUnsupported;
+import denominator.feign.ClientModule;
+import denominator.feign.RequestLimiter;
+import denominator.feign.RetryPolicy;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
+import feign.Retryer;
 import feign.Target.EmptyTarget;
+import feign.codec.ErrorDecoder;
 import feign.gson.GsonDecoder;
 import feign.gson.GsonEncoder;
 
@@ -104,10 +113,22 @@ public class CloudDNSProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = CloudDNSResourceRecordSetApi.Factory.class,
+      includes = ClientModule.class,
       complete = false // doesn't bind Provider used by CloudDNSTarget
   )
   public static final class FeignModule {
 
+    /**
+     * Count of pages requested on the {@link denominator.SharedExecutor} ahead of the consumer,
+     * when listing zones or records. When 0, each page is requested by the consumer once the prior
+     * is used up.
+     */
+    @Provides
+    @Named("pagePrefetchDepth")
+    int providePagePrefetchDepth() {
+      return 1;
+    }
+
     @Provides
     @Singleton
     CloudDNS cloudDNS(Feign feign, CloudDNSTarget target) {
@@ -120,6 +141,16 @@ public class CloudDNSProvider extends BasicProvider {
       return feign.newInstance(EmptyTarget.create(CloudIdentity.class, "cloudidentity"));
     }
 
+    /**
+     * Polls the status of record and domain jobs until they complete.
+     */
+    @Provides
+    @Named("awaitComplete")
+    Retryer awaitCompleteRetryer(Provider provider, Instrumentation instrumentation,
+                                 RetryPolicy policy) {
+      return policy.retryer(provider.name(), RetryPolicy.AWAIT_COMPLETE, instrumentation);
+    }
+
     @Provides
     Logger logger() {
       return new Logger.NoOpLogger();
@@ -132,8 +163,11 @@ public class CloudDNSProvider extends BasicProvider {
 
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel) {
+    Feign feign(Logger logger, Logger.Level logLevel, Client client, Retryer retryer,
+                RequestLimiter limiter) {
       return Feign.builder()
+          .client(client)
+          .retryer(retryer)
           .logger(logger)
           .logLevel(logLevel)
           .encoder(new GsonEncoder())
@@ -143,6 +177,7 @@ public class CloudDNSProvider extends BasicProvider {
                        new DomainListAdapter(),
                        new RecordListAdapter()))
           )
+          .errorDecoder(limiter.errorDecoder(new ErrorDecoder.Default()))
           .build();
     }
   }
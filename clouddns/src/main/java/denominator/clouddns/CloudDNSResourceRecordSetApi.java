@@ -1,74 +1,120 @@
 package denominator.clouddns;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
+import denominator.Instrumentation;
+import denominator.Provider;
 import denominator.ResourceRecordSetApi;
+import denominator.SharedExecutor;
 import denominator.clouddns.RackspaceApis.CloudDNS;
 import denominator.clouddns.RackspaceApis.ListWithNext;
 import denominator.clouddns.RackspaceApis.Pager;
 import denominator.clouddns.RackspaceApis.Record;
+import denominator.common.PrefetchingIterator;
 import denominator.common.Util;
 import denominator.model.ResourceRecordSet;
+import feign.Retryer;
 
-import static denominator.clouddns.CloudDNSFunctions.awaitComplete;
 import static denominator.clouddns.CloudDNSFunctions.toRDataMap;
 import static denominator.clouddns.RackspaceApis.emptyOn404;
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
-import static denominator.common.Util.filter;
 import static denominator.common.Util.join;
 import static denominator.common.Util.nextOrNull;
-import static denominator.model.ResourceRecordSets.nameEqualTo;
 
 class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
 
   private static final int DEFAULT_TTL = 300;
+  /**
+   * Records sent in one {@code createRecords} request, which is the most Cloud DNS accepts.
+   */
+  static final int MAX_RECORDS_PER_CREATE = 100;
+  private static final Gson JSON = new GsonBuilder().disableHtmlEscaping().create();
   private final CloudDNS api;
   private final int domainId;
-
-  CloudDNSResourceRecordSetApi(CloudDNS api, int domainId) {
+  private final Executor executor;
+  private final int prefetchDepth;
+  private final Retryer retryer;
+  private final Instrumentation instrumentation;
+  private final String provider;
+
+  CloudDNSResourceRecordSetApi(CloudDNS api, int domainId, Executor executor, int prefetchDepth,
+                               Retryer retryer, Instrumentation instrumentation, String provider) {
     this.api = api;
     this.domainId = domainId;
+    this.executor = executor;
+    this.prefetchDepth = prefetchDepth;
+    this.retryer = retryer;
+    this.instrumentation = instrumentation;
+    this.provider = provider;
   }
 
   @Override
   public Iterator<ResourceRecordSet<?>> iterator() {
-    Pager<Record> recordPager = new Pager<Record>() {
-      public ListWithNext<Record> apply(URI nullOrNext) {
-        return nullOrNext == null ? api.records(domainId) : api.records(nullOrNext);
-      }
-    };
-    return new GroupByRecordNameAndTypeIterator(lazyIterateRecords(recordPager));
+    return new GroupByRecordNameAndTypeIterator(recordsMatching(null, null));
   }
 
   @Override
   public Iterator<ResourceRecordSet<?>> iterateByName(String name) {
     checkNotNull(name, "name was null");
-    return filter(iterator(), nameEqualTo(name));
+    return new GroupByRecordNameAndTypeIterator(recordsMatching(name, null));
   }
 
   @Override
-  public ResourceRecordSet<?> getByNameAndType(final String name, final String type) {
+  public ResourceRecordSet<?> getByNameAndType(String name, String type) {
     checkNotNull(name, "name was null");
     checkNotNull(type, "type was null");
+    return nextOrNull(new GroupByRecordNameAndTypeIterator(recordsMatching(name, type)));
+  }
+
+  /**
+   * Lazily pages through records, pushing down whichever filters are set to the server.
+   *
+   * @param name null, or the name records must have.
+   * @param type null, or the type records must have. Only applied when the name is also set.
+   */
+  Iterator<Record> recordsMatching(final String name, final String type) {
+    checkArgument(type == null || name != null, "type filter %s requires a name filter", type);
     Pager<Record> recordPager = new Pager<Record>() {
       public ListWithNext<Record> apply(URI nullOrNext) {
-        return nullOrNext == null ? api.recordsByNameAndType(domainId, name, type)
-                                  : api.records(nullOrNext);
+        if (nullOrNext != null) {
+          return api.records(nullOrNext);
+        } else if (name == null) {
+          return api.records(domainId);
+        } else if (type == null) {
+          return api.recordsByName(domainId, name);
+        }
+        return api.recordsByNameAndType(domainId, name, type);
       }
     };
-    return nextOrNull(new GroupByRecordNameAndTypeIterator(lazyIterateRecords(recordPager)));
+    return lazyIterateRecords(recordPager);
   }
 
   @Override
   public void put(ResourceRecordSet<?> rrset) {
+    putAll(Collections.<ResourceRecordSet<?>>singleton(rrset));
+  }
+
+  /**
+   * Submits the deletes, updates and a single create needed to make the record set match, without
+   * waiting for them to complete. When records were deleted, the create is added to {@code
+   * afterDeletes} instead, as a single-valued type, such as {@code CNAME}, can't have its new
+   * record added until the old one is gone.
+   */
+  private void submitPut(JobTracker jobs, ResourceRecordSet<?> rrset, List<Record> afterDeletes) {
     checkNotNull(rrset, "rrset was null");
     checkArgument(!rrset.records().isEmpty(), "rrset was empty %s", rrset);
 
@@ -76,6 +122,7 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
         recordsLeftToCreate =
         new ArrayList<Map<String, Object>>(rrset.records());
 
+    boolean deleted = false;
     for (Record record : api.recordsByNameAndType(domainId, rrset.name(), rrset.type())) {
       Map<String, Object> rdata = toRDataMap(record);
 
@@ -87,27 +134,44 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
             continue;
           }
 
-          awaitComplete(api, api.updateRecord(domainId, record.id, rrset.ttl(), record.data()));
+          jobs.submit("updateRecord",
+                      api.updateRecord(domainId, record.id, rrset.ttl(), record.data()));
         }
       } else {
-        awaitComplete(api, api.deleteRecord(domainId, record.id));
+        jobs.submit("deleteRecord", api.deleteRecord(domainId, record.id));
+        deleted = true;
       }
     }
 
+    if (recordsLeftToCreate.isEmpty()) {
+      return;
+    }
+
     int ttlToApply = rrset.ttl() != null ? rrset.ttl() : DEFAULT_TTL;
 
+    List<Record> toCreate = new ArrayList<Record>(recordsLeftToCreate.size());
     for (Map<String, Object> rdata : recordsLeftToCreate) {
       Map<String, Object> mutableRData = new LinkedHashMap<String, Object>(rdata);
-      Integer priority = getPriority(mutableRData);
-      String data = join(' ', mutableRData.values().toArray());
+      Record record = new Record();
+      record.name = rrset.name();
+      record.type = rrset.type();
+      record.ttl = ttlToApply;
+      record.priority = getPriority(mutableRData);
+      record.data(join(' ', mutableRData.values().toArray()));
+      toCreate.add(record);
+    }
+    if (deleted) {
+      afterDeletes.addAll(toCreate);
+    } else {
+      submitCreates(jobs, toCreate);
+    }
+  }
 
-      if (priority == null) {
-        awaitComplete(api,
-                      api.createRecord(domainId, rrset.name(), rrset.type(), ttlToApply, data));
-      } else {
-        awaitComplete(api, api.createRecordWithPriority(
-            domainId, rrset.name(), rrset.type(), ttlToApply, data, priority));
-      }
+  private void submitCreates(JobTracker jobs, List<Record> records) {
+    for (int i = 0; i < records.size(); i += MAX_RECORDS_PER_CREATE) {
+      int end = Math.min(i + MAX_RECORDS_PER_CREATE, records.size());
+      List<Record> chunk = records.subList(i, end);
+      jobs.submit("createRecords", api.createRecords(domainId, JSON.toJson(chunk)));
     }
   }
 
@@ -133,40 +197,63 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
     checkNotNull(name, "name");
     checkNotNull(type, "type");
 
+    JobTracker jobs = newJobTracker();
+    submitDelete(jobs, name, type);
+    jobs.awaitAll();
+  }
+
+  private void submitDelete(JobTracker jobs, String name, String type) {
     for (Record record : api.recordsByNameAndType(domainId, name, type)) {
-      awaitComplete(api, api.deleteRecord(domainId, record.id));
+      jobs.submit("deleteRecord", api.deleteRecord(domainId, record.id));
     }
   }
 
-  Iterator<Record> lazyIterateRecords(final Pager<Record> recordPager) {
-    final ListWithNext<Record> first = emptyOn404(recordPager, null);
+  /**
+   * Submits the changes of all record sets before waiting on any of them. Records replacing deleted
+   * ones are created together, up to {@link #MAX_RECORDS_PER_CREATE} per job, once all deletes
+   * complete.
+   */
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    JobTracker jobs = newJobTracker();
+    List<Record> afterDeletes = new ArrayList<Record>();
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      submitPut(jobs, rrset, afterDeletes);
+    }
+    if (!afterDeletes.isEmpty()) {
+      jobs.awaitAll();
+      submitCreates(jobs, afterDeletes);
+    }
+    jobs.awaitAll();
+  }
 
-    if (first.next == null) {
-      return first.iterator();
+  /**
+   * Submits the deletes of all record sets before waiting on any of them.
+   */
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    JobTracker jobs = newJobTracker();
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      submitDelete(jobs, rrset.name(), rrset.type());
     }
+    jobs.awaitAll();
+  }
 
-    return new Iterator<Record>() {
-      Iterator<Record> current = first.iterator();
-      URI next = first.next;
+  private JobTracker newJobTracker() {
+    return new JobTracker(api, retryer, instrumentation, provider);
+  }
 
-      @Override
-      public boolean hasNext() {
-        while (!current.hasNext() && next != null) {
-          ListWithNext<Record> nextPage = emptyOn404(recordPager, next);
-          current = nextPage.iterator();
-          next = nextPage.next;
-        }
-        return current.hasNext();
-      }
+  Iterator<Record> lazyIterateRecords(final Pager<Record> recordPager) {
+    ListWithNext<Record> first = emptyOn404(recordPager, null);
 
-      @Override
-      public Record next() {
-        return current.next();
-      }
+    if (first.next == null) {
+      return first.iterator();
+    }
 
+    return new PrefetchingIterator<ListWithNext<Record>, Record>(first, executor, prefetchDepth) {
       @Override
-      public void remove() {
-        throw new UnsupportedOperationException();
+      protected ListWithNext<Record> fetchNext(ListWithNext<Record> page) {
+        return page.next != null ? emptyOn404(recordPager, page.next) : null;
       }
     };
   }
@@ -174,15 +261,28 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
   static final class Factory implements denominator.ResourceRecordSetApi.Factory {
 
     private final CloudDNS api;
+    private final Executor executor;
+    private final int prefetchDepth;
+    private final Retryer retryer;
+    private final Instrumentation instrumentation;
+    private final String provider;
 
     @Inject
-    Factory(CloudDNS api) {
+    Factory(CloudDNS api, SharedExecutor executor, @Named("pagePrefetchDepth") int prefetchDepth,
+            @Named("awaitComplete") Retryer retryer, Instrumentation instrumentation,
+            Provider provider) {
       this.api = api;
+      this.executor = executor;
+      this.prefetchDepth = prefetchDepth;
+      this.retryer = retryer;
+      this.instrumentation = instrumentation;
+      this.provider = provider.name();
     }
 
     @Override
     public ResourceRecordSetApi create(String id) {
-      return new CloudDNSResourceRecordSetApi(api, Integer.parseInt(id));
+      return new CloudDNSResourceRecordSetApi(api, Integer.parseInt(id), executor, prefetchDepth,
+                                              retryer, instrumentation, provider);
     }
   }
 }
@@ -1,13 +1,18 @@
 package denominator.clouddns;
 
 import java.util.Iterator;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
+import denominator.SharedExecutor;
 import denominator.clouddns.RackspaceApis.CloudDNS;
 import denominator.clouddns.RackspaceApis.ListWithNext;
 import denominator.clouddns.RackspaceApis.Record;
+import denominator.common.PrefetchingIterator;
 import denominator.model.Zone;
+import feign.Retryer;
 
 import static denominator.clouddns.CloudDNSFunctions.awaitComplete;
 import static denominator.common.Util.singletonIterator;
@@ -15,15 +20,29 @@ import static denominator.common.Util.singletonIterator;
 class CloudDNSZoneApi implements denominator.ZoneApi {
 
   private final CloudDNS api;
+  private final Executor executor;
+  private final int prefetchDepth;
+  private final Retryer retryer;
 
   @Inject
-  CloudDNSZoneApi(CloudDNS api) {
+  CloudDNSZoneApi(CloudDNS api, SharedExecutor executor,
+                  @Named("pagePrefetchDepth") int prefetchDepth,
+                  @Named("awaitComplete") Retryer retryer) {
     this.api = api;
+    this.executor = executor;
+    this.prefetchDepth = prefetchDepth;
+    this.retryer = retryer;
   }
 
   @Override
   public Iterator<Zone> iterator() {
-    return new ZipWithDomain(api.domains());
+    return new ZipWithDomain(
+        new PrefetchingIterator<ListWithNext<Zone>, Zone>(api.domains(), executor, prefetchDepth) {
+          @Override
+          protected ListWithNext<Zone> fetchNext(ListWithNext<Zone> page) {
+            return page.next != null ? api.domains(page.next) : null;
+          }
+        });
   }
 
   @Override
@@ -45,28 +64,20 @@ class CloudDNSZoneApi implements denominator.ZoneApi {
 
   class ZipWithDomain implements Iterator<Zone> {
 
-    ListWithNext<Zone> list;
-    int i = 0;
-    int length;
+    final Iterator<Zone> domains;
 
-    ZipWithDomain(ListWithNext<Zone> list) {
-      this.list = list;
-      this.length = list.size();
+    ZipWithDomain(Iterator<Zone> domains) {
+      this.domains = domains;
     }
 
     @Override
     public boolean hasNext() {
-      while (i == length && list.next != null) {
-        list = api.domains(list.next);
-        length = list.size();
-        i = 0;
-      }
-      return i < length;
+      return domains.hasNext();
     }
 
     @Override
     public Zone next() {
-      return zipWithSOA(list.get(i++));
+      return zipWithSOA(domains.next());
     }
 
     @Override
@@ -81,7 +92,7 @@ class CloudDNSZoneApi implements denominator.ZoneApi {
       return updateZone(zone.id(), zone);
     }
     try {
-      return awaitComplete(api, api.createDomain(zone.name(), zone.email(), zone.ttl()));
+      return awaitComplete(api, retryer, api.createDomain(zone.name(), zone.email(), zone.ttl()));
     } catch (IllegalStateException e) {
       if (e.getMessage().indexOf("already exists") == -1) {
         throw e;
@@ -92,14 +103,14 @@ class CloudDNSZoneApi implements denominator.ZoneApi {
   }
 
   private String updateZone(String id, Zone zone) {
-    awaitComplete(api, api.updateDomain(id, zone.email(), zone.ttl()));
+    awaitComplete(api, retryer, api.updateDomain(id, zone.email(), zone.ttl()));
     return id;
   }
 
   @Override
   public void delete(String id) {
     try {
-      awaitComplete(api, api.deleteDomain(id));
+      awaitComplete(api, retryer, api.deleteDomain(id));
     } catch (IllegalStateException e) {
       if (e.getMessage().indexOf("ObjectNotFoundException") == -1) {
         throw e;
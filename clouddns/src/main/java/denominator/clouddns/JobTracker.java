@@ -0,0 +1,109 @@
+package denominator.clouddns;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import denominator.Instrumentation;
+import denominator.clouddns.RackspaceApis.CloudDNS;
+import denominator.clouddns.RackspaceApis.Job;
+import feign.RetryableException;
+import feign.Retryer;
+
+import static java.lang.String.format;
+
+/**
+ * Waits on jobs submitted together. Each round polls the status of every outstanding job, so the
+ * jobs run at the same time, as opposed to each waiting for the prior to complete.
+ *
+ * <br> <br> <b>Errors</b><br>
+ *
+ * {@link #awaitAll()} fails as soon as any job reports {@code ERROR}. Jobs still outstanding at
+ * that point aren't cancelled, and aren't waited on.
+ *
+ * <br> <br> <b>Latency</b><br>
+ *
+ * The time from submitting each job until it was seen to complete or fail is sent to {@link
+ * Instrumentation#job(String, String, long, Throwable)}.
+ */
+final class JobTracker {
+
+  private final CloudDNS api;
+  private final Retryer retryer;
+  private final Instrumentation instrumentation;
+  private final String provider;
+  private final Map<String, Submitted> outstanding = new LinkedHashMap<String, Submitted>();
+
+  /**
+   * @param retryer polls outstanding jobs. A fresh {@link Retryer#clone() clone} is used per {@link
+   *                #awaitAll()}.
+   */
+  JobTracker(CloudDNS api, Retryer retryer, Instrumentation instrumentation, String provider) {
+    this.api = api;
+    this.retryer = retryer;
+    this.instrumentation = instrumentation;
+    this.provider = provider;
+  }
+
+  /**
+   * @param operation what the job does, such as {@code createRecords}.
+   */
+  void submit(String operation, Job job) {
+    outstanding.put(job.id, new Submitted(operation, System.nanoTime()));
+  }
+
+  /**
+   * Returns once all submitted jobs have completed.
+   *
+   * @throws IllegalStateException if a job failed.
+   * @throws RetryableException    if the retryer gave up before all jobs completed.
+   */
+  void awaitAll() {
+    Retryer retryer = this.retryer.clone();
+    while (!outstanding.isEmpty()) {
+      for (Iterator<Map.Entry<String, Submitted>> i = outstanding.entrySet().iterator();
+           i.hasNext(); ) {
+        Map.Entry<String, Submitted> entry = i.next();
+        Job job = api.getStatus(entry.getKey());
+        if ("COMPLETED".equals(job.status)) {
+          i.remove();
+          record(entry.getValue(), null);
+        } else if ("ERROR".equals(job.status)) {
+          IllegalStateException error = new IllegalStateException(
+              format("Job %s failed with error: %s", job.id, job.errorDetails));
+          record(entry.getValue(), error);
+          outstanding.clear();
+          throw error;
+        }
+      }
+      if (!outstanding.isEmpty()) {
+        RetryableException retryableException = new RetryableException(
+            format("Jobs %s did not complete. Check your logs.", outstanding.keySet()), null);
+        try {
+          retryer.continueOrPropagate(retryableException);
+        } catch (RetryableException e) {
+          outstanding.clear();
+          throw e;
+        }
+      }
+    }
+  }
+
+  private void record(Submitted submitted, Throwable error) {
+    if (instrumentation.enabled()) {
+      instrumentation.job(provider, submitted.operation, System.nanoTime() - submitted.startNanos,
+                          error);
+    }
+  }
+
+  private static final class Submitted {
+
+    final String operation;
+    final long startNanos;
+
+    Submitted(String operation, long startNanos) {
+      this.operation = operation;
+      this.startNanos = startNanos;
+    }
+  }
+}
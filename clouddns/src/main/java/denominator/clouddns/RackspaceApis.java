@@ -79,23 +79,25 @@ class RackspaceApis {
     @RequestLine("GET /domains/{domainId}/records")
     ListWithNext<Record> records(@Param("domainId") int id);
 
+    @RequestLine("GET /domains/{domainId}/records?name={name}")
+    ListWithNext<Record> recordsByName(@Param("domainId") int id,
+                                       @Param("name") String nameFilter);
+
     @RequestLine("GET /domains/{domainId}/records?name={name}&type={type}")
     ListWithNext<Record> recordsByNameAndType(@Param("domainId") int id,
                                               @Param("name") String nameFilter,
                                               @Param("type") String typeFilter);
 
+    /**
+     * Creates all records in one job.
+     *
+     * @param records json array of records, such as {@code [{"name":"www.denominator.io",
+     *                "type":"A","ttl":300,"data":"192.0.2.1"}]}.
+     */
     @RequestLine("POST /domains/{domainId}/records")
-    @Body("%7B\"records\":[%7B\"name\":\"{name}\",\"type\":\"{type}\",\"ttl\":\"{ttl}\",\"data\":\"{data}\"%7D]%7D")
-    @Headers("Content-Type: application/json")
-    Job createRecord(@Param("domainId") int id, @Param("name") String name,
-                     @Param("type") String type, @Param("ttl") int ttl, @Param("data") String data);
-
-    @RequestLine("POST /domains/{domainId}/records")
-    @Body("%7B\"records\":[%7B\"name\":\"{name}\",\"type\":\"{type}\",\"ttl\":\"{ttl}\",\"data\":\"{data}\",\"priority\":\"{priority}\"%7D]%7D")
+    @Body("%7B\"records\":{records}%7D")
     @Headers("Content-Type: application/json")
-    Job createRecordWithPriority(@Param("domainId") int id, @Param("name") String name,
-                                 @Param("type") String type, @Param("ttl") int ttl,
-                                 @Param("data") String data, @Param("priority") int priority);
+    Job createRecords(@Param("domainId") int id, @Param("records") String records);
 
     @RequestLine("PUT /domains/{domainId}/records/{recordId}")
     @Body("%7B\"ttl\":\"{ttl}\",\"data\":\"{data}\"%7D")
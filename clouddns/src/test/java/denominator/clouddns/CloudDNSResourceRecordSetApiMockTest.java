@@ -5,11 +5,13 @@ import com.squareup.okhttp.mockwebserver.MockResponse;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import denominator.ResourceRecordSetApi;
 import denominator.model.ResourceRecordSet;
 import denominator.model.rdata.AData;
+import denominator.model.rdata.CNAMEData;
 import denominator.model.rdata.SOAData;
 
 import static denominator.assertj.ModelAssertions.assertThat;
@@ -116,7 +118,7 @@ public class CloudDNSResourceRecordSetApiMockTest {
     server.assertAuthRequest();
     server.assertRequest()
         .hasMethod("GET")
-        .hasPath("/v1.0/123123/domains/1234/records");
+        .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io");
   }
 
   @Test
@@ -131,7 +133,7 @@ public class CloudDNSResourceRecordSetApiMockTest {
     server.assertAuthRequest();
     server.assertRequest()
         .hasMethod("GET")
-        .hasPath("/v1.0/123123/domains/1234/records");
+        .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io");
   }
 
   @Test
@@ -191,4 +193,194 @@ public class CloudDNSResourceRecordSetApiMockTest {
         .hasMethod("GET")
         .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io&type=A");
   }
+
+  @Test
+  public void putAwaitsDeletesBeforeCreatingReplacements() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsByNameAndType));
+    server.enqueue(new MockResponse().setBody(runningJob("DELETE_JOB")));
+    server.enqueue(new MockResponse().setBody(completedJob("DELETE_JOB")));
+    server.enqueue(new MockResponse().setBody(runningJob("CREATE_JOB")));
+    server.enqueue(new MockResponse().setBody(completedJob("CREATE_JOB")));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId + "");
+    api.put(ResourceRecordSet.builder()
+                .name("www.denominator.io")
+                .type("A")
+                .ttl(600000)
+                .add(AData.create("1.2.3.4"))
+                .add(AData.create("192.0.2.1"))
+                .add(AData.create("192.0.2.2")).build());
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io&type=A");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/v1.0/123123/domains/1234/records/A-9883329");
+    server.assertRequest().hasPath("/v1.0/123123/status/DELETE_JOB?showDetails=true");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/v1.0/123123/domains/1234/records")
+        .hasBody("{\"records\":["
+                 + "{\"name\":\"www.denominator.io\",\"type\":\"A\",\"ttl\":600000,"
+                 + "\"data\":\"192.0.2.1\"},"
+                 + "{\"name\":\"www.denominator.io\",\"type\":\"A\",\"ttl\":600000,"
+                 + "\"data\":\"192.0.2.2\"}]}");
+    server.assertRequest().hasPath("/v1.0/123123/status/CREATE_JOB?showDetails=true");
+  }
+
+  @Test
+  public void putReplacesCNAMEOnceOldIsDeleted() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(
+        "{\"records\":[{\"name\":\"www.denominator.io\",\"id\":\"CNAME-9883330\","
+        + "\"type\":\"CNAME\",\"data\":\"old.denominator.io\",\"ttl\":600000}]}"));
+    server.enqueue(new MockResponse().setBody(runningJob("DELETE_JOB")));
+    server.enqueue(new MockResponse().setBody(completedJob("DELETE_JOB")));
+    server.enqueue(new MockResponse().setBody(runningJob("CREATE_JOB")));
+    server.enqueue(new MockResponse().setBody(completedJob("CREATE_JOB")));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId + "");
+    api.put(ResourceRecordSet.builder()
+                .name("www.denominator.io")
+                .type("CNAME")
+                .ttl(600000)
+                .add(CNAMEData.create("new.denominator.io")).build());
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io&type=CNAME");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/v1.0/123123/domains/1234/records/CNAME-9883330");
+    server.assertRequest().hasPath("/v1.0/123123/status/DELETE_JOB?showDetails=true");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/v1.0/123123/domains/1234/records")
+        .hasBody("{\"records\":["
+                 + "{\"name\":\"www.denominator.io\",\"type\":\"CNAME\",\"ttl\":600000,"
+                 + "\"data\":\"new.denominator.io\"}]}");
+    server.assertRequest().hasPath("/v1.0/123123/status/CREATE_JOB?showDetails=true");
+  }
+
+  @Test
+  public void putAllSubmitsChangesOfRecordSetsBeforeAwaitingJobs() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsByNameAndType));
+    server.enqueue(new MockResponse().setBody(runningJob("DELETE_JOB")));
+    server.enqueue(new MockResponse().setBody("{\"records\":[]}"));
+    server.enqueue(new MockResponse().setBody(runningJob("CREATE_MAIL_JOB")));
+    server.enqueue(new MockResponse().setBody(completedJob("DELETE_JOB")));
+    server.enqueue(new MockResponse().setBody(completedJob("CREATE_MAIL_JOB")));
+    server.enqueue(new MockResponse().setBody(runningJob("CREATE_WWW_JOB")));
+    server.enqueue(new MockResponse().setBody(completedJob("CREATE_WWW_JOB")));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId + "");
+    api.putAll(Arrays.<ResourceRecordSet<?>>asList(
+        ResourceRecordSet.builder()
+            .name("www.denominator.io")
+            .type("A")
+            .ttl(600000)
+            .add(AData.create("1.2.3.4"))
+            .add(AData.create("192.0.2.1")).build(),
+        ResourceRecordSet.builder()
+            .name("mail.denominator.io")
+            .type("A")
+            .ttl(600000)
+            .add(AData.create("192.0.2.3")).build()));
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io&type=A");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/v1.0/123123/domains/1234/records/A-9883329");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/v1.0/123123/domains/1234/records?name=mail.denominator.io&type=A");
+    // nothing to delete, so the create doesn't wait
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/v1.0/123123/domains/1234/records")
+        .hasBody("{\"records\":["
+                 + "{\"name\":\"mail.denominator.io\",\"type\":\"A\",\"ttl\":600000,"
+                 + "\"data\":\"192.0.2.3\"}]}");
+    server.assertRequest().hasPath("/v1.0/123123/status/DELETE_JOB?showDetails=true");
+    server.assertRequest().hasPath("/v1.0/123123/status/CREATE_MAIL_JOB?showDetails=true");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/v1.0/123123/domains/1234/records")
+        .hasBody("{\"records\":["
+                 + "{\"name\":\"www.denominator.io\",\"type\":\"A\",\"ttl\":600000,"
+                 + "\"data\":\"192.0.2.1\"}]}");
+    server.assertRequest().hasPath("/v1.0/123123/status/CREATE_WWW_JOB?showDetails=true");
+  }
+
+  @Test
+  public void putAllCreatesReplacementsInChunks() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsByNameAndType));
+    server.enqueue(new MockResponse().setBody(runningJob("DELETE_JOB1")));
+    server.enqueue(new MockResponse().setBody(runningJob("DELETE_JOB2")));
+    server.enqueue(new MockResponse().setBody(completedJob("DELETE_JOB1")));
+    server.enqueue(new MockResponse().setBody(completedJob("DELETE_JOB2")));
+    server.enqueue(new MockResponse().setBody(runningJob("CREATE_JOB1")));
+    server.enqueue(new MockResponse().setBody(runningJob("CREATE_JOB2")));
+    server.enqueue(new MockResponse().setBody(completedJob("CREATE_JOB1")));
+    server.enqueue(new MockResponse().setBody(completedJob("CREATE_JOB2")));
+
+    ResourceRecordSet.Builder<AData> rrset = ResourceRecordSet.<AData>builder()
+        .name("www.denominator.io")
+        .type("A")
+        .ttl(600000);
+    StringBuilder first = new StringBuilder("{\"records\":[");
+    StringBuilder second = new StringBuilder("{\"records\":[");
+    for (int i = 0; i < 150; i++) {
+      rrset.add(AData.create("10.0.0." + i));
+      StringBuilder body = i < 100 ? first : second;
+      if (i != 0 && i != 100) {
+        body.append(',');
+      }
+      body.append("{\"name\":\"www.denominator.io\",\"type\":\"A\",\"ttl\":600000,")
+          .append("\"data\":\"10.0.0.").append(i).append("\"}");
+    }
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId + "");
+    api.putAll(Arrays.<ResourceRecordSet<?>>asList(rrset.build()));
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io&type=A");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/v1.0/123123/domains/1234/records/A-9872761");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/v1.0/123123/domains/1234/records/A-9883329");
+    server.assertRequest().hasPath("/v1.0/123123/status/DELETE_JOB1?showDetails=true");
+    server.assertRequest().hasPath("/v1.0/123123/status/DELETE_JOB2?showDetails=true");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/v1.0/123123/domains/1234/records")
+        .hasBody(first.append("]}").toString());
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/v1.0/123123/domains/1234/records")
+        .hasBody(second.append("]}").toString());
+    server.assertRequest().hasPath("/v1.0/123123/status/CREATE_JOB1?showDetails=true");
+    server.assertRequest().hasPath("/v1.0/123123/status/CREATE_JOB2?showDetails=true");
+  }
+
+  static String runningJob(String id) {
+    return "{\"status\":\"RUNNING\",\"jobId\":\"" + id + "\"}";
+  }
+
+  static String completedJob(String id) {
+    return "{\"status\":\"COMPLETED\",\"jobId\":\"" + id + "\"}";
+  }
 }
@@ -13,8 +13,11 @@ import denominator.clouddns.RackspaceApis.CloudDNS;
 import denominator.clouddns.RackspaceApis.CloudIdentity;
 import denominator.clouddns.RackspaceApis.Job;
 import denominator.clouddns.RackspaceApis.TokenIdAndPublicURL;
+import denominator.feign.RequestLimiter;
 import denominator.model.Zone;
+import feign.Client;
 import feign.Feign;
+import feign.Retryer;
 
 import static denominator.assertj.ModelAssertions.assertThat;
 import static java.lang.String.format;
@@ -31,7 +34,10 @@ public class RackspaceApisTest {
     server.enqueueAuthResponse();
 
     CloudDNSProvider.FeignModule module = new CloudDNSProvider.FeignModule();
-    CloudIdentity api = module.cloudIdentity(module.feign(module.logger(), module.logLevel()));
+    Feign feign =
+        module.feign(module.logger(), module.logLevel(), new Client.Default(null, null),
+                     new Retryer.Default(), new RequestLimiter());
+    CloudIdentity api = module.cloudIdentity(feign);
 
     TokenIdAndPublicURL tokenIdAndPublicURL = api.passwordAuth(
         URI.create(server.url()), "username", "password");
@@ -140,12 +146,29 @@ public class RackspaceApisTest {
   }
 
   @Test
-  public void createMXRecord() throws Exception {
+  public void recordsByName() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsResponse));
+
+    assertThat(mockApi().recordsByName(domainId, "www.denominator.io"))
+        .extracting("id")
+        .containsExactly("A-10465369", "A-10465370", "NS-9084762", "NS-9084763");
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath(format("/v1.0/123123/domains/%s/records?name=www.denominator.io", domainId));
+  }
+
+  @Test
+  public void createRecords() throws Exception {
     server.enqueueAuthResponse();
     server.enqueue(new MockResponse().setBody(mxRecordInitialResponse));
 
-    Job job = mockApi().createRecordWithPriority(domainId, "www.denominator.io", "MX",
-                                                 1800, "mail.denominator.io", 10);
+    Job job = mockApi().createRecords(domainId, "[{\"name\":\"www.denominator.io\","
+                                                + "\"type\":\"MX\",\"ttl\":1800,"
+                                                + "\"priority\":10,"
+                                                + "\"data\":\"mail.denominator.io\"}]");
 
     assertThat(job.id).isEqualTo("0ade2b3b-07e4-4e68-821a-fcce4f5406f3");
     assertThat(job.status).isEqualTo("RUNNING");
@@ -154,7 +177,8 @@ public class RackspaceApisTest {
     server.assertRequest()
         .hasMethod("POST")
         .hasPath(format("/v1.0/123123/domains/%s/records", domainId))
-        .hasBody(mxRecordCreateRequest);
+        .hasBody("{\"records\":[{\"name\":\"www.denominator.io\",\"type\":\"MX\","
+                 + "\"ttl\":1800,\"priority\":10,\"data\":\"mail.denominator.io\"}]}");
   }
 
   @Test
@@ -224,7 +248,9 @@ public class RackspaceApisTest {
 
   CloudDNS mockApi() {
     CloudDNSProvider.FeignModule module = new CloudDNSProvider.FeignModule();
-    Feign feign = module.feign(module.logger(), module.logLevel());
+    Feign feign =
+        module.feign(module.logger(), module.logLevel(), new Client.Default(null, null),
+                     new Retryer.Default(), new RequestLimiter());
     CloudIdentity cloudIdentity = module.cloudIdentity(feign);
     Provider provider = new CloudDNSProvider() {
       @Override
@@ -290,9 +316,6 @@ public class RackspaceApisTest {
   static String
       recordsResponse =
       "{\"records\":[{\"name\":\"www.denominator.io\",\"id\":\"A-10465369\",\"type\":\"A\",\"data\":\"192.0.2.1\",\"ttl\":300,\"updated\":\"2013-09-02T20:51:55.000+0000\",\"created\":\"2013-09-02T20:51:55.000+0000\"},{\"name\":\"www.denominator.io\",\"id\":\"A-10465370\",\"type\":\"A\",\"data\":\"192.0.2.2\",\"ttl\":300,\"updated\":\"2013-09-02T20:52:07.000+0000\",\"created\":\"2013-09-02T20:52:07.000+0000\"},{\"name\":\"www.denominator.io\",\"id\":\"NS-9084762\",\"type\":\"NS\",\"data\":\"dns1.stabletransit.com\",\"ttl\":300,\"updated\":\"2013-09-02T20:51:12.000+0000\",\"created\":\"2013-09-02T20:51:12.000+0000\"},{\"name\":\"www.denominator.io\",\"id\":\"NS-9084763\",\"type\":\"NS\",\"data\":\"dns2.stabletransit.com\",\"ttl\":300,\"updated\":\"2013-09-02T20:51:12.000+0000\",\"created\":\"2013-09-02T20:51:12.000+0000\"}],\"totalEntries\":4}";
-  static String
-      mxRecordCreateRequest =
-      "{\"records\":[{\"name\":\"www.denominator.io\",\"type\":\"MX\",\"ttl\":\"1800\",\"data\":\"mail.denominator.io\",\"priority\":\"10\"}]}";
   static String
       mxRecordInitialResponse =
       "{\"request\":\"{\\\"records\\\":[{\\\"name\\\":\\\"www.denominator.io\\\",\\\"type\\\":\\\"MX\\\",\\\"ttl\\\":\\\"1800\\\",\\\"data\\\":\\\"mail.denominator.io\\\",\\\"priority\\\":\\\"10\\\"}]}\",\"status\":\"RUNNING\",\"verb\":\"POST\",\"jobId\":\"0ade2b3b-07e4-4e68-821a-fcce4f5406f3\",\"callbackUrl\":\"https://dns.api.rackspacecloud.com/v1.0/123123/status/0ade2b3b-07e4-4e68-821a-fcce4f5406f3\",\"requestUrl\":\"https://dns.api.rackspacecloud.com/v1.0/123123/domains/3854989/records\"}";
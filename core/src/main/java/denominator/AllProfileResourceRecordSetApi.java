@@ -18,6 +18,45 @@ public interface AllProfileResourceRecordSetApi extends QualifiedResourceRecordS
    */
   void deleteByNameAndType(String name, String type);
 
+  /**
+   * Idempotently {@link #put(ResourceRecordSet) puts} each of the record sets, whether basic or
+   * qualified. When the provider {@link Provider#supportsBatchChanges() supports batch changes},
+   * this results in as few requests as possible. Otherwise, this is the same as calling {@code put}
+   * on each element.
+   *
+   * @param rrsets record sets to ensure exist, keyed on {@link ResourceRecordSet#name() name},
+   *               {@link ResourceRecordSet#type() type} and {@link ResourceRecordSet#qualifier()
+   *               qualifier}.
+   * @throws IllegalArgumentException if the zone is not found
+   * @since 4.8
+   */
+  void putAll(Iterable<ResourceRecordSet<?>> rrsets);
+
+  /**
+   * Idempotently deletes the record sets with the same {@link ResourceRecordSet#name() name},
+   * {@link ResourceRecordSet#type() type} and {@link ResourceRecordSet#qualifier() qualifier} as
+   * each of the inputs. An input without a qualifier deletes the basic record set of that name and
+   * type. When the provider {@link Provider#supportsBatchChanges() supports batch changes}, this
+   * results in as few requests as possible.
+   *
+   * @param rrsets record sets to ensure don't exist. Only name, type and qualifier are considered.
+   * @throws IllegalArgumentException if the zone is not found.
+   * @since 4.8
+   */
+  void deleteAll(Iterable<ResourceRecordSet<?>> rrsets);
+
+  /**
+   * Deletes every record set in the zone, except the {@code SOA} and the {@code NS} record set at
+   * the zone apex, which can only be removed by deleting the zone. When the provider {@link
+   * Provider#supportsBatchChanges() supports batch changes}, this results in as few requests as
+   * possible.
+   *
+   * @return count of record sets deleted.
+   * @throws IllegalArgumentException if the zone is not found.
+   * @since 4.8
+   */
+  int clear();
+
   static interface Factory {
 
     AllProfileResourceRecordSetApi create(String id);
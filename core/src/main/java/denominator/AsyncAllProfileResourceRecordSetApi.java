@@ -0,0 +1,155 @@
+package denominator;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import denominator.model.ResourceRecordSet;
+
+import static denominator.AsyncDNSApi.toList;
+
+/**
+ * Asynchronous view of {@link AllProfileResourceRecordSetApi}.
+ *
+ * @since 4.8
+ */
+public final class AsyncAllProfileResourceRecordSetApi {
+
+  private final DNSApi api;
+  private final String zoneId;
+  private final SharedExecutor executor;
+
+  AsyncAllProfileResourceRecordSetApi(DNSApi api, String zoneId, SharedExecutor executor) {
+    this.api = api;
+    this.zoneId = zoneId;
+    this.executor = executor;
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#iterator()
+   */
+  public Future<List<ResourceRecordSet<?>>> list() {
+    return executor.submit(new Callable<List<ResourceRecordSet<?>>>() {
+      public List<ResourceRecordSet<?>> call() {
+        return toList(delegate().iterator());
+      }
+    });
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#iterateByName(String)
+   */
+  public Future<List<ResourceRecordSet<?>>> listByName(final String name) {
+    return executor.submit(new Callable<List<ResourceRecordSet<?>>>() {
+      public List<ResourceRecordSet<?>> call() {
+        return toList(delegate().iterateByName(name));
+      }
+    });
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#iterateByNameAndType(String, String)
+   */
+  public Future<List<ResourceRecordSet<?>>> listByNameAndType(final String name,
+                                                             final String type) {
+    return executor.submit(new Callable<List<ResourceRecordSet<?>>>() {
+      public List<ResourceRecordSet<?>> call() {
+        return toList(delegate().iterateByNameAndType(name, type));
+      }
+    });
+  }
+
+  /**
+   * @return future of null unless a resource record exists with the same {@code name}, {@code
+   * type} and {@code qualifier}
+   * @see AllProfileResourceRecordSetApi#getByNameTypeAndQualifier(String, String, String)
+   */
+  public Future<ResourceRecordSet<?>> getByNameTypeAndQualifier(final String name,
+                                                                final String type,
+                                                                final String qualifier) {
+    return executor.submit(new Callable<ResourceRecordSet<?>>() {
+      public ResourceRecordSet<?> call() {
+        return delegate().getByNameTypeAndQualifier(name, type, qualifier);
+      }
+    });
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#put(ResourceRecordSet)
+   */
+  public Future<Void> put(final ResourceRecordSet<?> rrset) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().put(rrset);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#putAll(Iterable)
+   */
+  public Future<Void> putAll(final Iterable<ResourceRecordSet<?>> rrsets) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().putAll(rrsets);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#deleteByNameTypeAndQualifier(String, String, String)
+   */
+  public Future<Void> deleteByNameTypeAndQualifier(final String name, final String type,
+                                                   final String qualifier) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().deleteByNameTypeAndQualifier(name, type, qualifier);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#deleteByNameAndType(String, String)
+   */
+  public Future<Void> deleteByNameAndType(final String name, final String type) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().deleteByNameAndType(name, type);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#deleteAll(Iterable)
+   */
+  public Future<Void> deleteAll(final Iterable<ResourceRecordSet<?>> rrsets) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().deleteAll(rrsets);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @see AllProfileResourceRecordSetApi#clear()
+   */
+  public Future<Integer> clear() {
+    return executor.submit(new Callable<Integer>() {
+      public Integer call() {
+        return delegate().clear();
+      }
+    });
+  }
+
+  /**
+   * Created inside the task, as some providers make requests when creating an api.
+   */
+  private AllProfileResourceRecordSetApi delegate() {
+    return api.recordSetsInZone(zoneId);
+  }
+}
@@ -0,0 +1,73 @@
+package denominator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import denominator.model.Zone;
+
+/**
+ * Asynchronous view of {@link DNSApi}. Commands run on the {@link SharedExecutor} of the manager,
+ * and results are returned as {@link java.util.concurrent.Future futures}. Listings are read fully
+ * before their future completes.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * List&lt;Future&lt;Void&gt;&gt; updates = new ArrayList&lt;Future&lt;Void&gt;&gt;();
+ * for (Zone zone : zones) {
+ *   updates.add(manager.asyncApi().basicRecordSetsInZone(zone.id()).put(rrset));
+ * }
+ * for (Future&lt;Void&gt; update : updates) {
+ *   update.get();
+ * }
+ * </pre>
+ *
+ * @since 4.8
+ */
+public class AsyncDNSApi {
+
+  private final DNSApi api;
+  private final SharedExecutor executor;
+
+  @Inject
+  AsyncDNSApi(DNSApi api, SharedExecutor executor) {
+    this.api = api;
+    this.executor = executor;
+  }
+
+  /**
+   * Asynchronous view of {@link DNSApi#zones()}.
+   */
+  public AsyncZoneApi zones() {
+    return new AsyncZoneApi(api, executor);
+  }
+
+  /**
+   * Asynchronous view of {@link DNSApi#basicRecordSetsInZone(String)}.
+   *
+   * @param id {@link Zone#id() id} of the zone.
+   */
+  public AsyncResourceRecordSetApi basicRecordSetsInZone(String id) {
+    return new AsyncResourceRecordSetApi(api, id, executor);
+  }
+
+  /**
+   * Asynchronous view of {@link DNSApi#recordSetsInZone(String)}.
+   *
+   * @param id {@link Zone#id() id} of the zone.
+   */
+  public AsyncAllProfileResourceRecordSetApi recordSetsInZone(String id) {
+    return new AsyncAllProfileResourceRecordSetApi(api, id, executor);
+  }
+
+  static <T> List<T> toList(Iterator<T> iterator) {
+    List<T> result = new ArrayList<T>();
+    while (iterator.hasNext()) {
+      result.add(iterator.next());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,117 @@
+package denominator;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import denominator.model.ResourceRecordSet;
+
+import static denominator.AsyncDNSApi.toList;
+
+/**
+ * Asynchronous view of {@link ResourceRecordSetApi}.
+ *
+ * @since 4.8
+ */
+public final class AsyncResourceRecordSetApi {
+
+  private final DNSApi api;
+  private final String zoneId;
+  private final SharedExecutor executor;
+
+  AsyncResourceRecordSetApi(DNSApi api, String zoneId, SharedExecutor executor) {
+    this.api = api;
+    this.zoneId = zoneId;
+    this.executor = executor;
+  }
+
+  /**
+   * @see ResourceRecordSetApi#iterator()
+   */
+  public Future<List<ResourceRecordSet<?>>> list() {
+    return executor.submit(new Callable<List<ResourceRecordSet<?>>>() {
+      public List<ResourceRecordSet<?>> call() {
+        return toList(delegate().iterator());
+      }
+    });
+  }
+
+  /**
+   * @see ResourceRecordSetApi#iterateByName(String)
+   */
+  public Future<List<ResourceRecordSet<?>>> listByName(final String name) {
+    return executor.submit(new Callable<List<ResourceRecordSet<?>>>() {
+      public List<ResourceRecordSet<?>> call() {
+        return toList(delegate().iterateByName(name));
+      }
+    });
+  }
+
+  /**
+   * @return future of null unless a resource record exists with the same {@code name} and {@code
+   * type}
+   * @see ResourceRecordSetApi#getByNameAndType(String, String)
+   */
+  public Future<ResourceRecordSet<?>> getByNameAndType(final String name, final String type) {
+    return executor.submit(new Callable<ResourceRecordSet<?>>() {
+      public ResourceRecordSet<?> call() {
+        return delegate().getByNameAndType(name, type);
+      }
+    });
+  }
+
+  /**
+   * @see ResourceRecordSetApi#put(ResourceRecordSet)
+   */
+  public Future<Void> put(final ResourceRecordSet<?> rrset) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().put(rrset);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @see ResourceRecordSetApi#putAll(Iterable)
+   */
+  public Future<Void> putAll(final Iterable<ResourceRecordSet<?>> rrsets) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().putAll(rrsets);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @see ResourceRecordSetApi#deleteByNameAndType(String, String)
+   */
+  public Future<Void> deleteByNameAndType(final String name, final String type) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().deleteByNameAndType(name, type);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @see ResourceRecordSetApi#deleteAll(Iterable)
+   */
+  public Future<Void> deleteAll(final Iterable<ResourceRecordSet<?>> rrsets) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        delegate().deleteAll(rrsets);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Created inside the task, as some providers make requests when creating an api.
+   */
+  private ResourceRecordSetApi delegate() {
+    return api.basicRecordSetsInZone(zoneId);
+  }
+}
@@ -0,0 +1,71 @@
+package denominator;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import denominator.model.Zone;
+
+import static denominator.AsyncDNSApi.toList;
+
+/**
+ * Asynchronous view of {@link ZoneApi}.
+ *
+ * @since 4.8
+ */
+public final class AsyncZoneApi {
+
+  private final DNSApi api;
+  private final SharedExecutor executor;
+
+  AsyncZoneApi(DNSApi api, SharedExecutor executor) {
+    this.api = api;
+    this.executor = executor;
+  }
+
+  /**
+   * @see ZoneApi#iterator()
+   */
+  public Future<List<Zone>> list() {
+    return executor.submit(new Callable<List<Zone>>() {
+      public List<Zone> call() {
+        return toList(api.zones().iterator());
+      }
+    });
+  }
+
+  /**
+   * @see ZoneApi#iterateByName(String)
+   */
+  public Future<List<Zone>> listByName(final String name) {
+    return executor.submit(new Callable<List<Zone>>() {
+      public List<Zone> call() {
+        return toList(api.zones().iterateByName(name));
+      }
+    });
+  }
+
+  /**
+   * @return future of the {@link Zone#id() id} of the new or affected zone.
+   * @see ZoneApi#put(Zone)
+   */
+  public Future<String> put(final Zone zone) {
+    return executor.submit(new Callable<String>() {
+      public String call() {
+        return api.zones().put(zone);
+      }
+    });
+  }
+
+  /**
+   * @see ZoneApi#delete(String)
+   */
+  public Future<Void> delete(final String id) {
+    return executor.submit(new Callable<Void>() {
+      public Void call() {
+        api.zones().delete(id);
+        return null;
+      }
+    });
+  }
+}
@@ -70,6 +70,11 @@ public abstract class BasicProvider implements Provider {
     return false;
   }
 
+  @Override
+  public boolean supportsBatchChanges() {
+    return false;
+  }
+
   @Override
   public Map<String, Collection<String>> credentialTypeToParameterNames() {
     return new LinkedHashMap<String, Collection<String>>();
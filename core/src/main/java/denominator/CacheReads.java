@@ -0,0 +1,85 @@
+package denominator;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Singleton;
+
+import dagger.Module;
+import dagger.Provides;
+import denominator.profile.GeoResourceRecordSetApi;
+import denominator.profile.WeightedResourceRecordSetApi;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Caches reads of record sets and zones by name, so that reading the same names repeatedly, such as
+ * in a health check, doesn't use up the provider's api quota.
+ *
+ * <br> <br> <b>Cached reads</b><br>
+ *
+ * The following are cached until {@code maxStaleness} passes, or until a write to the same name,
+ * such as {@code put}, {@code putAll} or a delete, through the same {@link DNSApiManager}.
+ *
+ * <ul>
+ * <li>{@link ResourceRecordSetApi#getByNameAndType(String, String)}</li>
+ * <li>{@link ResourceRecordSetApi#iterateByName(String)}</li>
+ * <li>{@link AllProfileResourceRecordSetApi#getByNameTypeAndQualifier(String, String, String)}</li>
+ * <li>{@link AllProfileResourceRecordSetApi#iterateByName(String)}</li>
+ * <li>{@link AllProfileResourceRecordSetApi#iterateByNameAndType(String, String)}</li>
+ * <li>{@link ZoneApi#iterateByName(String)}</li>
+ * </ul>
+ *
+ * Listing a whole zone isn't cached. Writes through other managers, or through the geo and weighted
+ * apis, aren't seen until {@code maxStaleness} passes.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * manager = Denominator.create(provider, credentials, new CacheReads(1000, 30, SECONDS));
+ * </pre>
+ *
+ * @since 4.8
+ */
+@Module(injects = DNSApiManager.class, complete = false, overrides = true)
+public final class CacheReads {
+
+  private final int maxNames;
+  private final long maxStalenessNanos;
+
+  /**
+   * @param maxNames     maximum count of names whose reads are cached. The least recently read are
+   *                     evicted first.
+   * @param maxStaleness reads older than this are reloaded.
+   */
+  public CacheReads(int maxNames, long maxStaleness, TimeUnit unit) {
+    checkArgument(maxNames > 0, "maxNames must be positive, but was %s", maxNames);
+    checkArgument(maxStaleness >= 0, "maxStaleness must not be negative, but was %s",
+                  maxStaleness);
+    this.maxNames = maxNames;
+    this.maxStalenessNanos = checkNotNull(unit, "unit").toNanos(maxStaleness);
+  }
+
+  @Provides
+  @Singleton
+  ReadCache provideReadCache() {
+    return new ReadCache(maxNames, maxStalenessNanos);
+  }
+
+  @Provides
+  DNSApi provideDNSApi(ZoneApi zones, ResourceRecordSetApi.Factory rrsetApiFactory,
+                       AllProfileResourceRecordSetApi.Factory allRRSetApiFactory,
+                       GeoResourceRecordSetApi.Factory geoApiFactory,
+                       WeightedResourceRecordSetApi.Factory weightedApiFactory,
+                       Provider provider, Instrumentation instrumentation, ReadCache cache) {
+    return new DNSApi(new CachingZoneApi(zones, cache),
+                      new CachingResourceRecordSetApi.Factory(rrsetApiFactory, cache),
+                      new CachingAllProfileResourceRecordSetApi.Factory(allRRSetApiFactory, cache),
+                      geoApiFactory, weightedApiFactory, provider, instrumentation);
+  }
+
+  @Override
+  public String toString() {
+    return "CacheReads(" + maxNames + ")";
+  }
+}
@@ -0,0 +1,150 @@
+package denominator;
+
+import java.util.Iterator;
+import java.util.List;
+
+import denominator.model.ResourceRecordSet;
+
+import static denominator.AsyncDNSApi.toList;
+import static denominator.CachingResourceRecordSetApi.copy;
+import static denominator.CachingResourceRecordSetApi.invalidateAll;
+import static denominator.common.Preconditions.checkNotNull;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Caches reads by name, invalidating them on a write to the same name.
+ */
+final class CachingAllProfileResourceRecordSetApi implements AllProfileResourceRecordSetApi {
+
+  private final AllProfileResourceRecordSetApi delegate;
+  private final String zoneId;
+  private final ReadCache cache;
+
+  CachingAllProfileResourceRecordSetApi(AllProfileResourceRecordSetApi delegate, String zoneId,
+                                        ReadCache cache) {
+    this.delegate = delegate;
+    this.zoneId = zoneId;
+    this.cache = cache;
+  }
+
+  @Override
+  public Iterator<ResourceRecordSet<?>> iterator() {
+    return delegate.iterator();
+  }
+
+  @Override
+  public Iterator<ResourceRecordSet<?>> iterateByName(final String name) {
+    checkNotNull(name, "name");
+    return cache.get(zoneId, name, "all.iterateByName",
+                     new ReadCache.Loader<List<ResourceRecordSet<?>>>() {
+                       public List<ResourceRecordSet<?>> load() {
+                         return unmodifiableList(toList(delegate.iterateByName(name)));
+                       }
+                     }).iterator();
+  }
+
+  @Override
+  public Iterator<ResourceRecordSet<?>> iterateByNameAndType(final String name,
+                                                            final String type) {
+    checkNotNull(name, "name");
+    checkNotNull(type, "type");
+    return cache.get(zoneId, name, "all.iterateByNameAndType " + type,
+                     new ReadCache.Loader<List<ResourceRecordSet<?>>>() {
+                       public List<ResourceRecordSet<?>> load() {
+                         return unmodifiableList(
+                             toList(delegate.iterateByNameAndType(name, type)));
+                       }
+                     }).iterator();
+  }
+
+  @Override
+  public ResourceRecordSet<?> getByNameTypeAndQualifier(final String name, final String type,
+                                                        final String qualifier) {
+    checkNotNull(name, "name");
+    checkNotNull(type, "type");
+    checkNotNull(qualifier, "qualifier");
+    return cache.get(zoneId, name, "all.getByNameTypeAndQualifier " + type + " " + qualifier,
+                     new ReadCache.Loader<ResourceRecordSet<?>>() {
+                       public ResourceRecordSet<?> load() {
+                         return delegate.getByNameTypeAndQualifier(name, type, qualifier);
+                       }
+                     });
+  }
+
+  @Override
+  public void put(ResourceRecordSet<?> rrset) {
+    try {
+      delegate.put(rrset);
+    } finally {
+      cache.invalidate(zoneId, rrset.name());
+    }
+  }
+
+  @Override
+  public void deleteByNameTypeAndQualifier(String name, String type, String qualifier) {
+    try {
+      delegate.deleteByNameTypeAndQualifier(name, type, qualifier);
+    } finally {
+      cache.invalidate(zoneId, name);
+    }
+  }
+
+  @Override
+  public void deleteByNameAndType(String name, String type) {
+    try {
+      delegate.deleteByNameAndType(name, type);
+    } finally {
+      cache.invalidate(zoneId, name);
+    }
+  }
+
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    List<ResourceRecordSet<?>> list = copy(rrsets);
+    try {
+      delegate.putAll(list);
+    } finally {
+      invalidateAll(cache, zoneId, list);
+    }
+  }
+
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    List<ResourceRecordSet<?>> list = copy(rrsets);
+    try {
+      delegate.deleteAll(list);
+    } finally {
+      invalidateAll(cache, zoneId, list);
+    }
+  }
+
+  @Override
+  public int clear() {
+    try {
+      return delegate.clear();
+    } finally {
+      cache.invalidateZone(zoneId);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  static final class Factory implements AllProfileResourceRecordSetApi.Factory {
+
+    private final AllProfileResourceRecordSetApi.Factory delegate;
+    private final ReadCache cache;
+
+    Factory(AllProfileResourceRecordSetApi.Factory delegate, ReadCache cache) {
+      this.delegate = delegate;
+      this.cache = cache;
+    }
+
+    @Override
+    public AllProfileResourceRecordSetApi create(String id) {
+      return new CachingAllProfileResourceRecordSetApi(delegate.create(id), id, cache);
+    }
+  }
+}
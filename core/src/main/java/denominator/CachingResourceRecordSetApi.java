@@ -0,0 +1,132 @@
+package denominator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import denominator.model.ResourceRecordSet;
+
+import static denominator.AsyncDNSApi.toList;
+import static denominator.common.Preconditions.checkNotNull;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Caches reads by name, invalidating them on a write to the same name.
+ */
+final class CachingResourceRecordSetApi implements ResourceRecordSetApi {
+
+  private final ResourceRecordSetApi delegate;
+  private final String zoneId;
+  private final ReadCache cache;
+
+  CachingResourceRecordSetApi(ResourceRecordSetApi delegate, String zoneId, ReadCache cache) {
+    this.delegate = delegate;
+    this.zoneId = zoneId;
+    this.cache = cache;
+  }
+
+  @Override
+  public Iterator<ResourceRecordSet<?>> iterator() {
+    return delegate.iterator();
+  }
+
+  @Override
+  public Iterator<ResourceRecordSet<?>> iterateByName(final String name) {
+    checkNotNull(name, "name");
+    return cache.get(zoneId, name, "basic.iterateByName",
+                     new ReadCache.Loader<List<ResourceRecordSet<?>>>() {
+                       public List<ResourceRecordSet<?>> load() {
+                         return unmodifiableList(toList(delegate.iterateByName(name)));
+                       }
+                     }).iterator();
+  }
+
+  @Override
+  public ResourceRecordSet<?> getByNameAndType(final String name, final String type) {
+    checkNotNull(name, "name");
+    checkNotNull(type, "type");
+    return cache.get(zoneId, name, "basic.getByNameAndType " + type,
+                     new ReadCache.Loader<ResourceRecordSet<?>>() {
+                       public ResourceRecordSet<?> load() {
+                         return delegate.getByNameAndType(name, type);
+                       }
+                     });
+  }
+
+  @Override
+  public void put(ResourceRecordSet<?> rrset) {
+    try {
+      delegate.put(rrset);
+    } finally {
+      cache.invalidate(zoneId, rrset.name());
+    }
+  }
+
+  @Override
+  public void deleteByNameAndType(String name, String type) {
+    try {
+      delegate.deleteByNameAndType(name, type);
+    } finally {
+      cache.invalidate(zoneId, name);
+    }
+  }
+
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    List<ResourceRecordSet<?>> list = copy(rrsets);
+    try {
+      delegate.putAll(list);
+    } finally {
+      invalidateAll(cache, zoneId, list);
+    }
+  }
+
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    List<ResourceRecordSet<?>> list = copy(rrsets);
+    try {
+      delegate.deleteAll(list);
+    } finally {
+      invalidateAll(cache, zoneId, list);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  /**
+   * Copies {@code rrsets}, as they are iterated again to invalidate their names.
+   */
+  static List<ResourceRecordSet<?>> copy(Iterable<ResourceRecordSet<?>> rrsets) {
+    checkNotNull(rrsets, "rrsets");
+    List<ResourceRecordSet<?>> list = new ArrayList<ResourceRecordSet<?>>();
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      list.add(rrset);
+    }
+    return list;
+  }
+
+  static void invalidateAll(ReadCache cache, String zoneId, List<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      cache.invalidate(zoneId, rrset.name());
+    }
+  }
+
+  static final class Factory implements ResourceRecordSetApi.Factory {
+
+    private final ResourceRecordSetApi.Factory delegate;
+    private final ReadCache cache;
+
+    Factory(ResourceRecordSetApi.Factory delegate, ReadCache cache) {
+      this.delegate = delegate;
+      this.cache = cache;
+    }
+
+    @Override
+    public ResourceRecordSetApi create(String id) {
+      return new CachingResourceRecordSetApi(delegate.create(id), id, cache);
+    }
+  }
+}
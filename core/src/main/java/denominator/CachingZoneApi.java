@@ -0,0 +1,63 @@
+package denominator;
+
+import java.util.Iterator;
+import java.util.List;
+
+import denominator.model.Zone;
+
+import static denominator.AsyncDNSApi.toList;
+import static denominator.common.Preconditions.checkNotNull;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Caches {@link #iterateByName(String)}, invalidating all zone reads on a write.
+ */
+final class CachingZoneApi implements ZoneApi {
+
+  private final ZoneApi delegate;
+  private final ReadCache cache;
+
+  CachingZoneApi(ZoneApi delegate, ReadCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public Iterator<Zone> iterator() {
+    return delegate.iterator();
+  }
+
+  @Override
+  public Iterator<Zone> iterateByName(final String name) {
+    checkNotNull(name, "name");
+    return cache.get(null, name, "iterateByName", new ReadCache.Loader<List<Zone>>() {
+      public List<Zone> load() {
+        return unmodifiableList(toList(delegate.iterateByName(name)));
+      }
+    }).iterator();
+  }
+
+  @Override
+  public String put(Zone zone) {
+    try {
+      return delegate.put(zone);
+    } finally {
+      cache.invalidateZone(null);
+    }
+  }
+
+  @Override
+  public void delete(String id) {
+    try {
+      delegate.delete(id);
+    } finally {
+      cache.invalidateZone(null);
+      cache.invalidateZone(id);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
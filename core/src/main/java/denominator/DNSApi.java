@@ -18,13 +18,18 @@ public class DNSApi {
   private final AllProfileResourceRecordSetApi.Factory allRRSetApiFactory;
   private final GeoResourceRecordSetApi.Factory geoApiFactory;
   private final WeightedResourceRecordSetApi.Factory weightedApiFactory;
+  private final String provider;
+  private final Instrumentation instrumentation;
 
   @Inject
   DNSApi(ZoneApi zones, ResourceRecordSetApi.Factory rrsetApiFactory,
          AllProfileResourceRecordSetApi.Factory allRRSetApiFactory,
          GeoResourceRecordSetApi.Factory geoApiFactory,
-         WeightedResourceRecordSetApi.Factory weightedApiFactory) {
-    this.zones = zones;
+         WeightedResourceRecordSetApi.Factory weightedApiFactory, Provider provider,
+         Instrumentation instrumentation) {
+    this.provider = provider.name();
+    this.instrumentation = instrumentation;
+    this.zones = instrumentation.instrument(this.provider, ZoneApi.class, zones);
     this.rrsetApiFactory = rrsetApiFactory;
     this.allRRSetApiFactory = allRRSetApiFactory;
     this.geoApiFactory = geoApiFactory;
@@ -56,7 +61,8 @@ public class DNSApi {
    * @param id {@link Zone#id() id} of the zone.
    */
   public ResourceRecordSetApi basicRecordSetsInZone(String id) {
-    return rrsetApiFactory.create(id);
+    ResourceRecordSetApi api = rrsetApiFactory.create(id);
+    return instrumentation.instrument(provider, ResourceRecordSetApi.class, api);
   }
 
   /**
@@ -76,7 +82,8 @@ public class DNSApi {
    * @param id {@link Zone#id() id} of the zone.
    */
   public AllProfileResourceRecordSetApi recordSetsInZone(String id) {
-    return allRRSetApiFactory.create(id);
+    AllProfileResourceRecordSetApi api = allRRSetApiFactory.create(id);
+    return instrumentation.instrument(provider, AllProfileResourceRecordSetApi.class, api);
   }
 
   /**
@@ -96,7 +103,8 @@ public class DNSApi {
    * @return null if this feature isn't supported on the provider.
    */
   public GeoResourceRecordSetApi geoRecordSetsInZone(String id) {
-    return geoApiFactory.create(id);
+    GeoResourceRecordSetApi api = geoApiFactory.create(id);
+    return instrumentation.instrument(provider, GeoResourceRecordSetApi.class, api);
   }
 
   /**
@@ -116,6 +124,7 @@ public class DNSApi {
    * @return null if this feature isn't supported on the provider.
    */
   public WeightedResourceRecordSetApi weightedRecordSetsInZone(String id) {
-    return weightedApiFactory.create(id);
+    WeightedResourceRecordSetApi api = weightedApiFactory.create(id);
+    return instrumentation.instrument(provider, WeightedResourceRecordSetApi.class, api);
   }
 }
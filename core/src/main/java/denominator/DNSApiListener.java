@@ -0,0 +1,69 @@
+package denominator;
+
+/**
+ * Receives an event for each call to a {@link DNSApi} api, such as {@link ZoneApi} or {@link
+ * denominator.profile.GeoResourceRecordSetApi}, for each HTTP request made underneath it, for
+ * each retry, and for each asynchronous job a provider waits on.
+ * Register listeners with the {@link Instrument} module. {@link DNSApiMetrics} is a listener which
+ * keeps counts and latency percentiles.
+ *
+ * <br> <br> <b>Threads</b><br>
+ *
+ * Events are sent on the thread that made the call or request, after it completes. Listeners must
+ * be thread-safe and should return quickly.
+ *
+ * @since 4.8
+ */
+public interface DNSApiListener {
+
+  /**
+   * Called when a method of an api returns or throws.
+   *
+   * @param provider     {@link Provider#name() name} of the provider, such as {@code route53}.
+   * @param api          simple name of the api interface, such as {@code GeoResourceRecordSetApi}.
+   * @param method       name of the method called, such as {@code put}.
+   * @param nanos        time the call took.
+   * @param httpRequests count of HTTP requests made during the call, on its thread. Requests made
+   *                     later, while consuming a lazy iterator, aren't counted.
+   * @param error        null, unless the call threw.
+   */
+  void apiCall(String provider, String api, String method, long nanos, int httpRequests,
+               Throwable error);
+
+  /**
+   * Called when an HTTP request completes or fails.
+   *
+   * @param provider      {@link Provider#name() name} of the provider, such as {@code route53}.
+   * @param method        HTTP method, such as {@code GET}.
+   * @param url           url of the request.
+   * @param status        HTTP status, or -1 if no response was received.
+   * @param nanos         time until the response headers were received.
+   * @param requestBytes  length of the request body.
+   * @param responseBytes length of the response body, or -1 if unknown.
+   * @param error         null, unless no response was received.
+   */
+  void httpRequest(String provider, String method, String url, int status, long nanos,
+                   long requestBytes, long responseBytes, Throwable error);
+
+  /**
+   * Called before sleeping ahead of a retry.
+   *
+   * @param provider   {@link Provider#name() name} of the provider, such as {@code route53}.
+   * @param operation  what's retried, such as {@code request} or {@code awaitComplete}.
+   * @param attempt    count of attempts so far, starting at 1 for the first retry.
+   * @param delayNanos time until the next attempt.
+   * @param cause      why the operation is retried.
+   */
+  void retry(String provider, String operation, int attempt, long delayNanos, Throwable cause);
+
+  /**
+   * Called when a provider sees that an asynchronous job, such as a CloudDNS record change, has
+   * completed or failed.
+   *
+   * @param provider  {@link Provider#name() name} of the provider, such as {@code clouddns}.
+   * @param operation what the job does, such as {@code createRecords}.
+   * @param nanos     time from submitting the job until it was seen to complete or fail.
+   * @param error     null, unless the job failed.
+   */
+  void job(String provider, String operation, long nanos, Throwable error);
+}
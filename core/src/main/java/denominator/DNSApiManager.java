@@ -13,15 +13,20 @@ public class DNSApiManager implements Closeable {
 
   private final Provider provider;
   private final DNSApi api;
+  private final AsyncDNSApi asyncApi;
   private final CheckConnection checkConnection;
   private final Closeable closer;
+  private final SharedExecutor executor;
 
   @Inject
-  DNSApiManager(Provider provider, DNSApi api, CheckConnection checkConnection, Closeable closer) {
+  DNSApiManager(Provider provider, DNSApi api, AsyncDNSApi asyncApi,
+                CheckConnection checkConnection, Closeable closer, SharedExecutor executor) {
     this.provider = provider;
     this.api = api;
+    this.asyncApi = asyncApi;
     this.checkConnection = checkConnection;
     this.closer = closer;
+    this.executor = executor;
   }
 
   /**
@@ -31,6 +36,15 @@ public class DNSApiManager implements Closeable {
     return api;
   }
 
+  /**
+   * Runs commands of the currently configured {@link DNSApi} on the {@link SharedExecutor}.
+   *
+   * @since 4.8
+   */
+  public AsyncDNSApi asyncApi() {
+    return asyncApi;
+  }
+
   /**
    * Get the provider associated with this instance
    */
@@ -52,7 +66,11 @@ public class DNSApiManager implements Closeable {
    */
   @Override
   public void close() throws IOException {
-    closer.close();
+    try {
+      executor.close();
+    } finally {
+      closer.close();
+    }
   }
 
   @Override
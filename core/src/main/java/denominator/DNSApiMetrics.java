@@ -0,0 +1,329 @@
+package denominator;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Keeps counts, errors and latency percentiles of api calls, HTTP requests and asynchronous jobs,
+ * by provider. Also keeps counts of retries, and percentiles of the delay before them.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * DNSApiMetrics metrics = new DNSApiMetrics();
+ * manager = Denominator.create(provider, credentials, new Instrument(metrics));
+ * ...
+ * DNSApiMetrics.Stats put = metrics.apiCall("ultradns", "GeoResourceRecordSetApi", "put");
+ * double httpRequestsPerPut = (double) put.httpRequests() / put.count();
+ * long p99 = put.percentile(99, MILLISECONDS);
+ * </pre>
+ *
+ * Latencies are recorded in buckets no wider than a quarter of their lower bound, so percentiles
+ * are within 25% of the actual value. Memory used is fixed per distinct method.
+ *
+ * @since 4.8
+ */
+public final class DNSApiMetrics implements DNSApiListener {
+
+  private final ConcurrentMap<String, Stats> apiCalls = new ConcurrentHashMap<String, Stats>();
+  private final ConcurrentMap<String, Stats> httpRequests = new ConcurrentHashMap<String, Stats>();
+  private final ConcurrentMap<String, Stats> retries = new ConcurrentHashMap<String, Stats>();
+  private final ConcurrentMap<String, Stats> jobs = new ConcurrentHashMap<String, Stats>();
+
+  @Override
+  public void apiCall(String provider, String api, String method, long nanos, int httpRequests,
+                      Throwable error) {
+    Stats stats = stats(apiCalls, provider + " " + api + "." + method);
+    stats.record(nanos, error != null);
+    stats.httpRequests.addAndGet(httpRequests);
+  }
+
+  @Override
+  public void httpRequest(String provider, String method, String url, int status, long nanos,
+                          long requestBytes, long responseBytes, Throwable error) {
+    Stats stats = stats(httpRequests, provider + " " + method);
+    stats.record(nanos, error != null || status >= 400);
+    stats.httpRequests.incrementAndGet();
+    stats.requestBytes.addAndGet(Math.max(requestBytes, 0));
+    stats.responseBytes.addAndGet(Math.max(responseBytes, 0));
+  }
+
+  @Override
+  public void retry(String provider, String operation, int attempt, long delayNanos,
+                    Throwable cause) {
+    stats(retries, provider + " " + operation).record(delayNanos, false);
+  }
+
+  @Override
+  public void job(String provider, String operation, long nanos, Throwable error) {
+    stats(jobs, provider + " " + operation).record(nanos, error != null);
+  }
+
+  /**
+   * Returns stats of calls to the method, or null if it wasn't called.
+   *
+   * @param provider {@link Provider#name() name} of the provider, such as {@code ultradns}.
+   * @param api      simple name of the api interface, such as {@code GeoResourceRecordSetApi}.
+   * @param method   name of the method, such as {@code put}.
+   */
+  public Stats apiCall(String provider, String api, String method) {
+    return apiCalls.get(provider + " " + api + "." + method);
+  }
+
+  /**
+   * Returns stats of HTTP requests to the provider using the method, or null if there were none.
+   *
+   * @param provider {@link Provider#name() name} of the provider, such as {@code ultradns}.
+   * @param method   HTTP method, such as {@code POST}.
+   */
+  public Stats httpRequest(String provider, String method) {
+    return httpRequests.get(provider + " " + method);
+  }
+
+  /**
+   * Returns stats of retries of the operation, or null if there were none. Latencies are the delays
+   * before each retry.
+   *
+   * @param provider  {@link Provider#name() name} of the provider, such as {@code route53}.
+   * @param operation what's retried, such as {@code request}.
+   */
+  public Stats retry(String provider, String operation) {
+    return retries.get(provider + " " + operation);
+  }
+
+  /**
+   * Returns stats of jobs doing the operation, or null if there were none. Latencies are from
+   * submitting each job until it was seen to complete.
+   *
+   * @param provider  {@link Provider#name() name} of the provider, such as {@code clouddns}.
+   * @param operation what the job does, such as {@code createRecords}.
+   */
+  public Stats job(String provider, String operation) {
+    return jobs.get(provider + " " + operation);
+  }
+
+  /**
+   * Stats of all api calls, keyed and sorted by provider, api and method, such as {@code ultradns
+   * GeoResourceRecordSetApi.put}.
+   */
+  public Map<String, Stats> apiCalls() {
+    return Collections.unmodifiableMap(new TreeMap<String, Stats>(apiCalls));
+  }
+
+  /**
+   * Stats of all HTTP requests, keyed and sorted by provider and HTTP method, such as {@code
+   * ultradns POST}.
+   */
+  public Map<String, Stats> httpRequests() {
+    return Collections.unmodifiableMap(new TreeMap<String, Stats>(httpRequests));
+  }
+
+  /**
+   * Stats of all retries, keyed and sorted by provider and operation, such as {@code route53
+   * request}.
+   */
+  public Map<String, Stats> retries() {
+    return Collections.unmodifiableMap(new TreeMap<String, Stats>(retries));
+  }
+
+  /**
+   * Stats of all jobs, keyed and sorted by provider and operation, such as {@code clouddns
+   * createRecords}.
+   */
+  public Map<String, Stats> jobs() {
+    return Collections.unmodifiableMap(new TreeMap<String, Stats>(jobs));
+  }
+
+  /**
+   * Discards all stats.
+   */
+  public void reset() {
+    apiCalls.clear();
+    httpRequests.clear();
+    retries.clear();
+    jobs.clear();
+  }
+
+  private static Stats stats(ConcurrentMap<String, Stats> map, String key) {
+    Stats stats = map.get(key);
+    if (stats == null) {
+      Stats race = map.putIfAbsent(key, stats = new Stats());
+      if (race != null) {
+        stats = race;
+      }
+    }
+    return stats;
+  }
+
+  /**
+   * Formats one line per api call and HTTP method, with counts and percentiles in milliseconds.
+   */
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    for (Map.Entry<String, Stats> entry : apiCalls().entrySet()) {
+      result.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+    }
+    for (Map.Entry<String, Stats> entry : httpRequests().entrySet()) {
+      result.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+    }
+    for (Map.Entry<String, Stats> entry : retries().entrySet()) {
+      result.append(entry.getKey()).append(" retry ").append(entry.getValue()).append('\n');
+    }
+    for (Map.Entry<String, Stats> entry : jobs().entrySet()) {
+      result.append(entry.getKey()).append(" job ").append(entry.getValue()).append('\n');
+    }
+    return result.toString();
+  }
+
+  public static final class Stats {
+
+    /**
+     * Each power of two is split into four buckets, so there are at most 4 buckets per bit.
+     */
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(64 * 4);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong httpRequests = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    Stats() {
+    }
+
+    void record(long nanos, boolean error) {
+      nanos = Math.max(nanos, 0);
+      latencyBuckets.incrementAndGet(bucket(nanos));
+      count.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+      if (error) {
+        errors.incrementAndGet();
+      }
+      for (long max = maxNanos.get(); nanos > max; max = maxNanos.get()) {
+        if (maxNanos.compareAndSet(max, nanos)) {
+          break;
+        }
+      }
+    }
+
+    /**
+     * Count of calls or requests, including errors.
+     */
+    public long count() {
+      return count.get();
+    }
+
+    /**
+     * Count of calls which threw, or requests which failed or returned a status of 400 or above.
+     */
+    public long errors() {
+      return errors.get();
+    }
+
+    /**
+     * Count of HTTP requests. For api calls, this is the sum of HTTP requests made during each
+     * call.
+     */
+    public long httpRequests() {
+      return httpRequests.get();
+    }
+
+    /**
+     * Sum of request body lengths. Always zero for api calls.
+     */
+    public long requestBytes() {
+      return requestBytes.get();
+    }
+
+    /**
+     * Sum of known response body lengths. Always zero for api calls.
+     */
+    public long responseBytes() {
+      return responseBytes.get();
+    }
+
+    public long mean(TimeUnit unit) {
+      long count = count();
+      return count == 0 ? 0 : unit.convert(totalNanos.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    public long max(TimeUnit unit) {
+      return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the latency that {@code percentile} percent of calls completed within, rounded up to
+     * the bucket it's in.
+     *
+     * @param percentile between 0 and 100, such as 99.9
+     */
+    public long percentile(double percentile, TimeUnit unit) {
+      checkArgument(percentile >= 0 && percentile <= 100,
+                    "percentile must be between 0 and 100, but was %s", percentile);
+      long total = 0;
+      long[] counts = new long[latencyBuckets.length()];
+      for (int i = 0; i < counts.length; i++) {
+        total += counts[i] = latencyBuckets.get(i);
+      }
+      if (total == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return unit.convert(Math.min(upperBound(i), maxNanos.get()), TimeUnit.NANOSECONDS);
+        }
+      }
+      return max(unit);
+    }
+
+    static int bucket(long nanos) {
+      if (nanos < 4) {
+        return (int) nanos;
+      }
+      int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+      int quarter = (int) (nanos >>> (exponent - 2)) & 3;
+      return exponent * 4 + quarter;
+    }
+
+    static long upperBound(int bucket) {
+      if (bucket < 4) {
+        return bucket;
+      }
+      int exponent = bucket / 4;
+      int quarter = bucket % 4;
+      if (exponent >= 61) {
+        return Long.MAX_VALUE;
+      }
+      return ((4L + quarter + 1) << (exponent - 2)) - 1;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder result = new StringBuilder()
+          .append("count=").append(count())
+          .append(", errors=").append(errors())
+          .append(", httpRequests=").append(httpRequests());
+      if (requestBytes() > 0 || responseBytes() > 0) {
+        result.append(", requestBytes=").append(requestBytes())
+            .append(", responseBytes=").append(responseBytes());
+      }
+      return result.append(", p50=").append(percentile(50, TimeUnit.MILLISECONDS))
+          .append(", p99=").append(percentile(99, TimeUnit.MILLISECONDS))
+          .append(", max=").append(max(TimeUnit.MILLISECONDS)).append("ms")
+          .toString();
+    }
+  }
+}
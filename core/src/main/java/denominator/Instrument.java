@@ -0,0 +1,47 @@
+package denominator;
+
+import java.util.Arrays;
+
+import javax.inject.Singleton;
+
+import dagger.Module;
+import dagger.Provides;
+
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Sends an event to each listener for every api call and every HTTP request made by the {@link
+ * DNSApiManager}.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * DNSApiMetrics metrics = new DNSApiMetrics();
+ * manager = Denominator.create(provider, credentials, new Instrument(metrics));
+ * manager.api().geoRecordSetsInZone(zoneId).put(rrset);
+ * System.out.println(metrics);
+ * </pre>
+ *
+ * @see DNSApiListener
+ * @since 4.8
+ */
+@Module(injects = DNSApiManager.class, complete = false, overrides = true)
+public final class Instrument {
+
+  private final DNSApiListener[] listeners;
+
+  public Instrument(DNSApiListener... listeners) {
+    this.listeners = checkNotNull(listeners, "listeners").clone();
+  }
+
+  @Provides
+  @Singleton
+  Instrumentation provideInstrumentation() {
+    return new Instrumentation(listeners);
+  }
+
+  @Override
+  public String toString() {
+    return "Instrument(" + Arrays.asList(listeners) + ")";
+  }
+}
@@ -0,0 +1,157 @@
+package denominator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Sends events to {@link DNSApiListener listeners}. By default, there are no listeners and apis
+ * aren't wrapped at all. Use the {@link Instrument} module to add listeners.
+ *
+ * <br> <br> <b>Call amplification</b><br>
+ *
+ * HTTP requests made while an api call is in progress on the same thread are counted against that
+ * call. This exposes how many requests a single call, such as a geo {@code put}, actually costs.
+ *
+ * @since 4.8
+ */
+@Singleton
+public class Instrumentation {
+
+  private static final ThreadLocal<int[]> HTTP_REQUESTS_IN_CALL = new ThreadLocal<int[]>();
+
+  private final DNSApiListener[] listeners;
+
+  @Inject
+  public Instrumentation() {
+    this(new DNSApiListener[0]);
+  }
+
+  public Instrumentation(DNSApiListener... listeners) {
+    this.listeners = checkNotNull(listeners, "listeners").clone();
+    for (DNSApiListener listener : this.listeners) {
+      checkNotNull(listener, "listener");
+    }
+  }
+
+  /**
+   * False when there are no listeners, in which case there's no need to record anything.
+   */
+  public boolean enabled() {
+    return listeners.length > 0;
+  }
+
+  /**
+   * Sends an HTTP request event to all listeners. Intended for use by HTTP clients.
+   *
+   * @see DNSApiListener#httpRequest(String, String, String, int, long, long, long, Throwable)
+   */
+  public void httpRequest(String provider, String method, String url, int status, long nanos,
+                          long requestBytes, long responseBytes, Throwable error) {
+    int[] httpRequestsInCall = HTTP_REQUESTS_IN_CALL.get();
+    if (httpRequestsInCall != null) {
+      httpRequestsInCall[0]++;
+    }
+    for (DNSApiListener listener : listeners) {
+      listener.httpRequest(provider, method, url, status, nanos, requestBytes, responseBytes,
+                           error);
+    }
+  }
+
+  /**
+   * Sends a retry event to all listeners. Intended for use by retryers.
+   *
+   * @see DNSApiListener#retry(String, String, int, long, Throwable)
+   */
+  public void retry(String provider, String operation, int attempt, long delayNanos,
+                    Throwable cause) {
+    for (DNSApiListener listener : listeners) {
+      listener.retry(provider, operation, attempt, delayNanos, cause);
+    }
+  }
+
+  /**
+   * Sends a job event to all listeners. Intended for use by providers which wait on jobs.
+   *
+   * @see DNSApiListener#job(String, String, long, Throwable)
+   */
+  public void job(String provider, String operation, long nanos, Throwable error) {
+    for (DNSApiListener listener : listeners) {
+      listener.job(provider, operation, nanos, error);
+    }
+  }
+
+  /**
+   * Returns a view of the api which sends an event to all listeners after each method call, or the
+   * api itself, if there are no listeners.
+   */
+  <T> T instrument(String provider, Class<T> type, T api) {
+    if (!enabled() || api == null) {
+      return api;
+    }
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                                            new InstrumentedApi(provider, type, api)));
+  }
+
+  @Override
+  public String toString() {
+    return "Instrumentation(" + Arrays.asList(listeners) + ")";
+  }
+
+  final class InstrumentedApi implements InvocationHandler {
+
+    private final String provider;
+    private final String api;
+    private final Object delegate;
+
+    InstrumentedApi(String provider, Class<?> type, Object delegate) {
+      this.provider = provider;
+      this.api = type.getSimpleName();
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return invoke(method, args);
+      }
+      int[] outer = HTTP_REQUESTS_IN_CALL.get();
+      int[] httpRequests = new int[1];
+      HTTP_REQUESTS_IN_CALL.set(httpRequests);
+      Throwable error = null;
+      long start = System.nanoTime();
+      try {
+        return invoke(method, args);
+      } catch (Throwable e) {
+        error = e;
+        throw e;
+      } finally {
+        long nanos = System.nanoTime() - start;
+        if (outer != null) {
+          outer[0] += httpRequests[0];
+          HTTP_REQUESTS_IN_CALL.set(outer);
+        } else {
+          HTTP_REQUESTS_IN_CALL.remove();
+        }
+        for (DNSApiListener listener : listeners) {
+          listener.apiCall(provider, api, method.getName(), nanos, httpRequests[0], error);
+        }
+      }
+    }
+
+    private Object invoke(Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(delegate, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+}
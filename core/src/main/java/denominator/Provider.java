@@ -73,6 +73,15 @@ public interface Provider {
    */
   boolean supportsDuplicateZoneNames();
 
+  /**
+   * True when {@link ResourceRecordSetApi#putAll(Iterable) putAll} and {@link
+   * ResourceRecordSetApi#deleteAll(Iterable) deleteAll} send multiple changes per request. When
+   * false, these methods loop over each record set, issuing one or more requests per element.
+   *
+   * @since 4.8
+   */
+  boolean supportsBatchChanges();
+
   /**
    * Description of the credential parameters needed for this provider by type. Multiple entries are
    * present when the provider supports multiple credential types, and the order of these entries
@@ -0,0 +1,146 @@
+package denominator;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Util.equal;
+
+/**
+ * Results of reads, grouped by zone and name, so that a write to a name can invalidate all reads of
+ * it. The least recently read names are evicted once there are more than {@code maxNames}.
+ *
+ * <br> A read that started before an invalidation isn't cached, as it may have missed the write.
+ */
+final class ReadCache {
+
+  private final int maxNames;
+  private final long maxStalenessNanos;
+  private final LinkedHashMap<ZoneAndName, Map<String, CachedRead>> names;
+  private long invalidations;
+
+  /**
+   * @param maxNames          maximum count of names whose reads are cached.
+   * @param maxStalenessNanos reads older than this are reloaded.
+   */
+  ReadCache(final int maxNames, long maxStalenessNanos) {
+    checkArgument(maxNames > 0, "maxNames must be positive, but was %s", maxNames);
+    checkArgument(maxStalenessNanos >= 0, "maxStaleness must not be negative, but was %s",
+                  maxStalenessNanos);
+    this.maxNames = maxNames;
+    this.maxStalenessNanos = maxStalenessNanos;
+    this.names = new LinkedHashMap<ZoneAndName, Map<String, CachedRead>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<ZoneAndName, Map<String, CachedRead>> eldest) {
+        return size() > maxNames;
+      }
+    };
+  }
+
+  /**
+   * Returns the result of {@code read}, loading it if absent or stale.
+   *
+   * @param zoneId id of the zone read, or null when reading zones.
+   * @param name   name read.
+   * @param read   distinguishes reads of the same name, such as the method and its arguments.
+   */
+  @SuppressWarnings("unchecked")
+  <T> T get(String zoneId, String name, String read, Loader<T> loader) {
+    ZoneAndName key = new ZoneAndName(zoneId, name);
+    long generation;
+    synchronized (this) {
+      Map<String, CachedRead> reads = names.get(key);
+      CachedRead cached = reads != null ? reads.get(read) : null;
+      if (cached != null && System.nanoTime() - cached.loadedNanos <= maxStalenessNanos) {
+        return (T) cached.value;
+      }
+      generation = invalidations;
+    }
+    long loadedNanos = System.nanoTime();
+    T value = loader.load();
+    synchronized (this) {
+      if (generation == invalidations) {
+        Map<String, CachedRead> reads = names.get(key);
+        if (reads == null) {
+          reads = new HashMap<String, CachedRead>();
+          names.put(key, reads);
+        }
+        reads.put(read, new CachedRead(value, loadedNanos));
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Invalidates all reads of {@code name} in the zone, or of zones by name if {@code zoneId} is
+   * null.
+   */
+  synchronized void invalidate(String zoneId, String name) {
+    invalidations++;
+    names.remove(new ZoneAndName(zoneId, name));
+  }
+
+  /**
+   * Invalidates all reads in the zone, or of zones by name if {@code zoneId} is null.
+   */
+  synchronized void invalidateZone(String zoneId) {
+    invalidations++;
+    for (Iterator<ZoneAndName> it = names.keySet().iterator(); it.hasNext(); ) {
+      if (equal(it.next().zoneId, zoneId)) {
+        it.remove();
+      }
+    }
+  }
+
+  synchronized int size() {
+    return names.size();
+  }
+
+  @Override
+  public String toString() {
+    return "ReadCache(" + maxNames + ")";
+  }
+
+  interface Loader<T> {
+
+    T load();
+  }
+
+  static final class CachedRead {
+
+    final Object value;
+    final long loadedNanos;
+
+    CachedRead(Object value, long loadedNanos) {
+      this.value = value;
+      this.loadedNanos = loadedNanos;
+    }
+  }
+
+  static final class ZoneAndName {
+
+    final String zoneId;
+    final String name;
+
+    ZoneAndName(String zoneId, String name) {
+      this.zoneId = zoneId;
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof ZoneAndName) {
+        ZoneAndName that = (ZoneAndName) obj;
+        return equal(zoneId, that.zoneId) && equal(name, that.name);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (zoneId != null ? zoneId.hashCode() : 0) + (name != null ? name.hashCode() : 0);
+    }
+  }
+}
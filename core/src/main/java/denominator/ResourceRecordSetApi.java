@@ -63,6 +63,37 @@ public interface ResourceRecordSetApi extends Iterable<ResourceRecordSet<?>> {
    */
   void deleteByNameAndType(String name, String type);
 
+  /**
+   * Idempotently {@link #put(ResourceRecordSet) puts} each of the record sets. When the provider
+   * {@link Provider#supportsBatchChanges() supports batch changes}, this results in as few requests
+   * as possible. Otherwise, this is the same as calling {@code put} on each element.
+   *
+   * <br> Example of replacing the {@code A} record sets for two names:
+   *
+   * <pre>
+   * rrsApi.putAll(asList(a(&quot;www1.denominator.io.&quot;, &quot;192.0.2.1&quot;),
+   *                      a(&quot;www2.denominator.io.&quot;, &quot;192.0.2.2&quot;)));
+   * </pre>
+   *
+   * @param rrsets record sets to ensure exist, keyed on {@link ResourceRecordSet#name() name} and
+   *               {@link ResourceRecordSet#type() type}.
+   * @throws IllegalArgumentException if the zone is not found
+   * @since 4.8
+   */
+  void putAll(Iterable<ResourceRecordSet<?>> rrsets);
+
+  /**
+   * Idempotently {@link #deleteByNameAndType(String, String) deletes} the record sets with the
+   * same {@link ResourceRecordSet#name() name} and {@link ResourceRecordSet#type() type} as each of
+   * the inputs. When the provider {@link Provider#supportsBatchChanges() supports batch changes},
+   * this results in as few requests as possible.
+   *
+   * @param rrsets record sets to ensure don't exist. Only name and type are considered.
+   * @throws IllegalArgumentException if the zone is not found.
+   * @since 4.8
+   */
+  void deleteAll(Iterable<ResourceRecordSet<?>> rrsets);
+
   interface Factory {
 
     ResourceRecordSetApi create(String id);
@@ -0,0 +1,169 @@
+package denominator;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Bounded pool of daemon threads shared by everything in one {@link DNSApiManager}, such as {@link
+ * AsyncDNSApi}. Threads are started on demand, time out when idle, and are stopped when the manager
+ * is {@link DNSApiManager#close() closed}.
+ *
+ * <br> <br> <b>Saturation</b><br>
+ *
+ * When all threads are busy and the queue is full, tasks run on the calling thread. This slows
+ * down producers instead of failing them. Tasks which can be skipped, such as refreshes of values
+ * that are still valid, can use {@link #tryExecute(Runnable)} instead.
+ *
+ * <br> <br> <b>Configuration</b><br>
+ *
+ * The default is {@value #DEFAULT_THREADS} threads and a queue of {@value #DEFAULT_QUEUE_SIZE}
+ * tasks. To change this, provide an instance in a module that overrides the default.
+ *
+ * <pre>
+ * &#064;Module(injects = DNSApiManager.class, complete = false, overrides = true)
+ * class MoreThreads {
+ *   &#064;Provides
+ *   &#064;Singleton
+ *   SharedExecutor provideSharedExecutor() {
+ *     return new SharedExecutor(32, 1000);
+ *   }
+ * }
+ *
+ * manager = Denominator.create(provider, credentials, new MoreThreads());
+ * </pre>
+ *
+ * @since 4.8
+ */
+@Singleton
+public class SharedExecutor implements Executor, Closeable {
+
+  public static final int DEFAULT_THREADS = 8;
+  public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+  private final ThreadPoolExecutor pool;
+
+  @Inject
+  public SharedExecutor() {
+    this(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE);
+  }
+
+  /**
+   * @param threads   maximum count of threads running tasks at the same time.
+   * @param queueSize maximum count of tasks waiting for a thread.
+   */
+  public SharedExecutor(int threads, int queueSize) {
+    checkArgument(threads > 0, "threads must be positive, but was %s", threads);
+    checkArgument(queueSize > 0, "queueSize must be positive, but was %s", queueSize);
+    pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                  new ArrayBlockingQueue<Runnable>(queueSize),
+                                  new DaemonThreadFactory(), new CallerRunsUnlessShutdown());
+    pool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * @throws RejectedExecutionException if this executor is closed.
+   */
+  @Override
+  public void execute(Runnable command) {
+    pool.execute(command);
+  }
+
+  /**
+   * Like {@link #execute(Runnable)}, except the task never runs on the calling thread.
+   *
+   * @return false if the task wasn't accepted, as all threads are busy and the queue is full, or
+   * this executor is closed.
+   */
+  public boolean tryExecute(Runnable command) {
+    try {
+      pool.execute(new SkipWhenSaturated(command));
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @throws RejectedExecutionException if this executor is closed.
+   */
+  public <T> Future<T> submit(Callable<T> task) {
+    return pool.submit(task);
+  }
+
+  public boolean isClosed() {
+    return pool.isShutdown();
+  }
+
+  /**
+   * Interrupts running tasks and cancels those that haven't started, so that nothing waits on them
+   * forever.
+   */
+  @Override
+  public void close() {
+    for (Runnable neverRun : pool.shutdownNow()) {
+      if (neverRun instanceof FutureTask) {
+        ((FutureTask<?>) neverRun).cancel(false);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SharedExecutor(" + pool.getMaximumPoolSize() + ")";
+  }
+
+  static final class CallerRunsUnlessShutdown implements RejectedExecutionHandler {
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+      if (executor.isShutdown()) {
+        throw new RejectedExecutionException("executor is closed");
+      }
+      if (task instanceof SkipWhenSaturated) {
+        throw new RejectedExecutionException("executor is saturated");
+      }
+      task.run();
+    }
+  }
+
+  static final class SkipWhenSaturated implements Runnable {
+
+    private final Runnable delegate;
+
+    SkipWhenSaturated(Runnable delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void run() {
+      delegate.run();
+    }
+  }
+
+  static final class DaemonThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable task) {
+      Thread thread = new Thread(task, "denominator-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,350 @@
+package denominator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import denominator.common.Filter;
+import denominator.model.ResourceRecordSet;
+import denominator.model.Zone;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+import static denominator.common.Util.equal;
+import static denominator.model.ResourceRecordSets.notSOAOrApexNS;
+
+/**
+ * Makes the record sets in a zone match a desired state, sending only the changes needed. Putting
+ * each desired record set costs at least one read per record set, even when nothing changed.
+ * Instead, this reads the zone once, then puts or deletes only what differs.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * ZoneSync.Plan plan = ZoneSync.plan(manager.api(), zone.id(), desired);
+ * log.info(plan.toString()); // ex. Plan(creates=1, updates=2, deletes=0, unchanged=9997)
+ * ZoneSync.Result result = plan.apply();
+ * </pre>
+ *
+ * <br> <br> <b>Matching</b><br>
+ *
+ * Record sets are matched on {@link ResourceRecordSet#name() name}, {@link ResourceRecordSet#type()
+ * type} and {@link ResourceRecordSet#qualifier() qualifier}. A match is unchanged when its records
+ * are the same, regardless of order, and its ttl and profiles are the same. A desired record set
+ * without a ttl matches any ttl.
+ *
+ * @since 4.8
+ */
+public final class ZoneSync {
+
+  /**
+   * Record sets of type {@code SOA} can't be deleted, so aren't considered for deletion.
+   */
+  public static final Filter<ResourceRecordSet<?>> NOT_SOA = new Filter<ResourceRecordSet<?>>() {
+    @Override
+    public boolean apply(ResourceRecordSet<?> in) {
+      return !"SOA".equals(in.type());
+    }
+
+    @Override
+    public String toString() {
+      return "NotSOA";
+    }
+  };
+
+  /**
+   * Same as calling {@link #plan(DNSApi, String, Iterable, Filter)} with {@link
+   * denominator.model.ResourceRecordSets#notSOAOrApexNS(String)}. Deleting the apex {@code NS}
+   * record set would remove the zone's delegation, and some providers, such as Route53, reject it.
+   *
+   * <br> The zone name is looked up by listing {@link DNSApi#zones() zones}.
+   *
+   * @throws IllegalArgumentException if the zone is not found.
+   */
+  public static Plan plan(DNSApi api, String zoneId, Iterable<ResourceRecordSet<?>> desired) {
+    checkNotNull(api, "api");
+    checkNotNull(zoneId, "zoneId");
+    return plan(api, zoneId, desired, notSOAOrApexNS(zoneName(api.zones(), zoneId)));
+  }
+
+  /**
+   * Reads all record sets in the zone, and compares them against {@code desired}.
+   *
+   * @param zoneId    {@link denominator.model.Zone#id() id} of the zone to sync.
+   * @param desired   all record sets that should exist in the zone.
+   * @param deletable record sets in the zone, but not in {@code desired}, are only deleted when
+   *                  this returns true.
+   * @throws IllegalArgumentException if {@code desired} has more than one record set with the same
+   *                                  name, type and qualifier.
+   */
+  public static Plan plan(DNSApi api, String zoneId, Iterable<ResourceRecordSet<?>> desired,
+                          Filter<ResourceRecordSet<?>> deletable) {
+    checkNotNull(api, "api");
+    checkNotNull(zoneId, "zoneId");
+    checkNotNull(desired, "desired");
+    checkNotNull(deletable, "deletable");
+    long start = System.nanoTime();
+
+    Map<Key, ResourceRecordSet<?>> unmatched = new LinkedHashMap<Key, ResourceRecordSet<?>>();
+    for (ResourceRecordSet<?> rrset : desired) {
+      checkNotNull(rrset, "rrset in desired");
+      checkArgument(unmatched.put(new Key(rrset), rrset) == null,
+                    "more than one record set matches %s", rrset);
+    }
+
+    List<ResourceRecordSet<?>> creates = new ArrayList<ResourceRecordSet<?>>();
+    List<ResourceRecordSet<?>> updates = new ArrayList<ResourceRecordSet<?>>();
+    List<ResourceRecordSet<?>> deletes = new ArrayList<ResourceRecordSet<?>>();
+    int unchanged = 0;
+    for (Iterator<ResourceRecordSet<?>> live = api.recordSetsInZone(zoneId).iterator();
+         live.hasNext(); ) {
+      ResourceRecordSet<?> existing = live.next();
+      ResourceRecordSet<?> wanted = unmatched.remove(new Key(existing));
+      if (wanted == null) {
+        if (deletable.apply(existing)) {
+          deletes.add(existing);
+        }
+      } else if (unchanged(wanted, existing)) {
+        unchanged++;
+      } else {
+        updates.add(wanted);
+      }
+    }
+    creates.addAll(unmatched.values());
+    return new Plan(api, zoneId, creates, updates, deletes, unchanged,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private static String zoneName(ZoneApi zones, String zoneId) {
+    String name = null;
+    for (Iterator<Zone> it = zones.iterator(); name == null && it.hasNext(); ) {
+      Zone zone = it.next();
+      if (zoneId.equals(zone.id())) {
+        name = zone.name();
+      }
+    }
+    checkArgument(name != null, "zone %s not found", zoneId);
+    return name;
+  }
+
+  static boolean unchanged(ResourceRecordSet<?> wanted, ResourceRecordSet<?> existing) {
+    return (wanted.ttl() == null || wanted.ttl().equals(existing.ttl()))
+           && equal(wanted.geo(), existing.geo())
+           && equal(wanted.weighted(), existing.weighted())
+           && wanted.records().size() == existing.records().size()
+           && new HashSet<Object>(wanted.records()).containsAll(existing.records());
+  }
+
+  /**
+   * Changes needed to make a zone match the desired state, as of when it was read.
+   */
+  public static final class Plan {
+
+    private final DNSApi api;
+    private final String zoneId;
+    private final List<ResourceRecordSet<?>> creates;
+    private final List<ResourceRecordSet<?>> updates;
+    private final List<ResourceRecordSet<?>> deletes;
+    private final int unchanged;
+    private final long planMillis;
+
+    Plan(DNSApi api, String zoneId, List<ResourceRecordSet<?>> creates,
+         List<ResourceRecordSet<?>> updates, List<ResourceRecordSet<?>> deletes, int unchanged,
+         long planMillis) {
+      this.api = api;
+      this.zoneId = zoneId;
+      this.creates = Collections.unmodifiableList(creates);
+      this.updates = Collections.unmodifiableList(updates);
+      this.deletes = Collections.unmodifiableList(deletes);
+      this.unchanged = unchanged;
+      this.planMillis = planMillis;
+    }
+
+    /**
+     * Desired record sets that don't exist in the zone.
+     */
+    public List<ResourceRecordSet<?>> creates() {
+      return creates;
+    }
+
+    /**
+     * Desired record sets that exist in the zone, but differ.
+     */
+    public List<ResourceRecordSet<?>> updates() {
+      return updates;
+    }
+
+    /**
+     * Record sets in the zone which aren't desired.
+     */
+    public List<ResourceRecordSet<?>> deletes() {
+      return deletes;
+    }
+
+    /**
+     * Count of desired record sets that already exist in the zone, as desired.
+     */
+    public int unchanged() {
+      return unchanged;
+    }
+
+    /**
+     * Time taken to read the zone and compare it against the desired state.
+     */
+    public long planMillis() {
+      return planMillis;
+    }
+
+    public boolean isEmpty() {
+      return creates.isEmpty() && updates.isEmpty() && deletes.isEmpty();
+    }
+
+    /**
+     * Deletes, then puts the changed record sets. Basic record sets are changed via {@link
+     * DNSApi#basicRecordSetsInZone(String)}, and the rest via {@link
+     * DNSApi#recordSetsInZone(String)}. Both use {@code putAll} and {@code deleteAll}, so that
+     * providers who {@link Provider#supportsBatchChanges() support batch changes} send as few
+     * requests as possible.
+     *
+     * <br> Deletes are applied first, so that a name can change from one type to another, such as
+     * {@code CNAME} to {@code A}.
+     */
+    public Result apply() {
+      long start = System.nanoTime();
+      if (!deletes.isEmpty()) {
+        List<ResourceRecordSet<?>> basic = new ArrayList<ResourceRecordSet<?>>();
+        List<ResourceRecordSet<?>> qualified = new ArrayList<ResourceRecordSet<?>>();
+        partition(deletes, basic, qualified);
+        if (!basic.isEmpty()) {
+          api.basicRecordSetsInZone(zoneId).deleteAll(basic);
+        }
+        if (!qualified.isEmpty()) {
+          api.recordSetsInZone(zoneId).deleteAll(qualified);
+        }
+      }
+      if (!creates.isEmpty() || !updates.isEmpty()) {
+        List<ResourceRecordSet<?>> basic = new ArrayList<ResourceRecordSet<?>>();
+        List<ResourceRecordSet<?>> qualified = new ArrayList<ResourceRecordSet<?>>();
+        partition(creates, basic, qualified);
+        partition(updates, basic, qualified);
+        if (!basic.isEmpty()) {
+          api.basicRecordSetsInZone(zoneId).putAll(basic);
+        }
+        if (!qualified.isEmpty()) {
+          api.recordSetsInZone(zoneId).putAll(qualified);
+        }
+      }
+      return new Result(this, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void partition(List<ResourceRecordSet<?>> rrsets,
+                                  List<ResourceRecordSet<?>> basic,
+                                  List<ResourceRecordSet<?>> qualified) {
+      for (ResourceRecordSet<?> rrset : rrsets) {
+        (rrset.qualifier() == null ? basic : qualified).add(rrset);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Plan(creates=" + creates.size() + ", updates=" + updates.size() + ", deletes="
+             + deletes.size() + ", unchanged=" + unchanged + ")";
+    }
+  }
+
+  /**
+   * Counts and timings of an {@link Plan#apply() applied} plan.
+   */
+  public static final class Result {
+
+    private final int created;
+    private final int updated;
+    private final int deleted;
+    private final int unchanged;
+    private final long planMillis;
+    private final long applyMillis;
+
+    Result(Plan plan, long applyMillis) {
+      this.created = plan.creates.size();
+      this.updated = plan.updates.size();
+      this.deleted = plan.deletes.size();
+      this.unchanged = plan.unchanged;
+      this.planMillis = plan.planMillis;
+      this.applyMillis = applyMillis;
+    }
+
+    public int created() {
+      return created;
+    }
+
+    public int updated() {
+      return updated;
+    }
+
+    public int deleted() {
+      return deleted;
+    }
+
+    public int unchanged() {
+      return unchanged;
+    }
+
+    /**
+     * Time taken to read the zone and compare it against the desired state.
+     */
+    public long planMillis() {
+      return planMillis;
+    }
+
+    /**
+     * Time taken to send the changes.
+     */
+    public long applyMillis() {
+      return applyMillis;
+    }
+
+    @Override
+    public String toString() {
+      return "Result(created=" + created + ", updated=" + updated + ", deleted=" + deleted
+             + ", unchanged=" + unchanged + ", planMillis=" + planMillis + ", applyMillis="
+             + applyMillis + ")";
+    }
+  }
+
+  static final class Key {
+
+    final String name;
+    final String type;
+    final String qualifier;
+
+    Key(ResourceRecordSet<?> rrset) {
+      this.name = rrset.name();
+      this.type = rrset.type();
+      this.qualifier = rrset.qualifier();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Key) {
+        Key that = (Key) obj;
+        return name.equals(that.name) && type.equals(that.type)
+               && equal(qualifier, that.qualifier);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 31 * name.hashCode() + type.hashCode();
+      return 31 * result + (qualifier != null ? qualifier.hashCode() : 0);
+    }
+  }
+
+  private ZoneSync() {
+  }
+}
@@ -0,0 +1,73 @@
+package denominator.config;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import denominator.AllProfileResourceRecordSetApi;
+import denominator.ZoneApi;
+import denominator.common.Filter;
+import denominator.model.ResourceRecordSet;
+import denominator.model.Zone;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+import static denominator.model.ResourceRecordSets.notSOAOrApexNS;
+
+/**
+ * Implements {@link AllProfileResourceRecordSetApi#clear()} with {@link
+ * AllProfileResourceRecordSetApi#deleteAll(Iterable) deleteAll}. Implementations of {@link
+ * AllProfileResourceRecordSetApi} outside denominator can delegate to this.
+ *
+ * <br> <br> <b>Zone apex</b><br>
+ *
+ * The apex is passed in, as opposed to taken from the listing, as some providers, such as CloudDNS
+ * and Designate, don't list the {@code SOA} record set.
+ *
+ * @since 4.8
+ */
+public final class ClearZone {
+
+  /**
+   * Deletes every record set listed by {@code api}, except the {@code SOA} and the {@code NS}
+   * record set named {@code apex}.
+   *
+   * @param apex name of the zone, such as {@code denominator.io.}
+   * @return count of record sets deleted.
+   */
+  public static int clear(AllProfileResourceRecordSetApi api, String apex) {
+    checkNotNull(api, "api");
+    Filter<ResourceRecordSet<?>> deletable = notSOAOrApexNS(apex);
+    List<ResourceRecordSet<?>> deletes = new ArrayList<ResourceRecordSet<?>>();
+    for (Iterator<ResourceRecordSet<?>> it = api.iterator(); it.hasNext(); ) {
+      ResourceRecordSet<?> rrset = it.next();
+      if (deletable.apply(rrset)) {
+        deletes.add(rrset);
+      }
+    }
+    if (!deletes.isEmpty()) {
+      api.deleteAll(deletes);
+    }
+    return deletes.size();
+  }
+
+  /**
+   * Returns the name of the zone with the id.
+   *
+   * @throws IllegalArgumentException if the zone is not found.
+   */
+  static String zoneName(ZoneApi zones, String zoneId) {
+    String name = null;
+    for (Iterator<Zone> it = zones.iterator(); name == null && it.hasNext(); ) {
+      Zone zone = it.next();
+      if (zoneId.equals(zone.id())) {
+        name = zone.name();
+      }
+    }
+    checkArgument(name != null, "zone %s not found", zoneId);
+    return name;
+  }
+
+  private ClearZone() {
+  }
+}
@@ -16,6 +16,7 @@ import denominator.DNSApiManager;
 import denominator.QualifiedResourceRecordSetApi;
 import denominator.QualifiedResourceRecordSetApi.Factory;
 import denominator.ResourceRecordSetApi;
+import denominator.ZoneApi;
 import denominator.model.ResourceRecordSet;
 import denominator.profile.GeoResourceRecordSetApi;
 import denominator.profile.WeightedResourceRecordSetApi;
@@ -32,7 +33,8 @@ public class ConcatBasicAndQualifiedResourceRecordSets {
   @Provides
   @Singleton
   AllProfileResourceRecordSetApi.Factory provideResourceRecordSetApiFactory(
-      final ResourceRecordSetApi.Factory factory, final Set<Factory> factories) {
+      final ResourceRecordSetApi.Factory factory, final Set<Factory> factories,
+      final ZoneApi zones) {
     return new AllProfileResourceRecordSetApi.Factory() {
 
       @Override
@@ -46,7 +48,8 @@ public class ConcatBasicAndQualifiedResourceRecordSets {
             qualifiedApis.add(api);
           }
         }
-        return new ConcatBasicAndGeoResourceRecordSetApi(factory.create(id), qualifiedApis);
+        return new ConcatBasicAndGeoResourceRecordSetApi(factory.create(id), qualifiedApis, zones,
+                                                         id);
       }
     };
   }
@@ -56,11 +59,16 @@ public class ConcatBasicAndQualifiedResourceRecordSets {
 
     private final ResourceRecordSetApi api;
     private final Set<QualifiedResourceRecordSetApi> qualifiedApis;
+    private final ZoneApi zones;
+    private final String zoneId;
 
     private ConcatBasicAndGeoResourceRecordSetApi(ResourceRecordSetApi api,
-                                                  Set<QualifiedResourceRecordSetApi> qualifiedApis) {
+                                                  Set<QualifiedResourceRecordSetApi> qualifiedApis,
+                                                  ZoneApi zones, String zoneId) {
       this.api = api;
       this.qualifiedApis = qualifiedApis;
+      this.zones = zones;
+      this.zoneId = zoneId;
     }
 
     static Iterator<ResourceRecordSet<?>> toIterator(ResourceRecordSet<?> rrs) {
@@ -175,5 +183,43 @@ public class ConcatBasicAndQualifiedResourceRecordSets {
         }
       }
     }
+
+    /**
+     * Basic record sets are sent together, so that they can be batched by the basic api.
+     */
+    @Override
+    public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+      List<ResourceRecordSet<?>> basic = new ArrayList<ResourceRecordSet<?>>();
+      for (ResourceRecordSet<?> rrset : rrsets) {
+        if (rrset.qualifier() == null) {
+          basic.add(rrset);
+        } else {
+          put(rrset);
+        }
+      }
+      if (!basic.isEmpty()) {
+        api.putAll(basic);
+      }
+    }
+
+    @Override
+    public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+      List<ResourceRecordSet<?>> basic = new ArrayList<ResourceRecordSet<?>>();
+      for (ResourceRecordSet<?> rrset : rrsets) {
+        if (rrset.qualifier() == null) {
+          basic.add(rrset);
+        } else {
+          deleteByNameTypeAndQualifier(rrset.name(), rrset.type(), rrset.qualifier());
+        }
+      }
+      if (!basic.isEmpty()) {
+        api.deleteAll(basic);
+      }
+    }
+
+    @Override
+    public int clear() {
+      return ClearZone.clear(this, ClearZone.zoneName(zones, zoneId));
+    }
   }
 }
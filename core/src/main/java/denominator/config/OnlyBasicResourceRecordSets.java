@@ -10,6 +10,7 @@ import dagger.Provides;
 import denominator.AllProfileResourceRecordSetApi;
 import denominator.DNSApiManager;
 import denominator.ResourceRecordSetApi;
+import denominator.ZoneApi;
 import denominator.model.ResourceRecordSet;
 
 /**
@@ -21,12 +22,12 @@ public class OnlyBasicResourceRecordSets {
   @Provides
   @Singleton
   AllProfileResourceRecordSetApi.Factory provideAllProfileResourceRecordSetApi(
-      final ResourceRecordSetApi.Factory factory) {
+      final ResourceRecordSetApi.Factory factory, final ZoneApi zones) {
     return new AllProfileResourceRecordSetApi.Factory() {
 
       @Override
       public AllProfileResourceRecordSetApi create(String id) {
-        return new OnlyBasicResourceRecordSetApi(factory.create(id));
+        return new OnlyBasicResourceRecordSetApi(factory.create(id), zones, id);
       }
 
     };
@@ -35,9 +36,13 @@ public class OnlyBasicResourceRecordSets {
   private static class OnlyBasicResourceRecordSetApi implements AllProfileResourceRecordSetApi {
 
     private final ResourceRecordSetApi api;
+    private final ZoneApi zones;
+    private final String zoneId;
 
-    private OnlyBasicResourceRecordSetApi(ResourceRecordSetApi api) {
+    private OnlyBasicResourceRecordSetApi(ResourceRecordSetApi api, ZoneApi zones, String zoneId) {
       this.api = api;
+      this.zones = zones;
+      this.zoneId = zoneId;
     }
 
     @Override
@@ -79,5 +84,20 @@ public class OnlyBasicResourceRecordSets {
     public void deleteByNameAndType(String name, String type) {
       api.deleteByNameAndType(name, type);
     }
+
+    @Override
+    public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+      api.putAll(rrsets);
+    }
+
+    @Override
+    public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+      api.deleteAll(rrsets);
+    }
+
+    @Override
+    public int clear() {
+      return ClearZone.clear(this, ClearZone.zoneName(zones, zoneId));
+    }
   }
 }
@@ -16,6 +16,7 @@ import static denominator.model.ResourceRecordSets.nameAndTypeEqualTo;
 import static denominator.model.ResourceRecordSets.nameEqualTo;
 import static denominator.model.ResourceRecordSets.nameTypeAndQualifierEqualTo;
 import static denominator.model.ResourceRecordSets.notNull;
+import static denominator.model.ResourceRecordSets.notSOAOrApexNS;
 
 class MockAllProfileResourceRecordSetApi implements denominator.AllProfileResourceRecordSetApi {
 
@@ -105,6 +106,49 @@ class MockAllProfileResourceRecordSetApi implements denominator.AllProfileResour
     }
   }
 
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      put(rrset);
+    }
+  }
+
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    Collection<ResourceRecordSet<?>> records = records();
+    synchronized (records) {
+      for (ResourceRecordSet<?> rrset : rrsets) {
+        if (rrset.qualifier() != null) {
+          deleteByNameTypeAndQualifier(rrset.name(), rrset.type(), rrset.qualifier());
+          continue;
+        }
+        for (Iterator<ResourceRecordSet<?>> it = records.iterator(); it.hasNext(); ) {
+          ResourceRecordSet<?> test = it.next();
+          if (test.name().equals(rrset.name()) && test.type().equals(rrset.type())
+              && test.qualifier() == null) {
+            it.remove();
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public int clear() {
+    Filter<ResourceRecordSet<?>> deletable = and(notSOAOrApexNS(zoneName), filter);
+    Collection<ResourceRecordSet<?>> records = records();
+    int deleted = 0;
+    synchronized (records) {
+      for (Iterator<ResourceRecordSet<?>> it = records.iterator(); it.hasNext(); ) {
+        if (deletable.apply(it.next())) {
+          it.remove();
+          deleted++;
+        }
+      }
+    }
+    return deleted;
+  }
+
   Collection<ResourceRecordSet<?>> records() {
     Collection<ResourceRecordSet<?>> result = data.get(zoneName);
     checkArgument(result != null, "zone %s not found", zoneName);
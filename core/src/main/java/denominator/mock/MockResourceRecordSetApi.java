@@ -59,4 +59,18 @@ final class MockResourceRecordSetApi implements denominator.ResourceRecordSetApi
       removeByNameAndType(records.iterator(), name, type);
     }
   }
+
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      put(rrset);
+    }
+  }
+
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      deleteByNameAndType(rrset.name(), rrset.type());
+    }
+  }
 }
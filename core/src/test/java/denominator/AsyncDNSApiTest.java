@@ -0,0 +1,184 @@
+package denominator;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Singleton;
+
+import dagger.Module;
+import dagger.Provides;
+import denominator.mock.MockProvider;
+import denominator.model.ResourceRecordSet;
+import denominator.model.Zone;
+
+import static denominator.assertj.ModelAssertions.assertThat;
+import static denominator.model.ResourceRecordSets.a;
+
+public class AsyncDNSApiTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  DNSApiManager manager = Denominator.create(new MockProvider(), new OneThread());
+
+  @After
+  public void close() throws IOException {
+    manager.close();
+  }
+
+  @Test
+  public void zones() throws Exception {
+    AsyncZoneApi api = manager.asyncApi().zones();
+
+    String id = api.put(Zone.create(null, "denominator.io.", 86400, "nil@denominator.io")).get();
+
+    assertThat(api.list().get())
+        .containsExactly(Zone.create(id, "denominator.io.", 86400, "nil@denominator.io"));
+    assertThat(api.listByName("denominator.io.").get()).hasSize(1);
+
+    api.delete(id).get();
+
+    assertThat(api.list().get()).isEmpty();
+  }
+
+  @Test
+  public void basicRecordSets() throws Exception {
+    String id = manager.api().zones()
+        .put(Zone.create(null, "denominator.io.", 86400, "nil@denominator.io"));
+    AsyncResourceRecordSetApi api = manager.asyncApi().basicRecordSetsInZone(id);
+
+    List<Future<Void>> puts = new ArrayList<Future<Void>>();
+    for (int i = 0; i < 10; i++) {
+      puts.add(api.put(a("www" + i + ".denominator.io.", "192.0.2.1")));
+    }
+    for (Future<Void> put : puts) {
+      put.get();
+    }
+
+    assertThat(api.list().get()).hasSize(12); // including NS and SOA
+    assertThat(api.getByNameAndType("www1.denominator.io.", "A").get())
+        .isEqualTo(a("www1.denominator.io.", "192.0.2.1"));
+
+    api.deleteAll(api.listByName("www1.denominator.io.").get()).get();
+
+    assertThat(api.getByNameAndType("www1.denominator.io.", "A").get()).isNull();
+  }
+
+  @Test
+  public void exceptionsAreWrapped() throws Exception {
+    thrown.expect(ExecutionException.class);
+    thrown.expectMessage("zone nonexistent not found");
+
+    manager.asyncApi().recordSetsInZone("nonexistent").list().get();
+  }
+
+  @Test
+  public void closeCancelsQueuedCommands() throws Exception {
+    final CountDownLatch running = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    SharedExecutor executor = new SharedExecutor(1, 1);
+    executor.submit(new Callable<Void>() {
+      public Void call() throws InterruptedException {
+        running.countDown();
+        release.await();
+        return null;
+      }
+    });
+    running.await();
+    Future<Void> queued = executor.submit(new Callable<Void>() {
+      public Void call() {
+        return null;
+      }
+    });
+
+    executor.close();
+
+    assertThat(executor.isClosed()).isTrue();
+    assertThat(queued.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void closeRejectsNewCommands() throws Exception {
+    thrown.expect(RejectedExecutionException.class);
+
+    manager.close();
+
+    manager.asyncApi().zones().list();
+  }
+
+  @Test
+  public void runsOnCallerWhenSaturated() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    SharedExecutor executor = new SharedExecutor(1, 1);
+    try {
+      for (int i = 0; i < 2; i++) {
+        executor.submit(new Callable<Void>() {
+          public Void call() throws InterruptedException {
+            release.await();
+            return null;
+          }
+        });
+      }
+
+      Future<Thread> third = executor.submit(new Callable<Thread>() {
+        public Thread call() {
+          return Thread.currentThread();
+        }
+      });
+
+      assertThat(third.get()).isSameAs(Thread.currentThread());
+    } finally {
+      release.countDown();
+      executor.close();
+    }
+  }
+
+  @Test
+  public void tryExecuteSkipsWhenSaturated() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    SharedExecutor executor = new SharedExecutor(1, 1);
+    try {
+      for (int i = 0; i < 2; i++) {
+        executor.submit(new Callable<Void>() {
+          public Void call() throws InterruptedException {
+            release.await();
+            return null;
+          }
+        });
+      }
+
+      final AtomicBoolean ran = new AtomicBoolean();
+      assertThat(executor.tryExecute(new Runnable() {
+        public void run() {
+          ran.set(true);
+        }
+      })).isFalse();
+      assertThat(ran.get()).isFalse();
+    } finally {
+      release.countDown();
+      executor.close();
+    }
+  }
+
+  @Module(injects = DNSApiManager.class, complete = false, overrides = true)
+  static class OneThread {
+
+    @Provides
+    @Singleton
+    SharedExecutor provideSharedExecutor() {
+      return new SharedExecutor(1, 10);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package denominator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import dagger.ObjectGraph;
+import denominator.mock.MockProvider;
+import denominator.model.ResourceRecordSet;
+import denominator.model.Zone;
+
+import static denominator.assertj.ModelAssertions.assertThat;
+import static denominator.model.ResourceRecordSets.a;
+
+/**
+ * Writes through {@code uncached} share data with, but aren't seen by, apis that cache reads.
+ */
+public class CacheReadsTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  MockProvider.Module data = new MockProvider.Module();
+  DNSApi uncached = manager(data).api();
+  String zoneId;
+
+  @Before
+  public void createZone() {
+    zoneId = uncached.zones()
+        .put(Zone.create(null, "denominator.io.", 86400, "nil@denominator.io"));
+    uncached.basicRecordSetsInZone(zoneId).put(a("www.denominator.io.", 3600, "192.0.2.1"));
+  }
+
+  @Test
+  public void getByNameAndTypeIsCached() {
+    ResourceRecordSetApi api = manager(data, new CacheReads(10, 1, TimeUnit.MINUTES)).api()
+        .basicRecordSetsInZone(zoneId);
+
+    ResourceRecordSet<?> original = api.getByNameAndType("www.denominator.io.", "A");
+    uncached.basicRecordSetsInZone(zoneId).put(a("www.denominator.io.", 3600, "198.51.100.1"));
+
+    assertThat(api.getByNameAndType("www.denominator.io.", "A")).isEqualTo(original);
+    assertThat(api.iterateByName("www.denominator.io."))
+        .contains(a("www.denominator.io.", 3600, "198.51.100.1"));
+  }
+
+  @Test
+  public void staleReadsAreReloaded() {
+    ResourceRecordSetApi api = manager(data, new CacheReads(10, 0, TimeUnit.MINUTES)).api()
+        .basicRecordSetsInZone(zoneId);
+
+    api.getByNameAndType("www.denominator.io.", "A");
+    uncached.basicRecordSetsInZone(zoneId).put(a("www.denominator.io.", 3600, "198.51.100.1"));
+
+    assertThat(api.getByNameAndType("www.denominator.io.", "A"))
+        .isEqualTo(a("www.denominator.io.", 3600, "198.51.100.1"));
+  }
+
+  @Test
+  public void putInvalidatesReadsOfNameInBothViews() {
+    DNSApi api = manager(data, new CacheReads(10, 1, TimeUnit.MINUTES)).api();
+
+    api.basicRecordSetsInZone(zoneId).getByNameAndType("www.denominator.io.", "A");
+    api.recordSetsInZone(zoneId).iterateByName("www.denominator.io.");
+    api.basicRecordSetsInZone(zoneId).put(a("www.denominator.io.", 3600, "198.51.100.1"));
+
+    assertThat(api.basicRecordSetsInZone(zoneId).getByNameAndType("www.denominator.io.", "A"))
+        .isEqualTo(a("www.denominator.io.", 3600, "198.51.100.1"));
+    assertThat(api.recordSetsInZone(zoneId).iterateByName("www.denominator.io."))
+        .containsExactly(a("www.denominator.io.", 3600, "198.51.100.1"));
+  }
+
+  @Test
+  public void putAllInvalidatesReadsOfEachName() {
+    ResourceRecordSetApi api = manager(data, new CacheReads(10, 1, TimeUnit.MINUTES)).api()
+        .basicRecordSetsInZone(zoneId);
+
+    assertThat(api.getByNameAndType("www2.denominator.io.", "A")).isNull();
+    api.putAll(Arrays.<ResourceRecordSet<?>>asList(
+        a("www.denominator.io.", 3600, "198.51.100.1"),
+        a("www2.denominator.io.", 3600, "198.51.100.1")));
+
+    assertThat(api.getByNameAndType("www2.denominator.io.", "A"))
+        .isEqualTo(a("www2.denominator.io.", 3600, "198.51.100.1"));
+  }
+
+  @Test
+  public void deleteInvalidatesReadsOfName() {
+    ResourceRecordSetApi api = manager(data, new CacheReads(10, 1, TimeUnit.MINUTES)).api()
+        .basicRecordSetsInZone(zoneId);
+
+    api.getByNameAndType("www.denominator.io.", "A");
+    api.deleteByNameAndType("www.denominator.io.", "A");
+
+    assertThat(api.getByNameAndType("www.denominator.io.", "A")).isNull();
+  }
+
+  @Test
+  public void leastRecentlyReadNamesAreEvicted() {
+    ReadCache cache = new ReadCache(2, TimeUnit.MINUTES.toNanos(1));
+    ResourceRecordSetApi api =
+        new CachingResourceRecordSetApi(uncached.basicRecordSetsInZone(zoneId), zoneId, cache);
+
+    api.getByNameAndType("www.denominator.io.", "A");
+    api.getByNameAndType("www1.denominator.io.", "A");
+    api.getByNameAndType("www.denominator.io.", "A");
+    api.getByNameAndType("www2.denominator.io.", "A"); // evicts www1
+    uncached.basicRecordSetsInZone(zoneId).put(a("www.denominator.io.", 3600, "198.51.100.1"));
+    uncached.basicRecordSetsInZone(zoneId).put(a("www1.denominator.io.", 3600, "198.51.100.1"));
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(api.getByNameAndType("www.denominator.io.", "A"))
+        .isEqualTo(a("www.denominator.io.", 3600, "192.0.2.1"));
+    assertThat(api.getByNameAndType("www1.denominator.io.", "A"))
+        .isEqualTo(a("www1.denominator.io.", 3600, "198.51.100.1"));
+  }
+
+  @Test
+  public void zonesByNameInvalidatedOnPut() {
+    ZoneApi api = manager(data, new CacheReads(10, 1, TimeUnit.MINUTES)).api().zones();
+
+    assertThat(api.iterateByName("denominator.io.")).hasSize(1);
+    uncached.zones().put(Zone.create(zoneId, "denominator.io.", 300, "nil@denominator.io"));
+
+    assertThat(api.iterateByName("denominator.io.").next().ttl()).isEqualTo(86400);
+
+    api.put(Zone.create(zoneId, "denominator.io.", 600, "nil@denominator.io"));
+
+    assertThat(api.iterateByName("denominator.io.").next().ttl()).isEqualTo(600);
+  }
+
+  @Test
+  public void maxNamesMustBePositive() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("maxNames must be positive, but was 0");
+
+    new CacheReads(0, 1, TimeUnit.MINUTES);
+  }
+
+  static DNSApiManager manager(Object... modules) {
+    Object[] modulesForGraph = new Object[modules.length + 1];
+    modulesForGraph[0] = Providers.provide(new MockProvider());
+    System.arraycopy(modules, 0, modulesForGraph, 1, modules.length);
+    return ObjectGraph.create(modulesForGraph).get(DNSApiManager.class);
+  }
+}
@@ -0,0 +1,201 @@
+package denominator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import denominator.mock.MockProvider;
+import denominator.model.Zone;
+
+import static denominator.assertj.ModelAssertions.assertThat;
+import static denominator.model.ResourceRecordSets.a;
+
+public class InstrumentTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  DNSApiMetrics metrics = new DNSApiMetrics();
+  RecordingListener events = new RecordingListener();
+
+  @Test
+  public void recordsEachApiCall() {
+    DNSApi api = Denominator.create(new MockProvider(), new Instrument(metrics)).api();
+
+    String zoneId = api.zones()
+        .put(Zone.create(null, "denominator.io.", 86400, "nil@denominator.io"));
+    api.basicRecordSetsInZone(zoneId).put(a("www.denominator.io.", 3600, "192.0.2.1"));
+    api.basicRecordSetsInZone(zoneId).getByNameAndType("www.denominator.io.", "A");
+    api.basicRecordSetsInZone(zoneId).getByNameAndType("www1.denominator.io.", "A");
+
+    assertThat(metrics.apiCalls().keySet()).containsExactly(
+        "mock ResourceRecordSetApi.getByNameAndType",
+        "mock ResourceRecordSetApi.put",
+        "mock ZoneApi.put");
+    DNSApiMetrics.Stats get = metrics.apiCall("mock", "ResourceRecordSetApi", "getByNameAndType");
+    assertThat(get.count()).isEqualTo(2);
+    assertThat(get.errors()).isZero();
+    assertThat(get.httpRequests()).isZero();
+    assertThat(metrics.httpRequests()).isEmpty();
+  }
+
+  @Test
+  public void disabledByDefault() {
+    DNSApi api = Denominator.create(new MockProvider()).api();
+
+    assertThat(api.zones().getClass().getName()).startsWith("denominator.mock");
+  }
+
+  @Test
+  public void countsHttpRequestsMadeDuringCall() {
+    final Instrumentation instrumentation = new Instrumentation(events);
+    ZoneApi api = instrumentation.instrument("mock", ZoneApi.class, new FakeZoneApi() {
+      @Override
+      public String put(Zone zone) {
+        instrumentation.httpRequest("mock", "GET", "http://localhost/zones", 200, 1, 0, 2, null);
+        instrumentation.httpRequest("mock", "POST", "http://localhost/zones", 201, 1, 10, 2, null);
+        return "id";
+      }
+    });
+
+    api.put(Zone.create(null, "denominator.io.", 86400, "nil@denominator.io"));
+    // outside of a call
+    instrumentation.httpRequest("mock", "GET", "http://localhost/zones", 200, 1, 0, 2, null);
+
+    assertThat(events.events).containsExactly(
+        "http GET 200", "http POST 201", "call ZoneApi.put httpRequests=2", "http GET 200");
+  }
+
+  @Test
+  public void recordsErrors() {
+    final IllegalStateException error = new IllegalStateException("zone locked");
+    Instrumentation instrumentation = new Instrumentation(events, metrics);
+    ZoneApi api = instrumentation.instrument("mock", ZoneApi.class, new FakeZoneApi() {
+      @Override
+      public void delete(String id) {
+        throw error;
+      }
+    });
+
+    try {
+      api.delete("id");
+    } catch (IllegalStateException expected) {
+      assertThat(expected).isSameAs(error);
+    }
+
+    assertThat(events.events).containsExactly("call ZoneApi.delete httpRequests=0 error");
+    assertThat(metrics.apiCall("mock", "ZoneApi", "delete").errors()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordsRetries() {
+    Instrumentation instrumentation = new Instrumentation(events, metrics);
+
+    instrumentation.retry("mock", "request", 1, TimeUnit.MILLISECONDS.toNanos(50), null);
+    instrumentation.retry("mock", "request", 2, TimeUnit.MILLISECONDS.toNanos(150), null);
+
+    assertThat(events.events).containsExactly("retry request attempt=1", "retry request attempt=2");
+    DNSApiMetrics.Stats retries = metrics.retry("mock", "request");
+    assertThat(retries.count()).isEqualTo(2);
+    assertThat(retries.max(TimeUnit.MILLISECONDS)).isEqualTo(150L);
+    assertThat(metrics.retries().keySet()).containsExactly("mock request");
+  }
+
+  @Test
+  public void recordsJobs() {
+    Instrumentation instrumentation = new Instrumentation(events, metrics);
+
+    instrumentation.job("mock", "createRecords", TimeUnit.MILLISECONDS.toNanos(200), null);
+    instrumentation.job("mock", "createRecords", TimeUnit.MILLISECONDS.toNanos(400),
+                        new IllegalStateException("failed"));
+
+    assertThat(events.events).containsExactly("job createRecords", "job createRecords failed");
+    DNSApiMetrics.Stats jobs = metrics.job("mock", "createRecords");
+    assertThat(jobs.count()).isEqualTo(2);
+    assertThat(jobs.errors()).isEqualTo(1);
+    assertThat(metrics.jobs().keySet()).containsExactly("mock createRecords");
+  }
+
+  @Test
+  public void percentilesAreWithinAQuarter() {
+    for (int i = 1; i <= 1000; i++) {
+      metrics.httpRequest("mock", "GET", "http://localhost/zones", 200,
+                          TimeUnit.MILLISECONDS.toNanos(i), 0, 100, null);
+    }
+
+    DNSApiMetrics.Stats get = metrics.httpRequest("mock", "GET");
+    assertThat(get.count()).isEqualTo(1000);
+    assertThat(get.responseBytes()).isEqualTo(100000);
+    assertThat(get.percentile(50, TimeUnit.MILLISECONDS)).isBetween(500L, 625L);
+    assertThat(get.percentile(99, TimeUnit.MILLISECONDS)).isBetween(990L, 1000L);
+    assertThat(get.percentile(100, TimeUnit.MILLISECONDS)).isEqualTo(1000L);
+    assertThat(get.mean(TimeUnit.MILLISECONDS)).isEqualTo(500L);
+    assertThat(get.max(TimeUnit.MILLISECONDS)).isEqualTo(1000L);
+  }
+
+  @Test
+  public void percentileOutOfRange() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("percentile must be between 0 and 100, but was 101.0");
+
+    metrics.apiCall("mock", "ZoneApi", "put", 1, 0, null);
+    metrics.apiCall("mock", "ZoneApi", "put").percentile(101, TimeUnit.MILLISECONDS);
+  }
+
+  static class RecordingListener implements DNSApiListener {
+
+    final List<String> events = new ArrayList<String>();
+
+    @Override
+    public void apiCall(String provider, String api, String method, long nanos,
+                        int httpRequests, Throwable error) {
+      events.add("call " + api + "." + method + " httpRequests=" + httpRequests
+                 + (error != null ? " error" : ""));
+    }
+
+    @Override
+    public void httpRequest(String provider, String method, String url, int status, long nanos,
+                            long requestBytes, long responseBytes, Throwable error) {
+      events.add("http " + method + " " + status);
+    }
+
+    @Override
+    public void retry(String provider, String operation, int attempt, long delayNanos,
+                      Throwable cause) {
+      events.add("retry " + operation + " attempt=" + attempt);
+    }
+
+    @Override
+    public void job(String provider, String operation, long nanos, Throwable error) {
+      events.add("job " + operation + (error != null ? " failed" : ""));
+    }
+  }
+
+  static class FakeZoneApi implements ZoneApi {
+
+    @Override
+    public Iterator<Zone> iterator() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<Zone> iterateByName(String name) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String put(Zone zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void delete(String id) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
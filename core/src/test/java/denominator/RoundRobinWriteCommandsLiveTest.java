@@ -5,6 +5,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized.Parameter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import denominator.model.ResourceRecordSet;
 import denominator.model.Zone;
 
@@ -117,6 +120,30 @@ public class RoundRobinWriteCommandsLiveTest {
     rrsApi(zone).deleteByNameAndType(expected.name(), expected.type());
   }
 
+  @Test
+  public void test6_putAllThenDeleteAll() {
+    assumeRRSetAbsent(zone, expected.name(), expected.type());
+
+    List<ResourceRecordSet<?>> rrsets = new ArrayList<ResourceRecordSet<?>>();
+    rrsets.add(ResourceRecordSet.builder()
+                   .name(expected.name())
+                   .type(expected.type())
+                   .ttl(1800)
+                   .addAll(expected.records()).build());
+    rrsApi(zone).putAll(rrsets);
+
+    assertThat(rrsApi(zone).getByNameAndType(expected.name(), expected.type()))
+        .hasTtl(1800)
+        .containsExactlyRecords(expected.records());
+
+    rrsApi(zone).deleteAll(rrsets);
+
+    assertThat(rrsApi(zone).getByNameAndType(expected.name(), expected.type()))
+        .overridingErrorMessage(format("recordset(%s, %s) still exists in %s", expected.name(),
+                                       expected.type(), zone))
+        .isNull();
+  }
+
   // TODO
   private AllProfileResourceRecordSetApi allApi(Zone zone) {
     return manager.api().recordSetsInZone(zone.id());
@@ -0,0 +1,127 @@
+package denominator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import denominator.common.Filter;
+import denominator.mock.MockProvider;
+import denominator.model.ResourceRecordSet;
+import denominator.model.Zone;
+import denominator.model.profile.Weighted;
+import denominator.model.rdata.CNAMEData;
+
+import static denominator.assertj.ModelAssertions.assertThat;
+import static denominator.model.ResourceRecordSets.a;
+import static denominator.model.ResourceRecordSets.cname;
+
+public class ZoneSyncTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  DNSApi api = Denominator.create(new MockProvider()).api();
+  String zoneId;
+
+  @Before
+  public void createZone() {
+    zoneId = api.zones().put(Zone.create(null, "denominator.io.", 86400, "nil@denominator.io"));
+    api.basicRecordSetsInZone(zoneId).putAll(Arrays.<ResourceRecordSet<?>>asList(
+        a("www.denominator.io.", 3600, Arrays.asList("192.0.2.1", "198.51.100.1")),
+        a("www1.denominator.io.", 3600, "192.0.2.1"),
+        cname("old.denominator.io.", 3600, "www.denominator.io.")));
+    api.recordSetsInZone(zoneId).put(weighted("US", 1));
+  }
+
+  @Test
+  public void planComparesAgainstZone() {
+    List<ResourceRecordSet<?>> desired = Arrays.<ResourceRecordSet<?>>asList(
+        a("www.denominator.io.", Arrays.asList("198.51.100.1", "192.0.2.1")), // any ttl, any order
+        a("www1.denominator.io.", 3600, "198.51.100.1"),
+        a("www2.denominator.io.", 3600, "192.0.2.1"),
+        weighted("US", 2));
+
+    ZoneSync.Plan plan = ZoneSync.plan(api, zoneId, desired, notNS);
+
+    assertThat(plan.creates()).containsExactly(a("www2.denominator.io.", 3600, "192.0.2.1"));
+    assertThat(plan.updates())
+        .containsOnly(a("www1.denominator.io.", 3600, "198.51.100.1"), weighted("US", 2));
+    assertThat(plan.deletes())
+        .containsExactly(cname("old.denominator.io.", 3600, "www.denominator.io."));
+    assertThat(plan.unchanged()).isEqualTo(1);
+    assertThat(plan.toString()).isEqualTo("Plan(creates=1, updates=2, deletes=1, unchanged=1)");
+  }
+
+  @Test
+  public void applyMakesZoneMatch() {
+    List<ResourceRecordSet<?>> desired = Arrays.<ResourceRecordSet<?>>asList(
+        a("www.denominator.io.", 3600, Arrays.asList("192.0.2.1", "198.51.100.1")),
+        a("www1.denominator.io.", 3600, "198.51.100.1"),
+        a("old.denominator.io.", 3600, "192.0.2.1"), // was a CNAME
+        weighted("US", 2));
+
+    ZoneSync.Result result = ZoneSync.plan(api, zoneId, desired, notNS).apply();
+
+    assertThat(result.created()).isEqualTo(1);
+    assertThat(result.updated()).isEqualTo(2);
+    assertThat(result.deleted()).isEqualTo(1);
+    assertThat(result.unchanged()).isEqualTo(1);
+    assertThat(ZoneSync.plan(api, zoneId, desired, notNS).isEmpty()).isTrue();
+    assertThat(api.recordSetsInZone(zoneId).iterateByName("old.denominator.io."))
+        .containsExactly(a("old.denominator.io.", 3600, "192.0.2.1"));
+  }
+
+  @Test
+  public void soaAndApexNSAreNeverDeletedByDefault() {
+    ZoneSync.Plan plan = ZoneSync.plan(api, zoneId, Arrays.<ResourceRecordSet<?>>asList());
+
+    for (ResourceRecordSet<?> delete : plan.deletes()) {
+      assertThat(delete.type()).isNotEqualTo("SOA");
+      assertThat(delete.type()).isNotEqualTo("NS");
+    }
+    assertThat(plan.deletes()).hasSize(4);
+
+    plan.apply();
+    assertThat(api.recordSetsInZone(zoneId).iterateByName("denominator.io."))
+        .extracting("type").containsOnly("SOA", "NS");
+  }
+
+  @Test
+  public void defaultPlanFailsWhenZoneNotFound() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("zone foo not found");
+
+    ZoneSync.plan(api, "foo", Arrays.<ResourceRecordSet<?>>asList());
+  }
+
+  @Test
+  public void duplicateDesiredRecordSets() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("more than one record set matches");
+
+    ZoneSync.plan(api, zoneId, Arrays.<ResourceRecordSet<?>>asList(
+        a("www.denominator.io.", "192.0.2.1"), a("www.denominator.io.", "198.51.100.1")));
+  }
+
+  Filter<ResourceRecordSet<?>> notNS = new Filter<ResourceRecordSet<?>>() {
+    @Override
+    public boolean apply(ResourceRecordSet<?> in) {
+      return ZoneSync.NOT_SOA.apply(in) && !"NS".equals(in.type());
+    }
+  };
+
+  static ResourceRecordSet<CNAMEData> weighted(String qualifier, int weight) {
+    return ResourceRecordSet.<CNAMEData>builder()
+        .name("weighted.denominator.io.")
+        .type("CNAME")
+        .qualifier(qualifier)
+        .ttl(3600)
+        .weighted(Weighted.create(weight))
+        .add(CNAMEData.create("www.denominator.io."))
+        .build();
+  }
+}
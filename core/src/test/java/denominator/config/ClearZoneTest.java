@@ -0,0 +1,104 @@
+package denominator.config;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import denominator.AllProfileResourceRecordSetApi;
+import denominator.DNSApi;
+import denominator.ResourceRecordSetApi;
+import denominator.ZoneApi;
+import denominator.mock.MockProvider;
+import denominator.model.Zone;
+
+import static denominator.Denominator.create;
+import static denominator.common.Util.filter;
+import static denominator.model.ResourceRecordSets.a;
+import static denominator.model.ResourceRecordSets.notSOAOrApexNS;
+import static denominator.model.ResourceRecordSets.ns;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClearZoneTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  DNSApi mock = create(new MockProvider()).api();
+
+  /**
+   * Like CloudDNS and Designate, the zone id isn't its name.
+   */
+  ZoneApi zones = new ZoneApi() {
+    @Override
+    public Iterator<Zone> iterator() {
+      return Collections.singleton(
+          Zone.create("1234", "denominator.io.", 86400, "nil@denominator.io.")).iterator();
+    }
+
+    @Override
+    public Iterator<Zone> iterateByName(String name) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String put(Zone zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void delete(String id) {
+      throw new UnsupportedOperationException();
+    }
+  };
+
+  ResourceRecordSetApi.Factory basic = new ResourceRecordSetApi.Factory() {
+    @Override
+    public ResourceRecordSetApi create(String id) {
+      return mock.basicRecordSetsInZone("denominator.io.");
+    }
+  };
+
+  @Test
+  public void clearKeepsSOAAndApexNS() {
+    AllProfileResourceRecordSetApi api = new OnlyBasicResourceRecordSets()
+        .provideAllProfileResourceRecordSetApi(basic, zones).create("1234");
+    api.put(a("www.denominator.io.", "192.0.2.1"));
+    api.put(ns("sub.denominator.io.", "ns.foo.com."));
+
+    assertThat(api.clear()).isEqualTo(2);
+
+    assertThat(filter(api.iterator(), notSOAOrApexNS("denominator.io."))).isEmpty();
+    assertThat(api.iterateByNameAndType("denominator.io.", "NS")).isNotEmpty();
+  }
+
+  @Test
+  public void clearWhenZoneNotFound() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("zone 5678 not found");
+
+    new OnlyBasicResourceRecordSets()
+        .provideAllProfileResourceRecordSetApi(basic, zones).create("5678").clear();
+  }
+
+  @Test
+  public void clearUsesApexPassedIn() {
+    AllProfileResourceRecordSetApi api = mock.recordSetsInZone("denominator.io.");
+    mock.basicRecordSetsInZone("denominator.io.").put(a("www.denominator.io.", "192.0.2.1"));
+
+    assertThat(ClearZone.clear(api, "denominator.io.")).isEqualTo(1);
+
+    assertThat(filter(api.iterator(), notSOAOrApexNS("denominator.io."))).isEmpty();
+    assertThat(api.iterateByNameAndType("denominator.io.", "NS")).isNotEmpty();
+  }
+
+  @Test
+  public void clearRequiresApex() {
+    thrown.expect(NullPointerException.class);
+    thrown.expectMessage("apex");
+
+    ClearZone.clear(mock.recordSetsInZone("denominator.io."), null);
+  }
+}
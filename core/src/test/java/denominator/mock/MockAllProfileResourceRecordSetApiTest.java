@@ -0,0 +1,36 @@
+package denominator.mock;
+
+import org.junit.Test;
+
+import denominator.AllProfileResourceRecordSetApi;
+import denominator.DNSApi;
+
+import static denominator.Denominator.create;
+import static denominator.common.Util.filter;
+import static denominator.model.ResourceRecordSets.a;
+import static denominator.model.ResourceRecordSets.notSOAOrApexNS;
+import static denominator.model.ResourceRecordSets.ns;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MockAllProfileResourceRecordSetApiTest {
+
+  DNSApi mock = create(new MockProvider()).api();
+  AllProfileResourceRecordSetApi api = mock.recordSetsInZone("denominator.io.");
+
+  @Test
+  public void clearKeepsSOAAndApexNS() {
+    mock.basicRecordSetsInZone("denominator.io.").put(a("www.denominator.io.", "192.0.2.1"));
+    mock.basicRecordSetsInZone("denominator.io.").put(ns("sub.denominator.io.", "ns.foo.com."));
+
+    assertThat(api.clear()).isEqualTo(2);
+
+    assertThat(filter(api.iterator(), notSOAOrApexNS("denominator.io."))).isEmpty();
+    assertThat(api.iterateByNameAndType("denominator.io.", "SOA")).isNotEmpty();
+    assertThat(api.iterateByNameAndType("denominator.io.", "NS")).isNotEmpty();
+  }
+
+  @Test
+  public void clearWhenOnlySOAAndApexNS() {
+    assertThat(api.clear()).isZero();
+  }
+}
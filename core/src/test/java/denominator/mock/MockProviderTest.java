@@ -16,6 +16,7 @@ public class MockProviderTest {
   public void testMockMetadata() {
     assertThat(PROVIDER.name()).isEqualTo("mock");
     assertThat(PROVIDER.supportsDuplicateZoneNames()).isFalse();
+    assertThat(PROVIDER.supportsBatchChanges()).isFalse();
     assertThat(PROVIDER.credentialTypeToParameterNames()).isEmpty();
   }
 
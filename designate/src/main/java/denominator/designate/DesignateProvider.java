@@ -10,6 +10,7 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import dagger.Provides;
@@ -25,9 +26,14 @@ import denominator.config.WeightedUnsupported;
 import denominator.designate.DesignateAdapters.DomainListAdapter;
 import denominator.designate.DesignateAdapters.RecordAdapter;
 import denominator.designate.DesignateAdapters.RecordListAdapter;
+import denominator.feign.ClientModule;
+import denominator.feign.RequestLimiter;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
+import feign.Retryer;
 import feign.Target.EmptyTarget;
+import feign.codec.ErrorDecoder;
 import feign.gson.GsonDecoder;
 import feign.gson.GsonEncoder;
 
@@ -101,10 +107,22 @@ public class DesignateProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = DesignateResourceRecordSetApi.Factory.class,
+      includes = ClientModule.class,
       complete = false // doesn't bind Provider used by DesignateTarget
   )
   public static final class FeignModule {
 
+    /**
+     * Milliseconds records of a domain are indexed by name and type for point reads and writes
+     * before the domain is listed again. Writes through the same manager update the index, but
+     * changes made elsewhere aren't read until it expires. When 0, each read lists the domain.
+     */
+    @Provides
+    @Named("recordIndexTtlMillis")
+    long provideRecordIndexTtlMillis() {
+      return 10 * 1000;
+    }
+
     @Provides
     @Singleton
     Designate designate(Feign feign, DesignateTarget target) {
@@ -129,9 +147,12 @@ public class DesignateProvider extends BasicProvider {
 
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel) {
+    Feign feign(Logger logger, Logger.Level logLevel, Client client, Retryer retryer,
+                RequestLimiter limiter) {
       RecordAdapter recordAdapter = new RecordAdapter();
       return Feign.builder()
+          .client(client)
+          .retryer(retryer)
           .logger(logger)
           .logLevel(logLevel)
           .encoder(new GsonEncoder(Collections.<TypeAdapter<?>>singleton(recordAdapter)))
@@ -141,6 +162,7 @@ public class DesignateProvider extends BasicProvider {
                        new DomainListAdapter(),
                        new RecordListAdapter()))
           )
+          .errorDecoder(limiter.errorDecoder(new ErrorDecoder.Default()))
           .build();
     }
   }
@@ -14,20 +14,18 @@ import denominator.model.ResourceRecordSet;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
-import static denominator.common.Util.filter;
 import static denominator.common.Util.join;
-import static denominator.common.Util.nextOrNull;
 import static denominator.designate.DesignateFunctions.toRDataMap;
-import static denominator.model.ResourceRecordSets.nameAndTypeEqualTo;
-import static denominator.model.ResourceRecordSets.nameEqualTo;
 
 class DesignateResourceRecordSetApi implements denominator.ResourceRecordSetApi {
 
   private final Designate api;
+  private final RecordIndex records;
   private final String domainId;
 
-  DesignateResourceRecordSetApi(Designate api, String domainId) {
+  DesignateResourceRecordSetApi(Designate api, RecordIndex records, String domainId) {
     this.api = api;
+    this.records = records;
     this.domainId = domainId;
   }
 
@@ -38,14 +36,23 @@ class DesignateResourceRecordSetApi implements denominator.ResourceRecordSetApi
 
   @Override
   public Iterator<ResourceRecordSet<?>> iterateByName(String name) {
-    // TODO: investigate query by name call in designate
-    return filter(iterator(), nameEqualTo(name));
+    checkNotNull(name, "name");
+    List<ResourceRecordSet<?>> rrsets = new ArrayList<ResourceRecordSet<?>>();
+    for (List<Record> sameType : records.byName(domainId, name).values()) {
+      rrsets.add(new GroupByRecordNameAndTypeIterator(sameType.iterator()).next());
+    }
+    return rrsets.iterator();
   }
 
   @Override
   public ResourceRecordSet<?> getByNameAndType(String name, String type) {
-    // TODO: investigate query by name and type call in designate
-    return nextOrNull(filter(iterator(), nameAndTypeEqualTo(name, type)));
+    checkNotNull(name, "name");
+    checkNotNull(type, "type");
+    List<Record> sameType = records.byNameAndType(domainId, name, type);
+    if (sameType.isEmpty()) {
+      return null;
+    }
+    return new GroupByRecordNameAndTypeIterator(sameType.iterator()).next();
   }
 
   @Override
@@ -57,41 +64,46 @@ class DesignateResourceRecordSetApi implements denominator.ResourceRecordSetApi
         recordsLeftToCreate =
         new ArrayList<Map<String, Object>>(rrset.records());
 
-    for (Record record : api.records(domainId)) {
-      // TODO: name and type filter
-      if (rrset.name().equals(record.name) && rrset.type().equals(record.type)) {
-        Map<String, Object> rdata = toRDataMap(record);
+    try {
+      for (Record existing : records.byNameAndType(domainId, rrset.name(), rrset.type())) {
+        Map<String, Object> rdata = toRDataMap(existing);
         if (recordsLeftToCreate.contains(rdata)) {
           recordsLeftToCreate.remove(rdata);
           if (rrset.ttl() != null) {
-            if (rrset.ttl().equals(record.ttl)) {
+            if (rrset.ttl().equals(existing.ttl)) {
               continue;
             }
+            Record record = copy(existing);
             record.ttl = rrset.ttl();
             api.updateRecord(domainId, record.id, record);
+            records.put(domainId, record);
           }
         } else {
-          api.deleteRecord(domainId, record.id);
+          api.deleteRecord(domainId, existing.id);
+          records.remove(domainId, existing.id);
         }
       }
-    }
 
-    Record record = new Record();
-    record.name = rrset.name();
-    record.type = rrset.type();
-    record.ttl = rrset.ttl();
-
-    for (Map<String, Object> rdata : recordsLeftToCreate) {
-      LinkedHashMap<String, Object> mutable = new LinkedHashMap<String, Object>(rdata);
-      if (mutable.containsKey("priority")) { // SRVData
-        record.priority = Integer.class.cast(mutable.remove("priority"));
-      } else if (mutable.containsKey("preference")) { // MXData
-        record.priority = Integer.class.cast(mutable.remove("preference"));
-      } else {
-        record.priority = null;
+      Record record = new Record();
+      record.name = rrset.name();
+      record.type = rrset.type();
+      record.ttl = rrset.ttl();
+
+      for (Map<String, Object> rdata : recordsLeftToCreate) {
+        LinkedHashMap<String, Object> mutable = new LinkedHashMap<String, Object>(rdata);
+        if (mutable.containsKey("priority")) { // SRVData
+          record.priority = Integer.class.cast(mutable.remove("priority"));
+        } else if (mutable.containsKey("preference")) { // MXData
+          record.priority = Integer.class.cast(mutable.remove("preference"));
+        } else {
+          record.priority = null;
+        }
+        record.data = join(' ', mutable.values().toArray());
+        records.put(domainId, api.createRecord(domainId, record));
       }
-      record.data = join(' ', mutable.values().toArray());
-      api.createRecord(domainId, record);
+    } catch (RuntimeException e) {
+      records.invalidate(domainId);
+      throw e;
     }
   }
 
@@ -99,26 +111,56 @@ class DesignateResourceRecordSetApi implements denominator.ResourceRecordSetApi
   public void deleteByNameAndType(String name, String type) {
     checkNotNull(name, "name");
     checkNotNull(type, "type");
-    for (Record record : api.records(domainId)) {
-      // TODO: name and type filter
-      if (name.equals(record.name) && type.equals(record.type)) {
+    try {
+      for (Record record : records.byNameAndType(domainId, name, type)) {
         api.deleteRecord(domainId, record.id);
+        records.remove(domainId, record.id);
       }
+    } catch (RuntimeException e) {
+      records.invalidate(domainId);
+      throw e;
+    }
+  }
+
+  private static Record copy(Record in) {
+    Record record = new Record();
+    record.id = in.id;
+    record.name = in.name;
+    record.type = in.type;
+    record.ttl = in.ttl;
+    record.data = in.data;
+    record.priority = in.priority;
+    return record;
+  }
+
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      put(rrset);
+    }
+  }
+
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      deleteByNameAndType(rrset.name(), rrset.type());
     }
   }
 
   static final class Factory implements denominator.ResourceRecordSetApi.Factory {
 
     private final Designate api;
+    private final RecordIndex records;
 
     @Inject
-    Factory(Designate api) {
+    Factory(Designate api, RecordIndex records) {
       this.api = checkNotNull(api, "api");
+      this.records = checkNotNull(records, "records");
     }
 
     @Override
     public ResourceRecordSetApi create(String id) {
-      return new DesignateResourceRecordSetApi(api, checkNotNull(id, "id"));
+      return new DesignateResourceRecordSetApi(api, records, checkNotNull(id, "id"));
     }
   }
 }
@@ -0,0 +1,177 @@
+package denominator.designate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import denominator.designate.Designate.Record;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Records of domains, indexed by name and type. Designate's v1 api only lists all records of a
+ * domain, so without this, each point read or write downloads the whole domain. When {@code
+ * recordIndexTtlMillis} is positive, a domain is listed on first use, then kept current by writes
+ * through this index until older than the ttl or {@link #invalidate(String) invalidated}. When 0,
+ * each read lists the domain.
+ */
+@Singleton
+class RecordIndex {
+
+  private final Designate api;
+  private final long ttlNanos;
+  private final Map<String, ZoneIndex> zones = new HashMap<String, ZoneIndex>();
+  private long writes;
+
+  @Inject
+  RecordIndex(Designate api, @Named("recordIndexTtlMillis") long ttlMillis) {
+    checkArgument(ttlMillis >= 0, "recordIndexTtlMillis must not be negative, but was %s",
+                  ttlMillis);
+    this.api = api;
+    this.ttlNanos = ttlMillis * 1000000;
+  }
+
+  /**
+   * Records with the name, grouped by type, or an empty map if there are none.
+   */
+  Map<String, List<Record>> byName(String domainId, String name) {
+    return zone(domainId).byName(name);
+  }
+
+  /**
+   * Records with the name and type, or an empty list if there are none.
+   */
+  List<Record> byNameAndType(String domainId, String name, String type) {
+    List<Record> records = byName(domainId, name).get(type);
+    if (records == null) {
+      return Collections.emptyList();
+    }
+    return records;
+  }
+
+  /**
+   * Adds or replaces the record, if its domain is indexed.
+   */
+  synchronized void put(String domainId, Record record) {
+    writes++;
+    ZoneIndex zone = zones.get(domainId);
+    if (zone != null) {
+      if (record.id != null) {
+        zone.remove(record.id);
+      }
+      zone.add(record);
+    }
+  }
+
+  /**
+   * Removes the record, if its domain is indexed.
+   */
+  synchronized void remove(String domainId, String recordId) {
+    writes++;
+    ZoneIndex zone = zones.get(domainId);
+    if (zone != null) {
+      zone.remove(recordId);
+    }
+  }
+
+  /**
+   * Discards the domain, so that the next read lists it.
+   */
+  synchronized void invalidate(String domainId) {
+    writes++;
+    zones.remove(domainId);
+  }
+
+  private ZoneIndex zone(String domainId) {
+    long generation;
+    synchronized (this) {
+      ZoneIndex zone = zones.get(domainId);
+      if (zone != null && System.nanoTime() - zone.loadedNanos <= ttlNanos) {
+        return zone;
+      }
+      generation = writes;
+    }
+    ZoneIndex zone = new ZoneIndex(System.nanoTime());
+    for (Record record : api.records(domainId)) {
+      zone.add(record);
+    }
+    synchronized (this) {
+      // a listing that started before a write may have missed it
+      if (ttlNanos > 0 && generation == writes) {
+        zones.put(domainId, zone);
+      }
+    }
+    return zone;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "RecordIndex(" + zones.keySet() + ")";
+  }
+
+  private static final class ZoneIndex {
+
+    final long loadedNanos;
+    final Map<String, Map<String, List<Record>>> byName =
+        new HashMap<String, Map<String, List<Record>>>();
+
+    ZoneIndex(long loadedNanos) {
+      this.loadedNanos = loadedNanos;
+    }
+
+    synchronized Map<String, List<Record>> byName(String name) {
+      Map<String, List<Record>> types = byName.get(name);
+      if (types == null) {
+        return Collections.emptyMap();
+      }
+      Map<String, List<Record>> copy = new LinkedHashMap<String, List<Record>>();
+      for (Map.Entry<String, List<Record>> entry : types.entrySet()) {
+        copy.put(entry.getKey(), new ArrayList<Record>(entry.getValue()));
+      }
+      return copy;
+    }
+
+    synchronized void add(Record record) {
+      Map<String, List<Record>> types = byName.get(record.name);
+      if (types == null) {
+        types = new LinkedHashMap<String, List<Record>>();
+        byName.put(record.name, types);
+      }
+      List<Record> records = types.get(record.type);
+      if (records == null) {
+        records = new ArrayList<Record>();
+        types.put(record.type, records);
+      }
+      records.add(record);
+    }
+
+    synchronized void remove(String recordId) {
+      for (Iterator<Map<String, List<Record>>> types = byName.values().iterator();
+           types.hasNext(); ) {
+        Map<String, List<Record>> byType = types.next();
+        for (Iterator<List<Record>> records = byType.values().iterator(); records.hasNext(); ) {
+          List<Record> sameType = records.next();
+          for (Iterator<Record> i = sameType.iterator(); i.hasNext(); ) {
+            if (recordId.equals(i.next().id)) {
+              i.remove();
+            }
+          }
+          if (sameType.isEmpty()) {
+            records.remove();
+          }
+        }
+        if (byType.isEmpty()) {
+          types.remove();
+        }
+      }
+    }
+  }
+}
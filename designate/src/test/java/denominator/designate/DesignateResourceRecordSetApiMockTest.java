@@ -258,4 +258,30 @@ public class DesignateResourceRecordSetApiMockTest {
         .hasMethod("GET")
         .hasPath(format("/v1/domains/%s/records", domainId));
   }
+
+  @Test
+  public void pointReadsAndWritesShareRecordIndexByDefault() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsResponse));
+    server.enqueue(new MockResponse());
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId);
+
+    assertThat(api.getByNameAndType("www.denominator.io.", "A"))
+        .containsExactlyRecords(AData.create("192.0.2.1"), AData.create("192.0.2.2"));
+    api.put(a("www.denominator.io.", "192.0.2.2"));
+    assertThat(api.iterateByName("www.denominator.io.").next())
+        .containsExactlyRecords(AData.create("192.0.2.2"));
+    assertThat(api.getByNameAndType("denominator.io.", "MX"))
+        .containsExactlyRecords(MXData.create(10, "www.denominator.io."));
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath(format("/v1/domains/%s/records", domainId));
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath(format("/v1/domains/%s/records/%s", domainId,
+                        "d7eb0fc4-e069-4c92-a272-c5c969b4f558"));
+  }
 }
@@ -13,8 +13,11 @@ import denominator.Credentials;
 import denominator.Provider;
 import denominator.designate.Designate.Record;
 import denominator.designate.KeystoneV2.TokenIdAndPublicURL;
+import denominator.feign.RequestLimiter;
 import denominator.model.Zone;
+import feign.Client;
 import feign.Feign;
+import feign.Retryer;
 
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,7 +34,10 @@ public class DesignateTest {
     server.enqueueAuthResponse();
 
     DesignateProvider.FeignModule module = new DesignateProvider.FeignModule();
-    KeystoneV2 api = module.keystoneV2(module.feign(module.logger(), module.logLevel()));
+    Feign feign =
+        module.feign(module.logger(), module.logLevel(), new Client.Default(null, null),
+                     new Retryer.Default(), new RequestLimiter());
+    KeystoneV2 api = module.keystoneV2(feign);
     TokenIdAndPublicURL tokenIdAndPublicURL = api.passwordAuth(
         URI.create(server.url()), "tenantId", "username", "password");
 
@@ -263,7 +269,9 @@ public class DesignateTest {
 
   Designate mockApi() {
     DesignateProvider.FeignModule module = new DesignateProvider.FeignModule();
-    Feign feign = module.feign(module.logger(), module.logLevel());
+    Feign feign =
+        module.feign(module.logger(), module.logLevel(), new Client.Default(null, null),
+                     new Retryer.Default(), new RequestLimiter());
     KeystoneV2 keystoneV2 = module.keystoneV2(feign);
     Provider provider = new DesignateProvider() {
       @Override
@@ -12,6 +12,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import javax.inject.Inject;
 
 import denominator.dynect.DynECTException.Message;
+import denominator.feign.ThrottledException;
 import feign.FeignException;
 import feign.Response;
 import feign.RetryableException;
@@ -75,11 +76,11 @@ class DynECTErrorDecoder implements ErrorDecoder {
       } else if (!messages.isEmpty()) {
         for (Message message : messages) {
           if ("token: This session already has a job running".equals(message.info())) {
-            return new RetryableException(messages.toString(), cause, null);
+            return new ThrottledException(messages.toString(), cause, null);
           } else if ("zone: Operation blocked by current task".equals(message.info())) {
             // Tasks are not exposed so the only thing we can do is wait a relatively long time.
             Date retryAfter = new Date(currentTimeMillis() + 1000);
-            return new RetryableException(messages.toString(), cause, retryAfter);
+            return new ThrottledException(messages.toString(), cause, retryAfter);
           } else if ("login: IP address does not match current session".equals(message.info())) {
             sessionValid.set(false);
             return new RetryableException(messages.toString(), cause, null);
@@ -28,13 +28,18 @@ import denominator.dynect.DynECTAdapters.RecordsByNameAndTypeAdapter;
 import denominator.dynect.DynECTAdapters.TokenAdapter;
 import denominator.dynect.DynECTAdapters.ZoneNamesAdapter;
 import denominator.dynect.InvalidatableTokenProvider.Session;
+import denominator.feign.ClientModule;
+import denominator.feign.RequestLimiter;
 import denominator.profile.GeoResourceRecordSetApi;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
+import feign.Retryer;
 import feign.gson.GsonDecoder;
 import feign.gson.GsonEncoder;
 
 import static dagger.Provides.Type.SET;
+import static denominator.feign.RetryPolicy.honorRetryAfter;
 
 public class DynECTProvider extends BasicProvider {
 
@@ -114,6 +119,16 @@ public class DynECTProvider extends BasicProvider {
       return api.hasAllGeoPermissions().data;
     }
 
+    /**
+     * Milliseconds geo services, which are listed for the whole account, are reused across geo
+     * reads of any zone before they are listed again. When 0, each read lists them.
+     */
+    @Provides
+    @Named("geoServicesTtlMillis")
+    long provideGeoServicesTtlMillis() {
+      return 10 * 1000;
+    }
+
     @Provides
     @Singleton
     GeoResourceRecordSetApi.Factory provideGeoResourceRecordSetApiFactory(
@@ -134,6 +149,7 @@ public class DynECTProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = DynECTResourceRecordSetApi.Factory.class,
+      includes = ClientModule.class,
       complete = false // doesn't bind Provider used by SessionTarget
   )
   public static final class FeignModule {
@@ -168,8 +184,11 @@ public class DynECTProvider extends BasicProvider {
 
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel, DynECTErrorDecoder errorDecoder) {
+    Feign feign(Logger logger, Logger.Level logLevel, DynECTErrorDecoder errorDecoder,
+                Client client, Retryer retryer, RequestLimiter limiter) {
       return Feign.builder()
+          .client(client)
+          .retryer(retryer)
           .logger(logger)
           .logLevel(logLevel)
           .encoder(new GsonEncoder())
@@ -180,7 +199,7 @@ public class DynECTProvider extends BasicProvider {
                        new ZoneNamesAdapter(),
                        new RecordsByNameAndTypeAdapter()))
           )
-          .errorDecoder(errorDecoder)
+          .errorDecoder(honorRetryAfter(limiter.errorDecoder(errorDecoder)))
           .build();
     }
   }
@@ -127,6 +127,20 @@ public final class DynECTResourceRecordSetApi implements denominator.ResourceRec
     }
   }
 
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      put(rrset);
+    }
+  }
+
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      deleteByNameAndType(rrset.name(), rrset.type());
+    }
+  }
+
   static final class Factory implements denominator.ResourceRecordSetApi.Factory {
 
     private final DynECT api;
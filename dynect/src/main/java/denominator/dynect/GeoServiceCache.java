@@ -0,0 +1,63 @@
+package denominator.dynect;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Geo services of a DynECT account, as last listed by a {@link denominator.DNSApiManager manager}
+ * for its geo reads. They are listed again once older than {@code geoServicesTtlMillis}, or once
+ * {@link #invalidate() invalidated}.
+ *
+ * <br> <br> <b>Invalidating</b><br>
+ *
+ * After changing geo services outside of the manager, invalidate them, as opposed to waiting for
+ * {@code geoServicesTtlMillis} to pass. To do so, provide an instance in a module that overrides
+ * the default. Don't share an instance across managers of different accounts.
+ *
+ * <pre>
+ * final GeoServiceCache geoServices = new GeoServiceCache();
+ *
+ * &#064;Module(injects = DNSApiManager.class, complete = false, overrides = true)
+ * class InvalidatableGeoServices {
+ *   &#064;Provides
+ *   GeoServiceCache provideGeoServiceCache() {
+ *     return geoServices;
+ *   }
+ * }
+ *
+ * manager = Denominator.create(new DynECTProvider(), credentials, new InvalidatableGeoServices());
+ * ...
+ * geoServices.invalidate();
+ * </pre>
+ *
+ * @since 4.8
+ */
+@Singleton
+public final class GeoServiceCache {
+
+  private volatile GeoServiceIndex.Snapshot snapshot;
+
+  @Inject
+  public GeoServiceCache() {
+  }
+
+  /**
+   * Discards the geo services, in every zone, so that the next geo read lists them again.
+   */
+  public void invalidate() {
+    snapshot = null;
+  }
+
+  GeoServiceIndex.Snapshot get() {
+    return snapshot;
+  }
+
+  void set(GeoServiceIndex.Snapshot snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  @Override
+  public String toString() {
+    return "GeoServiceCache(" + (snapshot != null ? "loaded" : "empty") + ")";
+  }
+}
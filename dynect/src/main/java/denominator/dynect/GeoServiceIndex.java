@@ -0,0 +1,219 @@
+package denominator.dynect;
+
+import com.google.gson.JsonElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import denominator.dynect.DynECT.GeoService;
+import denominator.dynect.DynECT.GeoService.GeoRegionGroup;
+import denominator.dynect.DynECT.GeoService.Node;
+import denominator.model.ResourceRecordSet;
+import denominator.model.ResourceRecordSet.Builder;
+import denominator.model.profile.Geo;
+import denominator.model.profile.Weighted;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Geo record sets of every zone in the account, indexed by zone, name, type and qualifier. DynECT
+ * only lists geo services for the whole account, so this is loaded once for all zones, and reloaded
+ * when older than {@code geoServicesTtlMillis} or {@link GeoServiceCache#invalidate()
+ * invalidated}.
+ */
+@Singleton
+class GeoServiceIndex {
+
+  private final DynECT api;
+  private final ToBuilders toBuilders;
+  private final long ttlNanos;
+  private final GeoServiceCache cache;
+
+  @Inject
+  GeoServiceIndex(DynECT api, @Named("geo") Map<String, Collection<String>> regions,
+                  @Named("geoServicesTtlMillis") long ttlMillis, GeoServiceCache cache) {
+    checkArgument(ttlMillis >= 0, "geoServicesTtlMillis must not be negative, but was %s",
+                  ttlMillis);
+    this.api = api;
+    this.cache = cache;
+    this.toBuilders = new ToBuilders(regions);
+    this.ttlNanos = ttlMillis * 1000000;
+  }
+
+  /**
+   * Geo record sets in the zone, in the order DynECT lists their services.
+   */
+  List<ResourceRecordSet<?>> zone(String zoneFQDN) {
+    ZoneIndex zone = current().zones.get(zoneFQDN);
+    if (zone == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(zone.rrsets);
+  }
+
+  /**
+   * Geo record sets with the name, grouped by type, or an empty map if there are none.
+   */
+  Map<String, Map<String, ResourceRecordSet<?>>> name(String zoneFQDN, String name) {
+    ZoneIndex zone = current().zones.get(zoneFQDN);
+    Map<String, Map<String, ResourceRecordSet<?>>> types =
+        zone != null ? zone.byName.get(name) : null;
+    if (types == null) {
+      return Collections.emptyMap();
+    }
+    return Collections.unmodifiableMap(types);
+  }
+
+  private Snapshot current() {
+    Snapshot current = cache.get();
+    if (current == null || System.nanoTime() - current.loadedNanos > ttlNanos) {
+      synchronized (this) {
+        current = cache.get();
+        if (current == null || System.nanoTime() - current.loadedNanos > ttlNanos) {
+          current = load();
+          cache.set(current);
+        }
+      }
+    }
+    return current;
+  }
+
+  private Snapshot load() {
+    long loadedNanos = System.nanoTime();
+    Map<String, ZoneIndex> zones = new HashMap<String, ZoneIndex>();
+    for (GeoService geo : api.geoServices().data) {
+      for (GeoRegionGroup geoGroup : geo.groups) {
+        for (Builder<?> rrset : toBuilders.apply(geoGroup)) {
+          for (Node node : geo.nodes) {
+            ZoneIndex zone = zones.get(node.zone);
+            if (zone == null) {
+              zone = new ZoneIndex();
+              zones.put(node.zone, zone);
+            }
+            zone.add(rrset.name(node.fqdn).build());
+          }
+        }
+      }
+    }
+    return new Snapshot(zones, loadedNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "GeoServiceIndex(" + ttlNanos / 1000000 + "ms)";
+  }
+
+  static final class Snapshot {
+
+    final Map<String, ZoneIndex> zones;
+    final long loadedNanos;
+
+    Snapshot(Map<String, ZoneIndex> zones, long loadedNanos) {
+      this.zones = zones;
+      this.loadedNanos = loadedNanos;
+    }
+  }
+
+  private static final class ZoneIndex {
+
+    final List<ResourceRecordSet<?>> rrsets = new ArrayList<ResourceRecordSet<?>>();
+    final Map<String, Map<String, Map<String, ResourceRecordSet<?>>>> byName =
+        new HashMap<String, Map<String, Map<String, ResourceRecordSet<?>>>>();
+
+    void add(ResourceRecordSet<?> rrset) {
+      rrsets.add(rrset);
+      Map<String, Map<String, ResourceRecordSet<?>>> types = byName.get(rrset.name());
+      if (types == null) {
+        types = new LinkedHashMap<String, Map<String, ResourceRecordSet<?>>>();
+        byName.put(rrset.name(), types);
+      }
+      Map<String, ResourceRecordSet<?>> qualifiers = types.get(rrset.type());
+      if (qualifiers == null) {
+        qualifiers = new LinkedHashMap<String, ResourceRecordSet<?>>();
+        types.put(rrset.type(), qualifiers);
+      }
+      if (!qualifiers.containsKey(rrset.qualifier())) {
+        qualifiers.put(rrset.qualifier(), rrset);
+      }
+    }
+  }
+
+  private static class ToBuilders {
+
+    private final Map<String, Collection<String>> regions;
+    private final Map<String, String> countryToRegions;
+
+    private ToBuilders(Map<String, Collection<String>> regions) {
+      this.regions = regions;
+      Map<String, String> countryToRegions = new HashMap<String, String>(regions.values().size());
+      for (Entry<String, Collection<String>> entry : regions.entrySet()) {
+        for (String country : entry.getValue()) {
+          countryToRegions.put(country, entry.getKey());
+        }
+      }
+      this.countryToRegions = countryToRegions;
+    }
+
+    public List<Builder<?>> apply(GeoRegionGroup creepyGeoRegionGroup) {
+      List<ResourceRecordSet.Builder<?>> rrsets = new ArrayList<ResourceRecordSet.Builder<?>>();
+      Geo geo = Geo.create(indexCountries(creepyGeoRegionGroup.countries));
+
+      for (Entry<String, List<JsonElement>> entry : creepyGeoRegionGroup.rdata.entrySet()) {
+        if (entry.getValue().isEmpty()) {
+          continue;
+        }
+        // ex. spf_rdata -> SPF
+        String type = entry.getKey().substring(0, entry.getKey().indexOf('_')).toUpperCase();
+        // ex. dhcid_ttl
+        int ttl = creepyGeoRegionGroup.ttl.get(type.toLowerCase() + "_ttl");
+        ResourceRecordSet.Builder<Map<String, Object>> rrset = ResourceRecordSet.builder();
+        rrset.type(type);
+        rrset.qualifier(creepyGeoRegionGroup.name != null ? creepyGeoRegionGroup.name
+                                                          : creepyGeoRegionGroup.service_name);
+        rrset.ttl(ttl);
+        rrset.geo(geo);
+        // weight is only present for a couple record types
+        List<Integer> weights = creepyGeoRegionGroup.weight.get(type.toLowerCase() + "_weight");
+        if (weights != null && !weights.isEmpty()) {
+          rrset.weighted(Weighted.create(weights.get(0)));
+        }
+
+        for (int i = 0; i < entry.getValue().size(); i++) {
+          rrset.add(ToRecord.toRData(type, entry.getValue().get(i).getAsJsonObject()));
+        }
+        rrsets.add(rrset);
+      }
+      return rrsets;
+    }
+
+    private Map<String, Collection<String>> indexCountries(List<String> countries) {
+      Map<String, Collection<String>> indexed = new LinkedHashMap<String, Collection<String>>();
+      for (String country : countries) {
+        // special case the "all countries" condition
+        if (regions.containsKey(country)) {
+          indexed.put(country, Arrays.asList(country));
+        } else if (countryToRegions.containsKey(country)) {
+          String region = countryToRegions.get(country);
+          if (!indexed.containsKey(region)) {
+            indexed.put(region, new ArrayList<String>());
+          }
+          indexed.get(region).add(country);
+        } else {
+          // TODO log not found
+        }
+      }
+      return indexed;
+    }
+  }
+}
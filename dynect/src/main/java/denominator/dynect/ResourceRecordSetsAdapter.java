@@ -1,18 +1,15 @@
 package denominator.dynect;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonIOException;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedList;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Queue;
 
 import denominator.common.PeekingIterator;
 import denominator.dynect.DynECT.Record;
@@ -20,76 +17,88 @@ import denominator.dynect.DynECTAdapters.DataAdapter;
 import denominator.model.ResourceRecordSet;
 import denominator.model.ResourceRecordSet.Builder;
 
-import static denominator.common.Util.peekingIterator;
-
+/**
+ * Reads records one element at a time, as opposed to a tree of the whole response. Record sets are
+ * grouped lazily, as the iterator is consumed.
+ *
+ * <br> <br> <b>Buffering</b><br>
+ *
+ * Feign closes the response when decoding ends, so the records are read before the iterator is
+ * returned. Each record is released as soon as it is grouped into a record set.
+ */
 class ResourceRecordSetsAdapter extends DataAdapter<Iterator<ResourceRecordSet<?>>> {
 
-  private static boolean fqdnAndTypeEquals(JsonObject current, JsonObject next) {
-    return current.get("fqdn").equals(next.get("fqdn"))
-           && current.get("record_type").equals(next.get("record_type"));
-  }
-
   @Override
   public Iterator<ResourceRecordSet<?>> build(JsonReader reader) throws IOException {
-    JsonElement data;
+    Queue<Record> records = new LinkedList<Record>();
     try {
-      data = new JsonParser().parse(reader);
+      // there are 2 forms for record responses: an array of same type, or a
+      // map per type.
+      JsonToken token = reader.peek();
+      if (token == JsonToken.BEGIN_ARRAY) {
+        readRecords(reader, records);
+      } else if (token == JsonToken.BEGIN_OBJECT) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+          reader.nextName();
+          if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            readRecords(reader, records);
+          } else {
+            reader.skipValue();
+          }
+        }
+        reader.endObject();
+      } else {
+        throw new IllegalStateException("unknown format: " + token);
+      }
     } catch (JsonIOException e) {
       if (e.getCause() != null && e.getCause() instanceof IOException) {
         throw IOException.class.cast(e.getCause());
       }
       throw e;
     }
+    return new GroupByRecordNameAndTypeIterator(records);
+  }
 
-    // there are 2 forms for record responses: an array of same type, or a
-    // map per type.
-    if (data.isJsonArray()) {
-      return new GroupByRecordNameAndTypeIterator(data.getAsJsonArray().iterator());
-    } else if (data.isJsonObject()) {
-      List<JsonElement> elements = new ArrayList<JsonElement>();
-      for (Entry<String, JsonElement> entry : data.getAsJsonObject().entrySet()) {
-        if (entry.getValue() instanceof JsonArray) {
-          for (JsonElement element : entry.getValue().getAsJsonArray()) {
-            elements.add(element);
-          }
-        }
+  private static void readRecords(JsonReader reader, Queue<Record> records) throws IOException {
+    reader.beginArray();
+    while (reader.hasNext()) {
+      if (reader.peek() == JsonToken.NULL) {
+        reader.nextNull();
+        continue;
       }
-      return new GroupByRecordNameAndTypeIterator(elements.iterator());
-    } else {
-      throw new IllegalStateException("unknown format: " + data);
+      // parses only the current element
+      records.add(ToRecord.INSTANCE.apply(new JsonParser().parse(reader)));
     }
+    reader.endArray();
   }
 
+  /**
+   * Removes records from the queue into the current record set until one of a different name or
+   * type is next.
+   */
   static class GroupByRecordNameAndTypeIterator extends PeekingIterator<ResourceRecordSet<?>> {
 
-    private final PeekingIterator<JsonElement> peekingIterator;
+    private final Queue<Record> records;
 
-    public GroupByRecordNameAndTypeIterator(Iterator<JsonElement> sortedIterator) {
-      this.peekingIterator = peekingIterator(sortedIterator);
+    GroupByRecordNameAndTypeIterator(Queue<Record> records) {
+      this.records = records;
     }
 
     @Override
     protected ResourceRecordSet<?> computeNext() {
-      if (!peekingIterator.hasNext()) {
+      Record record = records.poll();
+      if (record == null) {
         return endOfData();
       }
-      JsonElement current = peekingIterator.next();
-      Record record = ToRecord.INSTANCE.apply(current);
-      Builder<Map<String, Object>>
-          builder =
-          ResourceRecordSet.builder().name(record.name).type(record.type)
-              .ttl(record.ttl).add(record.rdata);
-      while (peekingIterator.hasNext()) {
-        JsonElement next = peekingIterator.peek();
-        if (next == null || next.isJsonNull()) {
-          continue;
-        }
-        if (fqdnAndTypeEquals(current.getAsJsonObject(), next.getAsJsonObject())) {
-          peekingIterator.next();
-          builder.add(ToRecord.INSTANCE.apply(next).rdata);
-        } else {
-          break;
-        }
+      Builder<Map<String, Object>> builder = ResourceRecordSet.builder()
+          .name(record.name)
+          .type(record.type)
+          .ttl(record.ttl)
+          .add(record.rdata);
+      while (records.peek() != null && record.name.equals(records.peek().name)
+             && record.type.equals(records.peek().type)) {
+        builder.add(records.poll().rdata);
       }
       return builder.build();
     }
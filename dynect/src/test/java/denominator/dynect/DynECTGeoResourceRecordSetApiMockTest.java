@@ -11,6 +11,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 
+import dagger.Module;
+import dagger.Provides;
+import denominator.DNSApiManager;
+import denominator.DNSApiMetrics;
+import denominator.Instrument;
 import denominator.common.Util;
 import denominator.model.ResourceRecordSet;
 import denominator.model.profile.Geo;
@@ -169,6 +174,73 @@ public class DynECTGeoResourceRecordSetApiMockTest {
         .hasPath("/Geo?detail=Y");
   }
 
+  @Test
+  public void readsShareGeoServices() throws Exception {
+    server.enqueueSessionResponse();
+    server.enqueue(new MockResponse().setBody(allGeoPermissions));
+    server.enqueue(new MockResponse().setBody(geoService));
+
+    GeoResourceRecordSetApi api = server.connect().api().geoRecordSetsInZone("denominator.io");
+    assertThat(api.iterator())
+        .containsExactly(everywhereElse, europe, fallback);
+    assertThat(api.getByNameTypeAndQualifier("srv.denominator.io", "CNAME", "Fallback"))
+        .isEqualTo(fallback);
+
+    server.assertSessionRequest();
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/CheckPermissionReport");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/Geo?detail=Y");
+    assertThat(server.requestCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void invalidateReloadsGeoServices() throws Exception {
+    server.enqueueSessionResponse();
+    server.enqueue(new MockResponse().setBody(allGeoPermissions));
+    server.enqueue(new MockResponse().setBody(geoService));
+    server.enqueue(new MockResponse().setBody(noGeoServices));
+
+    GeoServiceCache geoServices = new GeoServiceCache();
+    GeoResourceRecordSetApi api = server.connect(new Instrument(new DNSApiMetrics()),
+                                                 new InvalidatableGeoServices(geoServices))
+        .api().geoRecordSetsInZone("denominator.io");
+    assertThat(api.iterator())
+        .containsExactly(everywhereElse, europe, fallback);
+
+    geoServices.invalidate();
+
+    assertThat(api.iterator()).isEmpty();
+
+    server.assertSessionRequest();
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/CheckPermissionReport");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/Geo?detail=Y");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/Geo?detail=Y");
+  }
+
+  @Module(injects = DNSApiManager.class, complete = false, library = true, overrides = true)
+  static class InvalidatableGeoServices {
+
+    final GeoServiceCache geoServices;
+
+    InvalidatableGeoServices(GeoServiceCache geoServices) {
+      this.geoServices = geoServices;
+    }
+
+    @Provides
+    GeoServiceCache provideGeoServiceCache() {
+      return geoServices;
+    }
+  }
+
   String noGeoServices = "{\"status\": \"success\", \"data\": [] }";
   String geoService;
   ResourceRecordSet<CNAMEData> europe = ResourceRecordSet.<CNAMEData>builder()
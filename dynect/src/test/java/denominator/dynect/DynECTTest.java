@@ -9,8 +9,11 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import denominator.Credentials;
 import denominator.dynect.InvalidatableTokenProvider.Session;
+import denominator.feign.RequestLimiter;
+import feign.Client;
 import feign.Feign;
 import feign.RetryableException;
+import feign.Retryer;
 
 import static denominator.assertj.ModelAssertions.assertThat;
 import static org.assertj.core.api.Fail.failBecauseExceptionWasNotThrown;
@@ -176,7 +179,9 @@ public class DynECTTest {
     };
     AtomicReference<Boolean> sessionValid = module.sessionValid();
     DynECTErrorDecoder errorDecoder = new DynECTErrorDecoder(sessionValid);
-    Feign feign = module.feign(module.logger(), module.logLevel(), errorDecoder);
+    Feign feign = module.feign(module.logger(), module.logLevel(), errorDecoder,
+                               new Client.Default(null, null), new Retryer.Default(),
+                               new RequestLimiter());
     Session sessionApi = feign.newInstance(new SessionTarget(provider));
     InvalidatableTokenProvider
         tokenProvider =
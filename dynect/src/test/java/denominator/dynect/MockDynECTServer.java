@@ -41,8 +41,11 @@ final class MockDynECTServer extends DynECTProvider implements TestRule {
     return "http://localhost:" + delegate.getPort();
   }
 
-  DNSApiManager connect() {
-    return Denominator.create(this, CredentialsConfiguration.credentials(credentials()));
+  DNSApiManager connect(Object... modules) {
+    Object[] modulesWithCredentials = new Object[modules.length + 1];
+    modulesWithCredentials[0] = CredentialsConfiguration.credentials(credentials());
+    System.arraycopy(modules, 0, modulesWithCredentials, 1, modules.length);
+    return Denominator.create(this, modulesWithCredentials);
   }
 
   Credentials credentials() {
@@ -80,6 +83,10 @@ final class MockDynECTServer extends DynECTProvider implements TestRule {
     delegate.enqueue(mockResponse);
   }
 
+  int requestCount() {
+    return delegate.getRequestCount();
+  }
+
   RecordedRequestAssert assertRequest() throws InterruptedException {
     return assertThat(delegate.takeRequest());
   }
@@ -0,0 +1,103 @@
+package denominator.dynect;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import denominator.dynect.DynECT.Data;
+import denominator.model.ResourceRecordSet;
+
+import static denominator.model.ResourceRecordSets.a;
+import static denominator.model.ResourceRecordSets.cname;
+import static denominator.model.ResourceRecordSets.ns;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceRecordSetsAdapterTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  ResourceRecordSetsAdapter adapter = new ResourceRecordSetsAdapter();
+
+  @Test
+  public void arrayOfRecords() throws IOException {
+    Data<Iterator<ResourceRecordSet<?>>> result = adapter.fromJson("{\"status\": \"success\", "
+        + "\"data\": [" + A1 + ", " + A2 + ", " + CNAME + "]}");
+
+    assertThat(result.data).containsExactly(
+        a("www.denominator.io", 3600, Arrays.asList("192.0.2.1", "192.0.2.2")),
+        cname("www1.denominator.io", 3600, "www.denominator.io."));
+  }
+
+  @Test
+  public void mapOfRecordsPerType() throws IOException {
+    Data<Iterator<ResourceRecordSet<?>>> result = adapter.fromJson("{\"status\": \"success\", "
+        + "\"data\": {\"a_records\": [" + A1 + ", " + A2 + "], \"cname_records\": [" + CNAME
+        + "], \"ns_records\": [" + NS + "], \"mx_records\": []}}");
+
+    assertThat(result.data).containsExactly(
+        a("www.denominator.io", 3600, Arrays.asList("192.0.2.1", "192.0.2.2")),
+        cname("www1.denominator.io", 3600, "www.denominator.io."),
+        ns("denominator.io", 86400, "ns1.p28.dynect.net."));
+  }
+
+  @Test
+  public void skipsNullRecords() throws IOException {
+    Data<Iterator<ResourceRecordSet<?>>> result = adapter.fromJson("{\"status\": \"success\", "
+        + "\"data\": {\"a_records\": [" + A1 + ", null, " + A2 + "], \"cname_records\": [null]}}");
+
+    assertThat(result.data).containsExactly(
+        a("www.denominator.io", 3600, Arrays.asList("192.0.2.1", "192.0.2.2")));
+  }
+
+  @Test
+  public void noRecords() throws IOException {
+    Data<Iterator<ResourceRecordSet<?>>> result = adapter.fromJson("{\"status\": \"success\", "
+        + "\"data\": {\"a_records\": [], \"cname_records\": []}}");
+
+    assertThat(result.data).isEmpty();
+  }
+
+  @Test
+  public void unwrapsIOException() throws IOException {
+    thrown.expect(IOException.class);
+    thrown.expectMessage("connection reset");
+
+    final Reader partial = new StringReader("{\"status\": \"success\", \"data\": [" + A1 + ", {");
+    adapter.fromJson(new Reader() {
+      @Override
+      public int read(char[] buf, int off, int len) throws IOException {
+        int read = partial.read(buf, off, len);
+        if (read == -1) {
+          throw new IOException("connection reset");
+        }
+        return read;
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+  }
+
+  static final String A1 = "{\"zone\": \"denominator.io\", \"ttl\": 3600, "
+                           + "\"fqdn\": \"www.denominator.io\", \"record_type\": \"A\", "
+                           + "\"rdata\": {\"address\": \"192.0.2.1\"}, \"record_id\": 1}";
+  static final String A2 = "{\"zone\": \"denominator.io\", \"ttl\": 3600, "
+                           + "\"fqdn\": \"www.denominator.io\", \"record_type\": \"A\", "
+                           + "\"rdata\": {\"address\": \"192.0.2.2\"}, \"record_id\": 2}";
+  static final String CNAME = "{\"zone\": \"denominator.io\", \"ttl\": 3600, "
+                              + "\"fqdn\": \"www1.denominator.io\", \"record_type\": \"CNAME\", "
+                              + "\"rdata\": {\"cname\": \"www.denominator.io.\"}, "
+                              + "\"record_id\": 3}";
+  static final String NS = "{\"zone\": \"denominator.io\", \"ttl\": 86400, "
+                           + "\"fqdn\": \"denominator.io\", \"record_type\": \"NS\", "
+                           + "\"rdata\": {\"nsdname\": \"ns1.p28.dynect.net.\"}, "
+                           + "\"record_id\": 4}";
+}
@@ -0,0 +1,66 @@
+package denominator.feign;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import dagger.Provides;
+import denominator.Instrumentation;
+import denominator.Provider;
+import feign.Client;
+import feign.Retryer;
+
+/**
+ * Provides the {@link Client} and {@link Retryer} used by Feign-based providers. Include this in the
+ * provider's module and pass them to {@link feign.Feign.Builder#client(Client)} and {@link
+ * feign.Feign.Builder#retryer(Retryer)}.
+ *
+ * <br> <br> <b>Instrumentation</b><br>
+ *
+ * When {@link Instrumentation#enabled() enabled}, every HTTP request is sent to listeners by an
+ * {@link InstrumentedClient}. Otherwise, the client is the {@code http} binding: Feign's default,
+ * or a pooled client, if installed with {@code denominator.okhttp.PoolConnections}.
+ *
+ * <br> <br> <b>Limits</b><br>
+ *
+ * When the {@link RequestLimiter} is {@link RequestLimiter#enabled() enabled}, requests wait for it
+ * before they are sent. Providers whose error decoders return {@link ThrottledException} should
+ * also pass them through {@link RequestLimiter#errorDecoder(feign.codec.ErrorDecoder)}.
+ *
+ * <br> <br> <b>Retries</b><br>
+ *
+ * Requests are retried according to the {@link RetryPolicy}. Providers with their own error
+ * decoders should pass them through {@link RetryPolicy#honorRetryAfter(feign.codec.ErrorDecoder)},
+ * so that {@code Retry-After} headers are honored.
+ *
+ * @since 4.8
+ */
+@dagger.Module(library = true, complete = false) // doesn't bind Provider
+public final class ClientModule {
+
+  @Provides
+  @Singleton
+  Client client(@Named("http") Client http, Provider provider, Instrumentation instrumentation,
+                RequestLimiter limiter) {
+    Client client = http;
+    if (instrumentation.enabled()) {
+      client = new InstrumentedClient(client, provider.name(), instrumentation);
+    }
+    // time spent waiting for the limiter isn't included in http request latency
+    return limiter.client(client);
+  }
+
+  /**
+   * Sends requests without instrumentation or limits. Override with {@code
+   * denominator.okhttp.PoolConnections} to reuse connections across managers.
+   */
+  @Provides
+  @Named("http")
+  Client http() {
+    return new Client.Default(null, null);
+  }
+
+  @Provides
+  Retryer retryer(Provider provider, Instrumentation instrumentation, RetryPolicy policy) {
+    return policy.retryer(provider.name(), RetryPolicy.REQUEST, instrumentation);
+  }
+}
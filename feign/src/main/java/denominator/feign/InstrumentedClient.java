@@ -0,0 +1,76 @@
+package denominator.feign;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import denominator.Instrumentation;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Sends an {@link Instrumentation#httpRequest http request event} for each request made through the
+ * delegate, with its status, latency and body lengths.
+ *
+ * @since 4.8
+ */
+public final class InstrumentedClient implements Client {
+
+  private final Client delegate;
+  private final String provider;
+  private final Instrumentation instrumentation;
+
+  public InstrumentedClient(Client delegate, String provider, Instrumentation instrumentation) {
+    this.delegate = checkNotNull(delegate, "delegate");
+    this.provider = checkNotNull(provider, "provider");
+    this.instrumentation = checkNotNull(instrumentation, "instrumentation");
+  }
+
+  @Override
+  public Response execute(Request request, Request.Options options) throws IOException {
+    long requestBytes = request.body() != null ? request.body().length : 0;
+    long start = System.nanoTime();
+    Response response;
+    try {
+      response = delegate.execute(request, options);
+    } catch (IOException e) {
+      instrumentation.httpRequest(provider, request.method(), request.url(), -1,
+                                  System.nanoTime() - start, requestBytes, -1, e);
+      throw e;
+    } catch (RuntimeException e) {
+      instrumentation.httpRequest(provider, request.method(), request.url(), -1,
+                                  System.nanoTime() - start, requestBytes, -1, e);
+      throw e;
+    }
+    instrumentation.httpRequest(provider, request.method(), request.url(), response.status(),
+                                System.nanoTime() - start, requestBytes, responseBytes(response),
+                                null);
+    return response;
+  }
+
+  static long responseBytes(Response response) {
+    if (response.body() != null && response.body().length() != null) {
+      return response.body().length();
+    }
+    for (String name : response.headers().keySet()) {
+      if ("Content-Length".equalsIgnoreCase(name)) {
+        Collection<String> values = response.headers().get(name);
+        if (values != null && !values.isEmpty()) {
+          try {
+            return Long.parseLong(values.iterator().next());
+          } catch (NumberFormatException e) {
+            return -1;
+          }
+        }
+      }
+    }
+    return response.body() == null ? 0 : -1;
+  }
+
+  @Override
+  public String toString() {
+    return "InstrumentedClient(" + provider + ")";
+  }
+}
@@ -0,0 +1,46 @@
+package denominator.feign;
+
+import javax.inject.Singleton;
+
+import dagger.Provides;
+import denominator.DNSApiManager;
+
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Limits the rate and concurrency of HTTP requests made by a {@link DNSApiManager}, backing off
+ * when the provider throttles, if adaptive.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * // at most 5 requests per second, 2 at a time, slowing down when throttled
+ * RequestLimiter limiter = new RequestLimiter(5, 2, true);
+ * manager = Denominator.create(provider, credentials, new LimitRequests(limiter));
+ * </pre>
+ *
+ * @see RequestLimiter
+ * @since 4.8
+ */
+@dagger.Module(injects = DNSApiManager.class, complete = false, overrides = true,
+    library = true // RequestLimiter is only used by feign-based providers
+)
+public final class LimitRequests {
+
+  private final RequestLimiter limiter;
+
+  public LimitRequests(RequestLimiter limiter) {
+    this.limiter = checkNotNull(limiter, "limiter");
+  }
+
+  @Provides
+  @Singleton
+  RequestLimiter provideRequestLimiter() {
+    return limiter;
+  }
+
+  @Override
+  public String toString() {
+    return "LimitRequests(" + limiter + ")";
+  }
+}
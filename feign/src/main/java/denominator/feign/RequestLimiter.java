@@ -0,0 +1,328 @@
+package denominator.feign;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.codec.ErrorDecoder;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Limits the rate and concurrency of HTTP requests to a provider. Requests over the limit wait on
+ * the calling thread, rather than fail. Install with the {@link LimitRequests} module. By default,
+ * requests aren't limited at all.
+ *
+ * <br> <br> <b>Token bucket</b><br>
+ *
+ * When {@code permitsPerSecond} is set, requests are spaced to that rate, allowing a burst of up to
+ * one second's worth of requests after a quiet period.
+ *
+ * <br> <br> <b>Adaptive</b><br>
+ *
+ * When {@code adaptive}, both the rate and the in-flight limit are halved each time the provider
+ * throttles a request, then grow by one per limit's worth of successful requests, up to the
+ * configured maximums. A request is throttled when its status is 429, or when the provider's error
+ * decoder returns a {@link ThrottledException}.
+ *
+ * <br> <br> <b>Sharing</b><br>
+ *
+ * Providers such as route53 throttle per account. To respect that across managers, pass the same
+ * instance to each manager's {@link LimitRequests} module.
+ *
+ * @since 4.8
+ */
+@Singleton
+public final class RequestLimiter {
+
+  private final double maxPermitsPerSecond;
+  private final int maxInFlight;
+  private final boolean adaptive;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition belowInFlightLimit = lock.newCondition();
+  private double permitsPerSecond;
+  private double inFlightLimit;
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+  private int inFlight;
+  private long throttled;
+
+  /**
+   * Doesn't limit requests.
+   */
+  @Inject
+  public RequestLimiter() {
+    this(0, 0, false);
+  }
+
+  /**
+   * @param permitsPerSecond maximum rate of requests, or 0 for no rate limit.
+   * @param maxInFlight      maximum count of requests in progress, or 0 for no limit.
+   * @param adaptive         true to back off when the provider throttles.
+   */
+  public RequestLimiter(double permitsPerSecond, int maxInFlight, boolean adaptive) {
+    checkArgument(permitsPerSecond >= 0, "permitsPerSecond must not be negative, but was %s",
+                  permitsPerSecond);
+    checkArgument(maxInFlight >= 0, "maxInFlight must not be negative, but was %s", maxInFlight);
+    checkArgument(!adaptive || permitsPerSecond > 0 || maxInFlight > 0,
+                  "adaptive requires permitsPerSecond or maxInFlight");
+    this.maxPermitsPerSecond = permitsPerSecond;
+    this.maxInFlight = maxInFlight;
+    this.adaptive = adaptive;
+    this.permitsPerSecond = permitsPerSecond;
+    this.inFlightLimit = maxInFlight;
+    this.tokens = Math.max(1, permitsPerSecond);
+  }
+
+  /**
+   * False when requests aren't limited, in which case clients and decoders needn't be wrapped.
+   */
+  public boolean enabled() {
+    return maxPermitsPerSecond > 0 || maxInFlight > 0;
+  }
+
+  /**
+   * Returns a client which waits for the limiter before each request, or the client itself if not
+   * {@link #enabled()}.
+   */
+  public Client client(Client delegate) {
+    checkNotNull(delegate, "delegate");
+    return enabled() ? new LimitedClient(delegate, this) : delegate;
+  }
+
+  /**
+   * Returns an error decoder which backs off when the status is 429 or the delegate returns a
+   * {@link ThrottledException}, or the delegate itself if not {@link #enabled()}. Throttling is
+   * only recorded here, so that a 429 decoded into a {@link ThrottledException} counts once.
+   */
+  public ErrorDecoder errorDecoder(ErrorDecoder delegate) {
+    checkNotNull(delegate, "delegate");
+    return enabled() ? new ThrottlingErrorDecoder(delegate, this) : delegate;
+  }
+
+  /**
+   * Current rate limit, which is below the configured one after throttling, when adaptive.
+   */
+  public double permitsPerSecond() {
+    lock.lock();
+    try {
+      return permitsPerSecond;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Current in-flight limit, which is below the configured one after throttling, when adaptive.
+   */
+  public int inFlightLimit() {
+    lock.lock();
+    try {
+      return (int) inFlightLimit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Count of requests in progress.
+   */
+  public int inFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Count of requests the provider throttled.
+   */
+  public long throttled() {
+    lock.lock();
+    try {
+      return throttled;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Blocks until a request may start. Each call must be followed by {@link #release()}.
+   */
+  void acquire() throws InterruptedException {
+    long waitNanos = 0;
+    lock.lockInterruptibly();
+    try {
+      while (maxInFlight > 0 && inFlight >= (int) inFlightLimit) {
+        belowInFlightLimit.await();
+      }
+      inFlight++;
+      if (maxPermitsPerSecond > 0) {
+        refill();
+        // reserve a token, waiting outside the lock until it would have been refilled
+        tokens -= 1;
+        if (tokens < 0) {
+          waitNanos = (long) (-tokens / permitsPerSecond * 1e9);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (waitNanos > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        release();
+        throw e;
+      }
+    }
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    tokens = Math.min(Math.max(1, permitsPerSecond),
+                      tokens + (now - lastRefillNanos) * permitsPerSecond / 1e9);
+    lastRefillNanos = now;
+  }
+
+  void release() {
+    lock.lock();
+    try {
+      inFlight--;
+      belowInFlightLimit.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Additive increase: by one per limit's worth of successful requests.
+   */
+  void succeeded() {
+    if (!adaptive) {
+      return;
+    }
+    lock.lock();
+    try {
+      if (maxPermitsPerSecond > 0) {
+        permitsPerSecond = Math.min(maxPermitsPerSecond, permitsPerSecond + 1 / permitsPerSecond);
+      }
+      if (maxInFlight > 0) {
+        int before = (int) inFlightLimit;
+        inFlightLimit = Math.min(maxInFlight, inFlightLimit + 1 / inFlightLimit);
+        if ((int) inFlightLimit > before) {
+          belowInFlightLimit.signal();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Multiplicative decrease: halves the limits, but never below one.
+   */
+  void throttled(long retryAfterNanos) {
+    lock.lock();
+    try {
+      throttled++;
+      if (!adaptive) {
+        return;
+      }
+      if (maxPermitsPerSecond > 0) {
+        refill();
+        permitsPerSecond = Math.max(Math.min(1, maxPermitsPerSecond), permitsPerSecond / 2);
+        // hold off everyone else until the provider says it's ok.
+        tokens = Math.min(tokens, -retryAfterNanos * permitsPerSecond / 1e9);
+      }
+      if (maxInFlight > 0) {
+        inFlightLimit = Math.max(1, inFlightLimit / 2);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "RequestLimiter(permitsPerSecond=" + maxPermitsPerSecond + ", maxInFlight="
+           + maxInFlight + ", adaptive=" + adaptive + ")";
+  }
+
+  static final class LimitedClient implements Client {
+
+    private final Client delegate;
+    private final RequestLimiter limiter;
+
+    LimitedClient(Client delegate, RequestLimiter limiter) {
+      this.delegate = delegate;
+      this.limiter = limiter;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+      try {
+        limiter.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("interrupted waiting for " + limiter);
+      }
+      try {
+        Response response = delegate.execute(request, options);
+        // throttling is recorded by the error decoder, which knows the provider's Retry-After
+        if (response.status() < 300) {
+          limiter.succeeded();
+        }
+        return response;
+      } finally {
+        limiter.release();
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "LimitedClient(" + limiter + ")";
+    }
+  }
+
+  static final class ThrottlingErrorDecoder implements ErrorDecoder {
+
+    private final ErrorDecoder delegate;
+    private final RequestLimiter limiter;
+
+    ThrottlingErrorDecoder(ErrorDecoder delegate, RequestLimiter limiter) {
+      this.delegate = delegate;
+      this.limiter = limiter;
+    }
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+      Exception exception = delegate.decode(methodKey, response);
+      if (exception instanceof ThrottledException
+          || (response != null && response.status() == 429)) {
+        Date retryAfter = exception instanceof RetryableException
+                          ? ((RetryableException) exception).retryAfter() : null;
+        long retryAfterNanos = 0;
+        if (retryAfter != null) {
+          retryAfterNanos = TimeUnit.MILLISECONDS.toNanos(
+              Math.max(0, retryAfter.getTime() - System.currentTimeMillis()));
+        }
+        limiter.throttled(retryAfterNanos);
+      }
+      return exception;
+    }
+  }
+}
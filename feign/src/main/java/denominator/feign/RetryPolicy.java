@@ -0,0 +1,333 @@
+package denominator.feign;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import denominator.Instrumentation;
+import feign.FeignException;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Decides how long to wait before retrying, and how many times. Used for HTTP requests and for
+ * polling provider jobs, such as clouddns {@code awaitComplete}. Install with the {@link
+ * RetryRequests} module.
+ *
+ * <br> <br> <b>Full jitter</b><br>
+ *
+ * Before each retry, this waits a random time between zero and an exponentially growing ceiling,
+ * starting at {@code periodMillis} and doubling up to {@code maxPeriodMillis}. Randomizing the whole
+ * delay keeps parallel workers from retrying in lockstep after the provider throttles them.
+ *
+ * <br> <br> <b>Retry-After</b><br>
+ *
+ * When the exception has a {@link RetryableException#retryAfter() retryAfter} hint, this waits at
+ * least until then. {@link #honorRetryAfter(ErrorDecoder)} adds hints from the {@code Retry-After}
+ * header to errors decoded by provider-specific decoders.
+ *
+ * <br> <br> <b>Budgets</b><br>
+ *
+ * Each operation may have its own maximum count of attempts. For example, job polling is allowed
+ * {@code 30} attempts by default, while requests are allowed {@code 5}.
+ *
+ * <br> <br> <b>Minimum delays</b><br>
+ *
+ * An operation may also have its own {@link #delays(String, long, long) delays}, which are never
+ * shorter than a minimum. By default, job polls wait at least 500ms, and 1s on average, so that
+ * jobs get about as long to complete as they did with Feign's default retryer.
+ *
+ * @since 4.8
+ */
+@Singleton
+public final class RetryPolicy {
+
+  /**
+   * Operation name of HTTP requests made by Feign.
+   */
+  public static final String REQUEST = "request";
+
+  /**
+   * Operation name of polling until a provider's asynchronous job completes.
+   */
+  public static final String AWAIT_COMPLETE = "awaitComplete";
+
+  private final long periodMillis;
+  private final long maxPeriodMillis;
+  private final int maxAttempts;
+  private final Map<String, Integer> budgets;
+  private final Map<String, Delays> delays;
+  private final Random random;
+
+  /**
+   * Waits up to 100ms, doubling to 1s, for 5 request attempts. Waits 500ms to 1.5s for 30 job
+   * polls.
+   */
+  @Inject
+  public RetryPolicy() {
+    this(100, 1000, 5);
+    budgets.put(AWAIT_COMPLETE, 30);
+    delays.put(AWAIT_COMPLETE, new Delays(500, 1500));
+  }
+
+  /**
+   * @param periodMillis    ceiling of the delay before the first retry.
+   * @param maxPeriodMillis maximum ceiling of the delay, unless the exception has a later hint.
+   * @param maxAttempts     maximum attempts, including the first, of operations without a budget.
+   */
+  public RetryPolicy(long periodMillis, long maxPeriodMillis, int maxAttempts) {
+    this(periodMillis, maxPeriodMillis, maxAttempts, new LinkedHashMap<String, Integer>(),
+         new LinkedHashMap<String, Delays>(), new Random());
+  }
+
+  RetryPolicy(long periodMillis, long maxPeriodMillis, int maxAttempts,
+              Map<String, Integer> budgets, Map<String, Delays> delays, Random random) {
+    checkArgument(periodMillis > 0, "periodMillis must be positive, but was %s", periodMillis);
+    checkArgument(maxPeriodMillis >= periodMillis,
+                  "maxPeriodMillis must be at least periodMillis, but was %s", maxPeriodMillis);
+    checkArgument(maxAttempts > 0, "maxAttempts must be positive, but was %s", maxAttempts);
+    this.periodMillis = periodMillis;
+    this.maxPeriodMillis = maxPeriodMillis;
+    this.maxAttempts = maxAttempts;
+    this.budgets = budgets;
+    this.delays = delays;
+    this.random = checkNotNull(random, "random");
+  }
+
+  /**
+   * Returns a copy of this policy, which allows the operation up to {@code maxAttempts}, including
+   * the first.
+   *
+   * @param operation such as {@link #REQUEST} or {@link #AWAIT_COMPLETE}.
+   */
+  public RetryPolicy budget(String operation, int maxAttempts) {
+    checkNotNull(operation, "operation");
+    checkArgument(maxAttempts > 0, "maxAttempts must be positive, but was %s", maxAttempts);
+    Map<String, Integer> budgets = new LinkedHashMap<String, Integer>(this.budgets);
+    budgets.put(operation, maxAttempts);
+    return new RetryPolicy(periodMillis, maxPeriodMillis, this.maxAttempts, budgets, delays,
+                           random);
+  }
+
+  /**
+   * Returns a copy of this policy, which waits at least {@code minDelayMillis} before each retry of
+   * the operation. The delay is random between that and a ceiling, which starts at {@code
+   * minDelayMillis} and doubles up to {@code maxPeriodMillis}.
+   *
+   * @param operation such as {@link #REQUEST} or {@link #AWAIT_COMPLETE}.
+   */
+  public RetryPolicy delays(String operation, long minDelayMillis, long maxPeriodMillis) {
+    checkNotNull(operation, "operation");
+    Map<String, Delays> delays = new LinkedHashMap<String, Delays>(this.delays);
+    delays.put(operation, new Delays(minDelayMillis, maxPeriodMillis));
+    return new RetryPolicy(this.periodMillis, this.maxPeriodMillis, maxAttempts, budgets, delays,
+                           random);
+  }
+
+  /**
+   * Maximum attempts, including the first, of the operation.
+   */
+  public int maxAttempts(String operation) {
+    Integer budget = budgets.get(operation);
+    return budget != null ? budget : maxAttempts;
+  }
+
+  /**
+   * Returns a retryer for the operation, which sends a {@link Instrumentation#retry retry event}
+   * before each delay. Use {@link Retryer#clone()} to start a fresh count of attempts.
+   *
+   * @param provider  {@link denominator.Provider#name() name} of the provider.
+   * @param operation such as {@link #REQUEST} or {@link #AWAIT_COMPLETE}.
+   */
+  public Retryer retryer(String provider, String operation, Instrumentation instrumentation) {
+    return new JitteredRetryer(this, checkNotNull(provider, "provider"),
+                               checkNotNull(operation, "operation"),
+                               checkNotNull(instrumentation, "instrumentation"));
+  }
+
+  /**
+   * Returns an error decoder which adds the {@code Retry-After} header as a {@link
+   * RetryableException#retryAfter() hint}. Errors with status 429 or 503 and the header become
+   * retryable, if the delegate didn't already say so.
+   */
+  public static ErrorDecoder honorRetryAfter(ErrorDecoder delegate) {
+    return new RetryAfterErrorDecoder(checkNotNull(delegate, "delegate"));
+  }
+
+  /**
+   * Milliseconds to wait before the attempt following {@code attempt}, which starts at 1.
+   */
+  long delayMillis(int attempt, Date retryAfter) {
+    return delayMillis(null, attempt, retryAfter);
+  }
+
+  /**
+   * Like {@link #delayMillis(int, Date)}, except using the {@link #delays(String, long, long)
+   * delays} of the operation, if any.
+   */
+  long delayMillis(String operation, int attempt, Date retryAfter) {
+    Delays operationDelays = operation != null ? delays.get(operation) : null;
+    long minDelay = operationDelays != null ? operationDelays.minDelayMillis : 0;
+    long ceiling = operationDelays != null ? operationDelays.minDelayMillis : periodMillis;
+    long maxCeiling = operationDelays != null ? operationDelays.maxPeriodMillis : maxPeriodMillis;
+    for (int i = 1; i < attempt && ceiling < maxCeiling; i++) {
+      ceiling *= 2;
+    }
+    ceiling = Math.min(maxCeiling, ceiling);
+    long delay;
+    synchronized (random) {
+      delay = minDelay + (long) (random.nextDouble() * (ceiling - minDelay));
+    }
+    if (retryAfter != null) {
+      delay = Math.max(delay, retryAfter.getTime() - System.currentTimeMillis());
+    }
+    return delay;
+  }
+
+  @Override
+  public String toString() {
+    return "RetryPolicy(periodMillis=" + periodMillis + ", maxPeriodMillis=" + maxPeriodMillis
+           + ", maxAttempts=" + maxAttempts + ", budgets=" + budgets + ", delays=" + delays + ")";
+  }
+
+  static final class Delays {
+
+    final long minDelayMillis;
+    final long maxPeriodMillis;
+
+    Delays(long minDelayMillis, long maxPeriodMillis) {
+      checkArgument(minDelayMillis > 0, "minDelayMillis must be positive, but was %s",
+                    minDelayMillis);
+      checkArgument(maxPeriodMillis >= minDelayMillis,
+                    "maxPeriodMillis must be at least minDelayMillis, but was %s", maxPeriodMillis);
+      this.minDelayMillis = minDelayMillis;
+      this.maxPeriodMillis = maxPeriodMillis;
+    }
+
+    @Override
+    public String toString() {
+      return minDelayMillis + "-" + maxPeriodMillis + "ms";
+    }
+  }
+
+  static final class JitteredRetryer implements Retryer {
+
+    private final RetryPolicy policy;
+    private final String provider;
+    private final String operation;
+    private final Instrumentation instrumentation;
+    private final int maxAttempts;
+    private int attempt = 1;
+
+    JitteredRetryer(RetryPolicy policy, String provider, String operation,
+                    Instrumentation instrumentation) {
+      this.policy = policy;
+      this.provider = provider;
+      this.operation = operation;
+      this.instrumentation = instrumentation;
+      this.maxAttempts = policy.maxAttempts(operation);
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+      if (attempt >= maxAttempts) {
+        throw e;
+      }
+      long delayMillis = policy.delayMillis(operation, attempt, e.retryAfter());
+      instrumentation.retry(provider, operation, attempt, TimeUnit.MILLISECONDS.toNanos(
+          delayMillis), e);
+      attempt++;
+      try {
+        Thread.sleep(delayMillis);
+      } catch (InterruptedException ignored) {
+        Thread.currentThread().interrupt();
+        throw e;
+      }
+    }
+
+    @Override
+    public Retryer clone() {
+      return new JitteredRetryer(policy, provider, operation, instrumentation);
+    }
+
+    @Override
+    public String toString() {
+      return "JitteredRetryer(" + provider + " " + operation + ")";
+    }
+  }
+
+  static final class RetryAfterErrorDecoder implements ErrorDecoder {
+
+    private final ErrorDecoder delegate;
+
+    RetryAfterErrorDecoder(ErrorDecoder delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+      Exception exception = delegate.decode(methodKey, response);
+      Date retryAfter = retryAfter(response);
+      if (retryAfter == null) {
+        return exception;
+      }
+      if (exception instanceof RetryableException) {
+        RetryableException retryable = (RetryableException) exception;
+        if (retryable.retryAfter() != null) {
+          return exception;
+        }
+        if (exception instanceof ThrottledException) {
+          return new ThrottledException(exception.getMessage(), exception.getCause(), retryAfter);
+        }
+        return new RetryableException(exception.getMessage(), exception.getCause(), retryAfter);
+      } else if (exception instanceof FeignException
+                 && (response.status() == 429 || response.status() == 503)) {
+        return new RetryableException(exception.getMessage(), exception, retryAfter);
+      }
+      return exception;
+    }
+
+    /**
+     * Parses the header as seconds from now, or as an HTTP date. Returns null if absent or invalid.
+     */
+    static Date retryAfter(Response response) {
+      if (response == null || response.headers() == null) {
+        return null;
+      }
+      for (Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+        if (!"Retry-After".equalsIgnoreCase(header.getKey()) || header.getValue() == null
+            || header.getValue().isEmpty()) {
+          continue;
+        }
+        String value = header.getValue().iterator().next().trim();
+        if (value.matches("^[0-9]+$")) {
+          return new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(
+              Long.parseLong(value)));
+        }
+        SimpleDateFormat rfc822 = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        rfc822.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+          return rfc822.parse(value);
+        } catch (ParseException e) {
+          return null;
+        }
+      }
+      return null;
+    }
+  }
+}
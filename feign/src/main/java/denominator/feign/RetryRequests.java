@@ -0,0 +1,46 @@
+package denominator.feign;
+
+import javax.inject.Singleton;
+
+import dagger.Provides;
+import denominator.DNSApiManager;
+
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Replaces the default {@link RetryPolicy} of a {@link DNSApiManager}, which applies to both HTTP
+ * requests and job polling.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * // up to 250ms, doubling to 5s, for 10 requests or 60 job polls
+ * RetryPolicy policy = new RetryPolicy(250, 5000, 10).budget(RetryPolicy.AWAIT_COMPLETE, 60);
+ * manager = Denominator.create(provider, credentials, new RetryRequests(policy));
+ * </pre>
+ *
+ * @see RetryPolicy
+ * @since 4.8
+ */
+@dagger.Module(injects = DNSApiManager.class, complete = false, overrides = true,
+    library = true // RetryPolicy is only used by feign-based providers
+)
+public final class RetryRequests {
+
+  private final RetryPolicy policy;
+
+  public RetryRequests(RetryPolicy policy) {
+    this.policy = checkNotNull(policy, "policy");
+  }
+
+  @Provides
+  @Singleton
+  RetryPolicy provideRetryPolicy() {
+    return policy;
+  }
+
+  @Override
+  public String toString() {
+    return "RetryRequests(" + policy + ")";
+  }
+}
@@ -0,0 +1,31 @@
+package denominator.feign;
+
+import java.util.Date;
+
+import feign.RetryableException;
+
+/**
+ * Returned by error decoders when the provider rejected a request because too many were sent, such
+ * as route53 {@code Throttling}. Like other {@link RetryableException retryable exceptions}, the
+ * request is retried. Additionally, an adaptive {@link RequestLimiter} backs off.
+ *
+ * @since 4.8
+ */
+public class ThrottledException extends RetryableException {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * @param retryAfter when to retry, or null if unknown.
+   */
+  public ThrottledException(String message, Throwable cause, Date retryAfter) {
+    super(message, cause, retryAfter);
+  }
+
+  /**
+   * @param retryAfter when to retry, or null if unknown.
+   */
+  public ThrottledException(String message, Date retryAfter) {
+    super(message, retryAfter);
+  }
+}
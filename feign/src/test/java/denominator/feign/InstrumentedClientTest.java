@@ -0,0 +1,74 @@
+package denominator.feign;
+
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import denominator.DNSApiMetrics;
+import denominator.Instrumentation;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstrumentedClientTest {
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  DNSApiMetrics metrics = new DNSApiMetrics();
+  Client client =
+      new InstrumentedClient(new Client.Default(null, null), "mock", new Instrumentation(metrics));
+  Request.Options options = new Request.Options(1000, 1000);
+  Map<String, Collection<String>> noHeaders = Collections.emptyMap();
+
+  @Test
+  public void recordsStatusAndBytes() throws IOException {
+    server.enqueue(new MockResponse().setBody("created"));
+
+    Response response = client.execute(Request.create(
+        "POST", server.getUrl("/zones").toString(), noHeaders, "{}".getBytes(), null), options);
+
+    assertThat(response.status()).isEqualTo(200);
+    DNSApiMetrics.Stats post = metrics.httpRequest("mock", "POST");
+    assertThat(post.count()).isEqualTo(1);
+    assertThat(post.errors()).isZero();
+    assertThat(post.requestBytes()).isEqualTo(2);
+    assertThat(post.responseBytes()).isEqualTo(7);
+    assertThat(post.max(TimeUnit.NANOSECONDS)).isPositive();
+  }
+
+  @Test
+  public void errorStatusCountsAsError() throws IOException {
+    server.enqueue(new MockResponse().setResponseCode(503));
+
+    client.execute(Request.create("GET", server.getUrl("/zones").toString(), noHeaders, null,
+                                  null), options);
+
+    assertThat(metrics.httpRequest("mock", "GET").errors()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordsIOException() throws IOException {
+    String url = server.getUrl("/zones").toString();
+    server.shutdown();
+
+    try {
+      client.execute(Request.create("GET", url, noHeaders, null, null), options);
+    } catch (IOException expected) {
+    }
+
+    DNSApiMetrics.Stats get = metrics.httpRequest("mock", "GET");
+    assertThat(get.count()).isEqualTo(1);
+    assertThat(get.errors()).isEqualTo(1);
+  }
+}
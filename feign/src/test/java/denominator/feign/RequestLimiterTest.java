@@ -0,0 +1,188 @@
+package denominator.feign;
+
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestLimiterTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  Map<String, Collection<String>> noHeaders = Collections.emptyMap();
+
+  @Test
+  public void unlimitedByDefault() {
+    Client client = new Client.Default(null, null);
+    ErrorDecoder errorDecoder = new ErrorDecoder.Default();
+    RequestLimiter limiter = new RequestLimiter();
+
+    assertThat(limiter.enabled()).isFalse();
+    assertThat(limiter.client(client)).isSameAs(client);
+    assertThat(limiter.errorDecoder(errorDecoder)).isSameAs(errorDecoder);
+  }
+
+  @Test
+  public void spacesRequestsAfterBurst() throws InterruptedException {
+    RequestLimiter limiter = new RequestLimiter(20, 0, false);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 30; i++) { // 20 in the first burst, then 10 at 20/s
+      limiter.acquire();
+      limiter.release();
+    }
+
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(450L, 1000L);
+  }
+
+  @Test
+  public void waitsForRequestsInFlight() throws InterruptedException {
+    final RequestLimiter limiter = new RequestLimiter(0, 1, false);
+    final CountDownLatch acquired = new CountDownLatch(1);
+    limiter.acquire();
+
+    new Thread() {
+      @Override
+      public void run() {
+        try {
+          limiter.acquire();
+          acquired.countDown();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }.start();
+
+    assertThat(acquired.await(100, TimeUnit.MILLISECONDS)).isFalse();
+    limiter.release();
+    assertThat(acquired.await(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(limiter.inFlight()).isEqualTo(1);
+  }
+
+  @Test
+  public void adaptiveHalvesOnThrottlingThenRecovers() {
+    RequestLimiter limiter = new RequestLimiter(8, 8, true);
+
+    limiter.throttled(0);
+    assertThat(limiter.permitsPerSecond()).isEqualTo(4);
+    assertThat(limiter.inFlightLimit()).isEqualTo(4);
+    limiter.throttled(0);
+    limiter.throttled(0);
+    limiter.throttled(0);
+    assertThat(limiter.permitsPerSecond()).isEqualTo(1);
+    assertThat(limiter.inFlightLimit()).isEqualTo(1);
+
+    for (int i = 0; i < 100; i++) {
+      limiter.succeeded();
+    }
+    assertThat(limiter.permitsPerSecond()).isEqualTo(8);
+    assertThat(limiter.inFlightLimit()).isEqualTo(8);
+    assertThat(limiter.throttled()).isEqualTo(4);
+  }
+
+  @Test
+  public void notAdaptiveCountsThrottling() {
+    RequestLimiter limiter = new RequestLimiter(8, 8, false);
+
+    limiter.throttled(0);
+
+    assertThat(limiter.permitsPerSecond()).isEqualTo(8);
+    assertThat(limiter.inFlightLimit()).isEqualTo(8);
+    assertThat(limiter.throttled()).isEqualTo(1);
+  }
+
+  @Test
+  public void clientDoesntRecordTooManyRequests() throws IOException {
+    server.enqueue(new MockResponse().setResponseCode(429));
+    RequestLimiter limiter = new RequestLimiter(0, 4, true);
+
+    Response response = limiter.client(new Client.Default(null, null)).execute(
+        Request.create("GET", server.getUrl("/").toString(), noHeaders, null, null),
+        new Request.Options());
+
+    assertThat(response.status()).isEqualTo(429);
+    assertThat(limiter.inFlightLimit()).isEqualTo(4);
+    assertThat(limiter.throttled()).isZero();
+    assertThat(limiter.inFlight()).isZero();
+  }
+
+  @Test
+  public void errorDecoderBacksOffOnTooManyRequests() {
+    RequestLimiter limiter = new RequestLimiter(0, 4, true);
+
+    ErrorDecoder errorDecoder = limiter.errorDecoder(new ErrorDecoder.Default());
+    errorDecoder.decode("Route53#zones()", response(429));
+
+    assertThat(limiter.inFlightLimit()).isEqualTo(2);
+    assertThat(limiter.throttled()).isEqualTo(1);
+  }
+
+  @Test
+  public void tooManyRequestsDecodedAsThrottledExceptionCountsOnce() throws IOException {
+    server.enqueue(new MockResponse().setResponseCode(429));
+    RequestLimiter limiter = new RequestLimiter(0, 4, true);
+    final ThrottledException throttled = new ThrottledException("Rate exceeded", null);
+
+    Response response = limiter.client(new Client.Default(null, null)).execute(
+        Request.create("GET", server.getUrl("/").toString(), noHeaders, null, null),
+        new Request.Options());
+    ErrorDecoder errorDecoder = limiter.errorDecoder(new ErrorDecoder() {
+      @Override
+      public Exception decode(String methodKey, Response response) {
+        return throttled;
+      }
+    });
+
+    assertThat(errorDecoder.decode("Route53#zones()", response)).isSameAs(throttled);
+    assertThat(limiter.inFlightLimit()).isEqualTo(2);
+    assertThat(limiter.throttled()).isEqualTo(1);
+  }
+
+  @Test
+  public void errorDecoderBacksOffOnThrottledException() {
+    RequestLimiter limiter = new RequestLimiter(0, 4, true);
+    final ThrottledException throttled = new ThrottledException("Rate exceeded", new Date());
+
+    ErrorDecoder errorDecoder = limiter.errorDecoder(new ErrorDecoder() {
+      @Override
+      public Exception decode(String methodKey, Response response) {
+        return throttled;
+      }
+    });
+
+    assertThat(errorDecoder.decode("Route53#zones()", null)).isSameAs(throttled);
+    assertThat(limiter.inFlightLimit()).isEqualTo(2);
+  }
+
+  @Test
+  public void adaptiveNeedsALimit() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("adaptive requires permitsPerSecond or maxInFlight");
+
+    new RequestLimiter(0, 0, true);
+  }
+
+  Response response(int status) {
+    return Response.create(status, "Too Many Requests", noHeaders, (byte[]) null);
+  }
+}
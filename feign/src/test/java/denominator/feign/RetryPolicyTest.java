@@ -0,0 +1,182 @@
+package denominator.feign;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import denominator.DNSApiMetrics;
+import denominator.Instrumentation;
+import feign.FeignException;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetryPolicyTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  DNSApiMetrics metrics = new DNSApiMetrics();
+  RetryableException retryable = new RetryableException("Rate exceeded", null);
+
+  @Test
+  public void fullJitterGrowsToMaxPeriod() {
+    RetryPolicy policy = new RetryPolicy(10, 40, 10, new LinkedHashMap<String, Integer>(),
+                                         new LinkedHashMap<String, RetryPolicy.Delays>(),
+                                         new Random(0));
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(policy.delayMillis(1, null)).isBetween(0L, 10L);
+      assertThat(policy.delayMillis(2, null)).isBetween(0L, 20L);
+      assertThat(policy.delayMillis(5, null)).isBetween(0L, 40L);
+    }
+  }
+
+  @Test
+  public void jobPollsWaitAtLeastHalfASecondByDefault() {
+    RetryPolicy policy = new RetryPolicy();
+
+    long total = 0;
+    for (int attempt = 1; attempt < policy.maxAttempts(RetryPolicy.AWAIT_COMPLETE); attempt++) {
+      long delay = policy.delayMillis(RetryPolicy.AWAIT_COMPLETE, attempt, null);
+      assertThat(delay).isBetween(500L, 1500L);
+      total += delay;
+    }
+    // about as long as Feign's default retryer, which jobs were polled with before
+    assertThat(total).isBetween(20000L, 40000L);
+    assertThat(policy.delayMillis(RetryPolicy.REQUEST, 1, null)).isBetween(0L, 100L);
+  }
+
+  @Test
+  public void delaysArePerOperation() {
+    RetryPolicy policy = new RetryPolicy(10, 40, 10).delays(RetryPolicy.AWAIT_COMPLETE, 100, 200);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(policy.delayMillis(RetryPolicy.AWAIT_COMPLETE, 1, null)).isEqualTo(100L);
+      assertThat(policy.delayMillis(RetryPolicy.AWAIT_COMPLETE, 5, null)).isBetween(100L, 200L);
+      assertThat(policy.delayMillis(RetryPolicy.REQUEST, 5, null)).isBetween(0L, 40L);
+    }
+  }
+
+  @Test
+  public void waitsAtLeastUntilRetryAfter() {
+    RetryPolicy policy = new RetryPolicy(10, 40, 10);
+
+    long delay = policy.delayMillis(1, new Date(System.currentTimeMillis() + 1000));
+
+    assertThat(delay).isBetween(900L, 1000L);
+  }
+
+  @Test
+  public void defaultBudgets() {
+    RetryPolicy policy = new RetryPolicy();
+
+    assertThat(policy.maxAttempts(RetryPolicy.REQUEST)).isEqualTo(5);
+    assertThat(policy.maxAttempts(RetryPolicy.AWAIT_COMPLETE)).isEqualTo(30);
+  }
+
+  @Test
+  public void budgetIsPerOperation() {
+    RetryPolicy policy = new RetryPolicy(1, 1, 3).budget(RetryPolicy.AWAIT_COMPLETE, 10);
+
+    assertThat(policy.maxAttempts(RetryPolicy.REQUEST)).isEqualTo(3);
+    assertThat(policy.maxAttempts(RetryPolicy.AWAIT_COMPLETE)).isEqualTo(10);
+  }
+
+  @Test
+  public void retryerPropagatesWhenBudgetIsSpentAndRecordsRetries() {
+    Retryer retryer = new RetryPolicy(1, 1, 3)
+        .retryer("mock", RetryPolicy.REQUEST, new Instrumentation(metrics));
+
+    retryer.continueOrPropagate(retryable);
+    retryer.continueOrPropagate(retryable);
+    assertThat(metrics.retry("mock", RetryPolicy.REQUEST).count()).isEqualTo(2);
+
+    thrown.expect(RetryableException.class);
+    thrown.expectMessage("Rate exceeded");
+
+    retryer.continueOrPropagate(retryable);
+  }
+
+  @Test
+  public void cloneStartsOver() {
+    Retryer retryer = new RetryPolicy(1, 1, 2)
+        .retryer("mock", RetryPolicy.REQUEST, new Instrumentation(metrics));
+
+    retryer.continueOrPropagate(retryable);
+    retryer.clone().continueOrPropagate(retryable);
+
+    assertThat(metrics.retry("mock", RetryPolicy.REQUEST).count()).isEqualTo(2);
+  }
+
+  @Test
+  public void honorRetryAfterSeconds() {
+    ErrorDecoder errorDecoder = RetryPolicy.honorRetryAfter(new ErrorDecoder() {
+      @Override
+      public Exception decode(String methodKey, Response response) {
+        return FeignException.errorStatus(methodKey, response);
+      }
+    });
+
+    Exception exception = errorDecoder.decode("Mock#zones()", response(503, "Retry-After", "2"));
+
+    assertThat(exception).isInstanceOf(RetryableException.class);
+    long delay = ((RetryableException) exception).retryAfter().getTime()
+                 - System.currentTimeMillis();
+    assertThat(delay).isBetween(1000L, 2000L);
+  }
+
+  @Test
+  public void honorRetryAfterKeepsThrottledException() {
+    ErrorDecoder errorDecoder = RetryPolicy.honorRetryAfter(new ErrorDecoder() {
+      @Override
+      public Exception decode(String methodKey, Response response) {
+        return new ThrottledException("Rate exceeded", null);
+      }
+    });
+
+    Exception exception = errorDecoder.decode("Mock#zones()", response(
+        400, "Retry-After", "Fri, 31 Dec 1999 23:59:59 GMT"));
+
+    assertThat(exception).isInstanceOf(ThrottledException.class);
+    assertThat(((RetryableException) exception).retryAfter().getTime()).isEqualTo(946684799000L);
+  }
+
+  @Test
+  public void honorRetryAfterIgnoresOtherErrors() {
+    ErrorDecoder errorDecoder = RetryPolicy.honorRetryAfter(new ErrorDecoder() {
+      @Override
+      public Exception decode(String methodKey, Response response) {
+        return FeignException.errorStatus(methodKey, response);
+      }
+    });
+
+    Exception exception = errorDecoder.decode("Mock#zones()", response(400, "Retry-After", "2"));
+
+    assertThat(exception).isNotInstanceOf(RetryableException.class);
+  }
+
+  @Test
+  public void maxPeriodBelowPeriod() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("maxPeriodMillis must be at least periodMillis, but was 1");
+
+    new RetryPolicy(10, 1, 5);
+  }
+
+  static Response response(int status, String header, String value) {
+    Map<String, Collection<String>> headers = new LinkedHashMap<String, Collection<String>>();
+    headers.put(header, Arrays.asList(value));
+    return Response.create(status, "", headers, (byte[]) null);
+  }
+}
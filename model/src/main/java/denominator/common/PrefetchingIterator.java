@@ -0,0 +1,134 @@
+package denominator.common;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+import static denominator.common.ReadAheadIterator.runAndGet;
+
+/**
+ * Iterates over the elements of each page, fetching up to {@code depth} pages ahead of the consumer
+ * on an executor. For example, with a depth of 1, page N+1 is requested while page N is consumed.
+ *
+ * <p/>This iterator doesn't own any threads, nor does it block any while waiting on the consumer.
+ * Once {@code depth} pages are fetched and not yet consumed, nothing more is requested until the
+ * consumer catches up. If it is abandoned, at most {@code depth} pages are fetched. When the
+ * consumer needs a page whose fetch hasn't started, it fetches the page itself.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * return new PrefetchingIterator&lt;RecordList, Record&gt;(api.records(zoneId), executor, 1) {
+ *   protected RecordList fetchNext(RecordList page) {
+ *     return page.next != null ? api.records(zoneId, page.next) : null;
+ *   }
+ * };
+ * </pre>
+ *
+ * @param <P> type of the page, which iterates over its elements.
+ * @param <T> type of the elements.
+ * @since 4.8
+ */
+public abstract class PrefetchingIterator<P extends Iterable<T>, T> extends PeekingIterator<T> {
+
+  private final Executor executor;
+  private final int depth;
+  /**
+   * Fetches started, but not yet consumed, in page order.
+   */
+  private final LinkedList<FutureTask<P>> ahead = new LinkedList<FutureTask<P>>();
+  /**
+   * The last page fetched, if fetching its successor hasn't started.
+   */
+  private P last;
+  private Iterator<T> current;
+
+  /**
+   * @param first    page already fetched.
+   * @param executor fetches pages ahead of the consumer.
+   * @param depth    maximum count of pages fetched, but not yet consumed. When zero, pages are
+   *                 fetched by the consumer.
+   */
+  protected PrefetchingIterator(P first, Executor executor, int depth) {
+    this.last = checkNotNull(first, "first");
+    this.executor = checkNotNull(executor, "executor");
+    checkArgument(depth >= 0, "depth must not be negative, but was %s", depth);
+    this.depth = depth;
+  }
+
+  /**
+   * Returns the page after {@code page} or null, if {@code page} is the last. This is called on the
+   * executor or the consumer's thread, one page at a time.
+   */
+  protected abstract P fetchNext(P page);
+
+  @Override
+  protected final T computeNext() {
+    if (current == null) { // defer prefetching until the subclass is constructed.
+      current = last.iterator();
+      prefetch();
+    }
+    while (!current.hasNext()) {
+      P page = nextPage();
+      if (page == null) {
+        return endOfData();
+      }
+      current = page.iterator();
+    }
+    return current.next();
+  }
+
+  private P nextPage() {
+    FutureTask<P> next;
+    synchronized (this) {
+      next = ahead.poll();
+      if (next == null) {
+        if (last == null) {
+          return null;
+        }
+        next = fetch(last);
+        last = null;
+      }
+    }
+    prefetch();
+    return runAndGet(next);
+  }
+
+  private void prefetch() {
+    FutureTask<P> fetch;
+    synchronized (this) {
+      if (last == null || ahead.size() >= depth) {
+        return;
+      }
+      fetch = fetch(last);
+      ahead.add(fetch);
+      last = null;
+    }
+    try {
+      executor.execute(fetch);
+    } catch (RejectedExecutionException e) {
+      // fetched by the consumer
+    }
+  }
+
+  private FutureTask<P> fetch(final P page) {
+    return new FutureTask<P>(new Callable<P>() {
+      @Override
+      public P call() {
+        P next = fetchNext(page);
+        if (next != null) {
+          synchronized (PrefetchingIterator.this) {
+            last = next;
+          }
+          prefetch();
+        }
+        return next;
+      }
+    });
+  }
+}
@@ -0,0 +1,98 @@
+package denominator.common;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Returns the results of tasks in the same order as the tasks, while running up to {@code depth}
+ * of them ahead of the consumer on an executor.
+ *
+ * <p/>This iterator doesn't own any threads. If it is abandoned, at most {@code depth} tasks will
+ * complete in the background. When the consumer needs a result whose task hasn't started, it runs
+ * the task itself, so waiting on a saturated or shutdown executor can't deadlock.
+ *
+ * @since 4.8
+ */
+public final class ReadAheadIterator<T> implements Iterator<T> {
+
+  private final Iterator<? extends Callable<T>> tasks;
+  private final Executor executor;
+  private final int depth;
+  private final LinkedList<FutureTask<T>> ahead = new LinkedList<FutureTask<T>>();
+
+  /**
+   * @param tasks    lazily provides tasks in the order their results should be returned.
+   * @param executor runs tasks ahead of the consumer.
+   * @param depth    maximum count of tasks submitted, but not yet consumed.
+   */
+  public ReadAheadIterator(Iterator<? extends Callable<T>> tasks, Executor executor, int depth) {
+    this.tasks = checkNotNull(tasks, "tasks");
+    this.executor = checkNotNull(executor, "executor");
+    checkArgument(depth > 0, "depth must be positive, but was %s", depth);
+    this.depth = depth;
+  }
+
+  @Override
+  public boolean hasNext() {
+    readAhead();
+    return !ahead.isEmpty();
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    FutureTask<T> task = ahead.removeFirst();
+    readAhead();
+    return runAndGet(task);
+  }
+
+  private void readAhead() {
+    while (ahead.size() < depth && tasks.hasNext()) {
+      FutureTask<T> task = new FutureTask<T>(tasks.next());
+      ahead.add(task);
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        // run by the consumer
+      }
+    }
+  }
+
+  /**
+   * Runs the task unless it has already started, then returns its result. Unchecked exceptions
+   * from the task are rethrown as-is.
+   */
+  static <T> T runAndGet(FutureTask<T> task) {
+    task.run();
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted waiting for " + task, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
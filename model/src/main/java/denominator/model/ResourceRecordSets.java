@@ -145,6 +145,31 @@ public class ResourceRecordSets {
     };
   }
 
+  /**
+   * Returns true unless the input is a {@code SOA} record set, or a {@code NS} record set named
+   * {@code apex}. These can only be removed by deleting the zone.
+   *
+   * @param apex name of the zone.
+   */
+  public static Filter<ResourceRecordSet<?>> notSOAOrApexNS(final String apex) {
+    checkNotNull(apex, "apex");
+    return new Filter<ResourceRecordSet<?>>() {
+
+      @Override
+      public boolean apply(ResourceRecordSet<?> in) {
+        if (in == null || "SOA".equals(in.type())) {
+          return false;
+        }
+        return !("NS".equals(in.type()) && in.name().equals(apex));
+      }
+
+      @Override
+      public String toString() {
+        return "notSOAOrApexNS(" + apex + ")";
+      }
+    };
+  }
+
   /**
    * Returns an updated SOA rrset, with an incremented serial number and the specified parameters.
    */
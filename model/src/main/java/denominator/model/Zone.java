@@ -25,6 +25,21 @@ public class Zone {
     this.ttl = ttl;
   }
 
+  /**
+   * For zones that look up {@link #ttl()} and {@link #email()} on demand, which subclasses must
+   * override.
+   *
+   * @param id   nullable, corresponds to {@link #id()}
+   * @param name corresponds to {@link #name()}
+   * @since 4.8
+   */
+  protected Zone(String id, String name) {
+    this.id = id;
+    this.name = checkNotNull(name, "name");
+    this.email = null;
+    this.ttl = 0;
+  }
+
   /**
    * The potentially transient and opaque string that uniquely identifies the zone. This may be null
    * when used as an input object.
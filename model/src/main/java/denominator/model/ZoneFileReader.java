@@ -0,0 +1,378 @@
+package denominator.model;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import denominator.common.PeekingIterator;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+import static denominator.common.Util.toMap;
+
+/**
+ * Reads record sets from a zone file in <a href="http://www.ietf.org/rfc/rfc1035.txt">RFC 1035</a>
+ * master file format, one at a time. Consecutive records of the same name and type are grouped
+ * into a record set, so memory used doesn't grow with the size of the zone.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * ZoneFileReader reader = new ZoneFileReader(new FileReader(file), &quot;denominator.io.&quot;);
+ * try {
+ *   while (reader.hasNext()) {
+ *     api.put(reader.next());
+ *   }
+ * } finally {
+ *   reader.close();
+ * }
+ * </pre>
+ *
+ * <br> <br> <b>Syntax</b><br>
+ *
+ * {@code $ORIGIN} and {@code $TTL} directives, {@code @}, relative names, omitted owners, comments,
+ * quoted strings and parentheses are supported. Records without a ttl use {@code $TTL}, or the last
+ * ttl in the file. Only the {@code IN} class and types supported by {@link
+ * denominator.common.Util#toMap(String, java.util.List)} are supported. The ttl of a record set is
+ * that of its first record.
+ *
+ * @since 4.8
+ */
+public final class ZoneFileReader extends PeekingIterator<ResourceRecordSet<?>>
+    implements Closeable {
+
+  private final BufferedReader in;
+  private String origin;
+  private Integer defaultTtl;
+  private Integer lastTtl;
+  private String lastOwner;
+  private int lineNumber;
+  private boolean eof;
+  private Record pending;
+
+  /**
+   * @param in     zone file, which is read lazily.
+   * @param origin name appended to relative names, until a {@code $ORIGIN} directive. May be null
+   *               if the zone file starts with {@code $ORIGIN} or only has absolute names.
+   */
+  public ZoneFileReader(Reader in, String origin) {
+    checkNotNull(in, "in");
+    this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+    this.origin = origin == null || origin.endsWith(".") ? origin : origin + ".";
+  }
+
+  /**
+   * @throws IllegalArgumentException if the zone file is malformed or has unsupported records.
+   * @throws IllegalStateException    if the zone file couldn't be read.
+   */
+  @Override
+  protected ResourceRecordSet<?> computeNext() {
+    Record first = pending != null ? pending : readRecord();
+    pending = null;
+    if (first == null) {
+      return endOfData();
+    }
+    ResourceRecordSet.Builder<Map<String, Object>> builder = ResourceRecordSet
+        .<Map<String, Object>>builder()
+        .name(first.name)
+        .type(first.type)
+        .ttl(first.ttl)
+        .add(first.rdata);
+    for (Record next = readRecord(); next != null; next = readRecord()) {
+      if (!next.name.equals(first.name) || !next.type.equals(first.type)) {
+        pending = next;
+        break;
+      }
+      builder.add(next.rdata);
+    }
+    return builder.build();
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private Record readRecord() {
+    List<Token> tokens = new ArrayList<Token>();
+    while (true) {
+      tokens.clear();
+      boolean ownerOmitted = readEntry(tokens);
+      if (tokens.isEmpty()) {
+        if (eof) {
+          return null;
+        }
+        continue;
+      }
+      String first = tokens.get(0).text;
+      if (!ownerOmitted && "$ORIGIN".equalsIgnoreCase(first)) {
+        checkEntry(tokens.size() == 2, "expected $ORIGIN name");
+        origin = absolute(tokens.get(1).text);
+      } else if (!ownerOmitted && "$TTL".equalsIgnoreCase(first)) {
+        checkEntry(tokens.size() == 2, "expected $TTL ttl");
+        checkEntry(isTtl(tokens.get(1).text), "invalid ttl %s", tokens.get(1).text);
+        defaultTtl = parseTtl(tokens.get(1).text);
+      } else if (!ownerOmitted && first.startsWith("$")) {
+        throw new IllegalArgumentException(
+            String.format("line %s: unsupported directive %s", lineNumber, first));
+      } else {
+        return parseRecord(tokens, ownerOmitted);
+      }
+    }
+  }
+
+  private Record parseRecord(List<Token> tokens, boolean ownerOmitted) {
+    int i = 0;
+    String name;
+    if (ownerOmitted) {
+      checkEntry(lastOwner != null, "no previous owner name");
+      name = lastOwner;
+    } else {
+      name = absolute(tokens.get(i++).text);
+    }
+    Integer ttl = null;
+    for (int j = 0; j < 2 && i < tokens.size(); j++) { // ttl and class, in either order
+      String next = tokens.get(i).text;
+      if (ttl == null && isTtl(next)) {
+        ttl = parseTtl(next);
+        i++;
+      } else if ("IN".equalsIgnoreCase(next)) {
+        i++;
+      } else if ("CH".equalsIgnoreCase(next) || "HS".equalsIgnoreCase(next)
+                 || "CS".equalsIgnoreCase(next)) {
+        throw new IllegalArgumentException(
+            String.format("line %s: unsupported class %s", lineNumber, next));
+      }
+    }
+    checkEntry(i < tokens.size(), "missing type");
+    String type = tokens.get(i++).text.toUpperCase();
+    if (ttl != null) {
+      lastTtl = ttl;
+    } else {
+      ttl = defaultTtl != null ? defaultTtl : lastTtl;
+    }
+    List<Token> rdata = tokens.subList(i, tokens.size());
+    checkEntry(!rdata.isEmpty(), "missing rdata for %s %s", name, type);
+    Map<String, Object> parsed;
+    try {
+      parsed = toMap(type, rdataParts(type, rdata));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException(
+          String.format("line %s: invalid %s rdata: %s", lineNumber, type, e.getMessage()), e);
+    }
+    lastOwner = name;
+    return new Record(name, type, ttl, parsed);
+  }
+
+  /**
+   * Makes relative names in rdata absolute, and rejoins character-strings of {@code TXT} and
+   * {@code SPF}.
+   */
+  private List<String> rdataParts(String type, List<Token> rdata) {
+    List<String> parts = new ArrayList<String>(rdata.size());
+    if ("TXT".equals(type) || "SPF".equals(type)) {
+      if (rdata.size() == 1) {
+        parts.add(rdata.get(0).text);
+      } else {
+        StringBuilder joined = new StringBuilder();
+        for (Token token : rdata) {
+          if (joined.length() > 0) {
+            joined.append(' ');
+          }
+          joined.append(token.quoted ? ZoneFileWriter.quote(token.text) : token.text);
+        }
+        parts.add(joined.toString());
+      }
+      return parts;
+    }
+    for (Token token : rdata) {
+      parts.add(token.text);
+    }
+    if ("CNAME".equals(type) || "NS".equals(type) || "PTR".equals(type)) {
+      absolute(parts, 0);
+    } else if ("MX".equals(type)) {
+      absolute(parts, 1);
+    } else if ("SRV".equals(type)) {
+      absolute(parts, 3);
+    } else if ("SOA".equals(type)) {
+      absolute(parts, 0);
+      absolute(parts, 1);
+      for (int i = 3; i < parts.size(); i++) { // refresh, retry, expire and minimum
+        parts.set(i, String.valueOf(parseTtl(parts.get(i))));
+      }
+    } else if ("NAPTR".equals(type)) {
+      absolute(parts, 5);
+    }
+    return parts;
+  }
+
+  private void absolute(List<String> parts, int index) {
+    if (index < parts.size()) {
+      parts.set(index, absolute(parts.get(index)));
+    }
+  }
+
+  private String absolute(String name) {
+    if ("@".equals(name)) {
+      checkEntry(origin != null, "@ used without an origin");
+      return origin;
+    } else if (name.endsWith(".")) {
+      return name;
+    }
+    checkEntry(origin != null, "relative name %s without an origin", name);
+    return ".".equals(origin) ? name + "." : name + "." + origin;
+  }
+
+  /**
+   * Reads the tokens of the next entry, which may span lines within parentheses.
+   *
+   * @return true if the entry started with whitespace, meaning the owner is omitted.
+   */
+  private boolean readEntry(List<Token> tokens) {
+    int parentheses = 0;
+    boolean ownerOmitted = false;
+    boolean firstLine = true;
+    do {
+      String line;
+      try {
+        line = in.readLine();
+      } catch (IOException e) {
+        throw new IllegalStateException("couldn't read line " + (lineNumber + 1), e);
+      }
+      if (line == null) {
+        checkEntry(parentheses == 0, "unbalanced parentheses");
+        eof = true;
+        return ownerOmitted;
+      }
+      lineNumber++;
+      if (firstLine) {
+        ownerOmitted = line.length() > 0 && Character.isWhitespace(line.charAt(0));
+        firstLine = false;
+      }
+      parentheses = tokenize(line, tokens, parentheses);
+    } while (parentheses > 0);
+    return ownerOmitted;
+  }
+
+  private int tokenize(String line, List<Token> tokens, int parentheses) {
+    int i = 0;
+    int length = line.length();
+    while (i < length) {
+      char c = line.charAt(i);
+      if (c == ';') {
+        break;
+      } else if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '(') {
+        parentheses++;
+        i++;
+      } else if (c == ')') {
+        checkEntry(parentheses > 0, "unbalanced parentheses");
+        parentheses--;
+        i++;
+      } else if (c == '"') {
+        StringBuilder text = new StringBuilder();
+        for (i++; i < length && line.charAt(i) != '"'; i++) {
+          if (line.charAt(i) == '\\' && i + 1 < length) {
+            char escaped = line.charAt(++i);
+            if (escaped != '"' && escaped != '\\') {
+              text.append('\\');
+            }
+            text.append(escaped);
+          } else {
+            text.append(line.charAt(i));
+          }
+        }
+        checkEntry(i < length, "unterminated quoted string");
+        tokens.add(new Token(text.toString(), true));
+        i++;
+      } else {
+        int start = i;
+        while (i < length && !Character.isWhitespace(line.charAt(i)) && "();\"".indexOf(
+            line.charAt(i)) == -1) {
+          i++;
+        }
+        tokens.add(new Token(line.substring(start, i), false));
+      }
+    }
+    return parentheses;
+  }
+
+  private void checkEntry(boolean expression, String message, Object... args) {
+    if (!expression) {
+      throw new IllegalArgumentException(
+          "line " + lineNumber + ": " + String.format(message, args));
+    }
+  }
+
+  /**
+   * True for seconds, or BIND style durations like {@code 1h30m}.
+   */
+  static boolean isTtl(String token) {
+    if (token.isEmpty() || !Character.isDigit(token.charAt(0))) {
+      return false;
+    }
+    for (int i = 0; i < token.length(); i++) {
+      char c = token.charAt(i);
+      if (!Character.isDigit(c) && "smhdwSMHDW".indexOf(c) == -1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static int parseTtl(String token) {
+    checkArgument(isTtl(token), "invalid ttl %s", token);
+    long seconds = 0;
+    long value = 0;
+    for (int i = 0; i < token.length(); i++) {
+      char c = Character.toLowerCase(token.charAt(i));
+      if (Character.isDigit(c)) {
+        value = value * 10 + (c - '0');
+      } else {
+        seconds += value * (c == 's' ? 1 : c == 'm' ? 60 : c == 'h' ? 3600 : c == 'd' ? 86400
+                                                                                  : 604800);
+        value = 0;
+      }
+      checkArgument(value <= 0xFFFFFFFFL && seconds <= 0xFFFFFFFFL, "ttl too large %s", token);
+    }
+    seconds += value;
+    checkArgument(seconds <= Integer.MAX_VALUE, "ttl too large %s", token);
+    return (int) seconds;
+  }
+
+  @Override
+  public String toString() {
+    return "ZoneFileReader(" + origin + ")";
+  }
+
+  static final class Token {
+
+    final String text;
+    final boolean quoted;
+
+    Token(String text, boolean quoted) {
+      this.text = text;
+      this.quoted = quoted;
+    }
+  }
+
+  static final class Record {
+
+    final String name;
+    final String type;
+    final Integer ttl;
+    final Map<String, Object> rdata;
+
+    Record(String name, String type, Integer ttl, Map<String, Object> rdata) {
+      this.name = name;
+      this.type = type;
+      this.ttl = ttl;
+      this.rdata = rdata;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package denominator.model;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Map;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Writes record sets to a zone file in <a href="http://www.ietf.org/rfc/rfc1035.txt">RFC 1035</a>
+ * master file format, one line per record, as they are written. Nothing is buffered beyond the
+ * underlying writer, so memory used doesn't grow with the size of the zone.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * ZoneFileWriter writer = new ZoneFileWriter(new FileWriter(file), &quot;denominator.io.&quot;);
+ * try {
+ *   writer.writeAll(api.iterator());
+ * } finally {
+ *   writer.close();
+ * }
+ * </pre>
+ *
+ * Record sets with a {@link ResourceRecordSet#qualifier() qualifier}, such as geo or weighted,
+ * can't be represented in a zone file.
+ *
+ * @see ZoneFileReader
+ * @since 4.8
+ */
+public final class ZoneFileWriter implements Closeable, Flushable {
+
+  private final Writer out;
+  private final String origin;
+  private boolean wroteOrigin;
+
+  /**
+   * @param out    receives the zone file.
+   * @param origin when not null, written as {@code $ORIGIN}, and names under it are written
+   *               relative to it.
+   */
+  public ZoneFileWriter(Writer out, String origin) {
+    this.out = checkNotNull(out, "out");
+    this.origin = origin == null || origin.endsWith(".") ? origin : origin + ".";
+  }
+
+  /**
+   * Writes each record of the record set.
+   *
+   * @throws IllegalArgumentException if the record set is qualified, or its type isn't supported.
+   */
+  public void write(ResourceRecordSet<?> rrset) throws IOException {
+    checkNotNull(rrset, "rrset");
+    checkArgument(rrset.qualifier() == null, "zone files can't represent qualified record sets: %s",
+                  rrset);
+    if (origin != null && !wroteOrigin) {
+      out.write("$ORIGIN ");
+      out.write(origin);
+      out.write('\n');
+      wroteOrigin = true;
+    }
+    String name = relative(rrset.name());
+    for (Map<String, Object> rdata : rrset.records()) {
+      out.write(name);
+      if (rrset.ttl() != null) {
+        out.write(' ');
+        out.write(rrset.ttl().toString());
+      }
+      out.write(" IN ");
+      out.write(rrset.type());
+      out.write(' ');
+      out.write(rdata(rrset.type(), rdata));
+      out.write('\n');
+    }
+  }
+
+  /**
+   * Writes each record set, consuming the iterator as it goes.
+   */
+  public void writeAll(Iterator<? extends ResourceRecordSet<?>> rrsets) throws IOException {
+    while (rrsets.hasNext()) {
+      write(rrsets.next());
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  private String relative(String name) {
+    if (origin == null || !name.endsWith(origin)) {
+      return name;
+    } else if (name.length() == origin.length()) {
+      return "@";
+    } else if (name.charAt(name.length() - origin.length() - 1) == '.') {
+      return name.substring(0, name.length() - origin.length() - 1);
+    }
+    return name;
+  }
+
+  static String rdata(String type, Map<String, Object> rdata) {
+    if ("TXT".equals(type) || "SPF".equals(type)) {
+      String value = rdata.values().iterator().next().toString();
+      // already formatted as multiple character-strings
+      return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"") ? value
+                                                                                   : quote(value);
+    }
+    boolean naptr = "NAPTR".equals(type);
+    StringBuilder result = new StringBuilder();
+    for (Map.Entry<String, Object> entry : rdata.entrySet()) {
+      if (result.length() > 0) {
+        result.append(' ');
+      }
+      String key = entry.getKey();
+      String value = String.valueOf(entry.getValue());
+      if (naptr && ("flags".equals(key) || "services".equals(key) || "regexp".equals(key))) {
+        result.append(quote(value));
+      } else {
+        result.append(value);
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Quotes a character-string, escaping quotes and backslashes.
+   */
+  static String quote(String value) {
+    StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        result.append('\\');
+      }
+      result.append(c);
+    }
+    return result.append('"').toString();
+  }
+
+  @Override
+  public String toString() {
+    return "ZoneFileWriter(" + origin + ")";
+  }
+}
@@ -0,0 +1,159 @@
+package denominator.common;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefetchingIteratorTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void iteratesAllPagesInOrder() {
+    Iterator<Integer> values = new Pages(executor, 2, 10);
+
+    List<Integer> consumed = new ArrayList<Integer>();
+    while (values.hasNext()) {
+      consumed.add(values.next());
+    }
+    assertThat(consumed).hasSize(20).isSorted();
+  }
+
+  @Test
+  public void skipsEmptyPages() {
+    Iterator<Integer> values = new PrefetchingIterator<Page, Integer>(new Page(0), executor, 1) {
+      @Override
+      protected Page fetchNext(Page page) {
+        return page.number < 3 ? new Page(page.number + 1) : null;
+      }
+    };
+
+    assertThat(values).isEmpty();
+  }
+
+  @Test
+  public void fetchesNoMoreThanDepthAhead() throws InterruptedException {
+    final AtomicInteger fetched = new AtomicInteger();
+    Iterator<Integer> values = new Pages(executor, 2, 10) {
+      @Override
+      protected Page fetchNext(Page page) {
+        fetched.incrementAndGet();
+        return super.fetchNext(page);
+      }
+    };
+
+    assertThat(values.next()).isEqualTo(0); // first page is already fetched
+
+    TimeUnit.MILLISECONDS.sleep(100);
+    assertThat(fetched.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void depthZeroFetchesOnConsumerThread() {
+    final Thread consumer = Thread.currentThread();
+    Iterator<Integer> values = new Pages(executor, 0, 3) {
+      @Override
+      protected Page fetchNext(Page page) {
+        assertThat(Thread.currentThread()).isSameAs(consumer);
+        return super.fetchNext(page);
+      }
+    };
+
+    assertThat(values).containsExactly(0, 1, 2, 3, 4, 5);
+  }
+
+  @Test
+  public void consumerFetchesWhenRejected() {
+    Executor rejecting = new Executor() {
+      public void execute(Runnable command) {
+        throw new RejectedExecutionException();
+      }
+    };
+
+    assertThat(new Pages(rejecting, 1, 2)).containsExactly(0, 1, 2, 3);
+  }
+
+  @Test
+  public void consumerFetchesWhenNotYetStarted() {
+    Executor never = new Executor() {
+      public void execute(Runnable command) {
+      }
+    };
+
+    assertThat(new Pages(never, 2, 2)).containsExactly(0, 1, 2, 3);
+  }
+
+  @Test
+  public void rethrowsUncheckedExceptions() {
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("throttled");
+
+    Iterator<Integer> values = new PrefetchingIterator<Page, Integer>(new Page(0), executor, 1) {
+      @Override
+      protected Page fetchNext(Page page) {
+        throw new IllegalStateException("throttled");
+      }
+    };
+    values.next();
+  }
+
+  @Test
+  public void depthMustNotBeNegative() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("depth must not be negative, but was -1");
+
+    new Pages(executor, -1, 1);
+  }
+
+  static class Page extends ArrayList<Integer> {
+
+    private static final long serialVersionUID = 1L;
+    final int number;
+
+    Page(int number, Integer... values) {
+      super(Arrays.asList(values));
+      this.number = number;
+    }
+  }
+
+  /**
+   * Pages of two values each, up to {@code count} pages.
+   */
+  static class Pages extends PrefetchingIterator<Page, Integer> {
+
+    private final int count;
+
+    Pages(Executor executor, int depth, int count) {
+      super(new Page(0, 0, 1), executor, depth);
+      this.count = count;
+    }
+
+    @Override
+    protected Page fetchNext(Page page) {
+      int number = page.number + 1;
+      return number < count ? new Page(number, number * 2, number * 2 + 1) : null;
+    }
+  }
+}
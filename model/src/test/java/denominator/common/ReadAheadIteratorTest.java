@@ -0,0 +1,138 @@
+package denominator.common;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadAheadIteratorTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void resultsInTaskOrder() {
+    List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+    for (int i = 0; i < 20; i++) {
+      final int value = i;
+      tasks.add(new Callable<Integer>() {
+        public Integer call() throws InterruptedException {
+          TimeUnit.MILLISECONDS.sleep(20 - value); // later tasks finish first
+          return value;
+        }
+      });
+    }
+
+    Iterator<Integer> results = new ReadAheadIterator<Integer>(tasks.iterator(), executor, 4);
+
+    List<Integer> consumed = new ArrayList<Integer>();
+    while (results.hasNext()) {
+      consumed.add(results.next());
+    }
+    assertThat(consumed).hasSize(20).isSorted();
+  }
+
+  @Test
+  public void submitsNoMoreThanDepth() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger started = new AtomicInteger();
+    List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+    for (int i = 0; i < 10; i++) {
+      tasks.add(new Callable<Integer>() {
+        public Integer call() throws InterruptedException {
+          started.incrementAndGet();
+          release.await();
+          return 1;
+        }
+      });
+    }
+
+    Iterator<Integer> results = new ReadAheadIterator<Integer>(tasks.iterator(), executor, 2);
+    assertThat(results.hasNext()).isTrue();
+
+    TimeUnit.MILLISECONDS.sleep(100);
+    assertThat(started.get()).isEqualTo(2);
+    release.countDown();
+  }
+
+  @Test
+  public void consumerRunsRejectedTasks() {
+    Executor rejecting = new Executor() {
+      public void execute(Runnable command) {
+        throw new RejectedExecutionException();
+      }
+    };
+
+    Iterator<String> results = new ReadAheadIterator<String>(tasks("a", "b"), rejecting, 2);
+
+    assertThat(results).containsExactly("a", "b");
+  }
+
+  @Test
+  public void consumerRunsTasksNotYetStarted() {
+    Executor never = new Executor() {
+      public void execute(Runnable command) {
+      }
+    };
+
+    Iterator<String> results = new ReadAheadIterator<String>(tasks("a", "b"), never, 1);
+
+    assertThat(results).containsExactly("a", "b");
+  }
+
+  @Test
+  public void rethrowsUncheckedExceptions() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("zone not found");
+
+    List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+    tasks.add(new Callable<String>() {
+      public String call() {
+        throw new IllegalArgumentException("zone not found");
+      }
+    });
+
+    new ReadAheadIterator<String>(tasks.iterator(), executor, 1).next();
+  }
+
+  @Test
+  public void depthMustBePositive() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("depth must be positive, but was 0");
+
+    new ReadAheadIterator<String>(tasks("a"), executor, 0);
+  }
+
+  static Iterator<Callable<String>> tasks(String... values) {
+    List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+    for (final String value : values) {
+      tasks.add(new Callable<String>() {
+        public String call() {
+          return value;
+        }
+      });
+    }
+    return tasks.iterator();
+  }
+}
@@ -1,7 +1,9 @@
 package denominator.model;
 
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
@@ -21,6 +23,7 @@ import denominator.model.rdata.MXData;
 import denominator.model.rdata.NAPTRData;
 import denominator.model.rdata.NSData;
 import denominator.model.rdata.PTRData;
+import denominator.model.rdata.SOAData;
 import denominator.model.rdata.SPFData;
 import denominator.model.rdata.SRVData;
 import denominator.model.rdata.SSHFPData;
@@ -36,6 +39,7 @@ import static denominator.model.ResourceRecordSets.nameAndTypeEqualTo;
 import static denominator.model.ResourceRecordSets.nameEqualTo;
 import static denominator.model.ResourceRecordSets.nameTypeAndQualifierEqualTo;
 import static denominator.model.ResourceRecordSets.naptr;
+import static denominator.model.ResourceRecordSets.notSOAOrApexNS;
 import static denominator.model.ResourceRecordSets.ns;
 import static denominator.model.ResourceRecordSets.ptr;
 import static denominator.model.ResourceRecordSets.spf;
@@ -48,6 +52,9 @@ import static org.junit.Assert.assertTrue;
 @RunWith(Enclosed.class)
 public class ResourceRecordSetsTest {
 
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
   ResourceRecordSet<AData> aRRS = ResourceRecordSet.<AData>builder()
       .name("www.denominator.io.")
       .type("A")
@@ -95,6 +102,31 @@ public class ResourceRecordSetsTest {
     assertTrue(nameAndTypeEqualTo(aRRS.name(), aRRS.type()).apply(aRRS));
   }
 
+  @Test
+  public void notSOAOrApexNSReturnsFalseOnSOAAndApexNS() {
+    assertFalse(notSOAOrApexNS("denominator.io.").apply(null));
+    assertFalse(notSOAOrApexNS("denominator.io.").apply(ResourceRecordSet.<SOAData>builder()
+        .name("denominator.io.").type("SOA")
+        .add(SOAData.builder().mname("ns.denominator.io.").rname("admin.denominator.io.")
+                 .serial(1).refresh(3600).retry(600).expire(604800).minimum(60).build())
+        .build()));
+    assertFalse(notSOAOrApexNS("denominator.io.").apply(ns("denominator.io.", "ns.foo.com.")));
+  }
+
+  @Test
+  public void notSOAOrApexNSReturnsTrueOnDelegationNS() {
+    assertTrue(notSOAOrApexNS("denominator.io.").apply(aRRS));
+    assertTrue(notSOAOrApexNS("denominator.io.").apply(ns("sub.denominator.io.", "ns.foo.com.")));
+  }
+
+  @Test
+  public void notSOAOrApexNSRequiresApex() {
+    thrown.expect(NullPointerException.class);
+    thrown.expectMessage("apex");
+
+    notSOAOrApexNS(null);
+  }
+
   @Test
   public void containsRecordReturnsFalseOnNull() {
     assertFalse(ResourceRecordSets.containsRecord(aRRS.records().get(0)).apply(null));
@@ -0,0 +1,186 @@
+package denominator.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import denominator.model.rdata.MXData;
+import denominator.model.rdata.NAPTRData;
+import denominator.model.rdata.SOAData;
+import denominator.model.rdata.SRVData;
+
+import static denominator.assertj.ModelAssertions.assertThat;
+import static denominator.model.ResourceRecordSets.a;
+import static denominator.model.ResourceRecordSets.cname;
+import static denominator.model.ResourceRecordSets.ns;
+import static denominator.model.ResourceRecordSets.txt;
+
+public class ZoneFileReaderTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void readsMasterFileSyntax() {
+    ZoneFileReader reader = new ZoneFileReader(new StringReader(""
+        + "$ORIGIN denominator.io.\n"
+        + "$TTL 1h\n"
+        + "@ IN SOA ns1 admin ( 1 ; serial\n"
+        + "                     7200 1800 1w 86400 )\n"
+        + "  86400 IN NS ns1\n"
+        + "        IN NS ns2.denominator.io.\n"
+        + "\n"
+        + "; comment\n"
+        + "www 300 IN A 192.0.2.1\n"
+        + "www IN 300 A 198.51.100.1\n"
+        + "www.denominator.io. MX 10 mail\n"
+        + "alias CNAME www\n"
+        + "_sip._tcp SRV 0 1 5060 sip\n"
+        + "txt TXT \"v=spf1 include:\\\"quoted\\\" -all\"\n"
+        + "sip NAPTR 100 10 \"U\" \"E2U+sip\" \"!^.*$!sip:info@denominator.io!\" .\n"), null);
+
+    assertThat(reader).containsExactly(
+        ResourceRecordSet.builder().name("denominator.io.").type("SOA").ttl(3600)
+            .add(SOAData.builder().mname("ns1.denominator.io.").rname("admin.denominator.io.")
+                     .serial(1).refresh(7200).retry(1800).expire(604800).minimum(86400).build())
+            .build(),
+        ns("denominator.io.", 86400, Arrays.asList("ns1.denominator.io.", "ns2.denominator.io.")),
+        a("www.denominator.io.", 300, Arrays.asList("192.0.2.1", "198.51.100.1")),
+        ResourceRecordSet.builder().name("www.denominator.io.").type("MX").ttl(3600)
+            .add(MXData.create(10, "mail.denominator.io.")).build(),
+        cname("alias.denominator.io.", 3600, "www.denominator.io."),
+        ResourceRecordSet.builder().name("_sip._tcp.denominator.io.").type("SRV").ttl(3600)
+            .add(SRVData.builder().priority(0).weight(1).port(5060).target("sip.denominator.io.")
+                     .build()).build(),
+        txt("txt.denominator.io.", 3600, "v=spf1 include:\"quoted\" -all"),
+        ResourceRecordSet.builder().name("sip.denominator.io.").type("NAPTR").ttl(3600)
+            .add(NAPTRData.builder().order(100).preference(10).flags("U").services("E2U+sip")
+                     .regexp("!^.*$!sip:info@denominator.io!").replacement(".").build()).build()
+    );
+  }
+
+  @Test
+  public void withoutTTLUsesLastTTL() {
+    ZoneFileReader reader = new ZoneFileReader(new StringReader(""
+        + "www 300 A 192.0.2.1\n"
+        + "www2 A 192.0.2.1\n"), "denominator.io");
+
+    assertThat(reader).containsExactly(
+        a("www.denominator.io.", 300, "192.0.2.1"),
+        a("www2.denominator.io.", 300, "192.0.2.1"));
+  }
+
+  @Test
+  public void multipleCharacterStrings() {
+    ZoneFileReader reader = new ZoneFileReader(new StringReader(
+        "txt.denominator.io. 300 TXT \"part one\" \"part two\"\n"), null);
+
+    assertThat(reader).containsExactly(
+        txt("txt.denominator.io.", 300, "\"part one\" \"part two\""));
+  }
+
+  @Test
+  public void onlyGroupsConsecutiveRecords() {
+    ZoneFileReader reader = new ZoneFileReader(new StringReader(""
+        + "www.denominator.io. 300 A 192.0.2.1\n"
+        + "www2.denominator.io. 300 A 192.0.2.1\n"
+        + "www.denominator.io. 300 A 198.51.100.1\n"), null);
+
+    assertThat(reader).containsExactly(
+        a("www.denominator.io.", 300, "192.0.2.1"),
+        a("www2.denominator.io.", 300, "192.0.2.1"),
+        a("www.denominator.io.", 300, "198.51.100.1"));
+  }
+
+  /**
+   * Generates records as they are read, so a large zone never exists in memory.
+   */
+  @Test
+  public void streamsLargeZones() {
+    final int count = 500000;
+    Reader generated = new Reader() {
+      int i = 0;
+      String line = "";
+      int position = 0;
+
+      @Override
+      public int read(char[] buffer, int offset, int length) {
+        if (position == line.length()) {
+          if (i == count) {
+            return -1;
+          }
+          line = "www" + (i++ / 2) + " 300 IN A 192.0.2." + (i % 2) + "\n";
+          position = 0;
+        }
+        int read = Math.min(length, line.length() - position);
+        line.getChars(position, position + read, buffer, offset);
+        position += read;
+        return read;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    ZoneFileReader reader = new ZoneFileReader(generated, "denominator.io.");
+    int rrsets = 0;
+    while (reader.hasNext()) {
+      assertThat(reader.next().records()).hasSize(2);
+      rrsets++;
+    }
+    assertThat(rrsets).isEqualTo(count / 2);
+  }
+
+  @Test
+  public void relativeNameWithoutOrigin() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("line 1: relative name www without an origin");
+
+    new ZoneFileReader(new StringReader("www 300 A 192.0.2.1\n"), null).next();
+  }
+
+  @Test
+  public void unsupportedDirective() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("line 2: unsupported directive $INCLUDE");
+
+    new ZoneFileReader(new StringReader("\n$INCLUDE other.zone\n"), null).next();
+  }
+
+  @Test
+  public void invalidRData() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("line 1: invalid MX rdata");
+
+    new ZoneFileReader(new StringReader("mx.denominator.io. 300 MX mail\n"), null).next();
+  }
+
+  @Test
+  public void unbalancedParentheses() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("unbalanced parentheses");
+
+    new ZoneFileReader(new StringReader("www.denominator.io. 300 A ( 192.0.2.1\n"), null).next();
+  }
+
+  @Test
+  public void closeClosesReader() throws IOException {
+    final boolean[] closed = new boolean[1];
+    Reader in = new StringReader("") {
+      @Override
+      public void close() {
+        closed[0] = true;
+      }
+    };
+
+    new ZoneFileReader(in, null).close();
+
+    assertThat(closed[0]).isTrue();
+  }
+}
@@ -0,0 +1,92 @@
+package denominator.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import denominator.model.profile.Weighted;
+import denominator.model.rdata.CERTData;
+import denominator.model.rdata.CNAMEData;
+import denominator.model.rdata.NAPTRData;
+import denominator.model.rdata.SOAData;
+import denominator.model.rdata.SSHFPData;
+
+import static denominator.assertj.ModelAssertions.assertThat;
+import static denominator.model.ResourceRecordSets.a;
+import static denominator.model.ResourceRecordSets.mx;
+import static denominator.model.ResourceRecordSets.ns;
+import static denominator.model.ResourceRecordSets.srv;
+import static denominator.model.ResourceRecordSets.txt;
+
+public class ZoneFileWriterTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  StringWriter out = new StringWriter();
+
+  @Test
+  public void writesOneLinePerRecord() throws IOException {
+    ZoneFileWriter writer = new ZoneFileWriter(out, "denominator.io.");
+    writer.write(ns("denominator.io.", 86400, "ns1.denominator.io."));
+    writer.write(a("www.denominator.io.", 300, Arrays.asList("192.0.2.1", "198.51.100.1")));
+    writer.write(a("www.other.io.", "192.0.2.1"));
+    writer.write(txt("txt.denominator.io.", 300, "v=spf1 include:\"quoted\" -all"));
+
+    assertThat(out.toString()).isEqualTo(""
+        + "$ORIGIN denominator.io.\n"
+        + "@ 86400 IN NS ns1.denominator.io.\n"
+        + "www 300 IN A 192.0.2.1\n"
+        + "www 300 IN A 198.51.100.1\n"
+        + "www.other.io. IN A 192.0.2.1\n"
+        + "txt 300 IN TXT \"v=spf1 include:\\\"quoted\\\" -all\"\n");
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    List<ResourceRecordSet<?>> rrsets = Arrays.<ResourceRecordSet<?>>asList(
+        ResourceRecordSet.builder().name("denominator.io.").type("SOA").ttl(3600)
+            .add(SOAData.builder().mname("ns1.denominator.io.").rname("admin.denominator.io.")
+                     .serial(1).refresh(7200).retry(1800).expire(604800).minimum(86400).build())
+            .build(),
+        ns("denominator.io.", 86400, Arrays.asList("ns1.denominator.io.", "ns2.denominator.io.")),
+        a("www.denominator.io.", 300, Arrays.asList("192.0.2.1", "198.51.100.1")),
+        mx("denominator.io.", 300, "10 mail.denominator.io."),
+        srv("_sip._tcp.denominator.io.", 300, "0 1 5060 sip.denominator.io."),
+        txt("txt.denominator.io.", 300, "\"part one\" \"part two\""),
+        ResourceRecordSet.builder().name("sip.denominator.io.").type("NAPTR").ttl(300)
+            .add(NAPTRData.builder().order(100).preference(10).flags("U").services("E2U+sip")
+                     .regexp("!^.*$!sip:info@denominator.io!").replacement(".").build()).build(),
+        ResourceRecordSet.builder().name("ssh.denominator.io.").type("SSHFP").ttl(300)
+            .add(SSHFPData.createDSA("190E37C5B5DB9A1C455E648A41AF3CC83F99F102")).build(),
+        ResourceRecordSet.builder().name("cert.denominator.io.").type("CERT").ttl(300)
+            .add(CERTData.builder().format(12345).tag(1).algorithm(1).certificate("B33F").build())
+            .build());
+
+    ZoneFileWriter writer = new ZoneFileWriter(out, "denominator.io.");
+    writer.writeAll(rrsets.iterator());
+
+    assertThat(new ZoneFileReader(new StringReader(out.toString()), null))
+        .containsExactlyElementsOf(rrsets);
+  }
+
+  @Test
+  public void qualifiedRecordSetsArentSupported() throws IOException {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("zone files can't represent qualified record sets");
+
+    new ZoneFileWriter(out, null).write(ResourceRecordSet.<CNAMEData>builder()
+                                            .name("www.denominator.io.")
+                                            .type("CNAME")
+                                            .qualifier("US")
+                                            .weighted(Weighted.create(1))
+                                            .add(CNAMEData.create("www1.denominator.io."))
+                                            .build());
+  }
+}
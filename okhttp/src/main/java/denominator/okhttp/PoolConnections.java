@@ -0,0 +1,50 @@
+package denominator.okhttp;
+
+import javax.inject.Named;
+
+import dagger.Provides;
+import denominator.DNSApiManager;
+import denominator.feign.ClientModule;
+import feign.Client;
+
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Sends HTTP requests made by a {@link DNSApiManager} over a {@link SharedConnectionPool}, by
+ * overriding the {@code http} client of the {@link ClientModule}.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * SharedConnectionPool pool = new SharedConnectionPool();
+ * route53 = Denominator.create(new Route53Provider(), credentials, new PoolConnections(pool));
+ * dynect = Denominator.create(new DynECTProvider(), credentials, new PoolConnections(pool));
+ * ...
+ * pool.close();
+ * </pre>
+ *
+ * @see SharedConnectionPool
+ * @since 4.8
+ */
+@dagger.Module(injects = DNSApiManager.class, complete = false, overrides = true,
+    library = true // the http client is only used by feign-based providers
+)
+public final class PoolConnections {
+
+  private final SharedConnectionPool pool;
+
+  public PoolConnections(SharedConnectionPool pool) {
+    this.pool = checkNotNull(pool, "pool");
+  }
+
+  @Provides
+  @Named("http")
+  Client provideHttpClient() {
+    return pool.client();
+  }
+
+  @Override
+  public String toString() {
+    return "PoolConnections(" + pool + ")";
+  }
+}
@@ -0,0 +1,185 @@
+package denominator.okhttp;
+
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.OkHttpClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Keep-alive connections, backed by OkHttp, which any count of {@link denominator.DNSApiManager
+ * managers} can share. Install with the {@link PoolConnections} module, passing the same instance
+ * to each manager.
+ *
+ * <br> <br> <b>Reuse</b><br>
+ *
+ * This is in the {@code denominator-okhttp} module, so that providers which don't pool connections
+ * don't depend on OkHttp. By default, each manager uses Feign's {@code HttpURLConnection} client,
+ * which gives no control over connection reuse. With a shared pool, a request to a host any manager
+ * recently connected to reuses that connection, avoiding a TCP and TLS handshake.
+ *
+ * <br> <br> <b>Metrics</b><br>
+ *
+ * OkHttp only pools HTTP/1.1 connections while they are idle, so {@link #inUseConnectionCount()}
+ * is counted here, as requests whose response isn't yet closed. If idle connections are often
+ * zero while many are in use, consider a higher {@code maxIdleConnections}.
+ *
+ * <br> <br> <b>Timeouts</b><br>
+ *
+ * Connect and read timeouts are those of the provider's {@link feign.Request.Options}, as before.
+ *
+ * <br> <br> <b>Lifecycle</b><br>
+ *
+ * Managers don't close this when they are closed. Call {@link #close()} once all managers sharing
+ * it are done.
+ *
+ * @since 4.8
+ */
+public final class SharedConnectionPool implements Closeable {
+
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+  public static final long DEFAULT_KEEP_ALIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  private final ConnectionPool pool;
+  private final Client client;
+  private final int maxIdleConnections;
+  private final long keepAliveMillis;
+  private final AtomicInteger inUse = new AtomicInteger();
+
+  public SharedConnectionPool() {
+    this(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_MILLIS);
+  }
+
+  /**
+   * @param maxIdleConnections maximum count of idle connections kept open, across all hosts.
+   * @param keepAliveMillis    time an idle connection is kept open before it is closed.
+   */
+  public SharedConnectionPool(int maxIdleConnections, long keepAliveMillis) {
+    checkArgument(maxIdleConnections >= 0, "maxIdleConnections must not be negative, but was %s",
+                  maxIdleConnections);
+    checkArgument(keepAliveMillis > 0, "keepAliveMillis must be positive, but was %s",
+                  keepAliveMillis);
+    this.maxIdleConnections = maxIdleConnections;
+    this.keepAliveMillis = keepAliveMillis;
+    this.pool = new ConnectionPool(maxIdleConnections, keepAliveMillis);
+    OkHttpClient okHttp = new OkHttpClient();
+    okHttp.setConnectionPool(pool);
+    this.client = new CountInUse(new feign.okhttp.OkHttpClient(okHttp));
+  }
+
+  /**
+   * Client which sends requests over connections in this pool.
+   */
+  public Client client() {
+    return client;
+  }
+
+  /**
+   * Count of requests sent through {@link #client()}, whose response isn't yet closed. Each holds a
+   * connection, which returns to the pool once its response is closed.
+   */
+  public int inUseConnectionCount() {
+    return inUse.get();
+  }
+
+  /**
+   * Count of open HTTP/1.1 connections waiting in the pool to be reused.
+   */
+  public int idleConnectionCount() {
+    return pool.getHttpConnectionCount();
+  }
+
+  /**
+   * Closes idle connections. Connections in use are closed when their requests complete.
+   */
+  @Override
+  public void close() {
+    pool.evictAll();
+  }
+
+  private final class CountInUse implements Client {
+
+    private final Client delegate;
+
+    CountInUse(Client delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+      inUse.incrementAndGet();
+      Response response;
+      try {
+        response = delegate.execute(request, options);
+      } catch (IOException e) {
+        inUse.decrementAndGet();
+        throw e;
+      } catch (RuntimeException e) {
+        inUse.decrementAndGet();
+        throw e;
+      }
+      if (response.body() == null) {
+        inUse.decrementAndGet();
+        return response;
+      }
+      return Response.create(response.status(), response.reason(), response.headers(),
+                             new ReleaseOnClose(response.body()));
+    }
+  }
+
+  private final class ReleaseOnClose implements Response.Body {
+
+    private final Response.Body delegate;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    ReleaseOnClose(Response.Body delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Integer length() {
+      return delegate.length();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+      return delegate.isRepeatable();
+    }
+
+    @Override
+    public InputStream asInputStream() throws IOException {
+      return delegate.asInputStream();
+    }
+
+    @Override
+    public Reader asReader() throws IOException {
+      return delegate.asReader();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed.compareAndSet(false, true)) {
+        inUse.decrementAndGet();
+      }
+      delegate.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SharedConnectionPool(maxIdleConnections=" + maxIdleConnections + ", keepAliveMillis="
+           + keepAliveMillis + ", inUse=" + inUseConnectionCount() + ", idle="
+           + idleConnectionCount() + ")";
+  }
+}
@@ -0,0 +1,87 @@
+package denominator.okhttp;
+
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedConnectionPoolTest {
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  SharedConnectionPool pool = new SharedConnectionPool();
+  Request.Options options = new Request.Options(1000, 1000);
+  Map<String, Collection<String>> noHeaders = Collections.emptyMap();
+
+  @After
+  public void close() {
+    pool.close();
+  }
+
+  @Test
+  public void reusesConnectionAcrossClients() throws Exception {
+    server.enqueue(new MockResponse().setBody("zones"));
+    server.enqueue(new MockResponse().setBody("zones"));
+
+    // as if each came from a different manager
+    assertThat(get(pool.client())).isEqualTo("zones");
+    assertThat(get(new PoolConnections(pool).provideHttpClient())).isEqualTo("zones");
+
+    assertThat(server.takeRequest().getSequenceNumber()).isZero();
+    assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(1);
+    assertThat(pool.inUseConnectionCount()).isZero();
+    assertThat(pool.idleConnectionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void countsConnectionsInUseUntilResponseIsClosed() throws Exception {
+    server.enqueue(new MockResponse().setBody("zones"));
+
+    Response response = pool.client().execute(
+        Request.create("GET", server.getUrl("/zones").toString(), noHeaders, null, null), options);
+    assertThat(pool.inUseConnectionCount()).isEqualTo(1);
+    assertThat(pool.toString()).isEqualTo(
+        "SharedConnectionPool(maxIdleConnections=5, keepAliveMillis=300000, inUse=1, idle=0)");
+
+    Util.toString(response.body().asReader());
+    response.body().close();
+    response.body().close();
+
+    assertThat(pool.inUseConnectionCount()).isZero();
+    assertThat(pool.idleConnectionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void closeEvictsIdleConnections() throws Exception {
+    server.enqueue(new MockResponse().setBody("zones"));
+    get(pool.client());
+
+    pool.close();
+
+    assertThat(pool.idleConnectionCount()).isZero();
+  }
+
+  String get(feign.Client client) throws IOException {
+    Response response = client.execute(
+        Request.create("GET", server.getUrl("/zones").toString(), noHeaders, null, null), options);
+    try {
+      return Util.toString(response.body().asReader());
+    } finally {
+      response.body().close();
+    }
+  }
+}
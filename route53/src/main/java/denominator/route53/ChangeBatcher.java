@@ -0,0 +1,81 @@
+package denominator.route53;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import denominator.route53.Route53.ActionOnResourceRecordSet;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.route53.Route53.ActionOnResourceRecordSet.anyUpsert;
+
+/**
+ * Accumulates changes, sending them in as few {@link Route53#changeResourceRecordSets(String,
+ * List) requests} as possible. Changes added together are kept in the same request, so that
+ * replacing a record set with a {@code DELETE} and a {@code CREATE} is atomic. Requests with an
+ * {@code UPSERT} are sent to {@link Route53#upsertResourceRecordSets(String, List)}.
+ *
+ * <br> A request is sent when the next changes would exceed the limits of a change batch, and on
+ * {@link #flush()}. See <a href="http://docs.aws.amazon.com/Route53/latest/DeveloperGuide/DNSLimitations.html#limits-api-requests-changeresourcerecordsets">
+ * limits</a>.
+ */
+final class ChangeBatcher {
+
+  static final int MAX_CHANGES = 100;
+  static final int MAX_RECORDS = 1000;
+  static final int MAX_VALUE_CHARACTERS = 32000;
+
+  private final Route53 api;
+  private final String zoneId;
+  private List<ActionOnResourceRecordSet> batch = new ArrayList<ActionOnResourceRecordSet>();
+  private int records;
+  private int characters;
+
+  ChangeBatcher(Route53 api, String zoneId) {
+    this.api = api;
+    this.zoneId = zoneId;
+  }
+
+  /**
+   * Adds changes which must be applied in the same request.
+   */
+  void add(List<ActionOnResourceRecordSet> changes) {
+    checkArgument(changes.size() <= MAX_CHANGES, "too many changes in %s", changes);
+    int changeRecords = 0;
+    int changeCharacters = 0;
+    for (ActionOnResourceRecordSet change : changes) {
+      // route53 counts the values of an UPSERT twice against the limits
+      int weight = "UPSERT".equals(change.action) ? 2 : 1;
+      for (Map<String, Object> data : change.rrs.records()) {
+        changeRecords += weight;
+        changeCharacters += weight * EncodeChanges.value(change.rrs.type(), data).length();
+      }
+    }
+    if (batch.size() + changes.size() > MAX_CHANGES
+        || records + changeRecords > MAX_RECORDS
+        || characters + changeCharacters > MAX_VALUE_CHARACTERS) {
+      flush();
+    }
+    batch.addAll(changes);
+    records += changeRecords;
+    characters += changeCharacters;
+  }
+
+  /**
+   * Sends any changes not yet sent.
+   */
+  void flush() {
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<ActionOnResourceRecordSet> toSend = batch;
+    batch = new ArrayList<ActionOnResourceRecordSet>();
+    records = 0;
+    characters = 0;
+    if (anyUpsert(toSend)) {
+      api.upsertResourceRecordSets(zoneId, toSend);
+    } else {
+      api.changeResourceRecordSets(zoneId, toSend);
+    }
+  }
+}
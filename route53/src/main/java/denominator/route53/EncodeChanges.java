@@ -11,10 +11,22 @@ import feign.codec.Encoder;
 
 import static denominator.common.Preconditions.checkNotNull;
 import static denominator.common.Util.join;
+import static denominator.route53.Route53.ActionOnResourceRecordSet.anyUpsert;
 import static java.lang.String.format;
 
 class EncodeChanges implements Encoder {
 
+  /**
+   * The text format of {@code data}, as sent in a {@code Value} element.
+   */
+  static String value(String type, Map<String, Object> data) {
+    String textFormat = join(' ', data.values().toArray());
+    if ("SPF".equals(type) || "TXT".equals(type)) {
+      textFormat = format("\"%s\"", textFormat);
+    }
+    return textFormat;
+  }
+
   static String apply(ResourceRecordSet<?> rrs) {
     StringBuilder builder = new StringBuilder().append("<ResourceRecordSet>");
     builder.append("<Name>").append(rrs.name()).append("</Name>");
@@ -46,12 +58,8 @@ class EncodeChanges implements Encoder {
       builder.append("<TTL>").append(rrs.ttl() == null ? 300 : rrs.ttl()).append("</TTL>");
       builder.append("<ResourceRecords>");
       for (Map<String, Object> data : rrs.records()) {
-        String textFormat = join(' ', data.values().toArray());
-        if ("SPF".equals(rrs.type()) || "TXT".equals(rrs.type())) {
-          textFormat = format("\"%s\"", textFormat);
-        }
-        builder.append("<ResourceRecord>").append("<Value>").append(textFormat).append("</Value>")
-            .append("</ResourceRecord>");
+        builder.append("<ResourceRecord>").append("<Value>").append(value(rrs.type(), data))
+            .append("</Value>").append("</ResourceRecord>");
       }
       builder.append("</ResourceRecords>");
     }
@@ -61,9 +69,11 @@ class EncodeChanges implements Encoder {
   @Override
   public void encode(Object object, Type bodyType, RequestTemplate template) {
     List<ActionOnResourceRecordSet> actions = (List<ActionOnResourceRecordSet>) object;
+    // UPSERT is only valid in the newer api version
+    String version = anyUpsert(actions) ? "2013-04-01" : "2012-12-12";
     StringBuilder b = new StringBuilder();
-    b.append(
-        "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch>");
+    b.append("<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/")
+        .append(version).append("/\"><ChangeBatch>");
     b.append("<Changes>");
     for (ActionOnResourceRecordSet change : actions) {
       b.append("<Change>").append("<Action>").append(change.action).append("</Action>")
@@ -1,10 +1,15 @@
 package denominator.route53;
 
 import java.net.URI;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,15 +19,27 @@ import dagger.Module;
 import dagger.Provides;
 import denominator.Credentials;
 import denominator.Credentials.MapCredentials;
+import denominator.SharedExecutor;
 import denominator.hook.InstanceMetadataHook;
 
 import static denominator.CredentialsConfiguration.checkValidForProvider;
 import static denominator.common.Preconditions.checkNotNull;
+import static java.util.Locale.US;
 import static java.util.regex.Pattern.DOTALL;
 
 /**
  * Credentials supplier implementation that loads credentials from the Amazon EC2 Instance Metadata
  * Service.
+ *
+ * <br> <br> <b>Expiration</b><br>
+ *
+ * Credentials are reused until {@link #REFRESH_BEFORE_EXPIRATION_MILLIS} before their {@code
+ * Expiration}. From then, the first request to need them starts a refresh on the {@link
+ * SharedExecutor}, and requests continue to use the prior credentials until the refresh completes.
+ * If a refresh fails, or the executor is too busy to start it, the prior credentials are used until
+ * the next request starts another. Once
+ * expired, or when the metadata service reports no expiration, credentials are loaded before they
+ * are returned.
  */
 @Module(injects = InstanceProfileCredentialsProvider.class, complete = false, library = true)
 public class InstanceProfileCredentialsProvider {
@@ -35,8 +52,18 @@ public class InstanceProfileCredentialsProvider {
     keyMap.put("Token", "sessionToken");
   }
 
+  /**
+   * The metadata service offers new credentials at least 5 minutes before the prior expire.
+   *
+   * @since 4.8
+   */
+  public static final long REFRESH_BEFORE_EXPIRATION_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
   private static final Pattern JSON_FIELDS = Pattern.compile("\"([^\"]+)\" *: *\"([^\"]+)", DOTALL);
+  private static final Pattern EXPIRATION = Pattern.compile("\"Expiration\" *: *\"([^\"]+)\"");
   private final Provider<String> iipJsonProvider;
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile Session session;
 
   public InstanceProfileCredentialsProvider() {
     this(new ReadFirstInstanceProfileCredentialsOrNull());
@@ -86,9 +113,72 @@ public class InstanceProfileCredentialsProvider {
     return builder;
   }
 
+  /**
+   * Returns the time in epoch millis of the {@code Expiration} field, or 0 if absent or malformed.
+   * ex. {@code 2013-02-26T08:12:23Z}
+   */
+  static long parseExpiration(String in) {
+    if (in == null) {
+      return 0;
+    }
+    Matcher matcher = EXPIRATION.matcher(in);
+    if (!matcher.find()) {
+      return 0;
+    }
+    SimpleDateFormat iso8601 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", US);
+    iso8601.setTimeZone(TimeZone.getTimeZone("UTC"));
+    try {
+      return iso8601.parse(matcher.group(1)).getTime();
+    } catch (ParseException e) {
+      return 0;
+    }
+  }
+
   @Provides
-  Credentials get(denominator.Provider provider) {
-    return checkValidForProvider(MapCredentials.from(parseJson(iipJsonProvider.get())), provider);
+  Credentials get(denominator.Provider provider, SharedExecutor executor) {
+    long currentTime = System.currentTimeMillis();
+    Session current = session;
+    if (current == null || currentTime - current.expirationMillis >= 0) {
+      synchronized (this) {
+        current = session;
+        if (current == null || currentTime - current.expirationMillis >= 0) {
+          current = load(provider);
+        }
+      }
+    } else if (currentTime - current.refreshMillis() >= 0) {
+      refreshInBackground(provider, executor);
+    }
+    return current.credentials;
+  }
+
+  private Session load(denominator.Provider provider) {
+    String json = iipJsonProvider.get();
+    Session loaded = new Session(
+        checkValidForProvider(MapCredentials.from(parseJson(json)), provider),
+        parseExpiration(json));
+    session = loaded;
+    return loaded;
+  }
+
+  private void refreshInBackground(final denominator.Provider provider, SharedExecutor executor) {
+    if (!refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    boolean started = executor.tryExecute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          load(provider);
+        } catch (RuntimeException e) {
+          // keep using the prior credentials; the next request retries
+        } finally {
+          refreshing.set(false);
+        }
+      }
+    });
+    if (!started) { // the prior credentials are still valid, so don't block this request
+      refreshing.set(false);
+    }
   }
 
   @Override
@@ -96,6 +186,22 @@ public class InstanceProfileCredentialsProvider {
     return "ParseIIPJsonFrom(" + iipJsonProvider + ")";
   }
 
+  private static final class Session {
+
+    final Credentials credentials;
+    // The special value 0 means "expiration unknown".
+    final long expirationMillis;
+
+    Session(Credentials credentials, long expirationMillis) {
+      this.credentials = credentials;
+      this.expirationMillis = expirationMillis;
+    }
+
+    long refreshMillis() {
+      return expirationMillis - REFRESH_BEFORE_EXPIRATION_MILLIS;
+    }
+  }
+
   /**
    * default means to grab instance credentials, or return null
    */
@@ -55,6 +55,15 @@ interface Route53 {
                                 List<ActionOnResourceRecordSet> changes)
       throws InvalidChangeBatchException;
 
+  /**
+   * Like {@link #changeResourceRecordSets(String, List)}, except on the 2013-04-01 api, which
+   * accepts {@code UPSERT} actions.
+   */
+  @RequestLine("POST /2013-04-01/hostedzone/{zoneId}/rrset")
+  @Headers("Content-Type: application/xml")
+  void upsertResourceRecordSets(@Param("zoneId") String zoneId,
+                                List<ActionOnResourceRecordSet> changes)
+      throws InvalidChangeBatchException;
 
   class NameAndCount {
     String name;
@@ -103,5 +112,25 @@ interface Route53 {
     static ActionOnResourceRecordSet delete(ResourceRecordSet<?> rrs) {
       return new ActionOnResourceRecordSet("DELETE", rrs);
     }
+
+    /**
+     * Creates the record set, or replaces the one with the same name, type and qualifier. Only
+     * valid in {@link Route53#upsertResourceRecordSets(String, List)}.
+     */
+    static ActionOnResourceRecordSet upsert(ResourceRecordSet<?> rrs) {
+      return new ActionOnResourceRecordSet("UPSERT", rrs);
+    }
+
+    /**
+     * True if any change is an {@link #upsert(ResourceRecordSet) upsert}.
+     */
+    static boolean anyUpsert(List<ActionOnResourceRecordSet> changes) {
+      for (ActionOnResourceRecordSet change : changes) {
+        if ("UPSERT".equals(change.action)) {
+          return true;
+        }
+      }
+      return false;
+    }
   }
 }
@@ -2,14 +2,21 @@ package denominator.route53;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import denominator.AllProfileResourceRecordSetApi;
+import denominator.SharedExecutor;
 import denominator.common.Filter;
 import denominator.common.PeekingIterator;
+import denominator.common.PrefetchingIterator;
 import denominator.model.ResourceRecordSet;
 import denominator.route53.Route53.ActionOnResourceRecordSet;
 import denominator.route53.Route53.ResourceRecordSetList;
@@ -17,22 +24,31 @@ import denominator.route53.Route53.ResourceRecordSetList.NextRecord;
 
 import static denominator.common.Util.filter;
 import static denominator.common.Util.nextOrNull;
-import static denominator.common.Util.peekingIterator;
+import static denominator.model.ResourceRecordSets.alwaysVisible;
 import static denominator.model.ResourceRecordSets.nameAndTypeEqualTo;
 import static denominator.model.ResourceRecordSets.nameEqualTo;
 import static denominator.model.ResourceRecordSets.nameTypeAndQualifierEqualTo;
 import static denominator.model.ResourceRecordSets.notNull;
+import static denominator.model.ResourceRecordSets.notSOAOrApexNS;
 import static denominator.route53.Route53.ActionOnResourceRecordSet.create;
 import static denominator.route53.Route53.ActionOnResourceRecordSet.delete;
+import static denominator.route53.Route53.ActionOnResourceRecordSet.upsert;
 
 public final class Route53AllProfileResourceRecordSetApi implements AllProfileResourceRecordSetApi {
 
   private final Route53 api;
   private final String zoneId;
+  private final Executor executor;
+  private final int prefetchDepth;
+  private final boolean upsertRecordSets;
 
-  Route53AllProfileResourceRecordSetApi(Route53 api, String zoneId) {
+  Route53AllProfileResourceRecordSetApi(Route53 api, String zoneId, Executor executor,
+                                        int prefetchDepth, boolean upsertRecordSets) {
     this.api = api;
     this.zoneId = zoneId;
+    this.executor = executor;
+    this.prefetchDepth = prefetchDepth;
+    this.upsertRecordSets = upsertRecordSets;
   }
 
   private static Filter<ResourceRecordSet<?>> notAlias() {
@@ -80,9 +96,51 @@ public final class Route53AllProfileResourceRecordSetApi implements AllProfileRe
     return nextOrNull(filter(iterateByNameAndType(name, type), notAlias()));
   }
 
+  /**
+   * When upserting, replaces the record set in one request without reading it first. Otherwise,
+   * reads the current value, and only sends changes if it differs.
+   */
   @Override
   public void put(ResourceRecordSet<?> rrset) {
-    List<ActionOnResourceRecordSet> changes = new ArrayList<ActionOnResourceRecordSet>();
+    if (upsertRecordSets) {
+      api.upsertResourceRecordSets(zoneId, Arrays.asList(upsert(rrset)));
+      return;
+    }
+    List<ActionOnResourceRecordSet> changes = changesToPut(rrset);
+    if (changes.isEmpty()) {
+      return;
+    }
+    api.changeResourceRecordSets(zoneId, changes);
+  }
+
+  /**
+   * Sends the changes in as few requests as possible. When upserting, these replace each record set
+   * without reading it first. Otherwise, the current value of each record set is read, and only
+   * those that differ are changed. When the input contains the same record set more than once, the
+   * last wins.
+   */
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    ChangeBatcher batcher = new ChangeBatcher(api, zoneId);
+    for (ResourceRecordSet<?> rrset : lastByNameTypeAndQualifier(rrsets)) {
+      if (upsertRecordSets) {
+        batcher.add(Arrays.asList(upsert(rrset)));
+        continue;
+      }
+      List<ActionOnResourceRecordSet> changes = changesToPut(rrset);
+      if (!changes.isEmpty()) {
+        batcher.add(changes);
+      }
+    }
+    batcher.flush();
+  }
+
+  /**
+   * Empty if {@code rrset} is already present, or a {@code CREATE} preceded by a {@code DELETE} of
+   * any existing value.
+   */
+  private List<ActionOnResourceRecordSet> changesToPut(ResourceRecordSet<?> rrset) {
+    List<ActionOnResourceRecordSet> changes = new ArrayList<ActionOnResourceRecordSet>(2);
     ResourceRecordSet<?> oldRRS;
     if (rrset.qualifier() != null) {
       oldRRS = getByNameTypeAndQualifier(rrset.name(), rrset.type(), rrset.qualifier());
@@ -91,12 +149,12 @@ public final class Route53AllProfileResourceRecordSetApi implements AllProfileRe
     }
     if (oldRRS != null) {
       if (oldRRS.equals(rrset)) {
-        return;
+        return changes;
       }
       changes.add(delete(oldRRS));
     }
     changes.add(create(rrset));
-    api.changeResourceRecordSets(zoneId, changes);
+    return changes;
   }
 
   @Override
@@ -117,28 +175,100 @@ public final class Route53AllProfileResourceRecordSetApi implements AllProfileRe
     api.changeResourceRecordSets(zoneId, changes);
   }
 
+  /**
+   * Deletes qualified record sets by name, type and qualifier, and the rest by name and type, in as
+   * few requests as possible.
+   */
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    ChangeBatcher batcher = new ChangeBatcher(api, zoneId);
+    for (ResourceRecordSet<?> rrset : lastByNameTypeAndQualifier(rrsets)) {
+      ResourceRecordSet<?> oldRRS;
+      if (rrset.qualifier() != null) {
+        oldRRS = getByNameTypeAndQualifier(rrset.name(), rrset.type(), rrset.qualifier());
+      } else {
+        oldRRS = nextOrNull(filter(iterateByNameAndType(rrset.name(), rrset.type()),
+                                   alwaysVisible()));
+      }
+      if (oldRRS != null) {
+        batcher.add(Arrays.asList(delete(oldRRS)));
+      }
+    }
+    batcher.flush();
+  }
+
+  /**
+   * Deletes in change batches as large as Route53 allows. Pages of record sets are listed ahead on
+   * the executor while prior batches are sent.
+   */
+  @Override
+  public int clear() {
+    return clear(api.getHostedZone(zoneId).name);
+  }
+
+  /**
+   * @param apex name of the zone, whose {@code NS} record set is kept.
+   */
+  int clear(String apex) {
+    Filter<ResourceRecordSet<?>> deletable = notSOAOrApexNS(apex);
+    ChangeBatcher batcher = new ChangeBatcher(api, zoneId);
+    int deleted = 0;
+    for (Iterator<ResourceRecordSet<?>> it =
+             lazyIterateRRSets(api.listResourceRecordSets(zoneId), notNull()); it.hasNext(); ) {
+      ResourceRecordSet<?> rrset = it.next();
+      if (deletable.apply(rrset)) {
+        batcher.add(Arrays.asList(delete(rrset)));
+        deleted++;
+      }
+    }
+    batcher.flush();
+    return deleted;
+  }
+
+  /**
+   * A change batch cannot contain more than one change to the same record set.
+   */
+  static Collection<ResourceRecordSet<?>> lastByNameTypeAndQualifier(
+      Iterable<ResourceRecordSet<?>> rrsets) {
+    Map<List<String>, ResourceRecordSet<?>> result =
+        new LinkedHashMap<List<String>, ResourceRecordSet<?>>();
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      List<String> key = Arrays.asList(rrset.name(), rrset.type(), rrset.qualifier());
+      result.remove(key);
+      result.put(key, rrset);
+    }
+    return result.values();
+  }
+
+  /**
+   * Iterates until the first record set that doesn't match {@code filter}, as results are in order
+   * of name and type. Pages are fetched ahead of the consumer, unless the last record set on the
+   * current page doesn't match.
+   */
   Iterator<ResourceRecordSet<?>> lazyIterateRRSets(final ResourceRecordSetList first,
                                                    final Filter<ResourceRecordSet<?>> filter) {
     if (first.next == null) {
       return filter(first.iterator(), filter);
     }
+    final PeekingIterator<ResourceRecordSet<?>> current =
+        new PrefetchingIterator<ResourceRecordSetList, ResourceRecordSet<?>>(first, executor,
+                                                                            prefetchDepth) {
+          @Override
+          protected ResourceRecordSetList fetchNext(ResourceRecordSetList page) {
+            NextRecord next = page.next;
+            if (next == null || !page.isEmpty() && !filter.apply(page.get(page.size() - 1))) {
+              return null;
+            }
+            if (next.identifier != null) {
+              return api.listResourceRecordSets(zoneId, next.name, next.type, next.identifier);
+            }
+            return api.listResourceRecordSets(zoneId, next.name, next.type);
+          }
+        };
     return new Iterator<ResourceRecordSet<?>>() {
-      PeekingIterator<ResourceRecordSet<?>> current = peekingIterator(first.iterator());
-      NextRecord next = first.next;
 
       @Override
       public boolean hasNext() {
-        while (!current.hasNext() && next != null) {
-          ResourceRecordSetList nextPage;
-          if (next.identifier != null) {
-            nextPage = api.listResourceRecordSets(zoneId, next.name, next.type,
-                                                  next.identifier);
-          } else {
-            nextPage = api.listResourceRecordSets(zoneId, next.name, next.type);
-          }
-          current = peekingIterator(nextPage.iterator());
-          next = nextPage.next;
-        }
         return current.hasNext() && filter.apply(current.peek());
       }
 
@@ -157,15 +287,23 @@ public final class Route53AllProfileResourceRecordSetApi implements AllProfileRe
   static final class Factory implements denominator.AllProfileResourceRecordSetApi.Factory {
 
     private final Route53 api;
+    private final Executor executor;
+    private final int prefetchDepth;
+    private final boolean upsertRecordSets;
 
     @Inject
-    Factory(Route53 api) {
+    Factory(Route53 api, SharedExecutor executor, @Named("pagePrefetchDepth") int prefetchDepth,
+            @Named("upsertRecordSets") boolean upsertRecordSets) {
       this.api = api;
+      this.executor = executor;
+      this.prefetchDepth = prefetchDepth;
+      this.upsertRecordSets = upsertRecordSets;
     }
 
     @Override
     public Route53AllProfileResourceRecordSetApi create(String id) {
-      return new Route53AllProfileResourceRecordSetApi(api, id);
+      return new Route53AllProfileResourceRecordSetApi(api, id, executor, prefetchDepth,
+                                                       upsertRecordSets);
     }
   }
 
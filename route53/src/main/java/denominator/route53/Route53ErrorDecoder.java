@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import denominator.feign.ThrottledException;
 import feign.FeignException;
 import feign.Response;
 import feign.RetryableException;
@@ -37,13 +38,14 @@ class Route53ErrorDecoder implements ErrorDecoder {
   @Override
   public Exception decode(String methodKey, Response response) {
     try {
-      if ("Route53#changeResourceRecordSets(String,List)".equals(methodKey)) {
+      if ("Route53#changeResourceRecordSets(String,List)".equals(methodKey)
+          || "Route53#upsertResourceRecordSets(String,List)".equals(methodKey)) {
         @SuppressWarnings("unchecked")
         List<String> messages = List.class.cast(decoder.decode(response, LIST_STRING));
         return new InvalidChangeBatchException(methodKey, messages);
       }
       Route53Error error = Route53Error.class.cast(decoder.decode(response, Route53Error.class));
-      if (error == null) {
+      if (error == null || error.code == null) {
         return FeignException.errorStatus(methodKey, response);
       }
       String message = format("%s failed with error %s", methodKey, error.code);
@@ -55,7 +57,7 @@ class Route53ErrorDecoder implements ErrorDecoder {
         return new RetryableException(message, null);
       } else if ("Throttling".equals(error.code) || "PriorRequestNotComplete".equals(error.code)) {
         // backoff at least a second.
-        return new RetryableException(message, new Date(currentTimeMillis() + 1000));
+        return new ThrottledException(message, new Date(currentTimeMillis() + 1000));
       } else if (error.code.startsWith("NoSuch")) {
         // consider not found exception
       }
@@ -19,17 +19,24 @@ import denominator.BasicProvider;
 import denominator.CheckConnection;
 import denominator.DNSApiManager;
 import denominator.ResourceRecordSetApi;
+import denominator.SharedExecutor;
 import denominator.ZoneApi;
 import denominator.config.GeoUnsupported;
 import denominator.config.NothingToClose;
+import denominator.feign.ClientModule;
+import denominator.feign.RequestLimiter;
 import denominator.profile.WeightedResourceRecordSetApi;
 import denominator.route53.Route53ErrorDecoder.Messages;
 import denominator.route53.Route53ErrorDecoder.Route53Error;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
+import feign.Retryer;
 import feign.codec.Decoder;
 import feign.sax.SAXDecoder;
 
+import static denominator.feign.RetryPolicy.honorRetryAfter;
+
 public class Route53Provider extends BasicProvider {
 
   private final String url;
@@ -55,6 +62,11 @@ public class Route53Provider extends BasicProvider {
     return true;
   }
 
+  @Override
+  public boolean supportsBatchChanges() {
+    return true;
+  }
+
   // http://docs.aws.amazon.com/Route53/latest/APIReference/API_ChangeResourceRecordSets.html
   @Override
   public Set<String> basicRecordTypes() {
@@ -98,8 +110,56 @@ public class Route53Provider extends BasicProvider {
 
     @Provides
     @Singleton
-    ZoneApi provideZoneApi(Route53 api) {
-      return new Route53ZoneApi(api);
+    ZoneApi provideZoneApi(Route53 api, SharedExecutor executor,
+                           @Named("pagePrefetchDepth") int prefetchDepth,
+                           @Named("zoneSOAConcurrency") int soaConcurrency,
+                           @Named("lazyZoneSOA") boolean lazySOA) {
+      return new Route53ZoneApi(api, executor, prefetchDepth, soaConcurrency, lazySOA);
+    }
+
+    /**
+     * Count of pages requested on the {@link SharedExecutor} ahead of the consumer, when listing
+     * zones or record sets. When 0, each page is requested by the consumer once the prior is used
+     * up.
+     */
+    @Provides
+    @Named("pagePrefetchDepth")
+    int providePagePrefetchDepth() {
+      return 1;
+    }
+
+    /**
+     * Count of SOA records requested at the same time on the {@link SharedExecutor}, when listing
+     * zones. Each zone's {@link denominator.model.Zone#email() email} and {@link
+     * denominator.model.Zone#ttl() ttl} come from its SOA record. Zones are returned in the same
+     * order regardless. The default of 1 requests them one at a time on the calling thread.
+     */
+    @Provides
+    @Named("zoneSOAConcurrency")
+    int provideZoneSOAConcurrency() {
+      return 1;
+    }
+
+    /**
+     * When true, listed zones don't request their SOA record until {@link
+     * denominator.model.Zone#email() email} or {@link denominator.model.Zone#ttl() ttl} is used.
+     * This helps callers who only need zone ids and names.
+     */
+    @Provides
+    @Named("lazyZoneSOA")
+    boolean provideLazyZoneSOA() {
+      return false;
+    }
+
+    /**
+     * When true, {@code put} and {@code putAll} replace record sets with an {@code UPSERT}, in one
+     * request and without reading them first. The default reads each record set first, which
+     * detects and skips puts of unchanged record sets.
+     */
+    @Provides
+    @Named("upsertRecordSets")
+    boolean provideUpsertRecordSets() {
+      return false;
     }
 
     @Provides
@@ -112,8 +172,8 @@ public class Route53Provider extends BasicProvider {
     @Provides
     @Singleton
     AllProfileResourceRecordSetApi.Factory provideAllProfileResourceRecordSetApiFactory(
-        Route53 api) {
-      return new Route53AllProfileResourceRecordSetApi.Factory(api);
+        Route53AllProfileResourceRecordSetApi.Factory in) {
+      return in;
     }
 
     @Provides
@@ -139,6 +199,7 @@ public class Route53Provider extends BasicProvider {
   }
 
   @dagger.Module(injects = Route53ResourceRecordSetApi.Factory.class,
+      includes = ClientModule.class,
       complete = false // doesn't bind Provider used by Route53Target
   )
   public static final class FeignModule {
@@ -161,14 +222,17 @@ public class Route53Provider extends BasicProvider {
 
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel) {
+    Feign feign(Logger logger, Logger.Level logLevel, Client client, Retryer retryer,
+                RequestLimiter limiter) {
       Decoder decoder = decoder();
       return Feign.builder()
+          .client(client)
+          .retryer(retryer)
           .logger(logger)
           .logLevel(logLevel)
           .encoder(new EncodeChanges())
           .decoder(decoder)
-          .errorDecoder(new Route53ErrorDecoder(decoder))
+          .errorDecoder(honorRetryAfter(limiter.errorDecoder(new Route53ErrorDecoder(decoder))))
           .build();
     }
 
@@ -2,6 +2,9 @@ package denominator.route53;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import javax.inject.Inject;
 
@@ -56,6 +59,27 @@ public final class Route53ResourceRecordSetApi implements ResourceRecordSetApi {
     api.changeResourceRecordSets(zoneId, Arrays.asList(delete(oldRRS)));
   }
 
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    allApi.putAll(rrsets);
+  }
+
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    ChangeBatcher batcher = new ChangeBatcher(api, zoneId);
+    Set<List<String>> nameAndTypes = new LinkedHashSet<List<String>>();
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      if (!nameAndTypes.add(Arrays.asList(rrset.name(), rrset.type()))) {
+        continue;
+      }
+      ResourceRecordSet<?> oldRRS = getByNameAndType(rrset.name(), rrset.type());
+      if (oldRRS != null) {
+        batcher.add(Arrays.asList(delete(oldRRS)));
+      }
+    }
+    batcher.flush();
+  }
+
   static final class Factory implements denominator.ResourceRecordSetApi.Factory {
 
     private final Route53AllProfileResourceRecordSetApi.Factory allApi;
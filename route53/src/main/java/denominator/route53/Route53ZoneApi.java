@@ -1,11 +1,14 @@
 package denominator.route53;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import denominator.common.PeekingIterator;
+import denominator.common.PrefetchingIterator;
+import denominator.common.ReadAheadIterator;
 import denominator.model.ResourceRecordSet;
 import denominator.model.Zone;
 import denominator.model.rdata.SOAData;
@@ -15,7 +18,9 @@ import denominator.route53.Route53.HostedZoneList;
 import denominator.route53.Route53.NameAndCount;
 import denominator.route53.Route53.ResourceRecordSetList;
 
+import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkState;
+import static denominator.common.Util.equal;
 import static denominator.model.ResourceRecordSets.soa;
 import static denominator.route53.Route53.ActionOnResourceRecordSet.create;
 import static java.util.Arrays.asList;
@@ -23,14 +28,46 @@ import static java.util.Arrays.asList;
 public final class Route53ZoneApi implements denominator.ZoneApi {
 
   private final Route53 api;
+  private final Executor executor;
+  private final int prefetchDepth;
+  private final int soaConcurrency;
+  private final boolean lazySOA;
 
-  Route53ZoneApi(Route53 api) {
+  /**
+   * @param prefetchDepth  count of pages of hosted zones to request ahead of the consumer.
+   * @param soaConcurrency count of SOA records to request at the same time when listing zones. When
+   *                       1, they are requested one at a time by the calling thread.
+   * @param lazySOA        when true, the SOA record of a listed zone isn't requested until its
+   *                       {@link Zone#email()} or {@link Zone#ttl()} is needed.
+   */
+  Route53ZoneApi(Route53 api, Executor executor, int prefetchDepth, int soaConcurrency,
+                 boolean lazySOA) {
     this.api = api;
+    this.executor = executor;
+    this.prefetchDepth = prefetchDepth;
+    checkArgument(soaConcurrency > 0, "soaConcurrency must be positive, but was %s",
+                  soaConcurrency);
+    this.soaConcurrency = soaConcurrency;
+    this.lazySOA = lazySOA;
   }
 
   @Override
   public Iterator<Zone> iterator() {
-    return new ZipWithSOA(api.listHostedZones());
+    Iterator<HostedZone> hostedZones =
+        new PrefetchingIterator<HostedZoneList, HostedZone>(api.listHostedZones(), executor,
+                                                            prefetchDepth) {
+          @Override
+          protected HostedZoneList fetchNext(HostedZoneList page) {
+            return page.next != null ? api.listHostedZones(page.next) : null;
+          }
+        };
+    if (lazySOA) {
+      return new ZipWithLazySOA(hostedZones);
+    } else if (soaConcurrency == 1) {
+      return new ZipWithSOA(hostedZones);
+    }
+    return new ReadAheadIterator<Zone>(new ZipWithSOATasks(hostedZones), executor,
+                                       soaConcurrency);
   }
 
   /**
@@ -45,7 +82,7 @@ public final class Route53ZoneApi implements denominator.ZoneApi {
         if (delegate.hasNext()) {
           HostedZone next = delegate.next();
           if (next.name.equals(name)) {
-            return zipWithSOA(next);
+            return lazySOA ? new LazySOAZone(next) : zipWithSOA(next);
           }
         }
         return endOfData();
@@ -81,7 +118,9 @@ public final class Route53ZoneApi implements denominator.ZoneApi {
     try {
       NameAndCount nameAndCount = api.getHostedZone(id);
       if (nameAndCount.resourceRecordSetCount > 2) {
-        deleteEverythingExceptNSAndSOA(id, nameAndCount.name);
+        // the zone's SOA and NS rrsets can only be deleted by deleting the zone
+        new Route53AllProfileResourceRecordSetApi(api, id, executor, prefetchDepth, false)
+            .clear(nameAndCount.name);
       }
       api.deleteHostedZone(id);
     } catch (Route53Exception e) {
@@ -91,35 +130,6 @@ public final class Route53ZoneApi implements denominator.ZoneApi {
     }
   }
 
-  /**
-   * Works through the zone, deleting each page of rrsets, except the zone's SOA and the NS rrsets.
-   * Once the zone is cleared, it can be deleted.
-   *
-   * <p/>Users can modify the zone's SOA and NS rrsets, but they cannot be deleted except via
-   * deleting the zone.
-   */
-  private void deleteEverythingExceptNSAndSOA(String id, String name) {
-    List<ActionOnResourceRecordSet> deletes = new ArrayList<ActionOnResourceRecordSet>();
-    ResourceRecordSetList page = api.listResourceRecordSets(id);
-    while (!page.isEmpty()) {
-      for (ResourceRecordSet<?> rrset : page) {
-        if (rrset.type().equals("SOA") || rrset.type().equals("NS") && rrset.name().equals(name)) {
-          continue;
-        }
-        deletes.add(ActionOnResourceRecordSet.delete(rrset));
-      }
-      if (!deletes.isEmpty()) {
-        api.changeResourceRecordSets(id, deletes);
-      }
-      if (page.next == null) {
-        page.clear();
-      } else {
-        deletes.clear();
-        page = api.listResourceRecordSets(id, page.next.name, page.next.type, page.next.identifier);
-      }
-    }
-  }
-
   private Zone zipWithSOA(HostedZone next) {
     ResourceRecordSetList soas = api.listResourceRecordSets(next.id, next.name, "SOA");
     checkState(!soas.isEmpty(), "SOA record for zone %s %s was not present", next.id, next.name);
@@ -133,28 +143,54 @@ public final class Route53ZoneApi implements denominator.ZoneApi {
    */
   class ZipWithSOA implements Iterator<Zone> {
 
-    HostedZoneList list;
-    int i = 0;
-    int length;
+    private final Iterator<HostedZone> hostedZones;
 
-    ZipWithSOA(HostedZoneList list) {
-      this.list = list;
-      this.length = list.size();
+    ZipWithSOA(Iterator<HostedZone> hostedZones) {
+      this.hostedZones = hostedZones;
     }
 
     @Override
     public boolean hasNext() {
-      while (i == length && list.next != null) {
-        list = api.listHostedZones(list.next);
-        length = list.size();
-        i = 0;
-      }
-      return i < length;
+      return hostedZones.hasNext();
     }
 
     @Override
     public Zone next() {
-      return zipWithSOA(list.get(i++));
+      return zipWithSOA(hostedZones.next());
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * For each hosted zone, a task which fetches the corresponding SOA record and zips into a Zone
+   * object.
+   */
+  class ZipWithSOATasks implements Iterator<Callable<Zone>> {
+
+    private final Iterator<HostedZone> hostedZones;
+
+    ZipWithSOATasks(Iterator<HostedZone> hostedZones) {
+      this.hostedZones = hostedZones;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return hostedZones.hasNext();
+    }
+
+    @Override
+    public Callable<Zone> next() {
+      final HostedZone next = hostedZones.next();
+      return new Callable<Zone>() {
+        @Override
+        public Zone call() {
+          return zipWithSOA(next);
+        }
+      };
     }
 
     @Override
@@ -162,4 +198,79 @@ public final class Route53ZoneApi implements denominator.ZoneApi {
       throw new UnsupportedOperationException();
     }
   }
+
+  class ZipWithLazySOA implements Iterator<Zone> {
+
+    private final Iterator<HostedZone> hostedZones;
+
+    ZipWithLazySOA(Iterator<HostedZone> hostedZones) {
+      this.hostedZones = hostedZones;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return hostedZones.hasNext();
+    }
+
+    @Override
+    public Zone next() {
+      return new LazySOAZone(hostedZones.next());
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Fetches the SOA record on first access to {@link #ttl()} or {@link #email()}. Equality, hashing
+   * and {@link #toString()} use only the id and name, so don't fetch the SOA record.
+   */
+  final class LazySOAZone extends Zone {
+
+    private volatile Zone resolved;
+
+    LazySOAZone(HostedZone hostedZone) {
+      super(hostedZone.id, hostedZone.name);
+    }
+
+    @Override
+    public int ttl() {
+      return resolved().ttl();
+    }
+
+    @Override
+    public String email() {
+      return resolved().email();
+    }
+
+    /**
+     * Compares lazy zones by id and name, without fetching their SOA. Other zones are compared
+     * after fetching the SOA, as they compare this zone's {@link #ttl()} and {@link #email()}.
+     * Likewise, {@link #hashCode()} fetches the SOA, so that it agrees with equal zones.
+     */
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof LazySOAZone) {
+        LazySOAZone other = (LazySOAZone) obj;
+        return equal(id(), other.id()) && name().equals(other.name());
+      }
+      return obj instanceof Zone && resolved().equals(obj);
+    }
+
+    @Override
+    public String toString() {
+      return "Zone [id=" + id() + ", name=" + name() + "]";
+    }
+
+    private Zone resolved() {
+      Zone result = resolved;
+      if (result == null) {
+        ResourceRecordSet<SOAData> soa = getSOA(id(), name());
+        resolved = result = Zone.create(id(), name(), soa.ttl(), soa.records().get(0).rname());
+      }
+      return result;
+    }
+  }
 }
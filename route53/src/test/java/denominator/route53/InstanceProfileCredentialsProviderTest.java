@@ -6,20 +6,46 @@ import com.squareup.okhttp.mockwebserver.MockWebServer;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.inject.Provider;
+
+import denominator.Credentials;
 import denominator.Credentials.MapCredentials;
+import denominator.SharedExecutor;
 import denominator.hook.InstanceMetadataHook;
 import denominator.route53.InstanceProfileCredentialsProvider.ReadFirstInstanceProfileCredentialsOrNull;
 
 import static denominator.assertj.MockWebServerAssertions.assertThat;
+import static java.util.Locale.US;
 
 public class InstanceProfileCredentialsProviderTest {
 
   @Rule
   public MockWebServer server = new MockWebServer();
 
+  /**
+   * Runs refreshes on the calling thread, so that tests needn't wait on them.
+   */
+  SharedExecutor sameThread = new SharedExecutor() {
+    @Override
+    public void execute(Runnable command) {
+      command.run();
+    }
+
+    @Override
+    public boolean tryExecute(Runnable command) {
+      command.run();
+      return true;
+    }
+  };
+
   @Test
   public void whenInstanceProfileCredentialsInMetadataServiceReturnMapCredentials()
       throws Exception {
@@ -37,7 +63,7 @@ public class InstanceProfileCredentialsProviderTest {
                                                               InstanceMetadataHook.DEFAULT_URI
                                                                   .getPath())
                                                           .toURI())).get(
-        new Route53Provider()))
+        new Route53Provider(), sameThread))
         .isEqualTo(MapCredentials.from(sessionCredentials));
 
     assertThat(server.takeRequest()).hasPath("/latest/meta-data/iam/security-credentials/");
@@ -45,6 +71,64 @@ public class InstanceProfileCredentialsProviderTest {
         .hasPath("/latest/meta-data/iam/security-credentials/route53-readonly");
   }
 
+  @Test
+  public void reusesCredentialsUntilNearExpiration() {
+    CountingJson json = new CountingJson(TimeUnit.HOURS.toMillis(1));
+    InstanceProfileCredentialsProvider provider = new InstanceProfileCredentialsProvider(json);
+
+    Credentials first = provider.get(new Route53Provider(), sameThread);
+    assertThat(provider.get(new Route53Provider(), sameThread)).isSameAs(first);
+    assertThat(provider.get(new Route53Provider(), sameThread)).isSameAs(first);
+
+    assertThat(json.count.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void refreshesNearExpirationWhileReturningPriorCredentials() {
+    CountingJson json = new CountingJson(TimeUnit.MINUTES.toMillis(1));
+    InstanceProfileCredentialsProvider provider = new InstanceProfileCredentialsProvider(json);
+
+    Credentials first = provider.get(new Route53Provider(), sameThread);
+    assertThat(json.count.get()).isEqualTo(1);
+
+    // starts a refresh, but returns what it had
+    assertThat(provider.get(new Route53Provider(), sameThread)).isSameAs(first);
+    assertThat(json.count.get()).isEqualTo(2);
+
+    assertThat(provider.get(new Route53Provider(), sameThread))
+        .isNotEqualTo(first)
+        .isEqualTo(json.credentials(2));
+  }
+
+  @Test
+  public void skipsRefreshWhileExecutorIsSaturated() {
+    CountingJson json = new CountingJson(TimeUnit.MINUTES.toMillis(1));
+    InstanceProfileCredentialsProvider provider = new InstanceProfileCredentialsProvider(json);
+    SharedExecutor saturated = new SharedExecutor() {
+      @Override
+      public boolean tryExecute(Runnable command) {
+        return false;
+      }
+    };
+
+    Credentials first = provider.get(new Route53Provider(), saturated);
+    assertThat(provider.get(new Route53Provider(), saturated)).isSameAs(first);
+    assertThat(json.count.get()).isEqualTo(1);
+
+    // the next request starts the refresh once the executor has room
+    assertThat(provider.get(new Route53Provider(), sameThread)).isSameAs(first);
+    assertThat(json.count.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void reloadsExpiredCredentialsBeforeReturning() {
+    CountingJson json = new CountingJson(-TimeUnit.MINUTES.toMillis(1));
+    InstanceProfileCredentialsProvider provider = new InstanceProfileCredentialsProvider(json);
+
+    assertThat(provider.get(new Route53Provider(), sameThread)).isEqualTo(json.credentials(1));
+    assertThat(provider.get(new Route53Provider(), sameThread)).isEqualTo(json.credentials(2));
+  }
+
   @Test
   public void whenNoInstanceProfileCredentialsInMetadataServiceReturnNull() throws Exception {
     server.enqueue(new MockResponse().setBody(""));
@@ -115,6 +199,52 @@ public class InstanceProfileCredentialsProviderTest {
         .containsEntry("sessionToken", "TTTTTTT");
   }
 
+  @Test
+  public void testParseExpiration() {
+    assertThat(InstanceProfileCredentialsProvider.parseExpiration(securityCredentials))
+        .isEqualTo(1361866343000L);
+  }
+
+  @Test
+  public void testParseExpirationWhenAbsentOrMalformed() {
+    assertThat(InstanceProfileCredentialsProvider.parseExpiration(null)).isZero();
+    assertThat(InstanceProfileCredentialsProvider.parseExpiration("{\"Code\" : \"Failure\"}"))
+        .isZero();
+    assertThat(InstanceProfileCredentialsProvider.parseExpiration("{\"Expiration\" : \"soon\"}"))
+        .isZero();
+  }
+
+  /**
+   * Returns a new token each call, expiring {@code expiresInMillis} from the call.
+   */
+  static final class CountingJson implements Provider<String> {
+
+    final AtomicInteger count = new AtomicInteger();
+    final long expiresInMillis;
+
+    CountingJson(long expiresInMillis) {
+      this.expiresInMillis = expiresInMillis;
+    }
+
+    @Override
+    public String get() {
+      int call = count.incrementAndGet();
+      SimpleDateFormat iso8601 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", US);
+      iso8601.setTimeZone(TimeZone.getTimeZone("UTC"));
+      String expiration = iso8601.format(new Date(System.currentTimeMillis() + expiresInMillis));
+      return "{\"AccessKeyId\" : \"AAAAA\",\"SecretAccessKey\" : \"SSSSSSS\", "
+             + "\"Token\" : \"TTTTTTT" + call + "\", \"Expiration\" : \"" + expiration + "\"}";
+    }
+
+    Credentials credentials(int call) {
+      Map<String, String> sessionCredentials = new LinkedHashMap<String, String>();
+      sessionCredentials.put("accessKey", "AAAAA");
+      sessionCredentials.put("secretKey", "SSSSSSS");
+      sessionCredentials.put("sessionToken", "TTTTTTT" + call);
+      return MapCredentials.from(sessionCredentials);
+    }
+  }
+
   String securityCredentials = "{\n"
                                + "  \"Code\" : \"Success\",\n"
                                + "  \"LastUpdated\" : \"2013-02-26T02:03:57Z\",\n"
@@ -34,8 +34,11 @@ final class MockRoute53Server extends Route53Provider implements TestRule {
     return "http://localhost:" + delegate.getPort();
   }
 
-  DNSApiManager connect() {
-    return Denominator.create(this, CredentialsConfiguration.credentials(credentials()));
+  DNSApiManager connect(Object... modules) {
+    Object[] modulesWithCredentials = new Object[modules.length + 1];
+    modulesWithCredentials[0] = CredentialsConfiguration.credentials(credentials());
+    System.arraycopy(modules, 0, modulesWithCredentials, 1, modules.length);
+    return Denominator.create(this, modulesWithCredentials);
   }
 
   Credentials credentials() {
@@ -58,6 +61,10 @@ final class MockRoute53Server extends Route53Provider implements TestRule {
     return assertThat(delegate.takeRequest());
   }
 
+  int requestCount() {
+    return delegate.getRequestCount();
+  }
+
   void shutdown() throws IOException {
     delegate.shutdown();
   }
@@ -7,6 +7,8 @@ import org.junit.rules.ExpectedException;
 import java.util.Collection;
 import java.util.Collections;
 
+import denominator.feign.ThrottledException;
+import feign.FeignException;
 import feign.Response;
 import feign.RetryableException;
 import feign.codec.ErrorDecoder;
@@ -78,7 +80,7 @@ public class Route53ErrorDecoderTest {
 
   @Test
   public void throttling() throws Exception {
-    thrown.expect(RetryableException.class);
+    thrown.expect(ThrottledException.class);
     thrown.expectMessage("Route53.zones() failed with error Throttling: Rate exceeded");
 
     Response
@@ -97,7 +99,7 @@ public class Route53ErrorDecoderTest {
 
   @Test
   public void priorRequestNotComplete() throws Exception {
-    thrown.expect(RetryableException.class);
+    thrown.expect(ThrottledException.class);
     thrown.expectMessage("Route53.zones() failed with error PriorRequestNotComplete: The request was rejected because Route 53 was still processing a prior request.");
 
     Response
@@ -114,6 +116,19 @@ public class Route53ErrorDecoderTest {
     throw errors.decode("Route53.zones()", response);
   }
 
+  @Test
+  public void noCode() throws Exception {
+    thrown.expect(FeignException.class);
+    thrown.expectMessage("status 500 reading Route53.zones()");
+
+    Response
+        response =
+        response("<Response xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+                 + "  <RequestID>dc94a37b0-e297-4ab7-83c8-791a0fc8f613</RequestID>\n"
+                 + "</Response>");
+    throw errors.decode("Route53.zones()", response);
+  }
+
   static Response response(String xml) {
     return Response
         .create(500, "ServerError", Collections.<String, Collection<String>>emptyMap(), xml, UTF_8);
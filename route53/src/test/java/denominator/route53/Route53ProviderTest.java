@@ -31,6 +31,7 @@ public class Route53ProviderTest {
   public void testRoute53Metadata() {
     assertThat(PROVIDER.name()).isEqualTo("route53");
     assertThat(PROVIDER.supportsDuplicateZoneNames()).isTrue();
+    assertThat(PROVIDER.supportsBatchChanges()).isTrue();
     assertThat(PROVIDER.credentialTypeToParameterNames())
         .containsEntry("accessKey", Arrays.asList("accessKey", "secretKey"))
         .containsEntry("session", Arrays.asList("accessKey", "secretKey", "sessionToken"));
@@ -5,9 +5,21 @@ import com.squareup.okhttp.mockwebserver.MockResponse;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
+import javax.inject.Named;
+
+import dagger.Module;
+import dagger.Provides;
+import denominator.DNSApiManager;
+import denominator.DNSApiMetrics;
+import denominator.Instrument;
 import denominator.ResourceRecordSetApi;
+import denominator.feign.LimitRequests;
+import denominator.feign.RequestLimiter;
+import denominator.model.ResourceRecordSet;
 
 import static denominator.assertj.ModelAssertions.assertThat;
 import static denominator.model.ResourceRecordSets.a;
@@ -46,6 +58,43 @@ public class Route53ResourceRecordSetApiMockTest {
             "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch><Changes><Change><Action>CREATE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
   }
 
+  @Test
+  public void putCountsHttpRequestsOfCall() throws Exception {
+    server.enqueue(new MockResponse().setBody(oneRecord));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    DNSApiMetrics metrics = new DNSApiMetrics();
+    ResourceRecordSetApi api = server.connect(new Instrument(metrics)).api()
+        .basicRecordSetsInZone("Z1PA6795UKMFR9");
+    api.put(a("www.denominator.io.", 10000000, Arrays.asList("192.0.2.1")));
+
+    DNSApiMetrics.Stats put = metrics.apiCall(server.name(), "ResourceRecordSetApi", "put");
+    assertThat(put.count()).isEqualTo(1);
+    assertThat(put.errors()).isZero();
+    assertThat(put.httpRequests()).isEqualTo(2);
+    assertThat(metrics.httpRequest(server.name(), "GET").count()).isEqualTo(1);
+    DNSApiMetrics.Stats post = metrics.httpRequest(server.name(), "POST");
+    assertThat(post.count()).isEqualTo(1);
+    assertThat(post.requestBytes()).isPositive();
+    assertThat(post.responseBytes()).isEqualTo(changeSynced.length());
+  }
+
+  @Test
+  public void throttlingSlowsDownLimiter() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(400).setBody(
+        "<ErrorResponse><Error><Code>Throttling</Code><Message>Rate exceeded</Message></Error></ErrorResponse>"));
+    server.enqueue(new MockResponse().setBody(oneRecord));
+
+    RequestLimiter limiter = new RequestLimiter(10, 4, true);
+    ResourceRecordSetApi api = server.connect(new LimitRequests(limiter)).api()
+        .basicRecordSetsInZone("Z1PA6795UKMFR9");
+    assertThat(api.getByNameAndType("www.denominator.io.", "A")).isNotNull();
+
+    assertThat(limiter.throttled()).isEqualTo(1);
+    assertThat(limiter.permitsPerSecond()).isLessThan(10);
+    assertThat(limiter.inFlightLimit()).isEqualTo(2);
+  }
+
   @Test
   public void putSameRecordNoOp() throws Exception {
     server.enqueue(new MockResponse().setBody(oneRecord));
@@ -131,6 +180,38 @@ public class Route53ResourceRecordSetApiMockTest {
         .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.");
   }
 
+  @Test
+  public void iteratorFetchesNextPage() throws Exception {
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse><ResourceRecordSets><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></ResourceRecordSets><IsTruncated>true</IsTruncated><NextRecordName>www2.denominator.io.</NextRecordName><NextRecordType>A</NextRecordType></ListResourceRecordSetsResponse>"));
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse><ResourceRecordSets><ResourceRecordSet><Name>www2.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>198.51.100.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></ResourceRecordSets></ListResourceRecordSetsResponse>"));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("Z1PA6795UKMFR9");
+    assertThat(api.iterator()).containsExactly(
+        a("www.denominator.io.", 3600, "192.0.2.1"),
+        a("www2.denominator.io.", 3600, "198.51.100.1"));
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset");
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www2.denominator.io.&type=A");
+  }
+
+  @Test
+  public void iterateByNameDoesntFetchPageAfterOtherName() throws Exception {
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse><ResourceRecordSets><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet><ResourceRecordSet><Name>www2.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>198.51.100.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></ResourceRecordSets><IsTruncated>true</IsTruncated><NextRecordName>www3.denominator.io.</NextRecordName><NextRecordType>A</NextRecordType></ListResourceRecordSetsResponse>"));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("Z1PA6795UKMFR9");
+    assertThat(api.iterateByName("www.denominator.io."))
+        .containsExactly(a("www.denominator.io.", 3600, "192.0.2.1"));
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.");
+    assertThat(server.requestCount()).isEqualTo(1);
+  }
+
   @Test
   public void getByNameAndTypeWhenPresent() throws Exception {
     server.enqueue(new MockResponse().setBody(twoRecords));
@@ -182,6 +263,135 @@ public class Route53ResourceRecordSetApiMockTest {
         .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www1.denominator.io.&type=A");
   }
 
+  @Test
+  public void putAllSendsOneChangeBatch() throws Exception {
+    server.enqueue(new MockResponse().setBody(oneRecord));
+    server.enqueue(new MockResponse().setBody(noRecords));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("Z1PA6795UKMFR9");
+    api.putAll(Arrays.<ResourceRecordSet<?>>asList(
+        a("www.denominator.io.", 3600, "192.0.2.1"),
+        a("www2.denominator.io.", 3600, "198.51.100.1")));
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.&type=A");
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www2.denominator.io.&type=A");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch><Changes><Change><Action>CREATE</Action><ResourceRecordSet><Name>www2.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>198.51.100.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+  }
+
+  @Test
+  public void putUpsertsWithoutReading() throws Exception {
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ResourceRecordSetApi api = server.connect(new UpsertRecordSets()).api()
+        .basicRecordSetsInZone("Z1PA6795UKMFR9");
+    api.put(a("www.denominator.io.", 3600, "192.0.2.1"));
+
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2013-04-01/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2013-04-01/\"><ChangeBatch><Changes><Change><Action>UPSERT</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+  }
+
+  @Test
+  public void putAllUpsertsInOneChangeBatch() throws Exception {
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ResourceRecordSetApi api = server.connect(new UpsertRecordSets()).api()
+        .basicRecordSetsInZone("Z1PA6795UKMFR9");
+    api.putAll(Arrays.<ResourceRecordSet<?>>asList(
+        a("www.denominator.io.", 3600, "192.0.2.1"),
+        a("www2.denominator.io.", 3600, "198.51.100.1")));
+
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2013-04-01/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2013-04-01/\"><ChangeBatch><Changes><Change><Action>UPSERT</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change><Change><Action>UPSERT</Action><ResourceRecordSet><Name>www2.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>198.51.100.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+  }
+
+  @Module(injects = DNSApiManager.class, complete = false, overrides = true, library = true)
+  static final class UpsertRecordSets {
+
+    @Provides
+    @Named("upsertRecordSets")
+    boolean provideUpsertRecordSets() {
+      return true;
+    }
+  }
+
+  @Test
+  public void putAllKeepsReplacementInSameChangeBatch() throws Exception {
+    List<ResourceRecordSet<?>> rrsets = new ArrayList<ResourceRecordSet<?>>();
+    for (int i = 0; i < 99; i++) {
+      server.enqueue(new MockResponse().setBody(noRecords));
+      rrsets.add(a("www" + i + ".denominator.io.", 3600, "192.0.2.1"));
+    }
+    server.enqueue(new MockResponse().setBody(oneRecord));
+    rrsets.add(a("www.denominator.io.", 10000000, "192.0.2.1"));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("Z1PA6795UKMFR9");
+    api.putAll(rrsets);
+
+    for (int i = 0; i < 99; i++) {
+      server.assertRequest().hasMethod("GET");
+    }
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.&type=A");
+    // 99 creates, as the delete and create of www.denominator.io. would exceed 100 changes
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch><Changes><Change><Action>DELETE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change><Change><Action>CREATE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>10000000</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+  }
+
+  @Test
+  public void putAllNoOpWhenUnchanged() throws Exception {
+    server.enqueue(new MockResponse().setBody(oneRecord));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("Z1PA6795UKMFR9");
+    api.putAll(Arrays.<ResourceRecordSet<?>>asList(a("www.denominator.io.", 3600, "192.0.2.1")));
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.&type=A");
+  }
+
+  @Test
+  public void deleteAllSendsOneChangeBatch() throws Exception {
+    server.enqueue(new MockResponse().setBody(twoRecords));
+    server.enqueue(new MockResponse().setBody(noRecords));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("Z1PA6795UKMFR9");
+    api.deleteAll(Arrays.<ResourceRecordSet<?>>asList(
+        a("www.denominator.io.", "192.0.2.1"),
+        a("www.denominator.io.", "198.51.100.1"),
+        a("www2.denominator.io.", "192.0.2.1")));
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.&type=A");
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www2.denominator.io.&type=A");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch><Changes><Change><Action>DELETE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord><ResourceRecord><Value>198.51.100.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+  }
+
   String
       noRecords =
       "<ListResourceRecordSetsResponse><ResourceRecordSets></ResourceRecordSets></ListResourceRecordSetsResponse>";
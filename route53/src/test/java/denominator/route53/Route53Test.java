@@ -9,9 +9,12 @@ import org.junit.rules.ExpectedException;
 import java.util.Arrays;
 
 import denominator.Credentials;
+import denominator.feign.RequestLimiter;
 import denominator.model.ResourceRecordSet;
 import denominator.route53.Route53.ActionOnResourceRecordSet;
+import feign.Client;
 import feign.Feign;
+import feign.Retryer;
 
 import static denominator.model.ResourceRecordSets.a;
 
@@ -99,9 +102,30 @@ public class Route53Test {
     mockApi().changeResourceRecordSets("Z1PA6795UKMFR9", Arrays.asList(createA));
   }
 
+  @Test
+  public void upsertResourceRecordSetsInvalidChangeBatch() throws Exception {
+    thrown.expect(InvalidChangeBatchException.class);
+    thrown.expectMessage(
+        "Route53#upsertResourceRecordSets(String,List) failed with errors [Invalid Resource Record: FATAL problem: ARRDATAIllegalIPv4Address encountered at 192.0.2]");
+
+    server.enqueue(new MockResponse().setResponseCode(400).setBody(
+        "<InvalidChangeBatch xmlns=\"https://route53.amazonaws.com/doc/2013-04-01/\">\n"
+        + "  <Messages>\n"
+        + "    <Message>Invalid Resource Record: FATAL problem: ARRDATAIllegalIPv4Address encountered at 192.0.2</Message>\n"
+        + "  </Messages>\n"
+        + "</InvalidChangeBatch>"));
+
+    ActionOnResourceRecordSet
+        upsertA =
+        ActionOnResourceRecordSet.upsert(a("www.denominator.io.", 3600, "192.0.2"));
+
+    mockApi().upsertResourceRecordSets("Z1PA6795UKMFR9", Arrays.asList(upsertA));
+  }
+
   Route53 mockApi() {
     Route53Provider.FeignModule module = new Route53Provider.FeignModule();
-    Feign feign = module.feign(module.logger(), module.logLevel());
+    Feign feign = module.feign(module.logger(), module.logLevel(), new Client.Default(null, null),
+                               new Retryer.Default(), new RequestLimiter());
     return feign.newInstance(new Route53Target(new Route53Provider() {
       @Override
       public String url() {
@@ -7,6 +7,11 @@ import org.junit.Test;
 
 import java.util.Iterator;
 
+import javax.inject.Named;
+
+import dagger.Module;
+import dagger.Provides;
+import denominator.DNSApiManager;
 import denominator.ZoneApi;
 import denominator.model.Zone;
 
@@ -59,6 +64,148 @@ public class Route53ZoneApiMockTest {
         .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=denominator.io.&type=SOA");
   }
 
+  @Test
+  public void iteratorRequestsSOAsConcurrently() throws Exception {
+    StringBuilder hostedZones = new StringBuilder();
+    for (int i = 0; i < 5; i++) {
+      hostedZones.append("    <HostedZone>\n")
+          .append("      <Id>/hostedzone/Z").append(i).append("</Id>\n")
+          .append("      <Name>denominator.io.</Name>\n")
+          .append("      <CallerReference>denomination</CallerReference>\n")
+          .append("      <ResourceRecordSetCount>2</ResourceRecordSetCount>\n")
+          .append("    </HostedZone>\n");
+    }
+    server.enqueue(new MockResponse().setBody(
+        "<ListHostedZonesResponse>\n"
+        + "  <HostedZones>\n"
+        + hostedZones
+        + "  </HostedZones>\n"
+        + "</ListHostedZonesResponse>"));
+    for (int i = 0; i < 5; i++) {
+      server.enqueue(new MockResponse().setBody(
+          "<ListResourceRecordSetsResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+          + "  <ResourceRecordSets>\n"
+          + soaRRSet
+          + "  </ResourceRecordSets>\n"
+          + "</ListResourceRecordSetsResponse>"));
+    }
+
+    ZoneApi api = server.connect(new SOAConcurrency(3)).api().zones();
+
+    assertThat(api.iterator()).containsExactly(
+        Zone.create("Z0", "denominator.io.", 3601, "test@denominator.io"),
+        Zone.create("Z1", "denominator.io.", 3601, "test@denominator.io"),
+        Zone.create("Z2", "denominator.io.", 3601, "test@denominator.io"),
+        Zone.create("Z3", "denominator.io.", 3601, "test@denominator.io"),
+        Zone.create("Z4", "denominator.io.", 3601, "test@denominator.io")
+    );
+
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone");
+  }
+
+  @Test
+  public void iteratorWithLazySOA() throws Exception {
+    server.enqueue(oneZone);
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+        + "  <ResourceRecordSets>\n"
+        + soaRRSet
+        + "  </ResourceRecordSets>\n"
+        + "</ListResourceRecordSetsResponse>"));
+
+    ZoneApi api = server.connect(new LazySOA()).api().zones();
+    Zone zone = api.iterator().next();
+
+    assertThat(zone.id()).isEqualTo("Z1PA6795UKMFR9");
+    assertThat(zone.name()).isEqualTo("denominator.io.");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone");
+
+    assertThat(zone.ttl()).isEqualTo(3601);
+    assertThat(zone.email()).isEqualTo("test@denominator.io");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=denominator.io.&type=SOA");
+  }
+
+  @Test
+  public void lazySOAZoneComparesWithoutFetchingSOA() throws Exception {
+    server.enqueue(oneZone);
+    server.enqueue(oneZone);
+
+    ZoneApi api = server.connect(new LazySOA()).api().zones();
+    Zone zone = api.iterator().next();
+    Zone sameZone = api.iterator().next();
+
+    assertThat(zone).isEqualTo(sameZone);
+    assertThat(zone.toString()).isEqualTo("Zone [id=Z1PA6795UKMFR9, name=denominator.io.]");
+
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone");
+    assertThat(server.requestCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void lazySOAZoneFetchesSOAToCompareWithOtherZones() throws Exception {
+    server.enqueue(oneZone);
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+        + "  <ResourceRecordSets>\n"
+        + soaRRSet
+        + "  </ResourceRecordSets>\n"
+        + "</ListResourceRecordSetsResponse>"));
+
+    Zone zone = server.connect(new LazySOA()).api().zones().iterator().next();
+    Zone eager = Zone.create("Z1PA6795UKMFR9", "denominator.io.", 3601, "test@denominator.io");
+
+    assertThat(zone).isEqualTo(eager);
+    assertThat(eager).isEqualTo(zone);
+    assertThat(zone.hashCode()).isEqualTo(eager.hashCode());
+    assertThat(zone)
+        .isNotEqualTo(Zone.create("Z1PA6795UKMFR9", "denominator.io.", 3600, "test@denominator.io"));
+
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=denominator.io.&type=SOA");
+    assertThat(server.requestCount()).isEqualTo(2);
+  }
+
+  @Module(injects = DNSApiManager.class, complete = false, overrides = true, library = true)
+  static final class SOAConcurrency {
+
+    private final int soaConcurrency;
+
+    SOAConcurrency(int soaConcurrency) {
+      this.soaConcurrency = soaConcurrency;
+    }
+
+    @Provides
+    @Named("zoneSOAConcurrency")
+    int provideZoneSOAConcurrency() {
+      return soaConcurrency;
+    }
+  }
+
+  @Module(injects = DNSApiManager.class, complete = false, overrides = true, library = true)
+  static final class LazySOA {
+
+    @Provides
+    @Named("lazyZoneSOA")
+    boolean provideLazyZoneSOA() {
+      return true;
+    }
+  }
+
   @Test
   public void iteratorWhenAbsent() throws Exception {
     server.enqueue(new MockResponse().setBody(
@@ -412,6 +559,85 @@ public class Route53ZoneApiMockTest {
         .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9");
   }
 
+  @Test
+  public void deleteWhenPresent_sendsDeletesOfAllPagesInOneChangeBatch() throws Exception {
+    String www1 = aRRSet("www1.denominator.io.", "192.0.2.1");
+    String www2 = aRRSet("www2.denominator.io.", "192.0.2.2");
+    server.enqueue(oneZone);
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+        + "  <ResourceRecordSets>\n"
+        + nsRRSet
+        + soaRRSet
+        + www1
+        + "  </ResourceRecordSets>\n"
+        + "  <IsTruncated>true</IsTruncated>\n"
+        + "  <NextRecordName>www2.denominator.io.</NextRecordName>\n"
+        + "  <NextRecordType>A</NextRecordType>\n"
+        + "  <MaxItems>3</MaxItems>\n"
+        + "</ListResourceRecordSetsResponse>"
+    ));
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+        + "  <ResourceRecordSets>\n"
+        + www2
+        + "  </ResourceRecordSets>\n"
+        + "  <IsTruncated>false</IsTruncated>\n"
+        + "  <MaxItems>3</MaxItems>\n"
+        + "</ListResourceRecordSetsResponse>"
+    ));
+    server.enqueue(changingRRSets);
+    server.enqueue(deletingZone);
+
+    ZoneApi api = server.connect().api().zones();
+    api.delete("Z1PA6795UKMFR9");
+
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset");
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath(
+            "/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www2.denominator.io.&type=A");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+            + "  <ChangeBatch>\n"
+            + "    <Changes>\n"
+            + "      <Change>\n"
+            + "        <Action>DELETE</Action>\n"
+            + www1
+            + "      </Change>\n"
+            + "      <Change>\n"
+            + "        <Action>DELETE</Action>\n"
+            + www2
+            + "      </Change>\n"
+            + "    </Changes>\n"
+            + "  </ChangeBatch>\n"
+            + "</ChangeResourceRecordSetsRequest>");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9");
+  }
+
+  private static String aRRSet(String name, String address) {
+    return "    <ResourceRecordSet>\n"
+           + "      <Name>" + name + "</Name>\n"
+           + "      <Type>A</Type>\n"
+           + "      <TTL>300</TTL>\n"
+           + "      <ResourceRecords>\n"
+           + "        <ResourceRecord>\n"
+           + "          <Value>" + address + "</Value>\n"
+           + "        </ResourceRecord>\n"
+           + "      </ResourceRecords>\n"
+           + "    </ResourceRecordSet>\n";
+  }
+
   @Test
   public void deleteWhenAbsent() throws Exception {
     server.enqueue(new MockResponse().setResponseCode(404).setBody(
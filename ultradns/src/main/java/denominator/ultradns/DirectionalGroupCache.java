@@ -0,0 +1,169 @@
+package denominator.ultradns;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import denominator.model.profile.Geo;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Regions of UltraDNS directional groups, by group id, shared by all geo reads of a {@link
+ * denominator.DNSApiManager manager}. Without this, each listing of geo record sets requests the
+ * details of every group it encounters, even those already requested by a prior listing or pool.
+ *
+ * <br> <br> <b>Expiry</b><br>
+ *
+ * Groups are reloaded once older than {@code ttlMillis}. Once more than {@code maxGroups} are
+ * cached, the least recently read are evicted. Writes through the geo api invalidate the groups
+ * they affect.
+ *
+ * <br> <br> <b>Configuration</b><br>
+ *
+ * The default is {@value #DEFAULT_MAX_GROUPS} groups, cached for a minute. To change this, or to
+ * read hit stats, provide an instance in a module that overrides the default.
+ *
+ * <pre>
+ * final DirectionalGroupCache groups = new DirectionalGroupCache(5000, 300000);
+ *
+ * &#064;Module(injects = DNSApiManager.class, complete = false, overrides = true)
+ * class MoreGroups {
+ *   &#064;Provides
+ *   DirectionalGroupCache provideDirectionalGroupCache() {
+ *     return groups;
+ *   }
+ * }
+ *
+ * manager = Denominator.create(new UltraDNSProvider(), credentials, new MoreGroups());
+ * ...
+ * System.out.println(groups.hitRate());
+ * </pre>
+ *
+ * @since 4.8
+ */
+@Singleton
+public final class DirectionalGroupCache {
+
+  public static final int DEFAULT_MAX_GROUPS = 1000;
+  public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final int maxGroups;
+  private final long ttlNanos;
+  private final LinkedHashMap<String, CachedGroup> groups;
+  private long invalidations;
+  private long hitCount;
+  private long missCount;
+
+  @Inject
+  public DirectionalGroupCache() {
+    this(DEFAULT_MAX_GROUPS, DEFAULT_TTL_MILLIS);
+  }
+
+  /**
+   * @param maxGroups maximum count of groups cached.
+   * @param ttlMillis groups cached longer than this are reloaded.
+   */
+  public DirectionalGroupCache(final int maxGroups, long ttlMillis) {
+    checkArgument(maxGroups > 0, "maxGroups must be positive, but was %s", maxGroups);
+    checkArgument(ttlMillis >= 0, "ttlMillis must not be negative, but was %s", ttlMillis);
+    this.maxGroups = maxGroups;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    this.groups = new LinkedHashMap<String, CachedGroup>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedGroup> eldest) {
+        return size() > maxGroups;
+      }
+    };
+  }
+
+  /**
+   * Returns the regions of the group, requesting its details if absent or expired.
+   */
+  Geo get(UltraDNS api, String groupId) {
+    long generation;
+    synchronized (this) {
+      CachedGroup cached = groups.get(groupId);
+      if (cached != null && System.nanoTime() - cached.loadedNanos <= ttlNanos) {
+        hitCount++;
+        return cached.geo;
+      }
+      missCount++;
+      generation = invalidations;
+    }
+    long loadedNanos = System.nanoTime();
+    Geo geo = Geo.create(api.getDirectionalDNSGroupDetails(groupId).regionToTerritories);
+    synchronized (this) {
+      // a read that started before an invalidation may have missed the write
+      if (generation == invalidations) {
+        groups.put(groupId, new CachedGroup(geo, loadedNanos));
+      }
+    }
+    return geo;
+  }
+
+  /**
+   * Discards the group, so that the next read requests its details.
+   */
+  synchronized void invalidate(String groupId) {
+    invalidations++;
+    groups.remove(groupId);
+  }
+
+  /**
+   * Discards all groups.
+   */
+  public synchronized void invalidateAll() {
+    invalidations++;
+    groups.clear();
+  }
+
+  /**
+   * Count of groups currently cached.
+   */
+  public synchronized int size() {
+    return groups.size();
+  }
+
+  /**
+   * Count of reads answered without a request.
+   */
+  public synchronized long hitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Count of reads that requested group details.
+   */
+  public synchronized long missCount() {
+    return missCount;
+  }
+
+  /**
+   * Ratio of reads answered without a request, or 1.0 if there were no reads.
+   */
+  public synchronized double hitRate() {
+    long readCount = hitCount + missCount;
+    return readCount == 0 ? 1.0 : (double) hitCount / readCount;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "DirectionalGroupCache(maxGroups=" + maxGroups + ", size=" + groups.size() + ", hits="
+           + hitCount + ", misses=" + missCount + ")";
+  }
+
+  private static final class CachedGroup {
+
+    final Geo geo;
+    final long loadedNanos;
+
+    CachedGroup(Geo geo, long loadedNanos) {
+      this.geo = geo;
+      this.loadedNanos = loadedNanos;
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package denominator.ultradns;
 
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.inject.Inject;
@@ -9,7 +8,6 @@ import javax.inject.Inject;
 import denominator.common.PeekingIterator;
 import denominator.model.ResourceRecordSet;
 import denominator.model.ResourceRecordSet.Builder;
-import denominator.model.profile.Geo;
 import denominator.ultradns.UltraDNS.DirectionalRecord;
 
 import static denominator.common.Util.peekingIterator;
@@ -23,13 +21,14 @@ import static denominator.common.Util.toMap;
  */
 class GroupGeoRecordByNameTypeIterator implements Iterator<ResourceRecordSet<?>> {
 
-  private final Map<String, Geo> cache = new LinkedHashMap<String, Geo>();
   private final UltraDNS api;
+  private final DirectionalGroupCache groups;
   private final PeekingIterator<DirectionalRecord> peekingIterator;
 
-  private GroupGeoRecordByNameTypeIterator(UltraDNS api,
+  private GroupGeoRecordByNameTypeIterator(UltraDNS api, DirectionalGroupCache groups,
                                            Iterator<DirectionalRecord> sortedIterator) {
     this.api = api;
+    this.groups = groups;
     this.peekingIterator = peekingIterator(sortedIterator);
   }
 
@@ -65,14 +64,7 @@ class GroupGeoRecordByNameTypeIterator implements Iterator<ResourceRecordSet<?>>
 
     builder.add(toMap(record.type, record.rdata));
 
-    if (!cache.containsKey(record.geoGroupId)) {
-      Geo
-          profile =
-          Geo.create(api.getDirectionalDNSGroupDetails(record.geoGroupId).regionToTerritories);
-      cache.put(record.geoGroupId, profile);
-    }
-
-    builder.geo(cache.get(record.geoGroupId));
+    builder.geo(groups.get(api, record.geoGroupId));
     while (hasNext()) {
       DirectionalRecord next = peekingIterator.peek();
       if (typeTTLAndGeoGroupEquals(next, record)) {
@@ -93,10 +85,12 @@ class GroupGeoRecordByNameTypeIterator implements Iterator<ResourceRecordSet<?>>
   static final class Factory {
 
     private final UltraDNS api;
+    private final DirectionalGroupCache groups;
 
     @Inject
-    Factory(UltraDNS api) {
+    Factory(UltraDNS api, DirectionalGroupCache groups) {
       this.api = api;
+      this.groups = groups;
     }
 
     /**
@@ -106,7 +100,7 @@ class GroupGeoRecordByNameTypeIterator implements Iterator<ResourceRecordSet<?>>
      *                       DirectionalRecord#group()}
      */
     Iterator<ResourceRecordSet<?>> create(Iterator<DirectionalRecord> sortedIterator) {
-      return new GroupGeoRecordByNameTypeIterator(api, sortedIterator);
+      return new GroupGeoRecordByNameTypeIterator(api, groups, sortedIterator);
     }
   }
 }
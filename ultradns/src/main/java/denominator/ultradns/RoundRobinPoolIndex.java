@@ -0,0 +1,70 @@
+package denominator.ultradns;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import denominator.ultradns.UltraDNS.NameAndType;
+
+/**
+ * Ids of round robin pools, by zone, name and type. A zone's pools are listed on first use, then
+ * kept current by pools added or deleted through this manager. A zone is relisted after it is
+ * {@link #invalidate(String) invalidated}, such as when a pool turns out to be missing.
+ */
+@Singleton
+class RoundRobinPoolIndex {
+
+  private final UltraDNS api;
+  private final ConcurrentMap<String, Map<NameAndType, String>> zones =
+      new ConcurrentHashMap<String, Map<NameAndType, String>>();
+
+  @Inject
+  RoundRobinPoolIndex(UltraDNS api) {
+    this.api = api;
+  }
+
+  /**
+   * Returns the id of the pool, or null if it wasn't present when the zone was listed.
+   */
+  String get(String zoneName, NameAndType nameAndType) {
+    return pools(zoneName).get(nameAndType);
+  }
+
+  void put(String zoneName, NameAndType nameAndType, String poolId) {
+    Map<NameAndType, String> pools = zones.get(zoneName);
+    if (pools != null) {
+      pools.put(nameAndType, poolId);
+    }
+  }
+
+  void remove(String zoneName, NameAndType nameAndType) {
+    Map<NameAndType, String> pools = zones.get(zoneName);
+    if (pools != null) {
+      pools.remove(nameAndType);
+    }
+  }
+
+  void invalidate(String zoneName) {
+    zones.remove(zoneName);
+  }
+
+  private Map<NameAndType, String> pools(String zoneName) {
+    Map<NameAndType, String> pools = zones.get(zoneName);
+    if (pools == null) {
+      pools = new ConcurrentHashMap<NameAndType, String>(api.getLoadBalancingPoolsByZone(zoneName));
+      Map<NameAndType, String> racer = zones.putIfAbsent(zoneName, pools);
+      if (racer != null) {
+        pools = racer;
+      }
+    }
+    return pools;
+  }
+
+  @Override
+  public String toString() {
+    return "RoundRobinPoolIndex(" + zones.keySet() + ")";
+  }
+}
@@ -0,0 +1,188 @@
+package denominator.ultradns;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import denominator.ultradns.UltraDNS.Record;
+import denominator.ultradns.UltraDNSContentHandlers.RecordHandler;
+import feign.Response;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Iterates over records in a {@code getResourceRecordsOfZone} response while it is parsed on an
+ * executor. At most {@code capacity} parsed records are held, so memory use doesn't grow with the
+ * size of the zone.
+ *
+ * <br> <br> <b>Ordering</b><br>
+ *
+ * Unlike {@link UltraDNSContentHandlers.RecordListHandler}, records aren't sorted, so they are
+ * in the order the server sent them.
+ *
+ * <br> <br> <b>Parsing on the consumer</b><br>
+ *
+ * The executor may be busy with tasks that wait on this, such as other listings drained on the
+ * same threads. If the parser hasn't started once the consumer has waited {@code
+ * startWaitMillis} for a record, the consumer runs it instead, as it does when the executor
+ * rejects it or runs it on the caller. The parser can't yield to the consumer until it is done, so
+ * in these cases all records of the zone are held in memory, as they are when not streaming.
+ *
+ * <br> <br> <b>Abandoning</b><br>
+ *
+ * If the consumer stops reading, the parser gives up once it has waited {@code timeoutMillis} for
+ * room, closing the response.
+ */
+final class StreamingRecordIterator implements Iterator<Record> {
+
+  private static final Object END = new Object();
+
+  private final BlockingQueue<Object> queue;
+  /** Used instead of {@link #queue} when the parser runs on {@link #inlineThread}. */
+  private final Queue<Object> parsedInline = new ArrayDeque<Object>();
+  private final Parse parse;
+  private final long startWaitMillis;
+  private final long timeoutMillis;
+  /** Thread that runs the parser itself, so can't wait for room in {@link #queue}. */
+  private volatile Thread inlineThread;
+  private Object next;
+
+  StreamingRecordIterator(Response response, Executor executor, int capacity,
+                          long startWaitMillis, long timeoutMillis) {
+    checkArgument(capacity > 0, "capacity must be positive, but was %s", capacity);
+    this.queue = new ArrayBlockingQueue<Object>(capacity);
+    this.startWaitMillis = startWaitMillis;
+    this.timeoutMillis = timeoutMillis;
+    this.parse = new Parse(response);
+    inlineThread = Thread.currentThread(); // in case the executor runs on the caller
+    try {
+      executor.execute(parse);
+    } catch (RejectedExecutionException e) {
+      parse.run();
+    } finally {
+      inlineThread = null;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      next = take();
+    }
+    if (next instanceof RuntimeException) {
+      RuntimeException error = (RuntimeException) next;
+      next = END;
+      throw error;
+    }
+    return next != END;
+  }
+
+  @Override
+  public Record next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Record result = (Record) next;
+    next = null;
+    return result;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  private Object take() {
+    if (!parsedInline.isEmpty()) {
+      return parsedInline.remove();
+    }
+    try {
+      while (true) {
+        Object element = parse.started.get() ? queue.take()
+                                             : queue.poll(startWaitMillis, TimeUnit.MILLISECONDS);
+        if (element != null) {
+          return element;
+        }
+        inlineThread = Thread.currentThread();
+        parse.run(); // no-op if the executor started it meanwhile
+        if (!parsedInline.isEmpty()) {
+          return parsedInline.remove();
+        }
+        inlineThread = null;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new IllegalStateException("interrupted reading records", e);
+    }
+  }
+
+  private void put(Object element) throws SAXException {
+    if (Thread.currentThread() == inlineThread) {
+      parsedInline.add(element);
+      return;
+    }
+    try {
+      if (!queue.offer(element, timeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SAXException("records weren't read within " + timeoutMillis + "ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SAXException(e);
+    }
+  }
+
+  private final class Parse extends RecordHandler implements Runnable {
+
+    private final Response response;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    Parse(Response response) {
+      this.response = response;
+    }
+
+    @Override
+    void add(Record record) throws SAXException {
+      put(record);
+    }
+
+    @Override
+    public void run() {
+      if (!started.compareAndSet(false, true)) {
+        return;
+      }
+      Object last = END;
+      try {
+        InputSource source = new InputSource(response.body().asInputStream());
+        SAXParserFactory.newInstance().newSAXParser().parse(source, this);
+      } catch (RuntimeException e) {
+        last = e;
+      } catch (Exception e) {
+        last = new IllegalStateException("error parsing records", e);
+      } finally {
+        try {
+          response.body().close();
+        } catch (IOException ignored) {
+          // already read or abandoned
+        }
+      }
+      try {
+        put(last);
+      } catch (SAXException ignored) {
+        // consumer stopped reading
+      }
+    }
+  }
+}
@@ -10,6 +10,7 @@ import feign.Body;
 import feign.Headers;
 import feign.Param;
 import feign.RequestLine;
+import feign.Response;
 
 @Headers("Content-Type: application/xml")
 interface UltraDNS {
@@ -41,6 +42,15 @@ interface UltraDNS {
   @Body("<v01:getResourceRecordsOfZone><zoneName>{zoneName}</zoneName><rrType>0</rrType></v01:getResourceRecordsOfZone>")
   List<Record> getResourceRecordsOfZone(@Param("zoneName") String zoneName);
 
+  /**
+   * Same request as {@link #getResourceRecordsOfZone(String)}, except the body is left unread, so
+   * that records can be parsed as they arrive. Errors aren't decoded: callers must check the status
+   * and close the body.
+   */
+  @RequestLine("POST")
+  @Body("<v01:getResourceRecordsOfZone><zoneName>{zoneName}</zoneName><rrType>0</rrType></v01:getResourceRecordsOfZone>")
+  Response streamResourceRecordsOfZone(@Param("zoneName") String zoneName);
+
   @RequestLine("POST")
   @Body("<v01:getResourceRecordsOfDNameByType><zoneName>{zoneName}</zoneName><hostName>{hostName}</hostName><rrType>{rrType}</rrType></v01:getResourceRecordsOfDNameByType>")
   List<Record> getResourceRecordsOfDNameByType(@Param("zoneName") String zoneName,
@@ -1,6 +1,7 @@
 package denominator.ultradns;
 
 import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
 import java.text.ParseException;
@@ -160,11 +161,10 @@ class UltraDNSContentHandlers {
     }
   }
 
-  static class RecordListHandler extends DefaultHandler
+  static class RecordListHandler extends RecordHandler
       implements ContentHandlerWithResult<List<Record>> {
 
     private final List<Record> rrs = new ArrayList<Record>();
-    private Record rr = new Record();
 
     @Override
     public List<Record> result() {
@@ -172,6 +172,22 @@ class UltraDNSContentHandlers {
       return rrs;
     }
 
+    @Override
+    void add(Record record) {
+      rrs.add(record);
+    }
+  }
+
+  /**
+   * Passes each record to {@link #add(Record)} as soon as its element ends, so that callers can
+   * process records before the document is fully read.
+   */
+  abstract static class RecordHandler extends DefaultHandler {
+
+    private Record rr = new Record();
+
+    abstract void add(Record record) throws SAXException;
+
     @Override
     public void startElement(String uri, String localName, String qName, Attributes attrs) {
       if (qName.endsWith("ResourceRecord")) {
@@ -188,9 +204,9 @@ class UltraDNSContentHandlers {
     }
 
     @Override
-    public void endElement(String uri, String name, String qName) {
+    public void endElement(String uri, String name, String qName) throws SAXException {
       if (qName.endsWith("ResourceRecord")) {
-        rrs.add(rr);
+        add(rr);
         rr = new Record();
       }
     }
@@ -6,13 +6,17 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import dagger.Lazy;
 import denominator.Provider;
+import denominator.SharedExecutor;
 import denominator.common.Filter;
+import denominator.common.ReadAheadIterator;
 import denominator.model.ResourceRecordSet;
 import denominator.profile.GeoResourceRecordSetApi;
 import denominator.ultradns.UltraDNS.DirectionalGroup;
@@ -41,6 +45,9 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
   private final Lazy<Map<String, Collection<String>>> regions;
   private final UltraDNS api;
   private final GroupGeoRecordByNameTypeIterator.Factory iteratorFactory;
+  private final DirectionalGroupCache groups;
+  private final Executor executor;
+  private final int poolConcurrency;
   private final String zoneName;
   private final Filter<DirectionalRecord> isCNAME = new Filter<DirectionalRecord>() {
     @Override
@@ -53,11 +60,17 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
                                   Lazy<Map<String, Collection<String>>> regions,
                                   UltraDNS api,
                                   GroupGeoRecordByNameTypeIterator.Factory iteratorFactory,
-                                  String zoneName) {
+                                  DirectionalGroupCache groups, Executor executor,
+                                  int poolConcurrency, String zoneName) {
     this.supportedTypes = supportedTypes;
     this.regions = regions;
     this.api = api;
     this.iteratorFactory = iteratorFactory;
+    this.groups = groups;
+    this.executor = executor;
+    checkArgument(poolConcurrency > 0, "poolConcurrency must be positive, but was %s",
+                  poolConcurrency);
+    this.poolConcurrency = poolConcurrency;
     this.zoneName = zoneName;
   }
 
@@ -68,8 +81,12 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
 
   @Override
   public Iterator<ResourceRecordSet<?>> iterator() {
+    Collection<String> poolNames = api.getDirectionalPoolsOfZone(zoneName).keySet();
+    if (poolConcurrency > 1) {
+      return concat(new ReadPoolsAhead(poolNames.iterator()));
+    }
     List<Iterable<ResourceRecordSet<?>>> eachPool = new ArrayList<Iterable<ResourceRecordSet<?>>>();
-    for (final String poolName : api.getDirectionalPoolsOfZone(zoneName).keySet()) {
+    for (final String poolName : poolNames) {
       eachPool.add(new Iterable<ResourceRecordSet<?>>() {
         public Iterator<ResourceRecordSet<?>> iterator() {
           return iteratorForDNameAndDirectionalType(poolName, 0);
@@ -79,6 +96,52 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
     return concat(eachPool);
   }
 
+  /**
+   * Reads the record sets of up to {@link #poolConcurrency} pools at the same time, returning them
+   * in pool order.
+   */
+  private final class ReadPoolsAhead implements Iterable<List<ResourceRecordSet<?>>> {
+
+    private final Iterator<String> poolNames;
+
+    ReadPoolsAhead(Iterator<String> poolNames) {
+      this.poolNames = poolNames;
+    }
+
+    @Override
+    public Iterator<List<ResourceRecordSet<?>>> iterator() {
+      Iterator<Callable<List<ResourceRecordSet<?>>>> tasks =
+          new Iterator<Callable<List<ResourceRecordSet<?>>>>() {
+            @Override
+            public boolean hasNext() {
+              return poolNames.hasNext();
+            }
+
+            @Override
+            public Callable<List<ResourceRecordSet<?>>> next() {
+              final String poolName = poolNames.next();
+              return new Callable<List<ResourceRecordSet<?>>>() {
+                @Override
+                public List<ResourceRecordSet<?>> call() {
+                  List<ResourceRecordSet<?>> rrsets = new ArrayList<ResourceRecordSet<?>>();
+                  for (Iterator<ResourceRecordSet<?>> i =
+                           iteratorForDNameAndDirectionalType(poolName, 0); i.hasNext(); ) {
+                    rrsets.add(i.next());
+                  }
+                  return rrsets;
+                }
+              };
+            }
+
+            @Override
+            public void remove() {
+              throw new UnsupportedOperationException();
+            }
+          };
+      return new ReadAheadIterator<List<ResourceRecordSet<?>>>(tasks, executor, poolConcurrency);
+    }
+  }
+
   @Override
   public Iterator<ResourceRecordSet<?>> iterateByName(String name) {
     return iteratorForDNameAndDirectionalType(checkNotNull(name, "description"), 0);
@@ -192,6 +255,8 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
             if (e.code() != UltraDNSException.RESOURCE_RECORD_ALREADY_EXISTS) {
               throw e;
             }
+          } finally {
+            groups.invalidate(record.geoGroupId);
           }
         }
       } else {
@@ -202,6 +267,8 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
           if (e.code() != UltraDNSException.RESOURCE_RECORD_NOT_FOUND) {
             throw e;
           }
+        } finally {
+          groups.invalidate(record.geoGroupId);
         }
       }
     }
@@ -257,13 +324,16 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
   public void deleteByNameTypeAndQualifier(String name, String type, String qualifier) {
     Iterator<DirectionalRecord> record = recordsByNameTypeAndQualifier(name, type, qualifier);
     while (record.hasNext()) {
+      DirectionalRecord next = record.next();
       try {
-        api.deleteDirectionalPoolRecord(record.next().id);
+        api.deleteDirectionalPoolRecord(next.id);
       } catch (UltraDNSException e) {
         // lost race
         if (e.code() != UltraDNSException.DIRECTIONALPOOL_RECORD_NOT_FOUND) {
           throw e;
         }
+      } finally {
+        groups.invalidate(next.geoGroupId);
       }
     }
   }
@@ -289,15 +359,23 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
     private final Lazy<Map<String, Collection<String>>> regions;
     private final UltraDNS api;
     private final GroupGeoRecordByNameTypeIterator.Factory iteratorFactory;
+    private final DirectionalGroupCache groups;
+    private final Executor executor;
+    private final int poolConcurrency;
 
     @Inject
     Factory(Provider provider, @Named("geo") Lazy<Map<String, Collection<String>>> regions,
             UltraDNS api,
-            GroupGeoRecordByNameTypeIterator.Factory iteratorFactory) {
+            GroupGeoRecordByNameTypeIterator.Factory iteratorFactory,
+            DirectionalGroupCache groups, SharedExecutor executor,
+            @Named("geoPoolConcurrency") int poolConcurrency) {
       this.supportedTypes = provider.profileToRecordTypes().get("geo");
       this.regions = regions;
       this.api = api;
       this.iteratorFactory = iteratorFactory;
+      this.groups = groups;
+      this.executor = executor;
+      this.poolConcurrency = poolConcurrency;
     }
 
     @Override
@@ -313,7 +391,7 @@ final class UltraDNSGeoResourceRecordSetApi implements GeoResourceRecordSetApi {
         throw e;
       }
       return new UltraDNSGeoResourceRecordSetApi(supportedTypes, regions, api, iteratorFactory,
-                                                 name);
+                                                 groups, executor, poolConcurrency, name);
     }
   }
 }
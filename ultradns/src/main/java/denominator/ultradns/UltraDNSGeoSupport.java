@@ -16,4 +16,15 @@ public class UltraDNSGeoSupport {
   Map<String, Collection<String>> regions(UltraDNS api) {
     return api.getAvailableRegions();
   }
+
+  /**
+   * Count of directional pools whose records are requested at the same time on the {@link
+   * denominator.SharedExecutor}, when listing geo record sets in a zone. Record sets are returned
+   * in pool order regardless. The default of 1 requests one pool at a time on the calling thread.
+   */
+  @Provides
+  @Named("geoPoolConcurrency")
+  int provideGeoPoolConcurrency() {
+    return 1;
+  }
 }
@@ -20,6 +20,8 @@ import denominator.ZoneApi;
 import denominator.config.ConcatBasicAndQualifiedResourceRecordSets;
 import denominator.config.NothingToClose;
 import denominator.config.WeightedUnsupported;
+import denominator.feign.ClientModule;
+import denominator.feign.RequestLimiter;
 import denominator.profile.GeoResourceRecordSetApi;
 import denominator.ultradns.UltraDNS.DirectionalGroup;
 import denominator.ultradns.UltraDNS.DirectionalRecord;
@@ -33,13 +35,16 @@ import denominator.ultradns.UltraDNSContentHandlers.RecordListHandler;
 import denominator.ultradns.UltraDNSContentHandlers.RegionTableHandler;
 import denominator.ultradns.UltraDNSContentHandlers.ZoneNamesHandler;
 import denominator.ultradns.UltraDNSErrorDecoder.UltraDNSError;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
 import feign.Request.Options;
+import feign.Retryer;
 import feign.codec.Decoder;
 import feign.sax.SAXDecoder;
 
 import static dagger.Provides.Type.SET;
+import static denominator.feign.RetryPolicy.honorRetryAfter;
 
 public class UltraDNSProvider extends BasicProvider {
 
@@ -143,9 +148,23 @@ public class UltraDNSProvider extends BasicProvider {
     QualifiedResourceRecordSetApi.Factory factoryToProfiles(GeoResourceRecordSetApi.Factory in) {
       return in;
     }
+
+    /**
+     * When true, records listed by {@link denominator.ResourceRecordSetApi#iterator()} are parsed
+     * on the {@link denominator.SharedExecutor} while the response is read, instead of after it is
+     * buffered, so memory use doesn't grow with the size of the zone. Unlike the default, records
+     * aren't sorted, so record sets are only grouped correctly when the server returns records of
+     * the same name and type together.
+     */
+    @Provides
+    @Named("streamRecordsOfZone")
+    boolean provideStreamRecordsOfZone() {
+      return false;
+    }
   }
 
   @dagger.Module(injects = UltraDNSResourceRecordSetApi.Factory.class,
+      includes = ClientModule.class,
       complete = false // doesn't bind Provider used by UltraDNSTarget
   )
   public static final class FeignModule {
@@ -168,7 +187,8 @@ public class UltraDNSProvider extends BasicProvider {
 
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel) {
+    Feign feign(Logger logger, Logger.Level logLevel, Client client, Retryer retryer,
+                RequestLimiter limiter) {
 
       /**
        * {@link UltraDNS#updateDirectionalPoolRecord(DirectionalRecord, DirectionalGroup)} and {@link
@@ -178,12 +198,14 @@ public class UltraDNSProvider extends BasicProvider {
       Options options = new Options(10 * 1000, 10 * 60 * 1000);
       Decoder decoder = decoder();
       return Feign.builder()
+          .client(client)
+          .retryer(retryer)
           .logger(logger)
           .logLevel(logLevel)
           .options(options)
           .encoder(new UltraDNSFormEncoder())
           .decoder(decoder)
-          .errorDecoder(new UltraDNSErrorDecoder(decoder))
+          .errorDecoder(honorRetryAfter(limiter.errorDecoder(new UltraDNSErrorDecoder(decoder))))
           .build();
     }
 
@@ -4,40 +4,70 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import denominator.ResourceRecordSetApi;
+import denominator.SharedExecutor;
 import denominator.model.ResourceRecordSet;
 import denominator.ultradns.UltraDNS.Record;
+import feign.Response;
 
 import static denominator.ResourceTypeToValue.lookup;
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
 import static denominator.common.Util.nextOrNull;
 import static denominator.common.Util.toMap;
+import static feign.Util.ensureClosed;
 
 final class UltraDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
 
   private static final int DEFAULT_TTL = 300;
+  private static final int STREAM_CAPACITY = 1000;
+  private static final long STREAM_START_WAIT_MILLIS = 100;
+  private static final long STREAM_TIMEOUT_MILLIS = 60 * 1000;
   private final UltraDNS api;
   private final String zoneName;
   private final UltraDNSRoundRobinPoolApi roundRobinPoolApi;
+  private final Executor executor;
+  private final boolean streamRecordsOfZone;
 
   UltraDNSResourceRecordSetApi(UltraDNS api, String zoneName,
-                               UltraDNSRoundRobinPoolApi roundRobinPoolApi) {
+                               UltraDNSRoundRobinPoolApi roundRobinPoolApi, Executor executor,
+                               boolean streamRecordsOfZone) {
     this.api = api;
     this.zoneName = zoneName;
     this.roundRobinPoolApi = roundRobinPoolApi;
+    this.executor = executor;
+    this.streamRecordsOfZone = streamRecordsOfZone;
   }
 
   @Override
   public Iterator<ResourceRecordSet<?>> iterator() {
     // this will list all basic or RR pool records.
+    if (streamRecordsOfZone) {
+      return new GroupByRecordNameAndTypeIterator(streamRecordsOfZone());
+    }
     Iterator<Record> orderedRecords = api.getResourceRecordsOfZone(zoneName).iterator();
     return new GroupByRecordNameAndTypeIterator(orderedRecords);
   }
 
+  /**
+   * Records are parsed while the response is read. On error, falls back to the buffered request,
+   * which decodes the fault and retries per the {@link feign.Retryer}.
+   */
+  private Iterator<Record> streamRecordsOfZone() {
+    Response response = api.streamResourceRecordsOfZone(zoneName);
+    if (response.status() < 200 || response.status() >= 300 || response.body() == null) {
+      ensureClosed(response.body());
+      return api.getResourceRecordsOfZone(zoneName).iterator();
+    }
+    return new StreamingRecordIterator(response, executor, STREAM_CAPACITY,
+                                       STREAM_START_WAIT_MILLIS, STREAM_TIMEOUT_MILLIS);
+  }
+
   @Override
   public Iterator<ResourceRecordSet<?>> iterateByName(String name) {
     checkNotNull(name, "name");
@@ -94,7 +124,16 @@ final class UltraDNSResourceRecordSetApi implements denominator.ResourceRecordSe
     if (roundRobinPoolApi.isPoolType(type)) {
       String lbPoolId = roundRobinPoolApi.getPoolByNameAndType(name, type);
       for (Record record : toUpdate) {
-        api.updateRecordOfRRPool(record.id, lbPoolId, record.rdata.get(0), ttlToApply);
+        try {
+          api.updateRecordOfRRPool(record.id, lbPoolId, record.rdata.get(0), ttlToApply);
+        } catch (UltraDNSException e) {
+          if (e.code() != UltraDNSException.POOL_NOT_FOUND) {
+            throw e;
+          }
+          // pool was replaced since it was indexed, or fails if it was deleted
+          lbPoolId = roundRobinPoolApi.relistPoolByNameAndType(name, type);
+          api.updateRecordOfRRPool(record.id, lbPoolId, record.rdata.get(0), ttlToApply);
+        }
       }
     } else {
       for (Record record : toUpdate) {
@@ -143,18 +182,41 @@ final class UltraDNSResourceRecordSetApi implements denominator.ResourceRecordSe
     }
   }
 
+  @Override
+  public void putAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      put(rrset);
+    }
+  }
+
+  @Override
+  public void deleteAll(Iterable<ResourceRecordSet<?>> rrsets) {
+    for (ResourceRecordSet<?> rrset : rrsets) {
+      deleteByNameAndType(rrset.name(), rrset.type());
+    }
+  }
+
   static final class Factory implements denominator.ResourceRecordSetApi.Factory {
 
     private final UltraDNS api;
+    private final RoundRobinPoolIndex pools;
+    private final Executor executor;
+    private final boolean streamRecordsOfZone;
 
     @Inject
-    Factory(UltraDNS api) {
+    Factory(UltraDNS api, RoundRobinPoolIndex pools, SharedExecutor executor,
+            @Named("streamRecordsOfZone") boolean streamRecordsOfZone) {
       this.api = api;
+      this.pools = pools;
+      this.executor = executor;
+      this.streamRecordsOfZone = streamRecordsOfZone;
     }
 
     @Override
     public ResourceRecordSetApi create(String name) {
-      return new UltraDNSResourceRecordSetApi(api, name, new UltraDNSRoundRobinPoolApi(api, name));
+      return new UltraDNSResourceRecordSetApi(api, name,
+                                              new UltraDNSRoundRobinPoolApi(api, pools, name),
+                                              executor, streamRecordsOfZone);
     }
   }
 }
@@ -12,10 +12,12 @@ import static denominator.common.Preconditions.checkState;
 class UltraDNSRoundRobinPoolApi {
 
   private final UltraDNS api;
+  private final RoundRobinPoolIndex pools;
   private final String zoneName;
 
-  UltraDNSRoundRobinPoolApi(UltraDNS api, String zoneName) {
+  UltraDNSRoundRobinPoolApi(UltraDNS api, RoundRobinPoolIndex pools, String zoneName) {
     this.api = api;
+    this.pools = pools;
     this.zoneName = zoneName;
   }
 
@@ -35,7 +37,9 @@ class UltraDNSRoundRobinPoolApi {
 
   private String reuseOrCreatePoolForNameAndType(String name, String type) {
     try {
-      return api.addRRLBPool(zoneName, name, lookup(type));
+      String poolId = api.addRRLBPool(zoneName, name, lookup(type));
+      pools.put(zoneName, nameAndType(name, type), poolId);
+      return poolId;
     } catch (UltraDNSException e) {
       if (e.code() != UltraDNSException.POOL_ALREADY_EXISTS) {
         throw e;
@@ -44,32 +48,69 @@ class UltraDNSRoundRobinPoolApi {
     }
   }
 
+  /**
+   * Returns the id of a pool known to exist, relisting the zone's pools if the index predates it.
+   *
+   * @throws IllegalStateException if the pool isn't found, even after relisting.
+   */
   String getPoolByNameAndType(String name, String type) {
-    NameAndType nameAndType = new NameAndType();
-    nameAndType.name = name;
-    nameAndType.type = type;
-    return api.getLoadBalancingPoolsByZone(zoneName).get(nameAndType);
+    String poolId = findPool(nameAndType(name, type));
+    checkState(poolId != null, "%s pool for %s not found in zone %s", type, name, zoneName);
+    return poolId;
+  }
+
+  /**
+   * Returns the id of the pool, or null if it is missing, even after relisting the zone's pools.
+   */
+  private String findPool(NameAndType nameAndType) {
+    String poolId = pools.get(zoneName, nameAndType);
+    if (poolId == null) {
+      pools.invalidate(zoneName);
+      poolId = pools.get(zoneName, nameAndType);
+    }
+    return poolId;
+  }
+
+  /**
+   * Call when a pool id from {@link #getPoolByNameAndType(String, String)} was rejected as not
+   * found. Relists the zone's pools, and returns the current id of the pool.
+   *
+   * @throws IllegalStateException if the pool was deleted.
+   */
+  String relistPoolByNameAndType(String name, String type) {
+    pools.invalidate(zoneName);
+    String poolId = pools.get(zoneName, nameAndType(name, type));
+    checkState(poolId != null, "%s pool for %s not found in zone %s", type, name, zoneName);
+    return poolId;
   }
 
   void deletePool(String name, String type) {
-    NameAndType nameAndType = new NameAndType();
-    nameAndType.name = checkNotNull(name, "pool name was null");
-    nameAndType.type = checkNotNull(type, "pool record type was null");
-    String poolId = api.getLoadBalancingPoolsByZone(zoneName).get(nameAndType);
+    NameAndType nameAndType = nameAndType(checkNotNull(name, "pool name was null"),
+                                          checkNotNull(type, "pool record type was null"));
+    String poolId = findPool(nameAndType);
     if (poolId != null) {
-      if (api.getRRPoolRecords(poolId).isEmpty()) {
-        try {
+      try {
+        if (api.getRRPoolRecords(poolId).isEmpty()) {
           api.deleteLBPool(poolId);
-        } catch (UltraDNSException e) {
-          switch (e.code()) {
-            // lost race
-            case UltraDNSException.POOL_NOT_FOUND:
-            case UltraDNSException.RESOURCE_RECORD_NOT_FOUND:
-              return;
-          }
-          throw e;
+          pools.remove(zoneName, nameAndType);
+        }
+      } catch (UltraDNSException e) {
+        switch (e.code()) {
+          // lost race
+          case UltraDNSException.POOL_NOT_FOUND:
+          case UltraDNSException.RESOURCE_RECORD_NOT_FOUND:
+            pools.invalidate(zoneName);
+            return;
         }
+        throw e;
       }
     }
   }
+
+  private static NameAndType nameAndType(String name, String type) {
+    NameAndType nameAndType = new NameAndType();
+    nameAndType.name = name;
+    nameAndType.type = type;
+    return nameAndType;
+  }
 }
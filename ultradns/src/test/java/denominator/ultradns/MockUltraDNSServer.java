@@ -1,5 +1,6 @@
 package denominator.ultradns;
 
+import com.squareup.okhttp.mockwebserver.Dispatcher;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
 
@@ -79,6 +80,13 @@ final class MockUltraDNSServer extends UltraDNSProvider implements TestRule {
     delegate.enqueue(mockResponse);
   }
 
+  /**
+   * Replaces the queue of responses, such as when requests are made concurrently.
+   */
+  void setDispatcher(Dispatcher dispatcher) {
+    delegate.setDispatcher(dispatcher);
+  }
+
   RecordedRequestAssert assertSoapBody(String soapBody) throws InterruptedException {
     return assertThat(delegate.takeRequest())
         .hasMethod("POST")
@@ -0,0 +1,75 @@
+package denominator.ultradns;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import denominator.ultradns.UltraDNS.Record;
+import feign.Response;
+
+import static denominator.ultradns.UltraDNSResourceRecordSetApiMockTest.records1And2;
+import static feign.Util.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamingRecordIteratorTest {
+
+  @Test
+  public void parsesOnExecutor() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertThat(addresses(new StreamingRecordIterator(response(), executor, 1, 1000, 1000)))
+          .containsExactly("192.0.2.1", "198.51.100.1");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void parsesOnConsumerWhenExecutorRunsOnCaller() throws Exception {
+    Executor callerRuns = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        command.run();
+      }
+    };
+
+    assertThat(addresses(new StreamingRecordIterator(response(), callerRuns, 1, 1000, 1000)))
+        .containsExactly("192.0.2.1", "198.51.100.1");
+  }
+
+  /**
+   * Ex. all threads of the executor are waiting on other listings.
+   */
+  @Test
+  public void parsesOnConsumerWhenExecutorDoesntStartParser() throws Exception {
+    Executor busy = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        // queued behind tasks that never finish
+      }
+    };
+
+    assertThat(addresses(new StreamingRecordIterator(response(), busy, 1, 10, 1000)))
+        .containsExactly("192.0.2.1", "198.51.100.1");
+  }
+
+  static Response response() {
+    return Response.create(200, "OK", Collections.<String, Collection<String>>emptyMap(),
+                           records1And2, UTF_8);
+  }
+
+  static List<String> addresses(StreamingRecordIterator records) {
+    List<String> result = new ArrayList<String>();
+    while (records.hasNext()) {
+      Record record = records.next();
+      result.add(record.rdata.get(0));
+    }
+    return result;
+  }
+}
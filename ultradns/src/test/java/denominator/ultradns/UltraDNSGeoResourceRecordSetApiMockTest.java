@@ -1,20 +1,31 @@
 package denominator.ultradns;
 
+import com.squareup.okhttp.mockwebserver.Dispatcher;
 import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
 
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import javax.inject.Named;
+
+import dagger.Module;
+import dagger.Provides;
+import denominator.Denominator;
 import denominator.model.ResourceRecordSet;
 import denominator.model.profile.Geo;
 import denominator.model.rdata.CNAMEData;
 import denominator.profile.GeoResourceRecordSetApi;
 
+import static denominator.CredentialsConfiguration.credentials;
 import static denominator.assertj.ModelAssertions.assertThat;
 import static denominator.ultradns.UltraDNSException.DIRECTIONAL_NOT_ENABLED;
 import static denominator.ultradns.UltraDNSTest.getAvailableRegions;
@@ -80,6 +91,56 @@ public class UltraDNSGeoResourceRecordSetApiMockTest {
         getDirectionalDNSGroupDetails.replace("AAAAAAAAAAAAAAAA", "C000000000000002"));
   }
 
+  @Test
+  public void listWhenPresentReadingPoolsAhead() throws Exception {
+    final String twoGeoPools = getDirectionalPoolsOfZoneResponsePresent
+        .replace("DirPoolType=\"SOURCEIP\"", "DirPoolType=\"GEOLOCATION\"");
+    final String www2Records = getDirectionalDNSRecordsForHostResponsePresent
+        .replace("DName=\"www.denominator.io.\"", "DName=\"www2.denominator.io.\"");
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String body = request.getUtf8Body();
+        if (body.contains("getAvailableRegions")) {
+          return new MockResponse().setBody(getAvailableRegionsResponse);
+        } else if (body.contains("getDirectionalPoolsOfZone")) {
+          return new MockResponse().setBody(twoGeoPools);
+        } else if (body.contains("<hostName>www.denominator.io.</hostName>")) {
+          // complete the first pool last
+          return new MockResponse().setBody(getDirectionalDNSRecordsForHostResponsePresent)
+              .setBodyDelay(500, TimeUnit.MILLISECONDS);
+        } else if (body.contains("<hostName>www2.denominator.io.</hostName>")) {
+          return new MockResponse().setBody(www2Records);
+        } else if (body.contains("C000000000000001")) {
+          return new MockResponse().setBody(getDirectionalDNSGroupDetailsResponseEurope);
+        } else if (body.contains("C000000000000002")) {
+          return new MockResponse().setBody(getDirectionalDNSGroupDetailsResponseUS);
+        } else if (body.contains("C000000000000003")) {
+          return new MockResponse().setBody(getDirectionalDNSGroupDetailsResponseEverywhereElse);
+        }
+        return new MockResponse().setResponseCode(404);
+      }
+    });
+
+    GeoResourceRecordSetApi api = Denominator.create(server, credentials(server.credentials()),
+                                                     new ReadPoolsAhead())
+        .api().geoRecordSetsInZone("denominator.io.");
+
+    List<String> namesAndQualifiers = new ArrayList<String>();
+    for (Iterator<ResourceRecordSet<?>> i = api.iterator(); i.hasNext(); ) {
+      ResourceRecordSet<?> rrset = i.next();
+      namesAndQualifiers.add(rrset.name() + " " + rrset.qualifier());
+    }
+
+    assertThat(namesAndQualifiers).containsExactly(
+        "www.denominator.io. Europe",
+        "www.denominator.io. Everywhere Else",
+        "www.denominator.io. US",
+        "www2.denominator.io. Europe",
+        "www2.denominator.io. Everywhere Else",
+        "www2.denominator.io. US");
+  }
+
   @Test
   public void iterateByNameWhenPresent() throws Exception {
     server.enqueue(new MockResponse().setBody(getAvailableRegionsResponse));
@@ -106,6 +167,42 @@ public class UltraDNSGeoResourceRecordSetApiMockTest {
         getDirectionalDNSGroupDetails.replace("AAAAAAAAAAAAAAAA", "C000000000000002"));
   }
 
+  @Test
+  public void iterateByNameReusesGroupDetails() throws Exception {
+    server.enqueue(new MockResponse().setBody(getAvailableRegionsResponse));
+    server.enqueue(new MockResponse().setBody(getDirectionalDNSRecordsForHostResponsePresent));
+    server.enqueue(new MockResponse().setBody(getDirectionalDNSGroupDetailsResponseEurope));
+    server.enqueue(new MockResponse().setBody(getDirectionalDNSGroupDetailsResponseEverywhereElse));
+    server.enqueue(new MockResponse().setBody(getDirectionalDNSGroupDetailsResponseUS));
+    server.enqueue(new MockResponse().setBody(getDirectionalDNSRecordsForHostResponsePresent));
+
+    DirectionalGroupCache groups = new DirectionalGroupCache();
+    GeoResourceRecordSetApi api = Denominator.create(server, credentials(server.credentials()),
+                                                     new ShareGroups(groups))
+        .api().geoRecordSetsInZone("denominator.io.");
+
+    for (int i = 0; i < 2; i++) {
+      Iterator<ResourceRecordSet<?>> iterator = api.iterateByName("www.denominator.io.");
+      assertEurope(iterator.next());
+      assertEverywhereElse(iterator.next());
+      assertUS(iterator.next());
+      assertThat(iterator).isEmpty();
+    }
+
+    assertThat(groups.missCount()).isEqualTo(3);
+    assertThat(groups.hitCount()).isEqualTo(3);
+
+    server.assertSoapBody(getAvailableRegions);
+    server.assertSoapBody(getDirectionalDNSRecordsForHost);
+    server.assertSoapBody(
+        getDirectionalDNSGroupDetails.replace("AAAAAAAAAAAAAAAA", "C000000000000001"));
+    server.assertSoapBody(
+        getDirectionalDNSGroupDetails.replace("AAAAAAAAAAAAAAAA", "C000000000000003"));
+    server.assertSoapBody(
+        getDirectionalDNSGroupDetails.replace("AAAAAAAAAAAAAAAA", "C000000000000002"));
+    server.assertSoapBody(getDirectionalDNSRecordsForHost);
+  }
+
   @Test
   public void iterateByNameAndTypeWhenPresent() throws Exception {
     server.enqueue(new MockResponse().setBody(getAvailableRegionsResponse));
@@ -379,4 +476,29 @@ public class UltraDNSGeoResourceRecordSetApiMockTest {
       + "         </ns1:getDirectionalDNSGroupDetailsResponse>\n"
       + " </soap:Body>\n"
       + "</soap:Envelope>";
+
+  @Module(complete = false, library = true, overrides = true)
+  static class ShareGroups {
+
+    final DirectionalGroupCache groups;
+
+    ShareGroups(DirectionalGroupCache groups) {
+      this.groups = groups;
+    }
+
+    @Provides
+    DirectionalGroupCache provideDirectionalGroupCache() {
+      return groups;
+    }
+  }
+
+  @Module(complete = false, library = true, overrides = true)
+  static class ReadPoolsAhead {
+
+    @Provides
+    @Named("geoPoolConcurrency")
+    int provideGeoPoolConcurrency() {
+      return 4;
+    }
+  }
 }
@@ -4,20 +4,32 @@ import com.squareup.okhttp.mockwebserver.MockResponse;
 
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 import java.util.Arrays;
+import java.util.Iterator;
 
+import javax.inject.Named;
+
+import dagger.Module;
+import dagger.Provides;
+import denominator.DNSApi;
+import denominator.Denominator;
 import denominator.ResourceRecordSetApi;
+import denominator.model.ResourceRecordSet;
 
+import static denominator.CredentialsConfiguration.credentials;
 import static denominator.assertj.ModelAssertions.assertThat;
 import static denominator.model.ResourceRecordSets.a;
 import static denominator.model.ResourceRecordSets.aaaa;
 import static denominator.ultradns.UltraDNSException.POOL_ALREADY_EXISTS;
+import static denominator.ultradns.UltraDNSException.POOL_NOT_FOUND;
 import static denominator.ultradns.UltraDNSTest.deleteLBPool;
 import static denominator.ultradns.UltraDNSTest.deleteLBPoolResponse;
 import static denominator.ultradns.UltraDNSTest.deleteResourceRecord;
 import static denominator.ultradns.UltraDNSTest.deleteResourceRecordResponse;
 import static denominator.ultradns.UltraDNSTest.getLoadBalancingPoolsByZone;
+import static denominator.ultradns.UltraDNSTest.getLoadBalancingPoolsByZoneResponseAbsent;
 import static denominator.ultradns.UltraDNSTest.getLoadBalancingPoolsByZoneResponseFooter;
 import static denominator.ultradns.UltraDNSTest.getLoadBalancingPoolsByZoneResponseHeader;
 import static denominator.ultradns.UltraDNSTest.getRRPoolRecords;
@@ -35,6 +47,8 @@ public class UltraDNSResourceRecordSetApiMockTest {
 
   @Rule
   public final MockUltraDNSServer server = new MockUltraDNSServer();
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
 
   static String
       getResourceRecordsOfDNameByTypeAll =
@@ -87,6 +101,64 @@ public class UltraDNSResourceRecordSetApiMockTest {
     server.assertSoapBody(getResourceRecordsOfZone);
   }
 
+  @Test
+  public void listStreamingRecordsOfZone() throws Exception {
+    server.enqueue(new MockResponse().setBody(records1And2));
+
+    ResourceRecordSetApi api = streamRecordsOfZone().basicRecordSetsInZone("denominator.io.");
+
+    assertThat(api.iterator())
+        .containsExactly(
+            a("www.denominator.io.", 3600, Arrays.asList("192.0.2.1", "198.51.100.1")));
+
+    server.assertSoapBody(getResourceRecordsOfZone);
+  }
+
+  /**
+   * Feign buffers responses up to 8 KiB, so a larger body is read while records are consumed.
+   */
+  @Test
+  public void listStreamingRecordsOfLargeZone() throws Exception {
+    StringBuilder body = new StringBuilder(getResourceRecordsOfZoneResponseHeader);
+    for (int i = 0; i < 2000; i++) {
+      body.append(format(aRecordTTLGuidAddressTemplate, 3600, "GUID" + i, "192.0.2.1")
+                      .replace("www.denominator.io.", "www" + i + ".denominator.io."));
+    }
+    body.append(getResourceRecordsOfZoneResponseFooter);
+    assertThat(body.length()).isGreaterThan(8192 * 10);
+    server.enqueue(new MockResponse().setBody(body.toString()));
+
+    ResourceRecordSetApi api = streamRecordsOfZone().basicRecordSetsInZone("denominator.io.");
+
+    Iterator<ResourceRecordSet<?>> rrsets = api.iterator();
+    assertThat(rrsets.next()).isEqualTo(a("www0.denominator.io.", 3600, "192.0.2.1"));
+    int count = 1;
+    ResourceRecordSet<?> last = null;
+    while (rrsets.hasNext()) {
+      last = rrsets.next();
+      count++;
+    }
+    assertThat(count).isEqualTo(2000);
+    assertThat(last).isEqualTo(a("www1999.denominator.io.", 3600, "192.0.2.1"));
+
+    server.assertSoapBody(getResourceRecordsOfZone);
+  }
+
+  @Test
+  public void listStreamingRecordsOfZoneFallsBackOnError() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(503));
+    server.enqueue(new MockResponse().setBody(records1And2));
+
+    ResourceRecordSetApi api = streamRecordsOfZone().basicRecordSetsInZone("denominator.io.");
+
+    assertThat(api.iterator())
+        .containsExactly(
+            a("www.denominator.io.", 3600, Arrays.asList("192.0.2.1", "198.51.100.1")));
+
+    server.assertSoapBody(getResourceRecordsOfZone);
+    server.assertSoapBody(getResourceRecordsOfZone);
+  }
+
   @Test
   public void iterateByNameWhenNoneMatch() throws Exception {
     server.enqueue(new MockResponse().setBody(getResourceRecordsOfZoneResponseAbsent));
@@ -186,6 +258,40 @@ public class UltraDNSResourceRecordSetApiMockTest {
     server.assertSoapBody(deleteLBPool.replace("AAAAAAAAAAAAAAAA", "1111A"));
   }
 
+  @Test
+  public void deleteRelistsPoolsWhenIndexPredatesPool() throws Exception {
+    server.enqueue(new MockResponse().setBody(record1));
+    server.enqueue(new MockResponse().setBody(deleteResourceRecordResponse));
+    server.enqueue(new MockResponse().setBody(getLoadBalancingPoolsByZoneResponseAbsent));
+    server.enqueue(new MockResponse().setBody(poolsForAandAAAA));
+    server.enqueue(new MockResponse().setBody(getRRPoolRecordsResponseAbsent));
+    server.enqueue(new MockResponse().setBody(deleteLBPoolResponse));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("denominator.io.");
+    api.deleteByNameAndType("www.denominator.io.", "A");
+
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeA);
+    server.assertSoapBody(deleteResourceRecord);
+    server.assertSoapBody(getLoadBalancingPoolsByZone);
+    server.assertSoapBody(getLoadBalancingPoolsByZone);
+    server.assertSoapBody(getRRPoolRecords.replace("000000000000002", "1111A"));
+    server.assertSoapBody(deleteLBPool.replace("AAAAAAAAAAAAAAAA", "1111A"));
+  }
+
+  @Test
+  public void updateFailsWhenPoolIsDeletedSinceIndexed() throws Exception {
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("A pool for www.denominator.io. not found in zone denominator.io.");
+
+    server.enqueue(new MockResponse().setBody(record1));
+    server.enqueue(new MockResponse().setBody(poolsForAandAAAA));
+    server.enqueueError(POOL_NOT_FOUND, "Pool does not exist in the system");
+    server.enqueue(new MockResponse().setBody(getLoadBalancingPoolsByZoneResponseAbsent));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("denominator.io.");
+    api.put(a("www.denominator.io.", 4000, "192.0.2.1"));
+  }
+
   @Test
   public void putSecondAAddsRecordToExistingPool() throws Exception {
     server.enqueue(new MockResponse().setBody(record1));
@@ -244,4 +350,51 @@ public class UltraDNSResourceRecordSetApiMockTest {
         format(addRecordToRRPoolTemplate, "1111AAAA", "2001:0DB8:85A3:0000:0000:8A2E:0370:7334",
                "28", 3600));
   }
+
+  @Test
+  public void reusesIndexOfRoundRobinPools() throws Exception {
+    server.enqueue(new MockResponse().setBody(getResourceRecordsOfZoneResponseAbsent));
+    server.enqueueError(POOL_ALREADY_EXISTS,
+                        "Pool already created for this host name : www.denominator.io.");
+    server.enqueue(new MockResponse().setBody(poolsForAandAAAA));
+    server.enqueue(
+        new MockResponse().setBody(format(addRecordToRRPoolResponseTemplate, "AAAAAAAAAAAA")));
+    server.enqueue(new MockResponse().setBody(getResourceRecordsOfZoneResponseAbsent));
+    server.enqueueError(POOL_ALREADY_EXISTS,
+                        "Pool already created for this host name : www.denominator.io.");
+    server.enqueue(
+        new MockResponse().setBody(format(addRecordToRRPoolResponseTemplate, "BBBBBBBBBBBB")));
+
+    DNSApi dnsApi = server.connect().api();
+    dnsApi.basicRecordSetsInZone("denominator.io.")
+        .put(a("www.denominator.io.", 3600, "192.0.2.1"));
+    dnsApi.basicRecordSetsInZone("denominator.io.")
+        .put(aaaa("www.denominator.io.", 3600, "2001:0DB8:85A3:0000:0000:8A2E:0370:7334"));
+
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeA);
+    server.assertSoapBody(format(addRRLBPoolTemplate, "1", "1"));
+    server.assertSoapBody(getLoadBalancingPoolsByZone);
+    server.assertSoapBody(format(addRecordToRRPoolTemplate, "1111A", "192.0.2.1", "1", 3600));
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeAll
+                              .replace("<rrType>0</rrType>", "<rrType>28</rrType>"));
+    server.assertSoapBody(format(addRRLBPoolTemplate, "28", "28"));
+    server.assertSoapBody(
+        format(addRecordToRRPoolTemplate, "1111AAAA", "2001:0DB8:85A3:0000:0000:8A2E:0370:7334",
+               "28", 3600));
+  }
+
+  DNSApi streamRecordsOfZone() {
+    return Denominator.create(server, credentials(server.credentials()), new StreamRecordsOfZone())
+        .api();
+  }
+
+  @Module(complete = false, library = true, overrides = true)
+  static class StreamRecordsOfZone {
+
+    @Provides
+    @Named("streamRecordsOfZone")
+    boolean streamRecordsOfZone() {
+      return true;
+    }
+  }
 }
@@ -11,12 +11,15 @@ import java.util.List;
 import java.util.Map;
 
 import denominator.Credentials;
+import denominator.feign.RequestLimiter;
 import denominator.ultradns.UltraDNS.DirectionalGroup;
 import denominator.ultradns.UltraDNS.DirectionalRecord;
 import denominator.ultradns.UltraDNS.NameAndType;
 import denominator.ultradns.UltraDNS.NetworkStatus;
 import denominator.ultradns.UltraDNS.Record;
+import feign.Client;
 import feign.Feign;
+import feign.Retryer;
 import feign.codec.DecodeException;
 
 import static denominator.assertj.ModelAssertions.assertThat;
@@ -673,7 +676,9 @@ public class UltraDNSTest {
 
   UltraDNS mockApi() {
     UltraDNSProvider.FeignModule module = new UltraDNSProvider.FeignModule();
-    Feign feign = module.feign(module.logger(), module.logLevel());
+    Feign feign =
+        module.feign(module.logger(), module.logLevel(), new Client.Default(null, null),
+                     new Retryer.Default(), new RequestLimiter());
     return feign.newInstance(new UltraDNSTarget(new UltraDNSProvider() {
       @Override
       public String url() {